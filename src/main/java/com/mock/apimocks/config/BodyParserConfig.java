@@ -0,0 +1,32 @@
+package com.mock.apimocks.config;
+
+import com.mock.apimocks.mechanism.RequestBodyParser;
+import com.mock.apimocks.mechanism.XmlBodyParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BodyParserConfig {
+    private final boolean stripNamespaces;
+    private final boolean attributesAsFields;
+    private final int maxDepth;
+
+    public BodyParserConfig(@Value("${mocks.body.xml.strip-namespaces}") String stripNamespaces,
+                            @Value("${mocks.body.xml.attributes}") String attributesAsFields,
+                            @Value("${mocks.body.xml.max-depth}") String maxDepth) {
+        this.stripNamespaces = Boolean.parseBoolean(stripNamespaces);
+        this.attributesAsFields = Boolean.parseBoolean(attributesAsFields);
+        this.maxDepth = Integer.parseInt(maxDepth);
+    }
+
+    @Bean
+    public XmlBodyParser xmlBodyParser() {
+        return new XmlBodyParser(this.stripNamespaces, this.attributesAsFields, this.maxDepth);
+    }
+
+    @Bean
+    public RequestBodyParser requestBodyParser(XmlBodyParser xmlBodyParser) {
+        return new RequestBodyParser(xmlBodyParser);
+    }
+}
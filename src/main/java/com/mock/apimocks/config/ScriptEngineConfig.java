@@ -0,0 +1,61 @@
+package com.mock.apimocks.config;
+
+import com.mock.apimocks.enums.ConditionEngine;
+import com.mock.apimocks.enums.ConditionEvaluation;
+import com.mock.apimocks.mechanism.ConditionEvaluator;
+import com.mock.apimocks.mechanism.ConditionMemoization;
+import com.mock.apimocks.mechanism.ConditionWatchdog;
+import com.mock.apimocks.mechanism.ScriptEnginePool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ScriptEngineConfig {
+    private final ConditionEngine engine;
+    private final int maxSize;
+    private final long borrowTimeout;
+    private final ConditionEvaluation evaluation;
+    private final long scenarioBudget;
+    private final long requestBudget;
+    private final int memoSize;
+
+    public ScriptEngineConfig(@Value("${mocks.conditions.engine}") ConditionEngine engine,
+                              @Value("${mocks.conditions.engines.max-size}") String maxSize,
+                              @Value("${mocks.conditions.engines.borrow-timeout}") String borrowTimeout,
+                              @Value("${mocks.conditions.evaluation}") ConditionEvaluation evaluation,
+                              @Value("${mocks.conditions.budget.scenario}") String scenarioBudget,
+                              @Value("${mocks.conditions.budget.request}") String requestBudget,
+                              @Value("${mocks.conditions.memo.max-size}") String memoSize) {
+        this.engine = engine;
+        this.maxSize = Integer.parseInt(maxSize);
+        this.borrowTimeout = Long.parseLong(borrowTimeout);
+        this.evaluation = evaluation;
+        this.scenarioBudget = Long.parseLong(scenarioBudget);
+        this.requestBudget = Long.parseLong(requestBudget);
+        this.memoSize = Integer.parseInt(memoSize);
+    }
+
+    @Bean
+    public ScriptEnginePool scriptEnginePool() {
+        return new ScriptEnginePool(this.engine, this.maxSize, this.borrowTimeout);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ConditionWatchdog conditionWatchdog() {
+        // every evaluation holds a pooled engine, so there's no need for more evaluators than engines
+        return new ConditionWatchdog(this.maxSize, this.scenarioBudget, this.requestBudget);
+    }
+
+    @Bean
+    public ConditionMemoization conditionMemoization() {
+        return new ConditionMemoization(this.memoSize);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ConditionEvaluator conditionEvaluator(ScriptEnginePool scriptEnginePool,
+                                                 ConditionWatchdog conditionWatchdog,
+                                                 ConditionMemoization conditionMemoization) {
+        return new ConditionEvaluator(scriptEnginePool, conditionWatchdog, this.evaluation, conditionMemoization);
+    }
+}
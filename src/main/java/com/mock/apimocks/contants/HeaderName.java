@@ -4,4 +4,5 @@ public class HeaderName {
     private HeaderName() {}
 
     public static final String CONTENT_TYPE = "Content-Type";
+    public static final String CONTENT_ENCODING = "Content-Encoding";
 }
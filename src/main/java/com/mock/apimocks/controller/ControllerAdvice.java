@@ -99,6 +99,32 @@ public class ControllerAdvice {
         return new ErrorMessage(ex);
     }
 
+    /**
+     * Handles the {@link PayloadTooLargeException} exception with a Payload Too Large response.
+     *
+     * @param ex The exception to be handled
+     * @return a {@link ErrorMessage} object with the error response body
+     */
+    @ExceptionHandler(PayloadTooLargeException.class)
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    @ResponseBody
+    public ErrorMessage payloadTooLarge(PayloadTooLargeException ex) {
+        return new ErrorMessage(ex);
+    }
+
+    /**
+     * Handles the {@link UnsupportedMediaTypeException} exception with an Unsupported Media Type response.
+     *
+     * @param ex The exception to be handled
+     * @return a {@link ErrorMessage} object with the error response body
+     */
+    @ExceptionHandler(UnsupportedMediaTypeException.class)
+    @ResponseStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+    @ResponseBody
+    public ErrorMessage unsupportedMediaType(UnsupportedMediaTypeException ex) {
+        return new ErrorMessage(ex);
+    }
+
     /**
      * Handles the whatever Exceptions left as an Internal Server Error.
      * <p>
@@ -2,11 +2,16 @@ package com.mock.apimocks.controller;
 
 import com.mock.apimocks.contants.HeaderName;
 import com.mock.apimocks.enums.ContentType;
+import com.mock.apimocks.exception.ResourceNotFoundException;
 import com.mock.apimocks.models.vo.MockScenario;
 import com.mock.apimocks.service.MockService;
+import com.mock.apimocks.mechanism.BodySelection;
+import com.mock.apimocks.mechanism.RequestBody;
 import com.mock.apimocks.mechanism.RequestBodyParser;
+import com.mock.apimocks.mechanism.StaticResponseIndex;
 import com.mock.apimocks.models.CallContext;
-import org.springframework.http.HttpHeaders;
+import com.mock.apimocks.models.OperationMatch;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,6 +20,7 @@ import javax.servlet.http.HttpServletRequest;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -34,6 +40,8 @@ import static org.springframework.web.bind.annotation.RequestMethod.*;
 public class DispatcherController {
     // Service definitions
     private final MockService mockService;
+    private final RequestBodyParser bodyParser;
+    private final long maxBodySize;
 
     /**
      * Default class constructor.
@@ -41,9 +49,14 @@ public class DispatcherController {
      * Used for dependency injections
      *
      * @param mockService the mock service object
+     * @param bodyParser  the request body parser object
+     * @param maxBodySize the maximum size of the request bodies, in bytes, after they are decompressed
      */
-    public DispatcherController(MockService mockService) {
+    public DispatcherController(MockService mockService, RequestBodyParser bodyParser,
+                                @Value("${mocks.body.max-size}") long maxBodySize) {
         this.mockService = mockService;
+        this.bodyParser = bodyParser;
+        this.maxBodySize = maxBodySize;
     }
 
     /**
@@ -58,58 +71,58 @@ public class DispatcherController {
      */
     @RequestMapping(method = {GET, POST, PUT, PATCH, DELETE}, path = "/**")
     public ResponseEntity<?> wildcardApiCall(HttpServletRequest request) throws IOException {
+        // static operations always have the same response, so there's no need to build the call context
+        Optional<ResponseEntity<String>> staticResponse =
+                mockService.getStaticResponse(request.getMethod(), request.getServletPath());
+        if (staticResponse.isPresent()) {
+            return staticResponse.get();
+        }
+
+        // routing the request only once, the same match selects the body parts and the response scenario
+        // requests that don't belong to any operation are rejected before their bodies are even read
+        OperationMatch operation = mockService.findOperation(request.getMethod(), request.getServletPath())
+                .orElseThrow(() -> new ResourceNotFoundException("Operation Not Found"));
+
         // creating call context, so we can get the correct response scenario
-        CallContext context = createContext(request);
+        // the conditions of the operation may read just a few properties of a large JSON body
+        ContentType contentType = ContentType.get(request.getHeader(HeaderName.CONTENT_TYPE))
+                .orElse(ContentType.PLAIN_TEXT);
+        BodySelection selection = contentType == ContentType.JSON ? operation.getBodySelection() : BodySelection.ALL;
+        CallContext context = createContext(request, contentType, selection);
 
         // getting the mock scenario based on the ongoing call context
-        MockScenario scenario = mockService.getScenario(context);
+        MockScenario scenario = mockService.getScenario(context, operation);
 
         // building the response based on the scenario
-        return ResponseEntity
-                .status(scenario.getHttpCode())
-                .headers(buildHttpHeaders(scenario))
-                .body(scenario.getBody());
-    }
-
-    /**
-     * Building the {@link HttpHeaders} object with the response headers
-     *
-     * @param scenario the mock scenario with the headers
-     * @return a {@link HttpHeaders} object with the response headers
-     */
-    private HttpHeaders buildHttpHeaders(MockScenario scenario) {
-        HttpHeaders headers = new HttpHeaders();
-        if(scenario.getHeaders() != null) {
-            headers.setAll(scenario.getHeaders());
-        }
-        if (scenario.getContentType() != null) {
-            headers.add(HeaderName.CONTENT_TYPE, scenario.getContentType().mime());
-        }
-        return headers;
+        return StaticResponseIndex.toResponse(scenario);
     }
 
     /**
      * Creating call context with the request information
      *
-     * @param request the HTTP request object
+     * @param request     the HTTP request object
+     * @param contentType the content type of the request body
+     * @param selection   the parts of the request body that should be parsed
      * @return a {@link CallContext} object with the context
      * @throws IOException whenever the request was invalid
      */
-    private CallContext createContext(HttpServletRequest request) throws IOException {
-        // getting Content-Type
-        String contentTypeHeader = request.getHeader(HeaderName.CONTENT_TYPE);
-        ContentType contentType = ContentType.get(contentTypeHeader).orElse(ContentType.PLAIN_TEXT);
-
-        // getting request body
-        String body = request.getReader().lines().collect(Collectors.joining(System.lineSeparator()));
+    private CallContext createContext(HttpServletRequest request, ContentType contentType, BodySelection selection)
+            throws IOException {
+        // getting request body, its bytes are parsed straight from the buffer, which is reused by the next requests
+        // only the parsers that need it decode the body into a String
+        Object parsedBody;
+        try (RequestBody captured = RequestBody.capture(request.getInputStream(),
+                request.getHeader(HeaderName.CONTENT_ENCODING), request.getCharacterEncoding(),
+                request.getContentLengthLong(), maxBodySize)) {
+            parsedBody = bodyParser.parseBody(captured, contentType, selection);
+        }
 
         // populating context
         return CallContext.builder()
                 .url(request.getServletPath())
                 .method(request.getMethod())
                 .contentType(contentType)
-                .body(body)
-                .parsedBody(RequestBodyParser.parseBody(body, contentType))
+                .parsedBody(parsedBody)
                 .headers(Collections.list(request.getHeaderNames())
                         .stream().collect(Collectors.toMap(Function.identity(), request::getHeader)))
                 .queryParams(Collections.list(request.getParameterNames())
@@ -1,5 +1,6 @@
 package com.mock.apimocks.controller;
 
+import com.mock.apimocks.mechanism.ConditionEvaluator;
 import com.mock.apimocks.models.ErrorMessage;
 import com.mock.apimocks.models.NoResponse;
 import com.mock.apimocks.models.vo.MockApi;
@@ -30,6 +31,7 @@ import static org.springframework.web.bind.annotation.RequestMethod.*;
 public class MockController {
     // Service definitions
     private final MockService mockService;
+    private final ConditionEvaluator evaluator;
 
     /**
      * Default class constructor.
@@ -37,9 +39,11 @@ public class MockController {
      * Used for dependency injections
      *
      * @param mockService the mock service object
+     * @param evaluator   the condition evaluator object
      */
-    public MockController(MockService mockService) {
+    public MockController(MockService mockService, ConditionEvaluator evaluator) {
         this.mockService = mockService;
+        this.evaluator = evaluator;
     }
 
     /**
@@ -91,7 +95,7 @@ public class MockController {
             @ApiResponse(code = 404, message = "Mock not found", response = ErrorMessage.class),
             @ApiResponse(code = 422, message = "Unprocessable Entity", response = ErrorMessage.class)})
     public ResponseEntity<?> createMock(@RequestBody @Valid MockApi mock) {
-        MockRequestValidator.validate(mock);
+        MockRequestValidator.validate(mock, evaluator);
         String id = mockService.createMock(mock);
         return ResponseEntity.created(URI.create("/mocks/" + id)).build();
     }
@@ -112,7 +116,7 @@ public class MockController {
             @ApiResponse(code = 404, message = "Mock not found", response = ErrorMessage.class),
             @ApiResponse(code = 422, message = "Unprocessable Entity", response = ErrorMessage.class)})
     public ResponseEntity<?> updateMock(@ApiParam(value = "Mock's Identifier", required = true) @PathVariable("id") String id, @RequestBody @Valid MockApi mock) {
-        MockRequestValidator.validate(mock);
+        MockRequestValidator.validate(mock, evaluator);
         mock.setId(id);
         mockService.updateMock(mock);
         return ResponseEntity.noContent().build();
@@ -0,0 +1,44 @@
+package com.mock.apimocks.enums;
+
+import com.mock.apimocks.mechanism.ConditionScriptEngine;
+import com.mock.apimocks.mechanism.GraalConditionEngine;
+import com.mock.apimocks.mechanism.NashornConditionEngine;
+
+import java.util.function.Supplier;
+
+/**
+ * This enum represents the engine which evaluates a scenario condition.
+ * <p/>
+ * Currently, this project supports three kinds of engines:
+ * <ul>
+ *     <li>NATIVE (conditions compiled into Java expressions, see
+ *     {@link com.mock.apimocks.mechanism.condition.ConditionParser})</li>
+ *     <li>NASHORN (conditions compiled by the JavaScript engine shipped with the JDK, used whenever the condition is
+ *     not supported natively)</li>
+ *     <li>GRAALJS (conditions compiled by the GraalJS polyglot engine, which may replace Nashorn)</li>
+ * </ul>
+ * The script engine used by the conditions which are not supported natively is chosen through the
+ * <i>mocks.conditions.engine</i> property.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public enum ConditionEngine {
+    NATIVE(null), NASHORN(NashornConditionEngine::new), GRAALJS(GraalConditionEngine::new);
+
+    private Supplier<ConditionScriptEngine> factory;
+    ConditionEngine(Supplier<ConditionScriptEngine> factory) {
+        this.factory = factory;
+    }
+
+    public boolean isScriptEngine() {
+        return factory != null;
+    }
+
+    public ConditionScriptEngine create() {
+        if (factory == null) {
+            throw new IllegalStateException("The " + name() + " engine doesn't evaluate scripts");
+        }
+        return factory.get();
+    }
+}
@@ -0,0 +1,17 @@
+package com.mock.apimocks.enums;
+
+/**
+ * This enum represents how the scenario conditions which depend on the script engines are evaluated.
+ * <p/>
+ * Currently, this project supports two evaluation modes:
+ * <ul>
+ *     <li>OPERATION (a single script per operation, entered once per call)</li>
+ *     <li>SCENARIO (a script per scenario, each one with its own bindings)</li>
+ * </ul>
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public enum ConditionEvaluation {
+    OPERATION, SCENARIO
+}
@@ -0,0 +1,52 @@
+package com.mock.apimocks.enums;
+
+/**
+ * This enum represents the type of a path parameter placeholder.
+ * <p/>
+ * The type is written after the parameter name, separated by a colon (such as <i>{id:int}</i>):
+ * <ul>
+ *     <li>STRING (no type, such as <i>{id}</i>, matches any single segment)</li>
+ *     <li>INT (<i>{id:int}</i>, matches an integer and delivers it as a number)</li>
+ *     <li>UUID (<i>{id:uuid}</i>, matches a UUID on its canonical form)</li>
+ *     <li>PATTERN (any other constraint, such as <i>{id:\d{3}}</i>, matches the segment against the regex)</li>
+ *     <li>CATCH_ALL (<i>{rest:**}</i>, matches all the remaining segments, only allowed at the end of the path)</li>
+ * </ul>
+ * Each type also carries its precedence, so more constrained placeholders are tried before the looser ones.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public enum PathParamType {
+    STRING(null, "[^\\/]+", 1), INT("int", "-?\\d+", 2), UUID("uuid",
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}", 2),
+    PATTERN(null, null, 2), CATCH_ALL("**", ".+", 0);
+
+    private String keyword;
+    private String verifier;
+    private int precedence;
+    PathParamType(String keyword, String verifier, int precedence) {
+        this.keyword = keyword;
+        this.verifier = verifier;
+        this.precedence = precedence;
+    }
+
+    public String verifier() {
+        return this.verifier;
+    }
+
+    public int precedence() {
+        return this.precedence;
+    }
+
+    public static PathParamType of(String constraint) {
+        if (constraint == null || constraint.isEmpty()) {
+            return STRING;
+        }
+        for (PathParamType type : values()) {
+            if (constraint.equals(type.keyword)) {
+                return type;
+            }
+        }
+        return PATTERN;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mock.apimocks.enums;
+
+import com.mock.apimocks.mechanism.RegexRouteMatcher;
+import com.mock.apimocks.mechanism.RouteAutomaton;
+import com.mock.apimocks.mechanism.RouteMatcher;
+import com.mock.apimocks.mechanism.RouteTrie;
+import com.mock.apimocks.models.vo.MockOperation;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * This enum represents the strategy used to route the mocked calls.
+ * <p/>
+ * Currently, this project supports three kinds of routers:
+ * <ul>
+ *     <li>TRIE (segment trie walked once per request)</li>
+ *     <li>AUTOMATON (single automaton built from all the operation verifiers)</li>
+ *     <li>REGEX (each operation verifier tried in turn)</li>
+ * </ul>
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public enum RouterMode {
+    TRIE(RouteTrie::build), AUTOMATON(RouteAutomaton::build), REGEX(RegexRouteMatcher::build);
+
+    private Function<Collection<MockOperation>, RouteMatcher> builder;
+    RouterMode(Function<Collection<MockOperation>, RouteMatcher> builder) {
+        this.builder = builder;
+    }
+
+    public RouteMatcher build(Collection<MockOperation> operations) {
+        return builder.apply(operations);
+    }
+}
@@ -0,0 +1,28 @@
+package com.mock.apimocks.exception;
+
+/**
+ * This class represents a Payload Too Large Http response.
+ * <p/>
+ * It is meant to be thrown whenever the request body was larger than the accepted size.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class PayloadTooLargeException extends RuntimeException implements HttpError {
+    private final String description;
+
+    public PayloadTooLargeException(String description) {
+        super();
+        this.description = description;
+    }
+
+    @Override
+    public String getHttpError() {
+        return "Payload Too Large";
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mock.apimocks.exception;
+
+/**
+ * This class represents an Unsupported Media Type Http response.
+ * <p/>
+ * It is meant to be thrown whenever the request body was encoded in a way that can't be read.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class UnsupportedMediaTypeException extends RuntimeException implements HttpError {
+    private final String description;
+
+    public UnsupportedMediaTypeException(String description) {
+        super();
+        this.description = description;
+    }
+
+    @Override
+    public String getHttpError() {
+        return "Unsupported Media Type";
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+}
@@ -0,0 +1,129 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.contants.ConditionEngineScope;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This class describes the parts of the request body read by the scenario conditions of an operation.
+ * <p/>
+ * The selection is derived from the {@link ConditionInputs} of every condition, as a tree of the property names
+ * read from <i>$body</i>. For instance, the conditions <i>$body.customer.document == '1'</i> and
+ * <i>$body.type == 'PF'</i> only select the <i>document</i> of the <i>customer</i> and the <i>type</i>, so the
+ * rest of the body does not need to be parsed at all, see {@link JsonBodyParser}.
+ * <p/>
+ * Whenever a condition reads the body as a whole, accesses its properties dynamically, such as <i>$body[key]</i>, or
+ * may give different results for the same inputs, the whole body is selected. The same goes for the conditions whose
+ * inputs can't be proven at all, such as <i>this.$body.a</i> or <i>eval('$body.a')</i>, see {@link ConditionInputs}.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class BodySelection {
+    /**
+     * The selection of the whole body
+     */
+    public static final BodySelection ALL = new BodySelection(null);
+
+    private final Node root;
+
+    private BodySelection(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Selecting the parts of the body read by some conditions
+     *
+     * @param conditions the source code of the conditions, which may be null or empty
+     * @return the {@link BodySelection} of the given conditions
+     */
+    public static BodySelection of(Collection<String> conditions) {
+        Node root = new Node();
+        for (String condition : conditions) {
+            if (condition == null || condition.isEmpty()) {
+                continue;
+            }
+            Optional<ConditionInputs> inputs = ConditionInputs.of(condition);
+            if (!inputs.isPresent()) {
+                return ALL;
+            }
+            for (List<String> path : inputs.get().getPaths(ConditionEngineScope.BODY)) {
+                if (path.isEmpty()) {
+                    return ALL;
+                }
+                root.select(path);
+            }
+        }
+        return new BodySelection(root);
+    }
+
+    /**
+     * Checking whether the whole body is selected
+     *
+     * @return true in case the whole body must be parsed
+     */
+    public boolean isAll() {
+        return root == null;
+    }
+
+    /**
+     * Getting the root of the selection tree
+     *
+     * @return the root {@link Node}, or null in case the whole body is selected
+     */
+    Node getRoot() {
+        return root;
+    }
+
+    /**
+     * A selected property, along with the properties selected from its value
+     */
+    static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean whole;
+
+        private void select(List<String> path) {
+            Node node = this;
+            for (String name : path) {
+                if (node.whole) {
+                    return;
+                }
+                node = node.children.computeIfAbsent(name, key -> new Node());
+            }
+            node.whole = true;
+            node.children.clear();
+        }
+
+        /**
+         * Getting a selected property of the value
+         *
+         * @param name the property name
+         * @return the selected {@link Node}, or null in case the property is not selected
+         */
+        Node child(String name) {
+            return children.get(name);
+        }
+
+        /**
+         * Checking whether the whole value is selected
+         *
+         * @return true in case the whole value must be parsed
+         */
+        boolean isWhole() {
+            return whole;
+        }
+
+        /**
+         * Getting the number of selected properties of the value
+         *
+         * @return the number of properties
+         */
+        int size() {
+            return children.size();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.mechanism.condition.ConditionExpression;
+import com.mock.apimocks.mechanism.condition.ConditionParser;
+
+import javax.script.ScriptException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class describes a compiled scenario condition.
+ * <p/>
+ * Whenever possible, the condition is compiled into a native {@link ConditionExpression}, which needs no script
+ * engine at all. Otherwise, it is compiled into {@link ConditionScript}s.
+ * <p/>
+ * A compiled script belongs to the engine that compiled it, so the condition keeps one compiled script per pooled
+ * engine, compiling it the first time it is evaluated by each one of them. Since the {@link ScriptEnginePool} is
+ * bounded, a condition is compiled at most once per engine instead of being parsed again on every call. Its loops
+ * are instrumented by the {@link LoopGuard}, so they stop once the condition exceeds its budget.
+ * <p/>
+ * The outcomes of a scripted condition may also be memoized by a {@link ConditionMemo}, see {@link #memoize()}.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class CompiledCondition {
+    private final String source;
+    private final ConditionExpression expression;
+    private final Map<ConditionScriptEngine, ConditionScript> scripts = new ConcurrentHashMap<>();
+    private volatile ConditionMemo memo;
+
+    /**
+     * Default class constructor
+     * <p/>
+     * Native expressions are compiled right away, while scripts are only compiled when they are evaluated. Use
+     * {@link ConditionEvaluator#compileCondition(String)} in order to compile and validate the scripts beforehand.
+     *
+     * @param source the condition source code
+     */
+    public CompiledCondition(String source) {
+        this.source = source;
+        this.expression = ConditionParser.parse(source).orElse(null);
+    }
+
+    /**
+     * Getting the compiled script of this condition for a given engine, compiling it in case it was not compiled by
+     * the engine yet
+     *
+     * @param engine the engine which will evaluate the condition
+     * @return the {@link ConditionScript} of this condition
+     * @throws ScriptException whenever the condition is not a valid script
+     */
+    ConditionScript compiledBy(ConditionScriptEngine engine) throws ScriptException {
+        ConditionScript script = scripts.get(engine);
+        if (script == null) {
+            script = engine.compile(LoopGuard.instrument(source));
+            scripts.put(engine, script);
+        }
+        return script;
+    }
+
+    /**
+     * Memoizes the outcomes of this condition, in case it is evaluated by the script engines and always gives the
+     * same outcome for the same inputs.
+     * <p/>
+     * Native expressions take less time to be evaluated than their inputs take to be looked up, so they are never
+     * memoized. The memo is created only once, so it is kept whenever the scenarios are indexed again.
+     *
+     * @param memoization the {@link ConditionMemoization} which creates the memo
+     */
+    void memoize(ConditionMemoization memoization) {
+        if (memo == null && expression == null) {
+            memo = memoization.create(source);
+        }
+    }
+
+    /**
+     * Getting the memoized outcomes of this condition
+     *
+     * @return the {@link ConditionMemo}, or null in case its outcomes are not memoized
+     */
+    ConditionMemo getMemo() {
+        return memo;
+    }
+
+    /**
+     * Getting the native expression of this condition
+     *
+     * @return the {@link ConditionExpression}, or null in case the condition is evaluated by the script engines
+     */
+    ConditionExpression getExpression() {
+        return expression;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
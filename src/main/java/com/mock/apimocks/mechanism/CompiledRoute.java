@@ -0,0 +1,93 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.PathParamType;
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This class represents an operation route with its pre-compiled verifier.
+ * <p/>
+ * The verifier is the same expression stored on the RegexOperation search table, that is, the operation's method
+ * followed by its URL verifier. Path parameter values are coerced to the type of their placeholders.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+class CompiledRoute {
+    private final String operationId;
+    private final String expression;
+    private final UrlVerifier verifier;
+    private final PathParam[] params;
+
+    /**
+     * Default class constructor
+     *
+     * @param operation the operation to be compiled
+     */
+    CompiledRoute(MockOperation operation) {
+        String regex = operation.getRegex() != null ? operation.getRegex()
+                : ContextEngine.createUrlVerifier(operation.getFullPath());
+        this.operationId = operation.getId();
+        this.expression = operation.getMethod().name() + regex;
+        this.verifier = ContextEngine.compileVerifier(this.expression);
+        this.params = PathParam.parseAll(operation.getFullPath()).toArray(new PathParam[0]);
+    }
+
+    /**
+     * Matches a method and a sanitized URL against this route, extracting its path parameters on the same run
+     *
+     * @param methodAndUrl the requested method followed by the sanitized URL
+     * @return an {@link Optional} with the {@link RouteMatch}, or an empty one in case the URL does not belong
+     *      to this route
+     */
+    Optional<RouteMatch> match(String methodAndUrl) {
+        return verifier.capture(methodAndUrl).flatMap(this::toMatch);
+    }
+
+    /**
+     * Building the match of a URL that is already known to belong to this route and has no path parameters
+     *
+     * @return a {@link RouteMatch} with no path parameters
+     */
+    RouteMatch matchWithoutParams() {
+        return new RouteMatch(operationId, Collections.emptyMap());
+    }
+
+    boolean hasParams() {
+        return params.length > 0;
+    }
+
+    /**
+     * Building the match from the captured path parameter values.
+     * <p/>
+     * A custom constraint might match across segments on the verifier, so values holding a slash are only accepted
+     * by catch-all placeholders, the same way the {@link RouteTrie} does.
+     *
+     * @param values the raw path parameter values ordered by occurrences
+     * @return an {@link Optional} with the {@link RouteMatch}, or an empty one in case some value was rejected
+     */
+    private Optional<RouteMatch> toMatch(String[] values) {
+        int paramCount = Math.min(values.length, params.length);
+        Map<String, Object> pathParams = new HashMap<>(Math.max(4, paramCount * 2));
+        for (int i = 0; i < paramCount; i++) {
+            if (params[i].getType() != PathParamType.CATCH_ALL && values[i].indexOf('/') >= 0) {
+                return Optional.empty();
+            }
+            pathParams.put(params[i].getName(), params[i].coerce(values[i]));
+        }
+        return Optional.of(new RouteMatch(operationId, pathParams));
+    }
+
+    String getOperationId() {
+        return operationId;
+    }
+
+    String getExpression() {
+        return expression;
+    }
+}
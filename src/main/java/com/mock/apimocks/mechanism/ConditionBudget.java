@@ -0,0 +1,107 @@
+package com.mock.apimocks.mechanism;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * This class describes the time budget of the scenario conditions evaluated for a single request.
+ * <p/>
+ * Each scenario gets its own budget, which never goes beyond the budget of the whole request. The budget is bound to
+ * the script context, and the loops of the conditions are instrumented by the {@link LoopGuard} to call
+ * {@link #check()} on every iteration, so a runaway condition is stopped as soon as it exceeds its budget or its
+ * evaluator thread is interrupted.
+ * <p/>
+ * The budget is used by the evaluator thread while the request thread waits for it, so the scenarios that exceeded
+ * their budgets can be read from both.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class ConditionBudget {
+    /**
+     * The binding which holds the budget on the script context
+     */
+    public static final String BINDING = "__conditionBudget";
+
+    private final long scenarioBudgetNanos;
+    private final long requestDeadline;
+    private final Queue<Integer> exceeded = new ConcurrentLinkedQueue<>();
+    private volatile int current = -1;
+    private volatile long deadline;
+
+    /**
+     * Default class constructor
+     *
+     * @param scenarioBudgetNanos the budget of each scenario, in nanoseconds
+     * @param requestDeadline     the {@link System#nanoTime()} at which the request budget is exhausted
+     */
+    ConditionBudget(long scenarioBudgetNanos, long requestDeadline) {
+        this.scenarioBudgetNanos = scenarioBudgetNanos;
+        this.requestDeadline = requestDeadline;
+        this.deadline = requestDeadline;
+    }
+
+    /**
+     * Starts the budget of the next scenario to be evaluated
+     *
+     * @param rank the rank of the scenario
+     * @return true in case there's still time left to evaluate it, false otherwise
+     */
+    public boolean next(int rank) {
+        long now = System.nanoTime();
+        current = rank;
+        deadline = requestDeadline - now < scenarioBudgetNanos ? requestDeadline : now + scenarioBudgetNanos;
+        return deadline - now > 0 && !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Checks whether the current scenario is still within its budget
+     *
+     * @return always true, so the check can be chained with loop conditions
+     * @throws ConditionTimeoutException whenever the budget is exceeded or the evaluation was interrupted
+     */
+    public boolean check() {
+        if (System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted()) {
+            if (!exceeded.contains(current)) {
+                exceeded.add(current);
+            }
+            throw new ConditionTimeoutException("The condition exceeded its evaluation budget");
+        }
+        return true;
+    }
+
+    /**
+     * Getting the deadline of the current scenario
+     *
+     * @return the {@link System#nanoTime()} at which the current scenario budget is exhausted
+     */
+    long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Getting the deadline of the whole request
+     *
+     * @return the {@link System#nanoTime()} at which the request budget is exhausted
+     */
+    long getRequestDeadline() {
+        return requestDeadline;
+    }
+
+    /**
+     * Getting the ranks of the scenarios that exceeded their budgets, including the current one in case the
+     * evaluation was abandoned
+     *
+     * @param abandoned whether the evaluation was abandoned while it was still running
+     * @return the scenario ranks
+     */
+    List<Integer> exceeded(boolean abandoned) {
+        List<Integer> ranks = new ArrayList<>(exceeded);
+        if (abandoned && !ranks.contains(current)) {
+            ranks.add(current);
+        }
+        return ranks;
+    }
+}
@@ -0,0 +1,432 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.contants.ConditionEngineScope;
+import com.mock.apimocks.enums.ConditionEngine;
+import com.mock.apimocks.enums.ConditionEvaluation;
+import com.mock.apimocks.mechanism.condition.ConditionExpression;
+import com.mock.apimocks.mechanism.condition.ConditionParser;
+import com.mock.apimocks.mechanism.condition.UnsupportedConditionException;
+import com.mock.apimocks.models.CallContext;
+
+import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.function.IntFunction;
+
+/**
+ * This class describes the evaluator of the scenario conditions.
+ * <p/>
+ * It compiles and evaluates the conditions with the collaborators configured for the application: the
+ * {@link ScriptEnginePool} which lends the script engines, the {@link ConditionWatchdog} which bounds the time spent
+ * on them, the {@link ConditionEvaluation} mode and the {@link ConditionMemoization} of their outcomes.
+ * <p/>
+ * The evaluator is created by the application configuration and handed to whoever compiles or evaluates conditions,
+ * so each Spring context (and each test) has its own collaborators, which are released by {@link #shutdown()}.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class ConditionEvaluator {
+    private static final int SINGLE_CONDITION = 0;
+
+    private final ScriptEnginePool enginePool;
+    private final ConditionWatchdog watchdog;
+    private final ConditionEvaluation evaluation;
+    private final ConditionMemoization memoization;
+
+    /**
+     * Default class constructor
+     *
+     * @param enginePool  the {@link ScriptEnginePool} which lends the engines evaluating the scripted conditions
+     * @param watchdog    the {@link ConditionWatchdog} which bounds the time spent evaluating them
+     * @param evaluation  the {@link ConditionEvaluation} mode of the scripted conditions
+     * @param memoization the {@link ConditionMemoization} of their outcomes
+     */
+    public ConditionEvaluator(ScriptEnginePool enginePool, ConditionWatchdog watchdog, ConditionEvaluation evaluation,
+                              ConditionMemoization memoization) {
+        this.enginePool = enginePool;
+        this.watchdog = watchdog;
+        this.evaluation = evaluation;
+        this.memoization = memoization;
+    }
+
+    /**
+     * Getting the kind of script engine which evaluates the conditions that are not supported natively
+     *
+     * @return the {@link ConditionEngine} of the {@link ScriptEnginePool}
+     */
+    public ConditionEngine getScriptEngine() {
+        return enginePool.getEngine();
+    }
+
+    /**
+     * Getting the engine which evaluates a compiled condition
+     *
+     * @param condition the compiled condition
+     * @return {@link ConditionEngine#NATIVE} in case the condition was compiled into a native expression, or the
+     *      engine of the {@link ScriptEnginePool} otherwise
+     */
+    public ConditionEngine getEngine(CompiledCondition condition) {
+        return condition.getExpression() != null ? ConditionEngine.NATIVE : getScriptEngine();
+    }
+
+    /**
+     * Getting the watchdog which bounds the time spent evaluating conditions by the script engines
+     *
+     * @return the {@link ConditionWatchdog}
+     */
+    public ConditionWatchdog getWatchdog() {
+        return watchdog;
+    }
+
+    /**
+     * Starting the condition budget of a new request
+     *
+     * @return the {@link System#nanoTime()} at which the request budget is exhausted
+     */
+    public long requestDeadline() {
+        return watchdog.requestDeadline();
+    }
+
+    /**
+     * Getting the mode used to evaluate the conditions which depend on the script engines
+     *
+     * @return the {@link ConditionEvaluation}
+     */
+    public ConditionEvaluation getEvaluation() {
+        return evaluation;
+    }
+
+    /**
+     * Getting the memoization of the conditions evaluated by the script engines
+     *
+     * @return the {@link ConditionMemoization}
+     */
+    public ConditionMemoization getMemoization() {
+        return memoization;
+    }
+
+    /**
+     * Stops the {@link ConditionWatchdog} evaluators, interrupting the evaluations still running
+     */
+    public void shutdown() {
+        watchdog.shutdown();
+    }
+
+    /**
+     * Evaluate a given condition based on a call context.
+     * <p/>
+     * The condition is evaluated by a warm engine borrowed from the {@link ScriptEnginePool}, within a brand new
+     * script context, so no variables are shared between evaluations. The evaluation is bounded by the
+     * {@link ConditionWatchdog}, and a condition that exceeds its budget is handled as a miss.
+     *
+     * @param context the call context with the request variables
+     * @param condition the condition to be evaluated
+     * @return a flag with the valuation result
+     */
+    public boolean evaluateCondition(CallContext context, String condition) {
+        boolean isValid = false;
+        try {
+            isValid = (boolean) evaluate(engine -> engine.compile(LoopGuard.instrument(condition)),
+                    context, rank -> condition, watchdog.budget(watchdog.requestDeadline()), null);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch(Exception ex) {
+            // At this point is irrelevant if the condition fails, and so,
+            // we must handle any evaluation errors as a miss
+            // and so, we must simply bury this exception
+        }
+        return isValid;
+    }
+
+    /**
+     * Compiles a given condition, so it is not parsed again on every evaluation.
+     * <p/>
+     * Conditions supported by the {@link ConditionParser} are compiled into native expressions. The other ones are
+     * compiled right away by one of the pooled engines, so invalid conditions are rejected beforehand.
+     *
+     * @param condition the condition to be compiled
+     * @return a {@link CompiledCondition} to be evaluated through {@link #evaluateCondition(CallContext,
+     *      CompiledCondition)}
+     * @throws ScriptException whenever the condition is not a valid script
+     */
+    public CompiledCondition compileCondition(String condition) throws ScriptException {
+        CompiledCondition compiled = new CompiledCondition(condition);
+        if (compiled.getExpression() != null) {
+            return compiled;
+        }
+
+        ConditionScriptEngine engine = null;
+        try {
+            engine = enginePool.borrow();
+            compiled.compiledBy(engine);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (engine != null) {
+                enginePool.release(engine);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Evaluate a given compiled condition based on a call context, within a brand new request budget
+     *
+     * @param context the call context with the request variables
+     * @param condition the compiled condition to be evaluated
+     * @return a flag with the valuation result
+     * @see #evaluateCondition(CallContext, CompiledCondition, long)
+     */
+    public boolean evaluateCondition(CallContext context, CompiledCondition condition) {
+        return evaluateCondition(context, condition, watchdog.requestDeadline());
+    }
+
+    /**
+     * Evaluate a given compiled condition based on a call context.
+     * <p/>
+     * Native expressions are evaluated right away, unless they find request values they can't handle. Otherwise,
+     * just like {@link #evaluateCondition(CallContext, String)}, the condition is evaluated by a pooled engine
+     * within a brand new script context, and it is handled as a miss in case it exceeds its budget.
+     * <p/>
+     * Whenever the outcomes of the condition are memoized, the condition is only evaluated in case its outcome for
+     * the request inputs is not known yet. The outcomes of the evaluations that exceeded their budgets or failed to
+     * get an engine are never memoized.
+     *
+     * @param context the call context with the request variables
+     * @param condition the compiled condition to be evaluated
+     * @param requestDeadline the deadline of the request, returned by {@link #requestDeadline()}
+     * @return a flag with the valuation result
+     */
+    public boolean evaluateCondition(CallContext context, CompiledCondition condition, long requestDeadline) {
+        ConditionExpression expression = condition.getExpression();
+        if (expression != null) {
+            try {
+                return expression.test(context);
+            } catch(UnsupportedConditionException ex) {
+                // the request values can't be handled natively, so the script engine must evaluate it
+            } catch(RuntimeException ex) {
+                // just like on the script engines, evaluation errors are handled as a miss
+                return false;
+            }
+        }
+
+        ConditionMemo memo = condition.getMemo();
+        List<Object> key = memo != null ? memo.key(context) : null;
+        Boolean memoized = memo != null ? memo.get(key) : null;
+        if (memoized != null) {
+            return memoized;
+        }
+
+        boolean isValid = false;
+        boolean completed = false;
+        ConditionBudget budget = watchdog.budget(requestDeadline);
+        try {
+            Object result = evaluate(condition::compiledBy, context, rank -> condition.getSource(), budget, null);
+            completed = true;
+            isValid = (boolean) result;
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch(ScriptException ex) {
+            // the condition itself failed, so it fails the same way for the same inputs
+            completed = true;
+        } catch(Exception ex) {
+            // just like the interpreted conditions, evaluation errors are handled as a miss
+        }
+        if (memo != null && completed && budget.exceeded(false).isEmpty()) {
+            memo.put(key, isValid);
+        }
+        return isValid;
+    }
+
+    /**
+     * Compiles the conditions of several scenarios into a single {@link ScenarioScript}.
+     * <p/>
+     * The script is compiled right away by one of the pooled engines, so conditions which are not valid expressions
+     * are rejected beforehand.
+     *
+     * @param conditions the scenario conditions, indexed by their ranks
+     * @return the {@link ScenarioScript}
+     * @throws ScriptException whenever any of the conditions is not a valid expression
+     */
+    public ScenarioScript compileScenarioScript(Map<Integer, String> conditions) throws ScriptException {
+        ScenarioScript script = new ScenarioScript(conditions);
+        ConditionScriptEngine engine = null;
+        try {
+            engine = enginePool.borrow();
+            script.compiledBy(engine);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (engine != null) {
+                enginePool.release(engine);
+            }
+        }
+        return script;
+    }
+
+    /**
+     * Evaluates the conditions of several scenarios through a single script invocation, within a brand new request
+     * budget
+     *
+     * @param context the call context with the request variables
+     * @param script  the compiled script of the operation conditions
+     * @param ranks   the ranks of the scenarios to be evaluated, in order
+     * @return an {@link OptionalInt} with the rank of the first fulfilled scenario, or -1 in case there's none
+     * @see #evaluateFirst(CallContext, ScenarioScript, int[], long)
+     */
+    public OptionalInt evaluateFirst(CallContext context, ScenarioScript script, int[] ranks) {
+        return evaluateFirst(context, script, ranks, watchdog.requestDeadline());
+    }
+
+    /**
+     * Evaluates the conditions of several scenarios through a single script invocation, binding the request
+     * variables only once.
+     * <p/>
+     * Each scenario gets its own budget, and the scenarios that exceed it are handled as misses. Once the request
+     * budget is exhausted, the remaining scenarios are handled as misses as well.
+     * <p/>
+     * The scenarios whose outcomes are memoized for the request inputs are not evaluated by the script at all, and
+     * the outcomes of the evaluated ones are memoized, unless some scenario exceeded its budget.
+     *
+     * @param context the call context with the request variables
+     * @param script  the compiled script of the operation conditions
+     * @param ranks   the ranks of the scenarios to be evaluated, in order
+     * @param requestDeadline the deadline of the request, returned by {@link #requestDeadline()}
+     * @return an {@link OptionalInt} with the rank of the first fulfilled scenario, or -1 in case there's none. It
+     *      is empty in case the script itself could not be evaluated
+     */
+    public OptionalInt evaluateFirst(CallContext context, ScenarioScript script, int[] ranks,
+                                     long requestDeadline) {
+        // looking the memoized outcomes up, so only the unknown ones before the first fulfilled scenario are left
+        int[] pending = new int[ranks.length];
+        List<List<Object>> keys = new ArrayList<>(ranks.length);
+        int size = 0;
+        int memoized = -1;
+        for (int rank : ranks) {
+            ConditionMemo memo = script.getMemo(rank);
+            List<Object> key = memo != null ? memo.key(context) : null;
+            Boolean outcome = memo != null ? memo.get(key) : null;
+            if (outcome == null) {
+                pending[size++] = rank;
+                keys.add(key);
+            } else if (outcome) {
+                memoized = rank;
+                break;
+            }
+        }
+        if (size == 0) {
+            return OptionalInt.of(memoized);
+        }
+
+        ConditionBudget budget = watchdog.budget(requestDeadline);
+        try {
+            int first = ((Number) evaluate(script::compiledBy, context, script::getCondition, budget,
+                    Arrays.copyOf(pending, size))).intValue();
+            if (budget.exceeded(false).isEmpty()) {
+                for (int i = 0; i < size && (i == 0 || pending[i - 1] != first); i++) {
+                    ConditionMemo memo = script.getMemo(pending[i]);
+                    if (memo != null) {
+                        memo.put(keys.get(i), pending[i] == first);
+                    }
+                }
+            }
+            return OptionalInt.of(first >= 0 ? first : memoized);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch(ConditionTimeoutException ex) {
+            // the scenarios that were not evaluated within the request budget are misses
+            return OptionalInt.of(memoized);
+        } catch(Exception ex) {
+            // the conditions must be evaluated one by one
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Evaluates a compiled script by a pooled engine on one of the {@link ConditionWatchdog} evaluators.
+     * <p/>
+     * The engine is borrowed and the script is compiled on the request thread, so only the evaluation itself counts
+     * towards the budget. The engine is given back to the pool as soon as the evaluation finishes, even in case the
+     * request thread stopped waiting for it.
+     *
+     * @param compiler        compiles the script for the borrowed engine
+     * @param context         the call context with the request variables
+     * @param conditions      gives the source code of the conditions by their ranks, in order to log the ones that
+     *                        exceed their budgets
+     * @param budget          the budget of the evaluation, created by the {@link ConditionWatchdog}
+     * @param ranks           the ranks of the scenarios evaluated by a {@link ScenarioScript}, or null in case a
+     *                        single condition is evaluated
+     * @return the evaluation result
+     * @throws ConditionTimeoutException whenever the request thread stopped waiting for the evaluation
+     * @throws Exception                 whenever the script could not be compiled or evaluated
+     */
+    private Object evaluate(ScriptCompiler compiler, CallContext context, IntFunction<String> conditions,
+                            ConditionBudget budget, int[] ranks) throws Exception {
+        if (ranks == null && !budget.next(SINGLE_CONDITION)) {
+            throw new ConditionTimeoutException("The request budget is exhausted");
+        }
+
+        ConditionScriptEngine engine = enginePool.borrow();
+        boolean abandoned = false;
+        try {
+            ConditionScript script;
+            try {
+                script = compiler.compile(engine);
+            } catch(Exception ex) {
+                enginePool.release(engine);
+                throw ex;
+            }
+            Map<String, Object> bindings = createBindings(context);
+            bindings.put(ConditionBudget.BINDING, budget);
+            if (ranks != null) {
+                bindings.put(ScenarioScript.RANKS, ranks);
+            }
+
+            return watchdog.execute(() -> {
+                try {
+                    return script.eval(bindings);
+                } finally {
+                    enginePool.release(engine);
+                }
+            }, () -> enginePool.release(engine), ranks == null ? budget.getDeadline() : budget.getRequestDeadline());
+        } catch(ConditionTimeoutException ex) {
+            abandoned = true;
+            throw ex;
+        } finally {
+            for (int rank : budget.exceeded(abandoned)) {
+                if (rank >= 0) {
+                    watchdog.exceeded(conditions.apply(rank));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates fresh bindings holding lazy views of the request variables, whose properties are only resolved once a
+     * condition reads them
+     *
+     * @param context the call context with the request variables
+     * @return a new {@link Map} with the bindings
+     */
+    private static Map<String, Object> createBindings(CallContext context) {
+        Map<String, Object> bindings = new HashMap<>();
+        bindings.put(ConditionEngineScope.HEADER, LazyScope.of(context.getHeaders()));
+        bindings.put(ConditionEngineScope.QUERY_PARAM, LazyScope.of(context.getQueryParams()));
+        bindings.put(ConditionEngineScope.PATH_PARAM, LazyScope.of(context.getPathParams()));
+        bindings.put(ConditionEngineScope.BODY, LazyScope.of(context.getParsedBody()));
+        return bindings;
+    }
+
+    /**
+     * Compiles a script for a given engine
+     */
+    @FunctionalInterface
+    private interface ScriptCompiler {
+        ConditionScript compile(ConditionScriptEngine engine) throws ScriptException;
+    }
+}
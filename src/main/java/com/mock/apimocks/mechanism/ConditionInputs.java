@@ -0,0 +1,304 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.contants.ConditionEngineScope;
+import com.mock.apimocks.models.CallContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class describes the request inputs read by a scenario condition, such as <i>$body.customer.document</i>.
+ * <p/>
+ * The inputs are extracted from the condition source code beforehand, by scanning it as JavaScript tokens: every
+ * request variable followed by a chain of properties, either <i>.name</i> or <i>['name']</i>, is an input. Method
+ * names, such as <i>contains</i> on <i>$body.items.contains('x')</i>, are not part of the input, and whenever a
+ * property is accessed dynamically, such as <i>$body[key]</i>, the whole parent object is taken as the input.
+ * <p/>
+ * Conditions which read anything but the request variables, such as <i>Math.random()</i>, <i>Date</i> or Java
+ * classes, may give different results for the same request, so they have no inputs at all.
+ * <p/>
+ * The same goes for conditions which may reach the request variables in ways the scan can't follow, such as
+ * <i>this.$body</i>, <i>this['$bo' + 'dy']</i>, <i>globalThis</i>, <i>eval</i> or <i>Function</i>, either
+ * directly or through the <i>constructor</i> of any value. Their inputs can't be proven, so they have no inputs
+ * either.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class ConditionInputs {
+    private static final Map<String, Function<CallContext, Object>> SCOPES = scopes();
+    private static final Set<String> NON_DETERMINISTIC = new HashSet<>(Arrays.asList(
+            "Date", "Java", "java", "javax", "Packages", "performance"));
+    private static final Set<String> DYNAMIC_SCOPE = new HashSet<>(Arrays.asList(
+            "this", "globalThis", "eval", "Function"));
+    private static final String CONSTRUCTOR = "constructor";
+    private static final String RANDOM = "random";
+    private static final String MATH = "Math";
+
+    private final List<Input> inputs;
+
+    private ConditionInputs(List<Input> inputs) {
+        this.inputs = inputs;
+    }
+
+    /**
+     * Extracting the request inputs read by a condition
+     *
+     * @param source the condition source code
+     * @return an {@link Optional} with the {@link ConditionInputs}, or an empty one in case the condition may give
+     *      different results for the same inputs
+     */
+    public static Optional<ConditionInputs> of(String source) {
+        if (source == null) {
+            return Optional.empty();
+        }
+
+        Set<Input> inputs = new LinkedHashSet<>();
+        int length = source.length();
+        int i = 0;
+        boolean expression = true;
+        char last = 0;
+        while (i < length) {
+            int literal = LoopGuard.skipLiteral(source, i, expression);
+            if (literal > i) {
+                if (!LoopGuard.isComment(source, i)) {
+                    expression = false;
+                    last = source.charAt(literal - 1);
+                }
+                i = literal;
+                continue;
+            }
+
+            char c = source.charAt(i);
+            if (!Character.isJavaIdentifierStart(c)) {
+                if (!Character.isWhitespace(c)) {
+                    expression = LoopGuard.PUNCTUATORS_BEFORE_EXPRESSION.indexOf(c) >= 0;
+                    last = c;
+                }
+                i++;
+                continue;
+            }
+
+            int end = identifierEnd(source, i);
+            String word = source.substring(i, end);
+            if (last != '.' && (NON_DETERMINISTIC.contains(word) || MATH.equals(word) && isRandom(source, end))) {
+                return Optional.empty();
+            }
+            if (last != '.' && DYNAMIC_SCOPE.contains(word) || CONSTRUCTOR.equals(word)) {
+                // the request variables may be read dynamically, so the inputs can't be proven
+                return Optional.empty();
+            }
+            if (last != '.' && SCOPES.containsKey(word)) {
+                List<String> path = new ArrayList<>();
+                end = readPath(source, end, path);
+                inputs.add(new Input(word, path));
+            }
+            expression = false;
+            last = source.charAt(end - 1);
+            i = end;
+        }
+        return Optional.of(new ConditionInputs(Collections.unmodifiableList(new ArrayList<>(inputs))));
+    }
+
+    /**
+     * Reading the values of the inputs from a call context.
+     * <p/>
+     * Each input is read the same way the script engines do, as far as it goes through maps and lists. Whenever it
+     * can't go any further, the value read so far stands for the input.
+     *
+     * @param context the call context with the request variables
+     * @return a {@link List} with the input values, in order
+     */
+    public List<Object> read(CallContext context) {
+        Object[] values = new Object[inputs.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = inputs.get(i).read(context);
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Getting the inputs as they are written on the condition, such as <i>$body.customer.document</i>
+     *
+     * @return a {@link List} with the input paths
+     */
+    public List<String> getPaths() {
+        List<String> paths = new ArrayList<>(inputs.size());
+        inputs.forEach(input -> paths.add(input.toString()));
+        return paths;
+    }
+
+    /**
+     * Getting the chains of properties read from a single request variable, such as <i>[customer, document]</i> for
+     * <i>$body.customer.document</i>
+     *
+     * @param scope the request variable, such as <i>$body</i>
+     * @return a {@link List} with the property names of each input of the variable, which are empty whenever the
+     *      whole variable is read
+     */
+    public List<List<String>> getPaths(String scope) {
+        List<List<String>> paths = new ArrayList<>();
+        inputs.stream().filter(input -> input.scope.equals(scope))
+                .forEach(input -> paths.add(Collections.unmodifiableList(input.path)));
+        return paths;
+    }
+
+    /**
+     * Reads the chain of properties which follows a request variable
+     *
+     * @param path the list which receives the property names
+     * @return the position right after the last property
+     */
+    private static int readPath(String source, int i, List<String> path) {
+        while (true) {
+            int next = LoopGuard.skipBlanks(source, i);
+            if (next >= source.length()) {
+                return i;
+            }
+            char c = source.charAt(next);
+            if (c == '.') {
+                int start = LoopGuard.skipBlanks(source, next + 1);
+                if (start >= source.length() || !Character.isJavaIdentifierStart(source.charAt(start))) {
+                    return i;
+                }
+                int end = identifierEnd(source, start);
+                if (isCall(source, end)) {
+                    // a method of the value read so far
+                    return i;
+                }
+                path.add(source.substring(start, end));
+                i = end;
+            } else if (c == '[') {
+                int start = LoopGuard.skipBlanks(source, next + 1);
+                int end = start < source.length() ? literalEnd(source, start) : start;
+                int close = LoopGuard.skipBlanks(source, end);
+                if (end == start || close >= source.length() || source.charAt(close) != ']') {
+                    // a dynamic property, so the whole value read so far is the input
+                    return i;
+                }
+                String key = source.substring(start, end);
+                path.add(key.charAt(0) == '\'' || key.charAt(0) == '"' ? key.substring(1, key.length() - 1) : key);
+                i = close + 1;
+            } else {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Finds the end of a plain string or integer literal
+     *
+     * @return the position right after the literal, or the given position in case there's no such literal there
+     */
+    private static int literalEnd(String source, int start) {
+        char c = source.charAt(start);
+        int i = start + 1;
+        if (c == '\'' || c == '"') {
+            while (i < source.length() && source.charAt(i) != c) {
+                if (source.charAt(i) == '\\' || source.charAt(i) == '\n') {
+                    // escaped keys are left to the script engines
+                    return start;
+                }
+                i++;
+            }
+            return i < source.length() ? i + 1 : start;
+        }
+        if (c < '0' || c > '9') {
+            return start;
+        }
+        while (i < source.length() && source.charAt(i) >= '0' && source.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int identifierEnd(String source, int start) {
+        int end = start + 1;
+        while (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isCall(String source, int i) {
+        int next = LoopGuard.skipBlanks(source, i);
+        return next < source.length() && source.charAt(next) == '(';
+    }
+
+    private static boolean isRandom(String source, int i) {
+        int dot = LoopGuard.skipBlanks(source, i);
+        if (dot >= source.length() || source.charAt(dot) != '.') {
+            // Math itself may be handed over to anything, or have its functions read dynamically
+            return true;
+        }
+        int start = LoopGuard.skipBlanks(source, dot + 1);
+        return source.startsWith(RANDOM, start);
+    }
+
+    private static Map<String, Function<CallContext, Object>> scopes() {
+        Map<String, Function<CallContext, Object>> scopes = new HashMap<>();
+        scopes.put(ConditionEngineScope.HEADER, CallContext::getHeaders);
+        scopes.put(ConditionEngineScope.QUERY_PARAM, CallContext::getQueryParams);
+        scopes.put(ConditionEngineScope.PATH_PARAM, CallContext::getPathParams);
+        scopes.put(ConditionEngineScope.BODY, CallContext::getParsedBody);
+        return scopes;
+    }
+
+    /**
+     * A single request input
+     */
+    private static final class Input {
+        private final String scope;
+        private final List<String> path;
+
+        private Input(String scope, List<String> path) {
+            this.scope = scope;
+            this.path = path;
+        }
+
+        private Object read(CallContext context) {
+            Object value = SCOPES.get(scope).apply(context);
+            for (String key : path) {
+                if (value instanceof Map) {
+                    value = ((Map<?, ?>) value).get(key);
+                } else if (value instanceof List && isIndex(key) && Integer.parseInt(key) < ((List<?>) value).size()) {
+                    value = ((List<?>) value).get(Integer.parseInt(key));
+                } else {
+                    // the rest of the path is read by the condition from the value read so far
+                    break;
+                }
+            }
+            return value;
+        }
+
+        private static boolean isIndex(String key) {
+            return !key.isEmpty() && key.length() < 10 && key.chars().allMatch(Character::isDigit);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Input && scope.equals(((Input) other).scope) && path.equals(((Input) other).path);
+        }
+
+        @Override
+        public int hashCode() {
+            return scope.hashCode() * 31 + path.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(scope);
+            path.forEach(key -> text.append('.').append(key));
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mock.apimocks.mechanism;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mock.apimocks.models.CallContext;
+
+import java.util.List;
+
+/**
+ * This class describes the memoized outcomes of a single scenario condition.
+ * <p/>
+ * Clients often send the very same request over and over, such as when polling an endpoint, and a condition read by
+ * the script engines always gives the same outcome for the same inputs. The outcomes are cached by the values of the
+ * {@link ConditionInputs} of the condition, so the condition is only evaluated once per distinct set of inputs.
+ * <p/>
+ * The cache is bounded by size and the least used outcomes are evicted first. Only the outcomes of evaluations that
+ * finished within their budgets are cached, see {@link ContextEngine}.
+ * <p/>
+ * Only plain values are taken as keys: nulls, booleans, numbers and texts up to {@value #MAX_TEXT_LENGTH}
+ * characters. Whenever the condition reads a whole object or list, such as <i>$body</i> or
+ * <i>$body.items.contains('x')</i>, or a longer text, the outcome is neither looked up nor cached. This way the
+ * cache never holds on to the request payloads, and its keys can't change once they are stored. Hashing those values
+ * into a smaller key was not an option, since two different requests sharing a hash would share an outcome as well.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class ConditionMemo {
+    /**
+     * The maximum length of the texts taken as keys
+     */
+    static final int MAX_TEXT_LENGTH = 256;
+
+    private final ConditionInputs inputs;
+    private final ConditionMemoization memoization;
+    private final Cache<List<Object>, Boolean> outcomes;
+
+    /**
+     * Default class constructor
+     *
+     * @param inputs      the inputs read by the condition
+     * @param maxSize     the maximum number of cached outcomes
+     * @param memoization the {@link ConditionMemoization} which counts the cache hits and misses
+     */
+    ConditionMemo(ConditionInputs inputs, int maxSize, ConditionMemoization memoization) {
+        this.inputs = inputs;
+        this.memoization = memoization;
+        this.outcomes = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Reading the inputs of the condition, which are the key of its outcome
+     *
+     * @param context the call context with the request variables
+     * @return the key of the outcome, or null in case any of the inputs is not a plain value
+     */
+    List<Object> key(CallContext context) {
+        List<Object> values = inputs.read(context);
+        for (Object value : values) {
+            if (!isPlain(value)) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Getting the memoized outcome of the condition
+     *
+     * @param key the key returned by {@link #key(CallContext)}
+     * @return the outcome, or null in case the condition was not evaluated with these inputs yet or they can't be
+     *      taken as a key
+     */
+    Boolean get(List<Object> key) {
+        if (key == null) {
+            return null;
+        }
+        Boolean outcome = outcomes.getIfPresent(key);
+        memoization.count(outcome != null);
+        return outcome;
+    }
+
+    /**
+     * Memoizing the outcome of the condition
+     *
+     * @param key     the key returned by {@link #key(CallContext)}
+     * @param outcome the outcome of the evaluation
+     */
+    void put(List<Object> key, boolean outcome) {
+        if (key != null) {
+            outcomes.put(key, outcome);
+        }
+    }
+
+    private static boolean isPlain(Object value) {
+        return value == null || value instanceof Boolean || value instanceof Number || value instanceof Character
+                || value instanceof String && ((String) value).length() <= MAX_TEXT_LENGTH;
+    }
+
+    /**
+     * Getting the approximate number of memoized outcomes
+     *
+     * @return the number of outcomes
+     */
+    public long size() {
+        return outcomes.estimatedSize();
+    }
+}
@@ -0,0 +1,90 @@
+package com.mock.apimocks.mechanism;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class describes the memoization of the scenario conditions evaluated by the script engines.
+ * <p/>
+ * Each memoized condition gets its own {@link ConditionMemo}, bounded by the same maximum size, while the hits and
+ * misses of all of them are counted together and published as metrics.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class ConditionMemoization implements MeterBinder {
+    private static final String METRIC_PREFIX = "mocks.conditions.memo";
+
+    private final int maxSize;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Default class constructor
+     *
+     * @param maxSize the maximum number of outcomes memoized per condition, or zero in order to disable memoization
+     */
+    public ConditionMemoization(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The maximum number of memoized outcomes can't be negative");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creating the memo of a condition
+     *
+     * @param condition the condition source code
+     * @return a new {@link ConditionMemo}, or null in case memoization is disabled or the condition may give
+     *      different results for the same inputs
+     */
+    ConditionMemo create(String condition) {
+        if (maxSize == 0) {
+            return null;
+        }
+        return ConditionInputs.of(condition).map(inputs -> new ConditionMemo(inputs, maxSize, this)).orElse(null);
+    }
+
+    /**
+     * Counting a memo lookup
+     *
+     * @param hit whether the outcome was memoized
+     */
+    void count(boolean hit) {
+        (hit ? hits : misses).incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Getting the ratio of the memo lookups that found their outcomes
+     *
+     * @return the hit ratio, from 0 to 1
+     */
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", this, ConditionMemoization::getHits)
+                .description("The number of conditions whose outcomes were memoized").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", this, ConditionMemoization::getMisses)
+                .description("The number of conditions evaluated since their outcomes were not memoized")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".hit-ratio", this, ConditionMemoization::getHitRatio)
+                .description("The ratio of the conditions whose outcomes were memoized").register(registry);
+    }
+}
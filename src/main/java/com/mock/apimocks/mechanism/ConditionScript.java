@@ -0,0 +1,25 @@
+package com.mock.apimocks.mechanism;
+
+import javax.script.ScriptException;
+import java.util.Map;
+
+/**
+ * This interface describes a script compiled by a {@link ConditionScriptEngine}.
+ * <p/>
+ * A script belongs to the engine that compiled it, so it may only be evaluated by the thread which borrowed the
+ * engine.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ConditionScript {
+    /**
+     * Evaluates the script with brand new bindings, so no variables are shared between evaluations
+     *
+     * @param bindings the global variables of the script, such as the request variables
+     * @return the script result, converted into a Java object
+     * @throws ScriptException whenever the script fails
+     */
+    Object eval(Map<String, Object> bindings) throws ScriptException;
+}
@@ -0,0 +1,24 @@
+package com.mock.apimocks.mechanism;
+
+import javax.script.ScriptException;
+
+/**
+ * This interface describes a script engine able to evaluate the scenario conditions which are not supported natively.
+ * <p/>
+ * Implementations are not meant to be thread-safe: each instance is borrowed from the {@link ScriptEnginePool} by a
+ * single thread at a time, and it may be handed over to another thread between the compilation and the evaluation of
+ * a script. New implementations are plugged in through the {@link com.mock.apimocks.enums.ConditionEngine} enum.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public interface ConditionScriptEngine {
+    /**
+     * Compiles a script, so it can be evaluated several times by this engine
+     *
+     * @param source the script source code
+     * @return a {@link ConditionScript} which belongs to this engine
+     * @throws ScriptException whenever the source is not a valid script
+     */
+    ConditionScript compile(String source) throws ScriptException;
+}
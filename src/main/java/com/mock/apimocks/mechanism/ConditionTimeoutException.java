@@ -0,0 +1,13 @@
+package com.mock.apimocks.mechanism;
+
+/**
+ * Thrown whenever a scenario condition exceeds its evaluation budget, so it must be handled as a miss.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class ConditionTimeoutException extends RuntimeException {
+    public ConditionTimeoutException(String message) {
+        super(message);
+    }
+}
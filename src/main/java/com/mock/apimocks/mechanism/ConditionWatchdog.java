@@ -0,0 +1,163 @@
+package com.mock.apimocks.mechanism;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class describes the watchdog of the scenario conditions evaluated by the script engines.
+ * <p/>
+ * Conditions used to run unbounded on the request thread, so a single condition with an endless loop could pin every
+ * request thread of the server. Instead, the scripts run on a bounded pool of evaluator threads, while the request
+ * thread waits for them up to the budget of the scenario, which never goes beyond the budget of the whole request.
+ * <p/>
+ * Whenever a script exceeds its budget, the request thread handles it as a miss and moves on, while the evaluator
+ * thread is interrupted. The loops instrumented by the {@link LoopGuard} stop right away, giving their engine back
+ * to the pool. The conditions that exceeded their budgets are logged and counted.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class ConditionWatchdog implements MeterBinder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConditionWatchdog.class);
+    private static final String METRIC_PREFIX = "mocks.conditions";
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final long scenarioBudgetNanos;
+    private final long requestBudgetNanos;
+    private final ThreadPoolExecutor evaluators;
+
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    /**
+     * Default class constructor
+     *
+     * @param threads              the maximum number of evaluator threads
+     * @param scenarioBudgetMillis the budget of each scenario condition, in milliseconds
+     * @param requestBudgetMillis  the budget of all the scenario conditions of a request, in milliseconds
+     */
+    public ConditionWatchdog(int threads, long scenarioBudgetMillis, long requestBudgetMillis) {
+        if (scenarioBudgetMillis < 1 || requestBudgetMillis < 1) {
+            throw new IllegalArgumentException("The condition budgets must be at least 1ms");
+        }
+        this.scenarioBudgetNanos = TimeUnit.MILLISECONDS.toNanos(scenarioBudgetMillis);
+        this.requestBudgetNanos = TimeUnit.MILLISECONDS.toNanos(requestBudgetMillis);
+
+        AtomicInteger count = new AtomicInteger();
+        this.evaluators = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads), runnable -> {
+                    Thread thread = new Thread(runnable, "condition-evaluator-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.evaluators.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starting the budget of a new request
+     *
+     * @return the {@link System#nanoTime()} at which the request budget is exhausted
+     */
+    public long requestDeadline() {
+        return System.nanoTime() + requestBudgetNanos;
+    }
+
+    /**
+     * Creating the budget of the conditions evaluated by a single script invocation
+     *
+     * @param requestDeadline the deadline returned by {@link #requestDeadline()}
+     * @return a new {@link ConditionBudget}
+     */
+    ConditionBudget budget(long requestDeadline) {
+        return new ConditionBudget(scenarioBudgetNanos, requestDeadline);
+    }
+
+    /**
+     * Runs a script evaluation on an evaluator thread, waiting for it up to the given deadline
+     *
+     * @param evaluation the evaluation, which must give its engine back to the pool by itself
+     * @param skipped    called instead of the evaluation in case it never starts, so its engine can be given back
+     * @param deadline   the {@link System#nanoTime()} at which the request thread stops waiting
+     * @return the evaluation result
+     * @throws ConditionTimeoutException whenever the evaluation doesn't finish within the deadline
+     * @throws Exception                 whenever the evaluation itself fails
+     */
+    <T> T execute(Callable<T> evaluation, Runnable skipped, long deadline) throws Exception {
+        // whoever claims the evaluation first either runs it or skips it
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = evaluators.submit(() -> claimed.compareAndSet(false, true) ? evaluation.call() : null);
+        } catch (RejectedExecutionException ex) {
+            skipped.run();
+            rejections.incrementAndGet();
+            LOGGER.warn("No condition evaluator is available, the condition is handled as a miss");
+            throw new ConditionTimeoutException("No condition evaluator is available");
+        }
+
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+        } catch (TimeoutException | InterruptedException ex) {
+            if (claimed.compareAndSet(false, true)) {
+                future.cancel(false);
+                skipped.run();
+            } else {
+                future.cancel(true);
+            }
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new ConditionTimeoutException("The condition evaluation was abandoned");
+        }
+    }
+
+    /**
+     * Registers a condition that exceeded its budget
+     *
+     * @param condition the condition source code
+     */
+    void exceeded(String condition) {
+        timeouts.incrementAndGet();
+        LOGGER.warn("The condition {} exceeded its evaluation budget and was handled as a miss", condition);
+    }
+
+    /**
+     * Stops the evaluator threads, interrupting the running evaluations
+     */
+    public void shutdown() {
+        evaluators.shutdownNow();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".timeouts", this, ConditionWatchdog::getTimeouts)
+                .description("The number of conditions that exceeded their evaluation budget").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejections", this, ConditionWatchdog::getRejections)
+                .description("The number of conditions that found no available evaluator").register(registry);
+    }
+}
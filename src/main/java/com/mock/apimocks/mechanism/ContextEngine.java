@@ -1,29 +1,28 @@
 package com.mock.apimocks.mechanism;
 
-import com.mock.apimocks.contants.ConditionEngineScope;
-import com.mock.apimocks.models.CallContext;
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.RegexOperation;
 
-import javax.script.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
 
 /**
  * This class describes the Context Engine.
  * <p/>
  * This engine is meant to build and analyse mock contexts.
  * <p/>
- * In here we can find methods to create url validators, validate urls with those validators and analyse and evaluate
- * scenario conditions
+ * In here we can find methods to create url validators and validate urls with those validators. The scenario
+ * conditions are compiled and evaluated by the {@link ConditionEvaluator}.
  *
  * @author gabriel.nascimento
  * @version 1.0
  */
 public class ContextEngine {
-    private static final String JAVASCRIPT_ENGINE = "nashorn";
+    private static final String REGEX_METACHARACTERS = "\\.[]{}()*+?^$|";
 
     /**
      * Default class constructor.
@@ -40,22 +39,53 @@ public class ContextEngine {
      * <p/>
      * This verifier could be used to validate a URL and checks if it
      * has the same context of the mocked call.
+     * <p/>
+     * Typed placeholders (such as <i>{id:int}</i>) are turned into
+     * groups that only match their type, see {@link PathParam}. Every
+     * other character is matched as it is, so a dot on the mock URL
+     * only matches a dot, the same way the {@link RouteTrie} does.
      *
      * @param url the mocked URL
      * @return a regular expression with the verifier string of the mocked URL
      */
     public static String createUrlVerifier(String url) {
         // sanitizing url
-        String verifier = sanitizeUrl(url);
+        NormalizedUrl path = UrlNormalizer.normalize(url);
 
         // replacing slashes on path by "one or many" expression
         // adding grouping for path parameter placeholders
-        verifier = verifier
-                .replace("/", "\\/+")
-                .replaceAll("\\{(.*?)}", "([^\\\\/]+)");
+        // and adding group delimiter
+        StringBuilder verifier = new StringBuilder(path.length() + 16).append('(');
+        return appendVerifier(verifier, path).append(')').toString();
+    }
 
-        // adding group delimiter
-        return "(" + verifier + ")";
+    /**
+     * Creates a verifier for a single segment of a mock URL, such as <i>{name}.json</i>, with a group for each one
+     * of its placeholders
+     *
+     * @param segment the mocked URL segment
+     * @return a regular expression with the verifier string of the segment
+     */
+    static String createSegmentVerifier(CharSequence segment) {
+        return appendVerifier(new StringBuilder(segment.length() + 16), segment).toString();
+    }
+
+    private static StringBuilder appendVerifier(StringBuilder verifier, CharSequence path) {
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            int close = c == '{' ? PathParam.closingBrace(path, i) : -1;
+            if (c == '/') {
+                verifier.append("\\/+");
+            } else if (close >= 0) {
+                verifier.append(PathParam.parse(path.subSequence(i + 1, close).toString()).verifier());
+                i = close;
+            } else if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                verifier.append('\\').append(c);
+            } else {
+                verifier.append(c);
+            }
+        }
+        return verifier;
     }
 
     /**
@@ -67,9 +97,21 @@ public class ContextEngine {
      * @return a flag that indicates whether the URL is valid or not.
      */
     public static boolean verifyUrl(String url, String verifier) {
-        Pattern pattern = Pattern.compile(verifier);
-        Matcher matcher = pattern.matcher(url);
-        return matcher.matches();
+        return compileVerifier(verifier).verify(url);
+    }
+
+    /**
+     * Getting a pre-compiled {@link UrlVerifier} for a given verifier.
+     * <p/>
+     * The compiled verifiers are shared through the {@link PatternCache}, so holding on to the returned object or
+     * calling this method again are both cheap.
+     *
+     * @param verifier the URL verifier created by {@link #createUrlVerifier(String)}
+     * @return a {@link UrlVerifier} object
+     * @throws java.util.regex.PatternSyntaxException whenever the verifier is not a valid regular expression
+     */
+    public static UrlVerifier compileVerifier(String verifier) {
+        return new UrlVerifier(PatternCache.get(verifier));
     }
 
     /**
@@ -81,75 +123,46 @@ public class ContextEngine {
      * @return a {@link Map} with the path parameters names and values
      */
     public static Map<String, String> getPathParameters(String mockUrl, String verifier, String requestUrl) {
-        Map<String, String> pathParams = new HashMap<>();
-
         // getting a list of ordered path parameter names from the mocked URL
         // the parameter placeholders will be delimited by curly brackets {}
-        List<String> paramNames = getPathParamName(mockUrl);
+        List<String> paramNames = getPathParamNames(mockUrl);
 
         // checking the parameter values on the requested url
-        Pattern pattern = Pattern.compile(verifier);
-        Matcher matcher = pattern.matcher(requestUrl);
-
-        // we should start at the second group position because the first
-        // group will always contain the full matched string, the following
-        // ones will contain the path parameters
-        while (matcher.find()) {
-            for (int i = 2; i <= matcher.groupCount(); i++) {
-                pathParams.put(paramNames.get(i - 2), matcher.group(i));
-            }
-        }
-        return pathParams;
+        return compileVerifier(verifier).getPathParameters(paramNames, requestUrl);
     }
 
     /**
-     * Evaluate a given condition based on a call context
+     * Matches a requested URL against a registered operation, extracting its path parameters on the same run.
+     * <p/>
+     * The path parameter names are expected to be already computed on the operation, so no other regular
+     * expression is evaluated besides the operation's own verifier.
      *
-     * @param context the call context with the request variables
-     * @param condition the condition to be evaluated
-     * @return a flag with the valuation result
+     * @param operation the registered operation with its verifier and path parameter names
+     * @param method    the requested HTTP method
+     * @param url       the requested URL
+     * @return an {@link Optional} with a {@link RouteMatch} containing the operation identifier and its path
+     *      parameters, or an empty one in case the URL does not belong to the operation
      */
-    public static boolean evaluateCondition(CallContext context, String condition) {
-        boolean isValid = false;
-        try {
-            ScriptEngineManager mgr = new ScriptEngineManager();
-            ScriptEngine engine = mgr.getEngineByName(JAVASCRIPT_ENGINE);
-
-            ScriptContext ctx = new SimpleScriptContext();
-            ctx.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
-            ctx.setAttribute(ConditionEngineScope.HEADER, context.getHeaders(), ScriptContext.ENGINE_SCOPE);
-            ctx.setAttribute(ConditionEngineScope.QUERY_PARAM, context.getQueryParams(), ScriptContext.ENGINE_SCOPE);
-            ctx.setAttribute(ConditionEngineScope.PATH_PARAM, context.getPathParams(), ScriptContext.ENGINE_SCOPE);
-            ctx.setAttribute(ConditionEngineScope.BODY, context.getParsedBody(), ScriptContext.ENGINE_SCOPE);
-
-            isValid = (boolean) engine.eval(condition, ctx);
-        } catch(Exception ex) {
-            // At this point is irrelevant if the condition fails, and so,
-            // we must handle any evaluation errors as a miss
-            // and so, we must simply bury this exception
-        }
-        return isValid;
+    public static Optional<RouteMatch> matchOperation(RegexOperation operation, String method, String url) {
+        List<String> paramNames = operation.getPathParamNames() != null ? operation.getPathParamNames()
+                : Collections.emptyList();
+        return compileVerifier(operation.getRegex()).match(method + url, paramNames)
+                .map(pathParams -> new RouteMatch(operation.getOperationId(), new HashMap<>(pathParams)));
     }
 
     /**
      * Sanitize the given URL.
      * <p/>
      * By sanitation we mean removing all the misplaced, double, and
-     * unnecessary slashes of it.
+     * unnecessary slashes of it. Use {@link UrlNormalizer} directly
+     * in order to read the URL segments without creating new Strings.
      *
      * @param url the URL to be sanitized
      * @return a sanitized URL.
      */
     public static String sanitizeUrl(String url) {
-        // removing all occurrences of misplaced doubled slashes
-        url = url.replaceAll("(/+)", "/");
-
-        // removing query parameters
-        if(url.contains("?"))
-            url = url.substring(0, url.indexOf("?"));
-
-        // removing the slash at the end of the string (in case there's any)
-        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        // removing misplaced doubled slashes, query parameters and the trailing slash on a single pass
+        return UrlNormalizer.normalize(url).toString();
     }
 
     /**
@@ -158,13 +171,9 @@ public class ContextEngine {
      * @param url the mock URL with the path parameter placeholders
      * @return a List of path parameters ordered by occurrences
      */
-    private static List<String> getPathParamName(String url) {
+    public static List<String> getPathParamNames(String url) {
         List<String> params = new ArrayList<>();
-        Pattern pattern = Pattern.compile("(?<=\\{)(.*?)(?=})");
-        Matcher matcher = pattern.matcher(url);
-        while (matcher.find()) {
-            params.add(matcher.group(1));
-        }
+        PathParam.parseAll(url).forEach(param -> params.add(param.getName()));
         return params;
     }
 }
@@ -0,0 +1,161 @@
+package com.mock.apimocks.mechanism;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyObject;
+
+import javax.script.ScriptException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class describes a {@link ConditionScriptEngine} backed by the GraalJS polyglot API.
+ * <p/>
+ * Every instance holds its own polyglot {@link Context}, while all of them share a single polyglot {@link Engine}.
+ * Conditions are compiled into cached {@link Source}s, so the code parsed by one context is reused by the other ones,
+ * and the shared engine keeps the optimized code warm no matter which context evaluates it.
+ * <p/>
+ * The context runs on the Nashorn compatibility mode and mimics the way Nashorn exposes the request variables: maps
+ * are read through their {@link LazyScope}s (missing keys are read as null), lists and Java methods are accessible
+ * and JavaScript arrays are converted into Java collections. The global variables created by a condition are removed
+ * once it is evaluated.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class GraalConditionEngine implements ConditionScriptEngine {
+    private static final String LANGUAGE = "js";
+    private static final String SOURCE_NAME = "condition";
+    private static final HostAccess HOST_ACCESS = HostAccess.newBuilder(HostAccess.ALL)
+            .targetTypeMapping(Value.class, Collection.class, Value::hasArrayElements, value -> value.as(List.class))
+            .build();
+
+    private final Context context;
+    private final Value globals;
+    private final Value undefined;
+
+    /**
+     * Default class constructor, which creates a new context on the shared engine
+     */
+    public GraalConditionEngine() {
+        this.context = Context.newBuilder(LANGUAGE)
+                .engine(SharedEngine.INSTANCE)
+                .allowHostAccess(HOST_ACCESS)
+                .allowHostClassLookup(className -> false)
+                .allowExperimentalOptions(true)
+                .option("js.nashorn-compat", "true")
+                .build();
+        this.globals = context.getBindings(LANGUAGE);
+        this.undefined = context.eval(LANGUAGE, "undefined");
+    }
+
+    @Override
+    public ConditionScript compile(String source) throws ScriptException {
+        Value script;
+        try {
+            script = context.parse(Source.newBuilder(LANGUAGE, source, SOURCE_NAME).cached(true).buildLiteral());
+        } catch (PolyglotException ex) {
+            throw new ScriptException(ex.getMessage());
+        }
+        return variables -> {
+            try {
+                variables.forEach((name, value) -> globals.putMember(name, toGuest(value)));
+                return toHost(script.execute());
+            } catch (PolyglotException ex) {
+                if (ex.isHostException() && ex.asHostException() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.asHostException();
+                }
+                throw new ScriptException(ex.getMessage());
+            } finally {
+                clear(variables);
+            }
+        };
+    }
+
+    /**
+     * Removes the global variables created by a script, so they are not seen by the next ones
+     *
+     * @param variables the variables bound to the script, which are replaced by the next evaluation anyway
+     */
+    private void clear(Map<String, Object> variables) {
+        for (String name : globals.getMemberKeys()) {
+            if (variables.containsKey(name)) {
+                continue;
+            }
+            try {
+                globals.removeMember(name);
+            } catch (UnsupportedOperationException ex) {
+                // variables declared through var can't be removed
+                globals.putMember(name, undefined);
+            }
+        }
+    }
+
+    private static Object toGuest(Object value) {
+        if (value instanceof Map) {
+            value = LazyScope.of(value);
+        }
+        return value instanceof LazyScope ? ((LazyScope) value).adapted(ScopeObject::new) : value;
+    }
+
+    private static Object toHost(Value value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (value.isBoolean()) {
+            return value.asBoolean();
+        }
+        if (value.isNumber()) {
+            return value.fitsInInt() ? (Object) value.asInt() : (Object) value.asDouble();
+        }
+        if (value.isString()) {
+            return value.asString();
+        }
+        return value.isHostObject() ? value.asHostObject() : value;
+    }
+
+    /**
+     * Exposes a {@link LazyScope} as a read-only object, just like Nashorn does
+     */
+    private static final class ScopeObject implements ProxyObject {
+        private final LazyScope scope;
+
+        private ScopeObject(LazyScope scope) {
+            this.scope = scope;
+        }
+
+        @Override
+        public Object getMember(String key) {
+            return toGuest(scope.getMember(key));
+        }
+
+        @Override
+        public Object getMemberKeys() {
+            return ProxyArray.fromArray(scope.keySet().toArray());
+        }
+
+        @Override
+        public boolean hasMember(String key) {
+            // Nashorn reads missing keys as null instead of undefined
+            return true;
+        }
+
+        @Override
+        public void putMember(String key, Value value) {
+            throw new UnsupportedOperationException("The request variables are read-only");
+        }
+    }
+
+    /**
+     * Holds the polyglot engine shared by all contexts, which is only created in case GraalJS is used
+     */
+    private static final class SharedEngine {
+        private static final Engine INSTANCE = Engine.create();
+    }
+}
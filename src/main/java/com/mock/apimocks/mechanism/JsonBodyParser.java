@@ -0,0 +1,218 @@
+package com.mock.apimocks.mechanism;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.mock.apimocks.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class wraps a streaming JSON body parser.
+ * <p/>
+ * The body is read token by token with the Jackson streaming API straight into the structure bound to the condition
+ * engines: objects become {@link HashMap}s, arrays become {@link ArrayList}s, and the values become Strings, Booleans,
+ * nulls and Integers, Longs, BigIntegers or Doubles. No intermediate tree is built, and the field names are interned
+ * by the parser, so the same names on every request share the same Strings.
+ * <p/>
+ * Any JSON value is accepted as the body, not only objects, so arrays and scalars such as <i>"text"</i> or <i>42</i>
+ * are parsed as well. The nesting is tracked on a heap stack instead of recursion, so deeply nested bodies can't
+ * overflow the thread stack.
+ * <p/>
+ * Given a {@link BodySelection}, only the selected properties are built: the others are skipped token by token. The
+ * selected properties that turn out to be lists or plain values are built as a whole. The body is still read up to
+ * its end, so it is validated the same way, and a property repeated on the same object keeps its last value, just
+ * like on a full parse.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class JsonBodyParser {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * Default class constructor.
+     * <p/>
+     * It is set as private because this class only should have static methods
+     */
+    private JsonBodyParser() {
+    }
+
+    /**
+     * Parses a JSON body from its bytes, which may be encoded as UTF-8, UTF-16 or UTF-32
+     *
+     * @param input the body stream
+     * @return the parsed value
+     * @throws BadRequestException whenever the body is not a single valid JSON value
+     */
+    public static Object parse(InputStream input) throws BadRequestException {
+        try (JsonParser parser = FACTORY.createParser(input)) {
+            return read(parser);
+        } catch (IOException ex) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Parses the selected properties of a JSON body from its bytes, which may be encoded as UTF-8, UTF-16 or UTF-32
+     *
+     * @param input     the body stream
+     * @param selection the {@link BodySelection} read by the conditions
+     * @return the parsed value, which is a {@link Map} with the selected properties only in case the body is a JSON
+     *      object, or the whole value otherwise
+     * @throws BadRequestException whenever the body is not valid up to the selected properties
+     */
+    public static Object parse(InputStream input, BodySelection selection) throws BadRequestException {
+        if (selection.isAll()) {
+            return parse(input);
+        }
+        try (JsonParser parser = FACTORY.createParser(input)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw invalid();
+            }
+            return token == JsonToken.START_OBJECT ? readSelected(parser, selection.getRoot(), true)
+                    : readValue(parser, token);
+        } catch (IOException ex) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Parses a JSON body from its text
+     *
+     * @param body the body text
+     * @return the parsed value
+     * @throws BadRequestException whenever the body is not a single valid JSON value
+     */
+    public static Object parse(String body) throws BadRequestException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            return read(parser);
+        } catch (IOException ex) {
+            throw invalid();
+        }
+    }
+
+    private static Object read(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw invalid();
+        }
+        Object value = readValue(parser, token);
+        if (parser.nextToken() != null) {
+            // nothing but blanks may follow the body value
+            throw invalid();
+        }
+        return value;
+    }
+
+    /**
+     * Reads the selected properties of the object which starts at the current token
+     *
+     * @param node the selected properties of the object
+     * @param root whether the object is the body itself, so it is not read at all in case nothing is selected
+     * @return a {@link Map} with the selected properties
+     */
+    private static Map<String, Object> readSelected(JsonParser parser, BodySelection.Node node, boolean root)
+            throws IOException {
+        Map<String, Object> object = new HashMap<>();
+        if (node.size() == 0 && root) {
+            // the conditions don't read anything from the body
+            return object;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            token = parser.nextToken();
+            BodySelection.Node child = node.child(name);
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+
+            // a repeated property replaces the previous one, just like on a full parse
+            object.put(name, child.isWhole() || token != JsonToken.START_OBJECT ? readValue(parser, token)
+                    : readSelected(parser, child, false));
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw invalid();
+        }
+        return object;
+    }
+
+    /**
+     * Reads the whole value which starts at the current token
+     */
+    @SuppressWarnings("unchecked")
+    private static Object readValue(JsonParser parser, JsonToken first) throws IOException {
+        Deque<Object> containers = new ArrayDeque<>();
+        String name = null;
+        for (JsonToken token = first; token != null; token = parser.nextToken()) {
+            Object value;
+            switch (token) {
+                case FIELD_NAME:
+                    name = parser.getCurrentName();
+                    continue;
+                case END_OBJECT:
+                case END_ARRAY:
+                    Object closed = containers.pop();
+                    if (containers.isEmpty()) {
+                        return closed;
+                    }
+                    continue;
+                case START_OBJECT:
+                    value = new HashMap<String, Object>();
+                    break;
+                case START_ARRAY:
+                    value = new ArrayList<>();
+                    break;
+                case VALUE_STRING:
+                    value = parser.getText();
+                    break;
+                case VALUE_NUMBER_INT:
+                    value = parser.getNumberValue();
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    value = parser.getDoubleValue();
+                    break;
+                case VALUE_TRUE:
+                    value = Boolean.TRUE;
+                    break;
+                case VALUE_FALSE:
+                    value = Boolean.FALSE;
+                    break;
+                case VALUE_NULL:
+                    value = null;
+                    break;
+                default:
+                    throw invalid();
+            }
+
+            Object parent = containers.peek();
+            if (parent instanceof Map) {
+                ((Map<String, Object>) parent).put(name, value);
+            } else if (parent != null) {
+                ((List<Object>) parent).add(value);
+            }
+
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                containers.push(value);
+            } else if (parent == null) {
+                return value;
+            }
+        }
+        // a body that ended before its value was closed
+        throw invalid();
+    }
+
+    private static BadRequestException invalid() {
+        return new BadRequestException("Invalid Request Body. The given body could not be parsed.");
+    }
+}
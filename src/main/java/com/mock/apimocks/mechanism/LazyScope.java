@@ -0,0 +1,114 @@
+package com.mock.apimocks.mechanism;
+
+import jdk.nashorn.api.scripting.AbstractJSObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class describes a lazy, read-only view of a request variable, such as the headers or the parsed body, which
+ * is bound to the script engines.
+ * <p/>
+ * The request maps used to be bound as they are, so the engines wrapped every map they went through on each access.
+ * Instead, properties are only resolved when a condition reads them: nested maps are wrapped into their own views,
+ * and every resolved property is cached, so reading it again gives the very same value back. Binding a request
+ * variable costs the same no matter how large it is.
+ * <p/>
+ * Lists and plain values are given as they are, so their Java methods (such as <i>contains</i>) are still
+ * available. Missing properties are read as null. The view is exposed to Nashorn as a script object, while the
+ * other engines adapt it through {@link #adapted(Function)}.
+ * <p/>
+ * A view is meant to be read by a single evaluation at a time, which is why its cache is not synchronized.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class LazyScope extends AbstractJSObject {
+    private static final String CLASS_NAME = "Object";
+
+    private final Map<?, ?> map;
+    private final Map<String, Object> resolved = new HashMap<>();
+    private Object adapter;
+
+    private LazyScope(Map<?, ?> map) {
+        this.map = map;
+    }
+
+    /**
+     * Creating the view of a request variable
+     *
+     * @param value the request variable
+     * @return a {@link LazyScope} in case the variable is a map, or the variable itself otherwise
+     */
+    public static Object of(Object value) {
+        return value instanceof Map ? new LazyScope((Map<?, ?>) value) : value;
+    }
+
+    @Override
+    public Object getMember(String name) {
+        Object value = resolved.get(name);
+        if (value == null && !resolved.containsKey(name)) {
+            value = of(map.get(name));
+            resolved.put(name, value);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean hasMember(String name) {
+        return map.containsKey(name);
+    }
+
+    @Override
+    public Object getSlot(int index) {
+        return getMember(String.valueOf(index));
+    }
+
+    @Override
+    public boolean hasSlot(int index) {
+        return hasMember(String.valueOf(index));
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> keys = new LinkedHashSet<>();
+        map.keySet().forEach(key -> keys.add(String.valueOf(key)));
+        return keys;
+    }
+
+    @Override
+    public Collection<Object> values() {
+        List<Object> values = new ArrayList<>();
+        keySet().forEach(key -> values.add(getMember(key)));
+        return values;
+    }
+
+    @Override
+    public String getClassName() {
+        return CLASS_NAME;
+    }
+
+    /**
+     * Getting the view adapted to an engine which doesn't take script objects, adapting it only once
+     *
+     * @param factory creates the adapter of the view
+     * @return the adapter
+     */
+    Object adapted(Function<LazyScope, Object> factory) {
+        if (adapter == null) {
+            adapter = factory.apply(this);
+        }
+        return adapter;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(map);
+    }
+}
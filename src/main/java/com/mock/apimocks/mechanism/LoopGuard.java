@@ -0,0 +1,251 @@
+package com.mock.apimocks.mechanism;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class instruments the loops of the scenario conditions, so they can be stopped by their {@link ConditionBudget}.
+ * <p/>
+ * The script engines don't check whether their thread was interrupted, so a condition with an endless loop would run
+ * forever. Instead, the budget check is chained to the condition of every <i>while</i>, <i>do-while</i> and <i>for</i>
+ * loop:
+ * <ul>
+ *     <li><i>while (x)</i> turns into <i>while (__conditionBudget.check() &amp;&amp; (x))</i>;</li>
+ *     <li><i>for (a; b; c)</i> turns into <i>for (a; __conditionBudget.check() &amp;&amp; (b); c)</i>.</li>
+ * </ul>
+ * The source is scanned as JavaScript tokens, so string literals, regular expressions, comments and properties which
+ * happen to be named after the loop keywords are left untouched. <i>for-in</i> loops always come to an end, so they
+ * are not instrumented.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class LoopGuard {
+    private static final String CHECK = ConditionBudget.BINDING + ".check()";
+    private static final Set<String> KEYWORDS_BEFORE_EXPRESSION = new HashSet<>(Arrays.asList(
+            "return", "typeof", "instanceof", "in", "of", "new", "delete", "void", "throw", "case", "do", "else"));
+    static final String PUNCTUATORS_BEFORE_EXPRESSION = "(,=:[!&|?{};+-*%<>~^";
+
+    /**
+     * Default class constructor.
+     * <p/>
+     * It is set as private because this class only should have static methods
+     */
+    private LoopGuard() {
+    }
+
+    /**
+     * Instruments the loops of a condition with budget checks
+     *
+     * @param source the condition source code
+     * @return the instrumented source code, or the source itself in case it has no loops
+     */
+    public static String instrument(String source) {
+        if (source == null || !source.contains("while") && !source.contains("for")) {
+            return source;
+        }
+
+        StringBuilder result = new StringBuilder(source.length() + 64);
+        int length = source.length();
+        int i = 0;
+        boolean expression = true;
+        char last = 0;
+        while (i < length) {
+            int literal = skipLiteral(source, i, expression);
+            if (literal > i) {
+                result.append(source, i, literal);
+                if (!isComment(source, i)) {
+                    expression = false;
+                    last = source.charAt(literal - 1);
+                }
+                i = literal;
+                continue;
+            }
+
+            char c = source.charAt(i);
+            if (!Character.isJavaIdentifierStart(c)) {
+                result.append(c);
+                if (!Character.isWhitespace(c)) {
+                    expression = PUNCTUATORS_BEFORE_EXPRESSION.indexOf(c) >= 0;
+                    last = c;
+                }
+                i++;
+                continue;
+            }
+
+            int end = i + 1;
+            while (end < length && Character.isJavaIdentifierPart(source.charAt(end))) {
+                end++;
+            }
+            String word = source.substring(i, end);
+            int open = skipBlanks(source, end);
+            if (last != '.' && ("while".equals(word) || "for".equals(word)) && open < length
+                    && source.charAt(open) == '(') {
+                int close = closingParenthesis(source, open);
+                if (close > 0) {
+                    String header = source.substring(open + 1, close);
+                    String guarded = "while".equals(word) ? guardWhile(header) : guardFor(header);
+                    result.append(source, i, open).append('(').append(guarded).append(')');
+                    i = close + 1;
+                    expression = true;
+                    last = ')';
+                    continue;
+                }
+            }
+            result.append(word);
+            expression = KEYWORDS_BEFORE_EXPRESSION.contains(word);
+            last = word.charAt(word.length() - 1);
+            i = end;
+        }
+        return result.toString();
+    }
+
+    private static String guardWhile(String condition) {
+        return CHECK + " && (" + instrument(condition) + "\n)";
+    }
+
+    private static String guardFor(String header) {
+        List<String> parts = split(header);
+        if (parts.size() != 3) {
+            // for-in loops and malformed headers are left as they are
+            return instrument(header);
+        }
+        String condition = parts.get(1).trim().isEmpty() ? CHECK : CHECK + " && (" + instrument(parts.get(1)) + "\n)";
+        return instrument(parts.get(0)) + "; " + condition + "; " + instrument(parts.get(2));
+    }
+
+    /**
+     * Splits a <i>for</i> header by its top level semicolons
+     */
+    private static List<String> split(String header) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        boolean expression = true;
+        for (int i = 0; i < header.length(); ) {
+            int literal = skipLiteral(header, i, expression);
+            if (literal > i) {
+                expression = isComment(header, i) && expression;
+                i = literal;
+                continue;
+            }
+            char c = header.charAt(i);
+            if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+            } else if (c == ';' && depth == 0) {
+                parts.add(header.substring(start, i));
+                start = i + 1;
+            }
+            if (!Character.isWhitespace(c)) {
+                expression = PUNCTUATORS_BEFORE_EXPRESSION.indexOf(c) >= 0;
+            }
+            i++;
+        }
+        parts.add(header.substring(start));
+        return parts;
+    }
+
+    /**
+     * Finds the parenthesis which closes the one at the given position
+     *
+     * @return the position of the closing parenthesis, or -1 in case it's missing
+     */
+    private static int closingParenthesis(String source, int open) {
+        int depth = 0;
+        boolean expression = true;
+        for (int i = open; i < source.length(); ) {
+            int literal = skipLiteral(source, i, expression);
+            if (literal > i) {
+                expression = isComment(source, i) && expression;
+                i = literal;
+                continue;
+            }
+            char c = source.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+            if (!Character.isWhitespace(c)) {
+                expression = PUNCTUATORS_BEFORE_EXPRESSION.indexOf(c) >= 0;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Skips the string literal, regular expression or comment which starts at the given position
+     *
+     * @param expression whether an expression may start at the given position, which tells a regular expression
+     *                   apart from a division
+     * @return the position right after the literal, or the given position in case there's no literal there
+     */
+    static int skipLiteral(String source, int i, boolean expression) {
+        char c = source.charAt(i);
+        char next = i + 1 < source.length() ? source.charAt(i + 1) : 0;
+        if (c == '"' || c == '\'') {
+            return skipQuoted(source, i, c);
+        }
+        if (c == '/' && next == '/') {
+            int end = source.indexOf('\n', i);
+            return end < 0 ? source.length() : end;
+        }
+        if (c == '/' && next == '*') {
+            int end = source.indexOf("*/", i + 2);
+            return end < 0 ? source.length() : end + 2;
+        }
+        if (c == '/' && expression) {
+            return skipRegex(source, i);
+        }
+        return i;
+    }
+
+    private static int skipQuoted(String source, int i, char quote) {
+        int j = i + 1;
+        while (j < source.length() && source.charAt(j) != quote && source.charAt(j) != '\n') {
+            j += source.charAt(j) == '\\' ? 2 : 1;
+        }
+        return Math.min(j + 1, source.length());
+    }
+
+    private static int skipRegex(String source, int i) {
+        boolean inClass = false;
+        int j = i + 1;
+        while (j < source.length() && source.charAt(j) != '\n') {
+            char c = source.charAt(j);
+            if (c == '\\') {
+                j++;
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                j++;
+                while (j < source.length() && Character.isJavaIdentifierPart(source.charAt(j))) {
+                    j++;
+                }
+                return j;
+            }
+            j++;
+        }
+        return Math.min(j, source.length());
+    }
+
+    static int skipBlanks(String source, int i) {
+        while (i < source.length() && Character.isWhitespace(source.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    static boolean isComment(String source, int i) {
+        return source.charAt(i) == '/' && i + 1 < source.length()
+                && (source.charAt(i + 1) == '/' || source.charAt(i + 1) == '*');
+    }
+}
@@ -0,0 +1,47 @@
+package com.mock.apimocks.mechanism;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+
+/**
+ * This class describes a {@link ConditionScriptEngine} backed by the Nashorn engine shipped with the JDK.
+ * <p/>
+ * Each evaluation runs within a brand new script context, whose bindings hold the request variables.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class NashornConditionEngine implements ConditionScriptEngine {
+    private static final String ENGINE_NAME = "nashorn";
+    private static final ScriptEngineManager MANAGER = new ScriptEngineManager();
+
+    private final ScriptEngine engine;
+
+    /**
+     * Default class constructor, which bootstraps a whole new Nashorn runtime
+     */
+    public NashornConditionEngine() {
+        this.engine = MANAGER.getEngineByName(ENGINE_NAME);
+        if (this.engine == null) {
+            throw new IllegalStateException("The script engine " + ENGINE_NAME + " is not available");
+        }
+    }
+
+    @Override
+    public ConditionScript compile(String source) throws ScriptException {
+        CompiledScript script = ((Compilable) engine).compile(source);
+        return variables -> {
+            ScriptContext ctx = new SimpleScriptContext();
+            Bindings bindings = engine.createBindings();
+            bindings.putAll(variables);
+            ctx.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+            return script.eval(ctx);
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.mock.apimocks.mechanism;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mock.apimocks.models.vo.MockOperation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class describes a filter able to tell, in constant time, that a URL does not belong to any operation.
+ * <p/>
+ * It combines two structures:
+ * <ul>
+ *     <li>a Bloom filter over the method and the first literal segments of every operation path, which rejects
+ *     URLs whose prefix was never registered</li>
+ *     <li>a bounded LRU (per method) of the normalized URLs that recently missed every operation, which rejects
+ *     repeated calls to URLs that share a prefix with some operation</li>
+ * </ul>
+ * Both structures are bound to the set of operations they were built from, so a new filter must be built
+ * whenever an operation is created, updated or deleted.
+ * <p/>
+ * An operation whose path has a placeholder (or any regex construct) among its first segments only contributes
+ * the segments before it, which makes the filter less selective for that method but never wrong.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class NegativeLookupFilter {
+    private static final int DEPTH = 2;
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ROUTE = 10;
+    private static final int MIN_BITS = 1024;
+    private static final String NON_LITERAL = "{}()[]*+?.\\|^$";
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] bits;
+    private final int size;
+    private final long maxMisses;
+    private final Map<String, Cache<NormalizedUrl, Boolean>> misses = new ConcurrentHashMap<>();
+
+    /**
+     * Default class constructor
+     *
+     * @param routes    the number of routes to be inserted on the filter
+     * @param maxMisses the maximum number of missed URLs to be remembered
+     */
+    private NegativeLookupFilter(int routes, long maxMisses) {
+        this.size = Math.max(MIN_BITS, routes * BITS_PER_ROUTE);
+        this.bits = new long[(size + 63) / 64];
+        this.maxMisses = maxMisses;
+    }
+
+    /**
+     * Builds a new filter with all the given operations.
+     *
+     * @param operations the registered operations
+     * @param maxMisses  the maximum number of missed URLs to be remembered
+     * @return a {@link NegativeLookupFilter} for the operations
+     */
+    public static NegativeLookupFilter build(Collection<MockOperation> operations, long maxMisses) {
+        NegativeLookupFilter filter = new NegativeLookupFilter(operations.size(), maxMisses);
+        operations.forEach(filter::insert);
+        return filter;
+    }
+
+    /**
+     * Checks if a URL might belong to some operation.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL
+     * @return false in case there's certainly no operation for the URL, true otherwise
+     */
+    public boolean mightMatch(String method, String url) {
+        return mightMatch(method, UrlNormalizer.normalize(url));
+    }
+
+    /**
+     * Checks if a normalized URL might belong to some operation.
+     * <p/>
+     * The URL segments are hashed straight from the normalized URL, so no String is created on the way.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL, already normalized
+     * @return false in case there's certainly no operation for the URL, true otherwise
+     */
+    public boolean mightMatch(String method, NormalizedUrl url) {
+        Cache<NormalizedUrl, Boolean> methodMisses = misses.get(method);
+        if (methodMisses != null && methodMisses.getIfPresent(url) != null) {
+            return false;
+        }
+
+        long hash = hash(FNV_OFFSET, method, 0, method.length());
+        if (contains(hash)) {
+            return true;
+        }
+
+        for (int i = 0; i < Math.min(DEPTH, url.segmentCount()); i++) {
+            hash = hash(hash(hash, "/", 0, 1), url, url.segmentStart(i), url.segmentEnd(i));
+            if (contains(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remembers a URL that did not match any operation
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL
+     */
+    public void recordMiss(String method, String url) {
+        recordMiss(method, UrlNormalizer.normalize(url));
+    }
+
+    /**
+     * Remembers a normalized URL that did not match any operation.
+     * <p/>
+     * The URL is normalized again from its own characters before being stored, so the entry does not hold the
+     * original URL, with its query string, for as long as it is remembered.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL, already normalized
+     */
+    public void recordMiss(String method, NormalizedUrl url) {
+        misses.computeIfAbsent(method, m -> Caffeine.newBuilder().maximumSize(maxMisses).build())
+                .put(UrlNormalizer.normalize(url.toString()), Boolean.TRUE);
+    }
+
+    /**
+     * Inserts the method and the first literal segments of an operation on the Bloom filter
+     *
+     * @param operation the operation to be inserted
+     */
+    private void insert(MockOperation operation) {
+        String method = operation.getMethod().name();
+        NormalizedUrl path = UrlNormalizer.normalize(operation.getFullPath());
+        long hash = hash(FNV_OFFSET, method, 0, method.length());
+
+        for (int i = 0; i < Math.min(DEPTH, path.segmentCount()); i++) {
+            if (!isLiteral(path, path.segmentStart(i), path.segmentEnd(i))) {
+                break;
+            }
+            hash = hash(hash(hash, "/", 0, 1), path, path.segmentStart(i), path.segmentEnd(i));
+        }
+        add(hash);
+    }
+
+    private void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int index = Math.floorMod(h1 + i * h2, size);
+            bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    private boolean contains(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int index = Math.floorMod(h1 + i * h2, size);
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Feeding a slice of a text to a 64-bit FNV-1a hash
+     */
+    private static long hash(long hash, CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Checking if a path segment is made only of literal characters
+     */
+    private static boolean isLiteral(CharSequence path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (NON_LITERAL.indexOf(path.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
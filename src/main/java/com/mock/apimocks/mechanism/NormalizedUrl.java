@@ -0,0 +1,202 @@
+package com.mock.apimocks.mechanism;
+
+/**
+ * This class represents a URL normalized by the {@link UrlNormalizer}.
+ * <p/>
+ * The normalized URL is a {@link CharSequence} backed either by the original URL (whenever normalizing it only
+ * meant cutting its end, such as the query string or the trailing slash) or by a single buffer. Its segments are
+ * kept as offsets and exposed as views over the same characters, so they could be read without creating new
+ * Strings.
+ * <p/>
+ * Both the URL and its segments have the same hash code of a String with the same characters, but they are only
+ * equal to another normalized URL (or segment) with the same characters, so the equality stays symmetric. Comparing
+ * them with a String must be explicit, through {@link #matches(CharSequence)}, and maps keyed by Strings could be
+ * looked up through a {@link TextMap} without creating a String for them.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class NormalizedUrl implements CharSequence {
+    private final String source;
+    private final char[] buffer;
+    private final int length;
+    private final int[] segments;
+    private final int segmentCount;
+    private int hash;
+
+    /**
+     * Default class constructor
+     *
+     * @param source       the original URL, in case the normalized one is a prefix of it
+     * @param buffer       the normalized URL characters, in case it is not a prefix of the original one
+     * @param length       the normalized URL length
+     * @param segments     the start and end offsets of each segment
+     * @param segmentCount the number of segments
+     */
+    NormalizedUrl(String source, char[] buffer, int length, int[] segments, int segmentCount) {
+        this.source = source;
+        this.buffer = buffer;
+        this.length = length;
+        this.segments = segments;
+        this.segmentCount = segmentCount;
+    }
+
+    /**
+     * Getting the number of path segments
+     *
+     * @return the number of segments
+     */
+    public int segmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Getting a view of a path segment
+     *
+     * @param index the segment index
+     * @return a {@link CharSequence} with the segment characters
+     */
+    public CharSequence segment(int index) {
+        if (index < 0 || index >= segmentCount) {
+            throw new IndexOutOfBoundsException("Segment " + index + " out of " + segmentCount);
+        }
+        return new Segment(segments[index * 2], segments[index * 2 + 1]);
+    }
+
+    /**
+     * Getting the offset where a path segment starts
+     *
+     * @param index the segment index
+     * @return the segment start offset
+     */
+    public int segmentStart(int index) {
+        return segments[index * 2];
+    }
+
+    /**
+     * Getting the offset where a path segment ends
+     *
+     * @param index the segment index
+     * @return the segment end offset (exclusive)
+     */
+    public int segmentEnd(int index) {
+        return segments[index * 2 + 1];
+    }
+
+    /**
+     * Checks if the normalized URL has the same characters of a given text
+     *
+     * @param text the text to be compared, such as a sanitized path
+     * @return a flag indicating whether both have the same characters or not
+     */
+    public boolean matches(CharSequence text) {
+        return text != null && contentEquals(0, length, text);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return buffer != null ? buffer[index] : source.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (buffer != null) {
+            return new String(buffer, 0, length);
+        }
+        return length == source.length() ? source : source.substring(0, length);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && length > 0) {
+            h = hash(0, length);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || (o instanceof NormalizedUrl && contentEquals(0, length, (NormalizedUrl) o));
+    }
+
+    /**
+     * Computing the same hash code of a String with the characters between two offsets
+     */
+    private int hash(int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + charAt(i);
+        }
+        return h;
+    }
+
+    /**
+     * Comparing the characters between two offsets with a given sequence
+     */
+    private boolean contentEquals(int start, int end, CharSequence other) {
+        if (other.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (charAt(i) != other.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A view of a single path segment
+     */
+    private final class Segment implements CharSequence {
+        private final int start;
+        private final int end;
+
+        private Segment(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return NormalizedUrl.this.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().subSequence(from, to);
+        }
+
+        @Override
+        public String toString() {
+            return buffer != null ? new String(buffer, start, end - start) : source.substring(start, end);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash(start, end);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || (o instanceof Segment && contentEquals(start, end, (Segment) o));
+        }
+    }
+}
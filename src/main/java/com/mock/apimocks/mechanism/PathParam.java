@@ -0,0 +1,262 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.PathParamType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * This class represents a path parameter placeholder, such as <i>{id}</i>, <i>{id:int}</i>, <i>{id:uuid}</i>,
+ * <i>{id:\d+}</i> or <i>{rest:**}</i>.
+ * <p/>
+ * Placeholders are parsed once, when the routes are built, so every check made while matching a URL is already
+ * compiled: integers and UUIDs are checked by scanning their characters and custom constraints by a pre-compiled
+ * {@link Pattern}. Values of typed placeholders are coerced as well, so integers are delivered as numbers to the
+ * scenario conditions.
+ * <p/>
+ * Capturing groups of custom constraints are turned into non-capturing ones, so they never shift the groups of the
+ * path parameters on the operation verifier.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class PathParam {
+    private static final char OPEN = '{';
+    private static final char CLOSE = '}';
+    private static final char SEPARATOR = ':';
+    private static final char ESCAPE = '\\';
+
+    private final String name;
+    private final PathParamType type;
+    private final String constraint;
+    private final String verifier;
+    private final Pattern pattern;
+
+    /**
+     * Default class constructor
+     *
+     * @param name       the path parameter name
+     * @param type       the path parameter type
+     * @param constraint the custom constraint, in case of a {@link PathParamType#PATTERN} placeholder
+     */
+    private PathParam(String name, PathParamType type, String constraint) {
+        this.name = name;
+        this.type = type;
+        this.constraint = constraint;
+        this.verifier = "(" + (type == PathParamType.PATTERN ? "(?:" + constraint + ")" : type.verifier()) + ")";
+        this.pattern = type == PathParamType.PATTERN ? PatternCache.get(constraint) : null;
+    }
+
+    /**
+     * Parsing a placeholder
+     *
+     * @param placeholder the placeholder content, without its curly brackets
+     * @return a {@link PathParam} object
+     * @throws java.util.regex.PatternSyntaxException whenever a custom constraint is not a valid regular expression
+     */
+    public static PathParam parse(String placeholder) {
+        int separator = placeholder.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return new PathParam(placeholder, PathParamType.STRING, null);
+        }
+
+        String constraint = placeholder.substring(separator + 1);
+        PathParamType type = PathParamType.of(constraint);
+        return new PathParam(placeholder.substring(0, separator), type,
+                type == PathParamType.PATTERN ? nonCapturing(constraint) : null);
+    }
+
+    /**
+     * Parsing every placeholder of a path
+     *
+     * @param path the mock path with the placeholders
+     * @return a List of {@link PathParam} ordered by occurrences
+     */
+    public static List<PathParam> parseAll(CharSequence path) {
+        List<PathParam> params = new ArrayList<>();
+        for (int i = 0; i < path.length(); i++) {
+            int close = path.charAt(i) == OPEN ? closingBrace(path, i) : -1;
+            if (close >= 0) {
+                params.add(parse(path.subSequence(i + 1, close).toString()));
+                i = close;
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Finding the curly bracket that closes a placeholder, skipping the ones nested on its constraint
+     * (such as <i>{id:\d{3}}</i>)
+     *
+     * @param path the mock path
+     * @param open the index of the opening curly bracket
+     * @return the index of the closing curly bracket, or -1 in case there's none
+     */
+    public static int closingBrace(CharSequence path, int open) {
+        int depth = 0;
+        for (int i = open; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == ESCAPE) {
+                i++;
+            } else if (c == OPEN) {
+                depth++;
+            } else if (c == CLOSE && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if a given segment is made of a single placeholder
+     *
+     * @param segment the path segment
+     * @return a flag indicating whether the segment is a placeholder or not
+     */
+    public static boolean isPlaceholder(CharSequence segment) {
+        return segment.length() > 1 && segment.charAt(0) == OPEN && closingBrace(segment, 0) == segment.length() - 1;
+    }
+
+    /**
+     * Checks if a value fulfills this placeholder's constraint
+     *
+     * @param value the path parameter value
+     * @return a flag indicating whether the value is accepted or not
+     */
+    public boolean accepts(CharSequence value) {
+        switch (type) {
+            case INT:
+                return isInteger(value);
+            case UUID:
+                return isUuid(value);
+            case PATTERN:
+                return indexOf(value, '/') < 0 && pattern.matcher(value).matches();
+            case CATCH_ALL:
+                return value.length() > 0;
+            default:
+                return value.length() > 0 && indexOf(value, '/') < 0;
+        }
+    }
+
+    /**
+     * Converting a value to this placeholder's type.
+     * <p/>
+     * Integers are delivered as {@link Integer} or, whenever they don't fit, as {@link Long}. Every other value
+     * (including integers too big for a {@link Long}) is delivered as it is.
+     *
+     * @param value the path parameter value
+     * @return the converted value
+     */
+    public Object coerce(String value) {
+        if (type != PathParamType.INT) {
+            return value;
+        }
+        try {
+            long number = Long.parseLong(value);
+            return number == (int) number ? (Object) (int) number : (Object) number;
+        } catch (NumberFormatException ex) {
+            return value;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PathParamType getType() {
+        return type;
+    }
+
+    /**
+     * Getting the regex group that matches this placeholder on an operation verifier
+     *
+     * @return the verifier group
+     */
+    public String verifier() {
+        return verifier;
+    }
+
+    /**
+     * Getting a key shared by every placeholder with the same constraint, regardless of its name
+     *
+     * @return the constraint key
+     */
+    String key() {
+        return constraint != null ? type + ":" + constraint : type.name();
+    }
+
+    /**
+     * Turning the capturing groups of a regular expression into non-capturing ones
+     */
+    private static String nonCapturing(String regex) {
+        StringBuilder result = new StringBuilder(regex.length() + 8);
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == ESCAPE && i + 1 < regex.length()) {
+                result.append(c).append(regex.charAt(++i));
+                continue;
+            }
+
+            if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(' && !regex.startsWith("(?", i)) {
+                result.append("(?:");
+                continue;
+            } else if (c == '(' && isNamedGroup(regex, i) && regex.indexOf('>', i) > 0) {
+                result.append("(?:");
+                i = regex.indexOf('>', i);
+                continue;
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    private static boolean isNamedGroup(String regex, int i) {
+        return regex.startsWith("(?<", i) && i + 3 < regex.length() && Character.isLetter(regex.charAt(i + 3));
+    }
+
+    private static boolean isInteger(CharSequence value) {
+        int start = value.length() > 0 && value.charAt(0) == '-' ? 1 : 0;
+        if (value.length() == start) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUuid(CharSequence value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean valid = i == 8 || i == 13 || i == 18 || i == 23 ? c == '-' : isHexDigit(c);
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static int indexOf(CharSequence value, char c) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mock.apimocks.mechanism;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.regex.Pattern;
+
+/**
+ * This class wraps a bounded cache of compiled regular expressions.
+ * <p/>
+ * Compiling a {@link Pattern} is far more expensive than matching it, so every verifier used by the
+ * {@link ContextEngine} is compiled once and shared between threads. The cache is bounded by size and the least
+ * used patterns are evicted first.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class PatternCache {
+    private static final int MAXIMUM_SIZE = 10_000;
+
+    private static final LoadingCache<String, Pattern> CACHE = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .recordStats()
+            .build(Pattern::compile);
+
+    /**
+     * Default class constructor.
+     * <p/>
+     * It is set as private because this class only should have static methods
+     */
+    private PatternCache() {
+    }
+
+    /**
+     * Getting the compiled pattern of a regular expression, compiling it in case it was not cached yet
+     *
+     * @param regex the regular expression
+     * @return the compiled {@link Pattern}
+     * @throws java.util.regex.PatternSyntaxException whenever the regular expression is invalid
+     */
+    public static Pattern get(String regex) {
+        return CACHE.get(regex);
+    }
+
+    /**
+     * Getting the cache statistics, such as hit, miss and eviction counts
+     *
+     * @return a {@link CacheStats} snapshot
+     */
+    public static CacheStats stats() {
+        return CACHE.stats();
+    }
+
+    /**
+     * Getting the approximate number of cached patterns
+     *
+     * @return the number of cached patterns
+     */
+    public static long size() {
+        return CACHE.estimatedSize();
+    }
+}
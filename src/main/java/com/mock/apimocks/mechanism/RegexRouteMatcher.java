@@ -0,0 +1,54 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * This class describes a route matcher that tries each operation verifier in turn.
+ * <p/>
+ * It is the in-memory counterpart of scanning the RegexOperation search table: every operation is matched against
+ * its own pre-compiled verifier, from the most to the least specific one, until one of them matches.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class RegexRouteMatcher implements RouteMatcher {
+    private final List<CompiledRoute> routes;
+
+    /**
+     * Default class constructor
+     *
+     * @param routes the compiled routes sorted by precedence
+     */
+    private RegexRouteMatcher(List<CompiledRoute> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Builds a new matcher with all the given operations.
+     *
+     * @param operations the operations to be routed
+     * @return a {@link RegexRouteMatcher} with all the operations
+     */
+    public static RegexRouteMatcher build(Collection<MockOperation> operations) {
+        return new RegexRouteMatcher(RoutePrecedence.sort(operations).stream()
+                .map(CompiledRoute::new).collect(Collectors.toList()));
+    }
+
+    @Override
+    public Optional<RouteMatch> match(String method, NormalizedUrl url) {
+        String methodAndUrl = method + url;
+        for (CompiledRoute route : routes) {
+            Optional<RouteMatch> match = route.match(methodAndUrl);
+            if (match.isPresent()) {
+                return match;
+            }
+        }
+        return Optional.empty();
+    }
+}
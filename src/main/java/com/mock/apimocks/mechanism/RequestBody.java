@@ -0,0 +1,249 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.exception.BadRequestException;
+import com.mock.apimocks.exception.PayloadTooLargeException;
+import com.mock.apimocks.exception.UnsupportedMediaTypeException;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * This class describes the body of a request, captured as raw bytes.
+ * <p/>
+ * The body used to be read line by line through the request reader, which allocated a String per line, replaced the
+ * line breaks by the ones of the server and took no account of the request charset. Instead, the bytes are copied
+ * as they are into a growable buffer, and decoded into a String only once, with the request charset.
+ * <p/>
+ * The buffers are taken from a bounded pool and given back once the body is closed, so the requests handled by the
+ * same threads keep reusing them. Buffers that grew beyond {@value #MAX_POOLED_CAPACITY} bytes are left to the
+ * garbage collector instead.
+ * <p/>
+ * Bodies sent with a <i>gzip</i> or <i>deflate</i> Content-Encoding are decompressed while they are read. The
+ * decompressed body is bounded by a maximum size, so a small compressed request can't blow up into a huge one.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class RequestBody implements AutoCloseable {
+    private static final int MIN_CAPACITY = 1024;
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+    private static final int MAX_POOLED_CAPACITY = 256 * 1024;
+    private static final int POOL_SIZE = 64;
+    private static final Queue<byte[]> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final Charset charset;
+    private byte[] buffer;
+    private int length;
+    private String text;
+
+    private RequestBody(byte[] buffer, Charset charset) {
+        this.buffer = buffer;
+        this.charset = charset;
+    }
+
+    /**
+     * Captures the body of a request
+     *
+     * @param input           the request body stream, which is not closed by this method
+     * @param contentEncoding the Content-Encoding header of the request, or null in case there's none
+     * @param charset         the charset of the request, or null in order to use UTF-8
+     * @param contentLength   the Content-Length of the request, or -1 in case it's unknown
+     * @param maxSize         the maximum size of the body after it is decompressed, in bytes
+     * @return the captured {@link RequestBody}, which must be closed once it is not needed anymore
+     * @throws BadRequestException           whenever the body or its charset are invalid
+     * @throws UnsupportedMediaTypeException whenever the body was compressed by an unknown encoding
+     * @throws PayloadTooLargeException      whenever the body is larger than the maximum size
+     * @throws IOException                   whenever the body could not be read
+     */
+    public static RequestBody capture(InputStream input, String contentEncoding, String charset, long contentLength,
+                                      long maxSize) throws IOException {
+        Charset decoder = charset(charset);
+        RequestBody body = null;
+        try {
+            InputStream decoded = decompress(input, contentEncoding);
+            boolean identity = decoded == input;
+            if (identity && contentLength > maxSize) {
+                throw new PayloadTooLargeException("The request body is larger than " + maxSize + " bytes");
+            }
+
+            body = new RequestBody(borrow(identity && contentLength >= 0 ? contentLength : -1), decoder);
+            body.readFrom(decoded, maxSize);
+            return body;
+        } catch (ZipException | EOFException ex) {
+            close(body);
+            throw new BadRequestException("Invalid Request Body. The given body could not be decompressed.");
+        } catch (IOException | RuntimeException ex) {
+            close(body);
+            throw ex;
+        }
+    }
+
+    private static void close(RequestBody body) {
+        if (body != null) {
+            body.close();
+        }
+    }
+
+    private void readFrom(InputStream input, long maxSize) throws IOException {
+        int read;
+        while ((read = input.read(buffer, length, buffer.length - length)) >= 0) {
+            length += read;
+            if (length > maxSize) {
+                throw new PayloadTooLargeException("The request body is larger than " + maxSize + " bytes");
+            }
+            if (length == buffer.length) {
+                grow(maxSize);
+            }
+        }
+    }
+
+    private void grow(long maxSize) {
+        int capacity = (int) Math.min(Math.min((long) buffer.length * 2, maxSize + 1), Integer.MAX_VALUE - 8);
+        byte[] grown = Arrays.copyOf(buffer, Math.max(capacity, buffer.length + 1));
+        release(buffer);
+        buffer = grown;
+    }
+
+    /**
+     * Getting the body decoded with the request charset, decoding it only once
+     *
+     * @return the body text
+     */
+    public String asString() {
+        if (text == null) {
+            text = new String(buffer, 0, length, charset);
+        }
+        return text;
+    }
+
+    /**
+     * Getting a stream over the captured bytes, without copying them
+     *
+     * @return a new {@link InputStream}, which is only valid until the body is closed
+     */
+    public InputStream asStream() {
+        return new ByteArrayInputStream(buffer, 0, length);
+    }
+
+    /**
+     * Getting the size of the captured body, after it was decompressed
+     *
+     * @return the number of bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Gives the buffer back to the pool, the decoded text is still available afterwards
+     */
+    @Override
+    public void close() {
+        if (buffer != null) {
+            release(buffer);
+            buffer = null;
+        }
+    }
+
+    private static Charset charset(String name) {
+        if (name == null || name.isEmpty()) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(name);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException ex) {
+            throw new UnsupportedMediaTypeException("Unsupported charset " + name);
+        }
+    }
+
+    /**
+     * Wraps the body stream with the decoders of its Content-Encoding, which are undone in the reverse order they
+     * were applied
+     */
+    private static InputStream decompress(InputStream input, String contentEncoding) throws IOException {
+        if (contentEncoding == null || contentEncoding.trim().isEmpty()) {
+            return input;
+        }
+        String[] encodings = contentEncoding.split(",");
+        InputStream decoded = input;
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            String encoding = encodings[i].trim().toLowerCase();
+            switch (encoding) {
+                case "identity":
+                case "":
+                    break;
+                case "gzip":
+                case "x-gzip":
+                    decoded = new GZIPInputStream(decoded, DEFAULT_CAPACITY);
+                    break;
+                case "deflate":
+                    decoded = inflate(decoded);
+                    break;
+                default:
+                    throw new UnsupportedMediaTypeException("Unsupported Content-Encoding " + encoding);
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Inflates a deflate body, which is supposed to be zlib wrapped but is often sent as raw deflate data
+     */
+    private static InputStream inflate(InputStream input) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(input, 2);
+        int first = pushback.read();
+        int second = first >= 0 ? pushback.read() : -1;
+        if (second >= 0) {
+            pushback.unread(second);
+        }
+        if (first >= 0) {
+            pushback.unread(first);
+        }
+        boolean zlib = first >= 0 && second >= 0 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+        return new InflaterInputStream(pushback, new Inflater(!zlib), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Takes a buffer from the pool, or creates a new one in case the pool is empty or the body is too large
+     *
+     * @param contentLength the expected body size, or -1 in case it's unknown
+     */
+    private static byte[] borrow(long contentLength) {
+        if (contentLength > MAX_POOLED_CAPACITY) {
+            // one spare byte, so the end of the stream is found without growing the buffer
+            return new byte[(int) Math.min(contentLength + 1, Integer.MAX_VALUE - 8)];
+        }
+        byte[] pooled = POOL.poll();
+        if (pooled != null && pooled.length > contentLength) {
+            return pooled;
+        }
+        if (pooled != null) {
+            release(pooled);
+        }
+        return new byte[contentLength >= 0 ? Math.max(MIN_CAPACITY, (int) contentLength + 1) : DEFAULT_CAPACITY];
+    }
+
+    private static void release(byte[] buffer) {
+        if (buffer.length <= MAX_POOLED_CAPACITY) {
+            POOL.offer(buffer);
+        }
+    }
+}
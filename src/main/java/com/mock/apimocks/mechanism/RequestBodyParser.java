@@ -2,35 +2,30 @@ package com.mock.apimocks.mechanism;
 
 import com.mock.apimocks.enums.ContentType;
 import com.mock.apimocks.exception.BadRequestException;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.json.XML;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
 
 /**
  * This class wraps a universal HTTP body parser.
  * <p/>
  * It is able to parse http requests from the content types described on the the {@link ContentType} enum.
+ * <p/>
+ * The XML bodies are parsed by the given {@link XmlBodyParser}, along with its namespace, attribute and depth options.
+ * The parser holds no state between calls, so it could be safely shared between threads.
  *
  * @author gabriel.nascimento
  * @version 1.0
  */
 public class RequestBodyParser {
-    private static final String URL_ENCODED_PARAM_DELIMITER = "&";
-    private static final String URL_ENCODED_VALUE_DELIMITER = "=";
-    private static final String INTEGER_CHECKER = "^-?[0-9]+";
-    private static final String DOUBLE_CHECKER = "^-?\\d+(\\.\\d+)?$";
+    private final XmlBodyParser xmlParser;
 
     /**
-     * Default class constructor.
-     * <p/>
-     * It is set as private because this class only should have static methods
+     * Default class constructor
+     *
+     * @param xmlParser the parser of the XML bodies
      */
-    private RequestBodyParser() {
+    public RequestBodyParser(XmlBodyParser xmlParser) {
+        this.xmlParser = xmlParser;
     }
 
     /**
@@ -40,9 +35,9 @@ public class RequestBodyParser {
      * <p/>
      * Currently, we are accepting these kinds of content:
      * <ul>
-     * <li>application/json</li>
-     * <li>text/xml</li>
-     *     <li>application/x-www-form-urlencoded</li>
+     * <li>application/json, with any JSON value such as objects, arrays or scalars</li>
+     * <li>text/xml and application/xml, see {@link XmlBodyParser}</li>
+     * <li>application/x-www-form-urlencoded, with repeated names collected into lists</li>
      * </ul>
      * In case the content type was not defined, this method returns the string as
      * it is without performing any conversions.
@@ -52,64 +47,65 @@ public class RequestBodyParser {
      * @return a Java Object with the parsed body
      * @throws BadRequestException whenever the body could not be parsed
      */
-    public static Object parseBody(String rawBody, ContentType contentType) throws BadRequestException {
+    public Object parseBody(String rawBody, ContentType contentType) throws BadRequestException {
         Object parsed = rawBody;
-        try {
-            if (contentType != null) {
-                switch (contentType) {
-                    case XML:
-                    case APP_XML:
-                        parsed = XML.toJSONObject(rawBody).toMap();
-                        // since the {@link XML} class does not throw any exception in case the parsing process fails,
-                        // we must throw an {@link JSONException} manually in case the  String to be parsed was not
-                        // empty and the method result was an empty Map.
-                        if (((HashMap<?, ?>) parsed).isEmpty())
-                            throw new JSONException("Unable to parse XML String");
-                        break;
-                    case JSON:
-                        parsed = new JSONObject(rawBody).toMap();
-                        break;
-                    case URL_ENCODED:
-                        parsed = parseUrlEncoded(rawBody);
-                        break;
-                }
+        if (contentType != null) {
+            switch (contentType) {
+                case XML:
+                case APP_XML:
+                    parsed = xmlParser.parse(rawBody);
+                    break;
+                case JSON:
+                    parsed = JsonBodyParser.parse(rawBody);
+                    break;
+                case URL_ENCODED:
+                    parsed = UrlEncodedBodyParser.parse(rawBody, StandardCharsets.UTF_8);
+                    break;
             }
-        } catch (JSONException ex) {
-            // whenever the body could not be parsed, we should throw a 400
-            // Bad Request response because the body's structure was invalid
-            throw new BadRequestException("Invalid Request Body. The given body could not be parsed.");
         }
         return parsed;
     }
 
     /**
-     * Parsing an x-www-urlencoded body into a Map<String, Object>
+     * Parse a captured request body into a Java object
+     * <p/>
+     * JSON bodies encoded as UTF-8 and XML bodies are parsed straight from their bytes, see {@link JsonBodyParser} and
+     * {@link XmlBodyParser}, while the other bodies are parsed from their text as described on
+     * {@link #parseBody(String, ContentType)}.
      *
-     * @param body the body to be parsed
-     * @return a Map with the parsed result
+     * @param body        the captured request body
+     * @param contentType the content type of the request with its kind
+     * @return a Java Object with the parsed body
+     * @throws BadRequestException whenever the body could not be parsed
      */
-    private static Map<String, Object> parseUrlEncoded(String body) {
-        if(!body.contains("="))
-            throw new JSONException("Could not parse x-www-urlencoded");
+    public Object parseBody(RequestBody body, ContentType contentType) throws BadRequestException {
+        return parseBody(body, contentType, BodySelection.ALL);
+    }
 
-        return Arrays.stream(body.split(URL_ENCODED_PARAM_DELIMITER))
-                .map(p -> p.split(URL_ENCODED_VALUE_DELIMITER))
-                .collect(Collectors.toMap(p -> p[0], p -> {
-                    String val = p.length > 1 ? p[1] : "";
-                    // checking for integer number
-                    if (val.matches(INTEGER_CHECKER)) {
-                        return Integer.valueOf(val);
-                    }
-                    // checking for double (float)
-                    if (val.matches(DOUBLE_CHECKER)) {
-                        return Double.valueOf(val);
-                    }
-                    // checking for boolean
-                    if(val.equalsIgnoreCase("true") ||
-                            val.equalsIgnoreCase("false")) {
-                        return Boolean.valueOf(val);
-                    }
-                    return val;
-                }));
+    /**
+     * Parse the parts of a captured request body read by the scenario conditions into a Java object
+     * <p/>
+     * Only JSON bodies encoded as UTF-8 are partially parsed, see {@link JsonBodyParser}, while the other bodies are
+     * always parsed as a whole.
+     *
+     * @param body        the captured request body
+     * @param contentType the content type of the request with its kind
+     * @param selection   the {@link BodySelection} read by the conditions, or null in order to parse the whole body
+     * @return a Java Object with the parsed body
+     * @throws BadRequestException whenever the body could not be parsed
+     */
+    public Object parseBody(RequestBody body, ContentType contentType, BodySelection selection)
+            throws BadRequestException {
+        if (contentType == ContentType.JSON && StandardCharsets.UTF_8.equals(body.getCharset())) {
+            return JsonBodyParser.parse(body.asStream(), selection == null ? BodySelection.ALL : selection);
+        }
+        if (contentType == ContentType.XML || contentType == ContentType.APP_XML) {
+            return xmlParser.parse(body.asStream(), body.getCharset());
+        }
+        if (contentType == ContentType.URL_ENCODED) {
+            // the percent escapes are decoded with the request charset
+            return UrlEncodedBodyParser.parse(body.asString(), body.getCharset());
+        }
+        return parseBody(body.asString(), contentType);
     }
 }
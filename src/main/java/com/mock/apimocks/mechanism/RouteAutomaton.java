@@ -0,0 +1,453 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.PathParamType;
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class describes a route matcher that unions the verifiers of every operation into a single automaton.
+ * <p/>
+ * Each operation's expression (its method followed by its URL verifier) is parsed into tokens and inserted on a
+ * shared nondeterministic automaton, whose accepting states are tagged with the operation. The deterministic states
+ * are then lazily built on demand by subset construction and cached, so after warming up a lookup is a single
+ * linear scan over the method and the URL regardless of how many routes there are.
+ * <p/>
+ * The automaton only tells which operations accept the URL. Path parameters are extracted afterwards by running the
+ * winner's own verifier once, which is skipped altogether for operations without path parameters. Typed placeholders
+ * (such as <i>{id:int}</i>) are represented as untyped ones, so their constraint is only checked by that same run.
+ * <p/>
+ * Expressions using regex constructs other than the ones generated by {@link ContextEngine#createUrlVerifier(String)}
+ * (including custom placeholder constraints, such as <i>{id:\d{3}}</i>) can't be represented, so those operations
+ * are kept apart and matched one by one in case the automaton finds nothing.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class RouteAutomaton implements RouteMatcher {
+    private static final int MAX_CACHED_STATES = 100_000;
+
+    private static final int SLASHES = -1;
+    private static final int PATH_PARAM = -2;
+    private static final int ANY_CHAR = -3;
+    private static final int CATCH_ALL = -4;
+
+    private static final List<String> PATH_PARAM_VERIFIERS = Arrays.asList(PathParamType.STRING.verifier(),
+            PathParamType.INT.verifier(), PathParamType.UUID.verifier());
+    private static final String UNSUPPORTED = "*+?[]{}|^$)";
+
+    private static final int[] NONE = new int[0];
+    private static final char[] NO_KEYS = new char[0];
+
+    private final CompiledRoute[] routes;
+    private final Node[] nodes;
+    private final int[] unsupported;
+    private final Map<StateKey, State> states = new ConcurrentHashMap<>();
+    private final State dead;
+    private final State start;
+
+    /**
+     * Default class constructor
+     *
+     * @param routes      the compiled routes sorted by precedence
+     * @param nodes       the automaton nodes indexed by their identifiers
+     * @param unsupported the sorted indexes of the routes that could not be represented on the automaton
+     */
+    private RouteAutomaton(CompiledRoute[] routes, Node[] nodes, int[] unsupported) {
+        this.routes = routes;
+        this.nodes = nodes;
+        this.unsupported = unsupported;
+        this.dead = new State(NONE, NONE, NO_KEYS);
+        this.start = state(new int[]{0});
+    }
+
+    /**
+     * Builds a new automaton with all the given operations.
+     *
+     * @param operations the operations to be routed
+     * @return a {@link RouteAutomaton} with all the operations
+     */
+    public static RouteAutomaton build(Collection<MockOperation> operations) {
+        List<CompiledRoute> routes = new ArrayList<>(operations.size());
+        int[] unsupported = NONE;
+        List<Node> nodes = new ArrayList<>();
+        Node root = new Node(nodes);
+
+        for (MockOperation operation : RoutePrecedence.sort(operations)) {
+            CompiledRoute route = new CompiledRoute(operation);
+            int[] tokens = tokenize(route.getExpression());
+            if (tokens == null) {
+                unsupported = Arrays.copyOf(unsupported, unsupported.length + 1);
+                unsupported[unsupported.length - 1] = routes.size();
+            } else {
+                root.insert(tokens, 0, routes.size(), nodes);
+            }
+            routes.add(route);
+        }
+
+        nodes.forEach(Node::freeze);
+        return new RouteAutomaton(routes.toArray(new CompiledRoute[0]), nodes.toArray(new Node[0]), unsupported);
+    }
+
+    @Override
+    public Optional<RouteMatch> match(String method, NormalizedUrl url) {
+        State state = scan(scan(start, method), url);
+        String methodAndUrl = null;
+        int accepted = 0;
+        int kept = 0;
+
+        // both the candidates and the routes kept apart are sorted by precedence, so they are merged on the way
+        while (accepted < state.accepts.length || kept < unsupported.length) {
+            boolean isCandidate = kept == unsupported.length
+                    || (accepted < state.accepts.length && state.accepts[accepted] < unsupported[kept]);
+            CompiledRoute route = routes[isCandidate ? state.accepts[accepted++] : unsupported[kept++]];
+            if (isCandidate && !route.hasParams()) {
+                return Optional.of(route.matchWithoutParams());
+            }
+
+            methodAndUrl = methodAndUrl != null ? methodAndUrl : method + url;
+            Optional<RouteMatch> match = route.match(methodAndUrl);
+            if (match.isPresent()) {
+                return match;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Feeds every character of a given text to the automaton
+     *
+     * @param state the state to start from
+     * @param text  the text to be consumed
+     * @return the resulting {@link State}
+     */
+    private State scan(State state, CharSequence text) {
+        for (int i = 0; i < text.length() && state != dead; i++) {
+            state = next(state, text.charAt(i));
+        }
+        return state;
+    }
+
+    /**
+     * Getting the state reached from a given one by consuming a character, building it in case it wasn't yet.
+     *
+     * @param state the current state
+     * @param c     the consumed character
+     * @return the next {@link State}
+     */
+    private State next(State state, char c) {
+        int index = Arrays.binarySearch(state.keys, c);
+        int slot = index >= 0 ? index : state.keys.length;
+        State next = state.next.get(slot);
+        if (next == null) {
+            next = state(move(state.nodes, c));
+            if (states.size() < MAX_CACHED_STATES) {
+                state.next.compareAndSet(slot, null, next);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Computing the nodes reached from a set of nodes by consuming a character
+     *
+     * @param from the current nodes
+     * @param c    the consumed character
+     * @return the sorted identifiers of the reached nodes
+     */
+    private int[] move(int[] from, char c) {
+        int[] to = new int[8];
+        int count = 0;
+        for (int id : from) {
+            Node node = nodes[id];
+            int index = Arrays.binarySearch(node.keys, c);
+            if (index >= 0) {
+                to = add(to, count++, node.children[index].id);
+            }
+            if (c == '/') {
+                if (node.slashes != null) {
+                    to = add(to, count++, node.slashes.id);
+                }
+                if (node.loop == SLASHES) {
+                    to = add(to, count++, node.id);
+                }
+            } else {
+                if (node.pathParam != null) {
+                    to = add(to, count++, node.pathParam.id);
+                }
+                if (node.loop == PATH_PARAM) {
+                    to = add(to, count++, node.id);
+                }
+            }
+            if (node.anyChar != null) {
+                to = add(to, count++, node.anyChar.id);
+            }
+            if (node.catchAll != null) {
+                to = add(to, count++, node.catchAll.id);
+            }
+            if (node.loop == CATCH_ALL) {
+                to = add(to, count++, node.id);
+            }
+        }
+        return distinct(to, count);
+    }
+
+    /**
+     * Getting the deterministic state for a given set of nodes, interning it so equal sets share the same state
+     *
+     * @param ids the sorted node identifiers
+     * @return the {@link State} for the nodes
+     */
+    private State state(int[] ids) {
+        if (ids.length == 0) {
+            return dead;
+        }
+
+        StateKey key = new StateKey(ids);
+        State state = states.get(key);
+        if (state == null) {
+            state = create(ids);
+            if (states.size() < MAX_CACHED_STATES) {
+                State existing = states.putIfAbsent(key, state);
+                state = existing != null ? existing : state;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Creating a new deterministic state for a given set of nodes
+     *
+     * @param ids the sorted node identifiers
+     * @return the new {@link State}
+     */
+    private State create(int[] ids) {
+        int[] accepts = new int[4];
+        int acceptCount = 0;
+        char[] keys = new char[8];
+        int keyCount = 0;
+
+        keys[keyCount++] = '/';
+        for (int id : ids) {
+            Node node = nodes[id];
+            for (int route : node.accepts) {
+                accepts = add(accepts, acceptCount++, route);
+            }
+            for (char key : node.keys) {
+                if (keyCount == keys.length) {
+                    keys = Arrays.copyOf(keys, keys.length * 2);
+                }
+                keys[keyCount++] = key;
+            }
+        }
+
+        int[] distinctKeys = new int[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            distinctKeys[i] = keys[i];
+        }
+        distinctKeys = distinct(distinctKeys, keyCount);
+        char[] stateKeys = new char[distinctKeys.length];
+        for (int i = 0; i < distinctKeys.length; i++) {
+            stateKeys[i] = (char) distinctKeys[i];
+        }
+        return new State(ids, distinct(accepts, acceptCount), stateKeys);
+    }
+
+    /**
+     * Parsing an operation expression into tokens.
+     * <p/>
+     * Literal characters are kept as they are, while each supported regex construct is replaced by a negative
+     * token: <i>\/+</i> by {@link #SLASHES}, <i>([^\/]+)</i> (as well as the integer and UUID groups) by
+     * {@link #PATH_PARAM}, <i>(.+)</i> by {@link #CATCH_ALL} and <i>.</i> by {@link #ANY_CHAR}. The outer capturing
+     * group is ignored.
+     *
+     * @param expression the operation method followed by its URL verifier
+     * @return the expression tokens, or null in case it uses an unsupported construct
+     */
+    static int[] tokenize(String expression) {
+        int[] tokens = new int[expression.length()];
+        int count = 0;
+        int groupStart = expression.indexOf('(');
+        if (groupStart < 0 || expression.charAt(expression.length() - 1) != ')') {
+            return null;
+        }
+
+        for (int i = 0; i < expression.length() - 1; i++) {
+            char c = expression.charAt(i);
+            if (i == groupStart) {
+                continue;
+            }
+
+            if (c == '\\') {
+                if (expression.startsWith("\\/+", i)) {
+                    tokens[count++] = SLASHES;
+                    i += 2;
+                } else if (i + 1 < expression.length() - 1 && !Character.isLetterOrDigit(expression.charAt(i + 1))) {
+                    tokens[count++] = expression.charAt(++i);
+                } else {
+                    return null;
+                }
+            } else if (c == '(') {
+                int end = expression.indexOf(')', i);
+                String group = end < 0 ? null : expression.substring(i + 1, end);
+                if (PATH_PARAM_VERIFIERS.contains(group)) {
+                    tokens[count++] = PATH_PARAM;
+                } else if (PathParamType.CATCH_ALL.verifier().equals(group)) {
+                    tokens[count++] = CATCH_ALL;
+                } else {
+                    return null;
+                }
+                i = end;
+            } else if (c == '.') {
+                tokens[count++] = ANY_CHAR;
+            } else if (UNSUPPORTED.indexOf(c) >= 0) {
+                return null;
+            } else {
+                tokens[count++] = c;
+            }
+        }
+        return Arrays.copyOf(tokens, count);
+    }
+
+    /**
+     * Appending a value to an array, growing it whenever needed
+     */
+    private static int[] add(int[] array, int index, int value) {
+        int[] target = index == array.length ? Arrays.copyOf(array, array.length * 2) : array;
+        target[index] = value;
+        return target;
+    }
+
+    /**
+     * Sorting the first values of an array and removing the duplicated ones
+     */
+    private static int[] distinct(int[] array, int count) {
+        if (count == 0) {
+            return NONE;
+        }
+
+        int[] sorted = Arrays.copyOf(array, count);
+        Arrays.sort(sorted);
+        int size = 1;
+        for (int i = 1; i < count; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == count ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * A node of the nondeterministic automaton.
+     * <p/>
+     * Routes sharing a prefix share the same nodes. Nodes created for repeatable tokens (slashes, path
+     * parameters and catch-all placeholders) loop on themselves.
+     */
+    private static class Node {
+        private final int id;
+        private Map<Character, Node> literals = new HashMap<>();
+        private char[] keys = NO_KEYS;
+        private Node[] children;
+        private Node slashes;
+        private Node pathParam;
+        private Node anyChar;
+        private Node catchAll;
+        private int loop;
+        private int[] accepts = NONE;
+
+        private Node(List<Node> nodes) {
+            this.id = nodes.size();
+            nodes.add(this);
+        }
+
+        private void insert(int[] tokens, int index, int route, List<Node> nodes) {
+            if (index == tokens.length) {
+                accepts = Arrays.copyOf(accepts, accepts.length + 1);
+                accepts[accepts.length - 1] = route;
+                return;
+            }
+
+            int token = tokens[index];
+            Node child;
+            if (token == SLASHES) {
+                child = slashes = slashes != null ? slashes : new Node(nodes);
+            } else if (token == PATH_PARAM) {
+                child = pathParam = pathParam != null ? pathParam : new Node(nodes);
+            } else if (token == ANY_CHAR) {
+                child = anyChar = anyChar != null ? anyChar : new Node(nodes);
+            } else if (token == CATCH_ALL) {
+                child = catchAll = catchAll != null ? catchAll : new Node(nodes);
+            } else {
+                child = literals.computeIfAbsent((char) token, c -> new Node(nodes));
+            }
+
+            if (token == SLASHES || token == PATH_PARAM || token == CATCH_ALL) {
+                child.loop = token;
+            }
+            child.insert(tokens, index + 1, route, nodes);
+        }
+
+        private void freeze() {
+            keys = new char[literals.size()];
+            children = new Node[literals.size()];
+            int i = 0;
+            for (Character key : literals.keySet().stream().sorted().toArray(Character[]::new)) {
+                keys[i] = key;
+                children[i++] = literals.get(key);
+            }
+            literals = null;
+        }
+    }
+
+    /**
+     * A state of the deterministic automaton, that is, a set of nodes.
+     * <p/>
+     * Transitions are kept for each literal character expected by any of the nodes, plus one last slot shared by
+     * every other character. Slashes always have their own slot since they never match a path parameter.
+     */
+    private static class State {
+        private final int[] nodes;
+        private final int[] accepts;
+        private final char[] keys;
+        private final AtomicReferenceArray<State> next;
+
+        private State(int[] nodes, int[] accepts, char[] keys) {
+            this.nodes = nodes;
+            this.accepts = accepts;
+            this.keys = keys;
+            this.next = new AtomicReferenceArray<>(keys.length + 1);
+        }
+    }
+
+    /**
+     * The key used to intern deterministic states
+     */
+    private static class StateKey {
+        private final int[] nodes;
+        private final int hash;
+
+        private StateKey(int[] nodes) {
+            this.nodes = nodes;
+            this.hash = Arrays.hashCode(nodes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(nodes, ((StateKey) o).nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.models.RouteMatch;
+
+import java.util.Optional;
+
+/**
+ * This interface represents a route matcher.
+ * <p/>
+ * A route matcher is built once from all the registered operations and is able to find the operation that matches
+ * with a requested method and URL, along with its path parameter values.
+ * <p/>
+ * Implementations are expected to be immutable, so they could be safely shared between threads.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public interface RouteMatcher {
+    /**
+     * Finds the operation that matches with the given method and URL.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL
+     * @return an {@link Optional} with a {@link RouteMatch} containing the operation identifier and its path
+     *      parameters, or an empty one in case there's no operation for the URL
+     */
+    default Optional<RouteMatch> match(String method, String url) {
+        return match(method, UrlNormalizer.normalize(url));
+    }
+
+    /**
+     * Finds the operation that matches with the given method and normalized URL.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL, already normalized
+     * @return an {@link Optional} with a {@link RouteMatch} containing the operation identifier and its path
+     *      parameters, or an empty one in case there's no operation for the URL
+     */
+    Optional<RouteMatch> match(String method, NormalizedUrl url);
+}
@@ -0,0 +1,236 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.PathParamType;
+import com.mock.apimocks.models.vo.MockApi;
+import com.mock.apimocks.models.vo.MockOperation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This class describes an index of the routes of every mock, used to find routes of different mocks that answer the
+ * same URLs.
+ * <p/>
+ * The index is a trie keyed first by the HTTP method and then by each one of the path segments, the same way as the
+ * {@link RouteTrie}. Literal segments are keyed by their text and placeholders by their constraint, regardless of
+ * their names, so <i>/orders/{id}</i> and <i>/orders/{orderId}</i> end up on the same node.
+ * <p/>
+ * Two kinds of conflicts are found:
+ * <ul>
+ *     <li>shadowed routes, which have the same method and the same segments, so only one of them is ever called.
+ *     Finding them costs O(path depth)</li>
+ *     <li>overlapping routes, which differ only by placeholders with the same precedence but different constraints
+ *     (such as <i>{id:int}</i> and <i>{id:\d+}</i>), so which one answers the shared URLs is not defined</li>
+ * </ul>
+ * Placeholders in the middle of a segment (such as <i>{name}.json</i>) are compared as literal text.
+ * <p/>
+ * The index is updated one mock at a time and is not thread-safe, so it must be guarded by its owner.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class RouteOverlapIndex {
+    private final Map<String, Node> roots = new HashMap<>();
+    private final Map<String, List<Node>> leavesByMock = new HashMap<>();
+
+    /**
+     * Builds a new index with the operations of all the given mocks.
+     *
+     * @param mocks the registered mocks
+     * @return a {@link RouteOverlapIndex} with all the mock operations
+     */
+    public static RouteOverlapIndex build(Collection<MockApi> mocks) {
+        RouteOverlapIndex index = new RouteOverlapIndex();
+        mocks.forEach(index::insert);
+        return index;
+    }
+
+    /**
+     * Inserts every operation of a mock on the index
+     *
+     * @param mock the mock to be inserted
+     */
+    public void insert(MockApi mock) {
+        if (mock.getOperations() == null) {
+            return;
+        }
+
+        List<Node> leaves = leavesByMock.computeIfAbsent(mock.getId(), id -> new ArrayList<>());
+        for (MockOperation operation : mock.getOperations()) {
+            Route route = new Route(mock.getId(), operation.getId(), operation.getMethod().name(),
+                    fullPath(mock, operation));
+            Node node = roots.computeIfAbsent(route.method, m -> new Node(null));
+            NormalizedUrl path = UrlNormalizer.normalize(route.fullPath);
+            for (int i = 0; i < path.segmentCount(); i++) {
+                node = node.child(path.segment(i).toString());
+            }
+            node.routes.add(route);
+            leaves.add(node);
+        }
+    }
+
+    /**
+     * Removes every operation of a mock from the index
+     *
+     * @param mockId the mock identifier
+     */
+    public void remove(String mockId) {
+        List<Node> leaves = leavesByMock.remove(mockId);
+        if (leaves != null) {
+            leaves.forEach(leaf -> leaf.routes.removeIf(route -> route.mockId.equals(mockId)));
+        }
+    }
+
+    /**
+     * Finds a route of another mock with the same method and segments as the given one
+     *
+     * @param mockId   the identifier of the mock that owns the given route
+     * @param method   the route HTTP method
+     * @param fullPath the route full path
+     * @return an {@link Optional} with the shadowed {@link Route}, or an empty one in case there's none
+     */
+    public Optional<Route> findShadowed(String mockId, String method, String fullPath) {
+        Node node = roots.get(method);
+        NormalizedUrl path = UrlNormalizer.normalize(fullPath);
+        for (int i = 0; i < path.segmentCount() && node != null; i++) {
+            node = node.find(path.segment(i).toString());
+        }
+        return node == null ? Optional.empty()
+                : node.routes.stream().filter(route -> !route.mockId.equals(mockId)).findFirst();
+    }
+
+    /**
+     * Finds the routes of other mocks that might answer some of the URLs of the given one with the same precedence,
+     * not including the shadowed ones
+     *
+     * @param mockId   the identifier of the mock that owns the given route
+     * @param method   the route HTTP method
+     * @param fullPath the route full path
+     * @return a List of the overlapping {@link Route}s
+     */
+    public List<Route> findOverlaps(String mockId, String method, String fullPath) {
+        List<Route> overlaps = new ArrayList<>();
+        Node root = roots.get(method);
+        if (root != null) {
+            collectOverlaps(root, UrlNormalizer.normalize(fullPath), 0, false, mockId, overlaps);
+        }
+        return overlaps;
+    }
+
+    /**
+     * Walks down every branch that could share URLs with the given path at the same precedence.
+     * <p/>
+     * Literal segments only follow the same literal, since they always take precedence over placeholders. Each
+     * placeholder follows the same constraint and any other constraint with the same precedence that might accept
+     * the same values.
+     */
+    private static void collectOverlaps(Node node, NormalizedUrl path, int index, boolean diverged, String mockId,
+                                        List<Route> overlaps) {
+        if (index == path.segmentCount()) {
+            if (diverged) {
+                node.routes.stream().filter(route -> !route.mockId.equals(mockId)).forEach(overlaps::add);
+            }
+            return;
+        }
+
+        String segment = path.segment(index).toString();
+        if (!PathParam.isPlaceholder(segment)) {
+            Node literal = node.literals.get(segment);
+            if (literal != null) {
+                collectOverlaps(literal, path, index + 1, diverged, mockId, overlaps);
+            }
+            return;
+        }
+
+        PathParam param = PathParam.parse(segment.substring(1, segment.length() - 1));
+        for (Node child : node.params.values()) {
+            boolean same = child.param.key().equals(param.key());
+            if (same || mightOverlap(child.param, param)) {
+                collectOverlaps(child, path, index + 1, diverged || !same, mockId, overlaps);
+            }
+        }
+    }
+
+    /**
+     * Checking if two different placeholders have the same precedence and might accept the same values.
+     * <p/>
+     * Integers and UUIDs never share values, while custom constraints can't be compared, so they are assumed to
+     * overlap with any other placeholder of the same precedence.
+     */
+    private static boolean mightOverlap(PathParam a, PathParam b) {
+        return a.getType().precedence() == b.getType().precedence()
+                && (a.getType() == PathParamType.PATTERN || b.getType() == PathParamType.PATTERN);
+    }
+
+    private static String fullPath(MockApi mock, MockOperation operation) {
+        return operation.getFullPath() != null ? operation.getFullPath()
+                : ContextEngine.sanitizeUrl(mock.getBasePath() + "/" + operation.getPath());
+    }
+
+    /**
+     * A route registered on the index
+     */
+    public static final class Route {
+        private final String mockId;
+        private final String operationId;
+        private final String method;
+        private final String fullPath;
+
+        private Route(String mockId, String operationId, String method, String fullPath) {
+            this.mockId = mockId;
+            this.operationId = operationId;
+            this.method = method;
+            this.fullPath = fullPath;
+        }
+
+        public String getMockId() {
+            return mockId;
+        }
+
+        public String getOperationId() {
+            return operationId;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getFullPath() {
+            return fullPath;
+        }
+    }
+
+    /**
+     * A single trie node
+     */
+    private static class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final Map<String, Node> params = new LinkedHashMap<>();
+        private final List<Route> routes = new ArrayList<>(1);
+        private final PathParam param;
+
+        private Node(PathParam param) {
+            this.param = param;
+        }
+
+        private Node child(String segment) {
+            if (!PathParam.isPlaceholder(segment)) {
+                return literals.computeIfAbsent(segment, s -> new Node(null));
+            }
+            PathParam placeholder = PathParam.parse(segment.substring(1, segment.length() - 1));
+            return params.computeIfAbsent(placeholder.key(), k -> new Node(placeholder));
+        }
+
+        private Node find(String segment) {
+            if (!PathParam.isPlaceholder(segment)) {
+                return literals.get(segment);
+            }
+            return params.get(PathParam.parse(segment.substring(1, segment.length() - 1)).key());
+        }
+    }
+}
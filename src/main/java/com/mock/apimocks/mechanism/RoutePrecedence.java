@@ -0,0 +1,99 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.models.vo.MockOperation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * This class describes the precedence between routes.
+ * <p/>
+ * Whenever more than one operation could match the same URL, the one with the most specific segments wins. Segments
+ * are compared from left to right: a literal segment is more specific than a segment mixing literal text and
+ * placeholders (such as <i>{name}.json</i>), which is more specific than a typed placeholder (such as
+ * <i>{id:int}</i>), which is more specific than an untyped one, which is more specific than a catch-all one. In case
+ * two routes are equally specific, the first registered one wins.
+ * <p/>
+ * This is the same order in which the {@link RouteTrie} visits its nodes, so every {@link RouteMatcher} resolves
+ * conflicts the same way.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class RoutePrecedence {
+    private static final int LITERAL = 4;
+    private static final int MIXED = 3;
+
+    private static final Comparator<int[]> SPECIFICITY = (a, b) -> {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            if (a[i] != b[i]) {
+                return Integer.compare(b[i], a[i]);
+            }
+        }
+        return Integer.compare(b.length, a.length);
+    };
+
+    /**
+     * Default class constructor.
+     * <p/>
+     * It is set as private because this class only should have static methods
+     */
+    private RoutePrecedence() {
+    }
+
+    /**
+     * Sorting operations from the most to the least specific one, keeping the registration order for ties
+     *
+     * @param operations the operations to be sorted
+     * @return a new list with the sorted operations
+     */
+    public static List<MockOperation> sort(Collection<MockOperation> operations) {
+        List<Ranked> ranked = new ArrayList<>(operations.size());
+        operations.forEach(op -> ranked.add(new Ranked(op, specificity(op.getFullPath()))));
+        return ranked.stream()
+                .sorted(Comparator.comparing((Ranked r) -> r.specificity, SPECIFICITY))
+                .map(r -> r.operation)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Getting the specificity of each segment of a path
+     *
+     * @param path the operation path
+     * @return an array with the specificity of each path segment
+     */
+    private static int[] specificity(String path) {
+        String sanitized = ContextEngine.sanitizeUrl(path);
+        if (sanitized.isEmpty()) {
+            return new int[0];
+        }
+
+        String[] segments = sanitized.substring(sanitized.startsWith("/") ? 1 : 0).split("/");
+        int[] specificity = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            if (PathParam.isPlaceholder(segments[i])) {
+                specificity[i] = PathParam.parse(segments[i].substring(1, segments[i].length() - 1)).getType()
+                        .precedence();
+            } else {
+                specificity[i] = PathParam.parseAll(segments[i]).isEmpty() ? LITERAL : MIXED;
+            }
+        }
+        return specificity;
+    }
+
+    /**
+     * An operation with its pre-computed specificity
+     */
+    private static class Ranked {
+        private final MockOperation operation;
+        private final int[] specificity;
+
+        private Ranked(MockOperation operation, int[] specificity) {
+            this.operation = operation;
+            this.specificity = specificity;
+        }
+    }
+}
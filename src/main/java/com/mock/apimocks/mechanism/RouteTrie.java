@@ -0,0 +1,251 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.PathParamType;
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class describes an in-memory route trie.
+ * <p/>
+ * The trie is keyed first by the HTTP method and then by each one of the path segments of the operation's full path.
+ * Literal segments are stored as named children while path parameter placeholders (such as <i>{id}</i>) are stored
+ * as a single wildcard child on each node. Typed placeholders (such as <i>{id:int}</i>) are stored as constrained
+ * children, one for each constraint, and a trailing catch-all placeholder (<i>{rest:**}</i>) is stored on its own.
+ * Segments mixing literal text and placeholders (such as <i>{name}.json</i>) are stored as pattern children, each one
+ * matched by the pre-compiled verifier of its segment.
+ * <p/>
+ * Literal text is always compared as it is, so a dot only matches a dot, just like on the verifiers created by
+ * {@link ContextEngine#createUrlVerifier(String)}.
+ * <p/>
+ * Looking up a URL costs O(path depth) and returns both the operation identifier and the path parameter values in a
+ * single pass. Whenever more than one child could match a segment, literal children take precedence over pattern
+ * ones, which take precedence over constrained ones, which take precedence over the wildcard, which takes precedence
+ * over the catch-all, the same order as {@link RoutePrecedence}.
+ * <p/>
+ * Instances are meant to be built once and then only read, so they could be safely shared between threads.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class RouteTrie implements RouteMatcher {
+    private static final PathParam[] NO_PARAMS = new PathParam[0];
+
+    private final Map<String, Node> roots = new HashMap<>();
+    private int maxParams;
+    private boolean hasPatterns;
+
+    /**
+     * Builds a new trie with all the given operations.
+     *
+     * @param operations the operations to be routed
+     * @return a {@link RouteTrie} with all the operations
+     */
+    public static RouteTrie build(Collection<MockOperation> operations) {
+        RouteTrie trie = new RouteTrie();
+        operations.forEach(trie::insert);
+        return trie;
+    }
+
+    /**
+     * Inserts an operation on the trie based on its method and full path.
+     * <p/>
+     * In case there's already an operation registered for the same method and path, the first one is kept.
+     *
+     * @param operation the operation to be inserted
+     */
+    public void insert(MockOperation operation) {
+        Node node = roots.computeIfAbsent(operation.getMethod().name(), m -> new Node());
+        NormalizedUrl path = UrlNormalizer.normalize(operation.getFullPath());
+        List<PathParam> params = new ArrayList<>();
+        for (int i = 0; i < path.segmentCount(); i++) {
+            String segment = path.segment(i).toString();
+            PathParam param = PathParam.isPlaceholder(segment)
+                    ? PathParam.parse(segment.substring(1, segment.length() - 1)) : null;
+            if (param == null) {
+                List<PathParam> segmentParams = PathParam.parseAll(segment);
+                if (segmentParams.isEmpty()) {
+                    node = node.literals.computeIfAbsent(segment, s -> new Node());
+                } else {
+                    params.addAll(segmentParams);
+                    hasPatterns = true;
+                    String verifier = ContextEngine.createSegmentVerifier(segment);
+                    node = node.patterns.computeIfAbsent(verifier, v -> new Node(PatternCache.get(v)));
+                }
+                continue;
+            }
+
+            params.add(param);
+            if (param.getType() == PathParamType.STRING
+                    || (param.getType() == PathParamType.CATCH_ALL && i < path.segmentCount() - 1)) {
+                // a catch-all placeholder is only allowed at the end of the path
+                node.wildcard = node.wildcard != null ? node.wildcard : new Node();
+                node = node.wildcard;
+            } else if (param.getType() == PathParamType.CATCH_ALL) {
+                node.catchAll = node.catchAll != null ? node.catchAll : new Node();
+                node = node.catchAll;
+            } else {
+                node = node.constrained.computeIfAbsent(param.key(), k -> new Node(param));
+            }
+        }
+
+        maxParams = Math.max(maxParams, params.size());
+        if (node.operationId == null) {
+            node.operationId = operation.getId();
+            node.params = params.toArray(NO_PARAMS);
+        }
+    }
+
+    @Override
+    public Optional<RouteMatch> match(String method, NormalizedUrl url) {
+        Node root = roots.get(method);
+        if (root == null) {
+            return Optional.empty();
+        }
+
+        int[] values = new int[maxParams];
+        String[] captured = hasPatterns ? new String[maxParams] : null;
+        Node leaf = find(root, url, 0, values, captured, 0);
+        if (leaf == null) {
+            return Optional.empty();
+        }
+
+        Map<String, Object> pathParams = new HashMap<>(Math.max(4, leaf.params.length * 2));
+        for (int i = 0; i < leaf.params.length; i++) {
+            PathParam param = leaf.params[i];
+            String value;
+            if (captured != null && captured[i] != null) {
+                value = captured[i];
+            } else if (param.getType() == PathParamType.CATCH_ALL) {
+                value = url.toString().substring(url.segmentStart(values[i]));
+            } else {
+                value = url.segment(values[i]).toString();
+            }
+            pathParams.put(param.getName(), param.coerce(value));
+        }
+        return Optional.of(new RouteMatch(leaf.operationId, pathParams));
+    }
+
+    /**
+     * Walks down the trie looking for a node with a registered operation.
+     * <p/>
+     * Literal children are always tried first, then the pattern children whose verifier matches the segment, then
+     * the constrained children whose check accepts the segment, then the wildcard child and finally the catch-all
+     * one, each one only visited in case the previous branches could not fulfill the rest of the path. Segments are
+     * looked up and checked through their views, so no String is created until a path parameter value is returned,
+     * except for the values captured by the pattern children.
+     *
+     * @param node       the current node
+     * @param url        the normalized URL
+     * @param index      the index of the segment being evaluated
+     * @param values     the indexes of the segments captured as path parameter values so far
+     * @param captured   the path parameter values captured by the pattern children so far, or null in case the trie
+     *                   has none
+     * @param valueCount the number of path parameter values captured so far
+     * @return the {@link Node} holding the matched operation, or null in case there's none
+     */
+    private static Node find(Node node, NormalizedUrl url, int index, int[] values, String[] captured,
+                             int valueCount) {
+        if (index == url.segmentCount()) {
+            return node.operationId != null ? node : null;
+        }
+
+        Node literal = node.literals.isEmpty() ? null : node.literals.get(url.segment(index));
+        if (literal != null) {
+            Node found = find(literal, url, index + 1, values, captured, valueCount);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        for (Node pattern : node.patterns.values()) {
+            Matcher matcher = pattern.pattern.matcher(url.segment(index));
+            if (matcher.matches()) {
+                int groupCount = matcher.groupCount();
+                for (int i = 0; i < groupCount; i++) {
+                    values[valueCount + i] = index;
+                    captured[valueCount + i] = matcher.group(i + 1);
+                }
+                Node found = find(pattern, url, index + 1, values, captured, valueCount + groupCount);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+
+        for (Node constrained : node.constrained.values()) {
+            if (constrained.param.accepts(url.segment(index))) {
+                capture(values, captured, valueCount, index);
+                Node found = find(constrained, url, index + 1, values, captured, valueCount + 1);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+
+        if (node.wildcard != null) {
+            capture(values, captured, valueCount, index);
+            Node found = find(node.wildcard, url, index + 1, values, captured, valueCount + 1);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        if (node.catchAll != null && node.catchAll.operationId != null) {
+            capture(values, captured, valueCount, index);
+            return node.catchAll;
+        }
+        return null;
+    }
+
+    /**
+     * Capturing a whole segment as a path parameter value, clearing any value left by a pattern child
+     */
+    private static void capture(int[] values, String[] captured, int valueCount, int index) {
+        values[valueCount] = index;
+        if (captured != null) {
+            captured[valueCount] = null;
+        }
+    }
+
+    /**
+     * A single trie node
+     */
+    private static class Node {
+        private final TextMap<Node> literals = new TextMap<>();
+        private final Map<String, Node> patterns = new LinkedHashMap<>();
+        private final Map<String, Node> constrained = new LinkedHashMap<>();
+        private final PathParam param;
+        private final Pattern pattern;
+        private Node wildcard;
+        private Node catchAll;
+        private String operationId;
+        private PathParam[] params;
+
+        private Node() {
+            this(null, null);
+        }
+
+        private Node(PathParam param) {
+            this(param, null);
+        }
+
+        private Node(Pattern pattern) {
+            this(null, pattern);
+        }
+
+        private Node(PathParam param, Pattern pattern) {
+            this.param = param;
+            this.pattern = pattern;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.ConditionEvaluation;
+import com.mock.apimocks.mechanism.condition.ConditionParser;
+import com.mock.apimocks.mechanism.condition.EqualityLookup;
+import com.mock.apimocks.mechanism.condition.UnsupportedConditionException;
+import com.mock.apimocks.models.CallContext;
+import com.mock.apimocks.models.vo.MockScenario;
+
+import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * This class describes an index of the scenarios of a single operation, used to find the first scenario whose
+ * condition is fulfilled without evaluating all of them.
+ * <p/>
+ * Operations often have lots of scenarios comparing the same request property with different literals, such as
+ * <i>$path.cpf == '12345678900'</i>, one per test customer. These conditions are grouped by property and indexed by
+ * the {@link EqualityLookup} keys of their literals, so each request reads the property once and looks up the few
+ * scenarios that might be fulfilled.
+ * <p/>
+ * The scenarios found through the index are merged, in order, with the ones that could not be indexed, and then
+ * their conditions are evaluated just like before. Indexed scenarios which were not found can't be fulfilled, so
+ * the first fulfilled scenario is always the same one found by evaluating every scenario in order.
+ * <p/>
+ * Whenever the {@link ConditionEvaluation} is {@link ConditionEvaluation#OPERATION}, the conditions that depend on
+ * the script engines are also gathered into a single {@link ScenarioScript}, so the candidates are evaluated through
+ * one script invocation per call instead of one per scenario.
+ * <p/>
+ * The outcomes of the scripted conditions are memoized by the request inputs they read, see {@link ConditionMemo},
+ * unless their scenarios are flagged as non-deterministic.
+ * <p/>
+ * The index also keeps the {@link BodySelection} of the conditions, so only the parts of a JSON body they read are
+ * parsed on each call.
+ * <p/>
+ * The scenarios are sorted by order and the default scenario is looked up once, when the index is built, so finding
+ * the scenario of a call takes no sorting nor streaming at all.
+ * <p/>
+ * The index is immutable and can be shared between threads.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class ScenarioIndex {
+    private static final int[] NO_RANKS = new int[0];
+
+    private final MockScenario[] scenarios;
+    private final List<MockScenario> sortedScenarios;
+    private final MockScenario defaultScenario;
+    private final CompiledCondition[] conditions;
+    private final int[] sequential;
+    private final Group[] groups;
+    private final ScenarioScript script;
+    private final BodySelection bodySelection;
+    private final ConditionEvaluator evaluator;
+
+    private ScenarioIndex(MockScenario[] scenarios, CompiledCondition[] conditions, int[] sequential,
+                          Group[] groups, ScenarioScript script, ConditionEvaluator evaluator) {
+        this.scenarios = scenarios;
+        this.sortedScenarios = Collections.unmodifiableList(Arrays.asList(scenarios));
+        this.defaultScenario = defaultScenario(scenarios);
+        this.conditions = conditions;
+        this.sequential = sequential;
+        this.groups = groups;
+        this.script = script;
+        this.evaluator = evaluator;
+        this.bodySelection = BodySelection.of(Arrays.stream(scenarios).map(MockScenario::getConditions)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Builds the index of the scenarios of an operation.
+     * <p/>
+     * The scenarios are sorted by their order, and their conditions are compiled in case they were not compiled yet.
+     *
+     * @param scenarios the operation scenarios
+     * @param evaluator the {@link ConditionEvaluator} which evaluates the conditions
+     * @return a {@link ScenarioIndex} of the given scenarios
+     */
+    public static ScenarioIndex build(List<MockScenario> scenarios, ConditionEvaluator evaluator) {
+        MockScenario[] sorted = scenarios.stream().sorted(Comparator.comparing(MockScenario::getOrder))
+                .toArray(MockScenario[]::new);
+        CompiledCondition[] conditions = new CompiledCondition[sorted.length];
+        List<Integer> sequential = new ArrayList<>();
+        Map<String, GroupBuilder> groups = new LinkedHashMap<>();
+        Map<Integer, String> scripted = new TreeMap<>();
+
+        for (int rank = 0; rank < sorted.length; rank++) {
+            String source = sorted[rank].getConditions();
+            if (source == null || source.isEmpty()) {
+                // scenarios without conditions are never fulfilled, they are only used as default
+                continue;
+            }
+            if (sorted[rank].getCompiledConditions() == null) {
+                sorted[rank].setCompiledConditions(new CompiledCondition(source));
+            }
+            conditions[rank] = sorted[rank].getCompiledConditions();
+            if (conditions[rank].getExpression() == null) {
+                scripted.put(rank, source);
+                if (!sorted[rank].isNonDeterministic()) {
+                    conditions[rank].memoize(evaluator.getMemoization());
+                }
+            }
+
+            Optional<EqualityLookup> lookup = ConditionParser.parseLookup(source);
+            if (lookup.isPresent()) {
+                groups.computeIfAbsent(lookup.get().getPath(), path -> new GroupBuilder(lookup.get()))
+                        .add(rank, lookup.get());
+            } else {
+                sequential.add(rank);
+            }
+        }
+
+        ScenarioScript script = scenarioScript(scripted, evaluator);
+        if (script != null) {
+            scripted.keySet().stream().filter(rank -> conditions[rank].getMemo() != null)
+                    .forEach(rank -> script.memoize(rank, conditions[rank].getMemo()));
+        }
+        return new ScenarioIndex(sorted, conditions, sequential.stream().mapToInt(Integer::intValue).toArray(),
+                groups.values().stream().map(GroupBuilder::build).toArray(Group[]::new), script, evaluator);
+    }
+
+    /**
+     * Finding the first default scenario, by order
+     *
+     * @return the default {@link MockScenario}, or null in case there's none
+     */
+    private static MockScenario defaultScenario(MockScenario[] sorted) {
+        for (MockScenario scenario : sorted) {
+            if (scenario.isDefault()) {
+                return scenario;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compiles the conditions that depend on the script engines into a single script, in case the operation has more
+     * than one of them and they are evaluated per operation
+     *
+     * @return the {@link ScenarioScript}, or null in case each condition must be evaluated on its own
+     */
+    private static ScenarioScript scenarioScript(Map<Integer, String> scripted, ConditionEvaluator evaluator) {
+        if (scripted.size() < 2 || evaluator.getEvaluation() != ConditionEvaluation.OPERATION) {
+            return null;
+        }
+        try {
+            return evaluator.compileScenarioScript(scripted);
+        } catch (ScriptException ex) {
+            // some condition is not a plain expression, such as a list of statements
+            return null;
+        }
+    }
+
+    /**
+     * Finds the first scenario, by order, whose condition is fulfilled by the call context.
+     * <p/>
+     * All the conditions evaluated for the call share the same request budget, see {@link ConditionWatchdog}.
+     *
+     * @param context the call context with the request variables
+     * @return an {@link Optional} with the fulfilled {@link MockScenario}, or an empty one in case there's none
+     */
+    public Optional<MockScenario> select(CallContext context) {
+        int[] candidates = candidates(context);
+        long deadline = evaluator.requestDeadline();
+        if (script == null) {
+            return Optional.ofNullable(first(context, candidates, candidates.length, deadline));
+        }
+
+        // the native conditions are evaluated until the first fulfilled one, and the scripted conditions that come
+        // before it are evaluated all at once afterwards
+        int[] scripted = new int[candidates.length];
+        int size = 0;
+        MockScenario fulfilled = null;
+        for (int rank : candidates) {
+            if (conditions[rank].getExpression() == null) {
+                scripted[size++] = rank;
+            } else if (evaluator.evaluateCondition(context, conditions[rank], deadline)) {
+                fulfilled = scenarios[rank];
+                break;
+            }
+        }
+        if (size == 0) {
+            return Optional.ofNullable(fulfilled);
+        }
+
+        OptionalInt rank = evaluator.evaluateFirst(context, script, Arrays.copyOf(scripted, size), deadline);
+        if (!rank.isPresent()) {
+            // the script could not be evaluated at all, so the conditions are evaluated one by one
+            MockScenario first = first(context, scripted, size, deadline);
+            return Optional.ofNullable(first != null ? first : fulfilled);
+        }
+        return Optional.ofNullable(rank.getAsInt() >= 0 ? scenarios[rank.getAsInt()] : fulfilled);
+    }
+
+    /**
+     * Evaluates the conditions of the given ranks one by one, in order
+     *
+     * @return the first fulfilled {@link MockScenario}, or null in case there's none
+     */
+    private MockScenario first(CallContext context, int[] ranks, int size, long deadline) {
+        for (int i = 0; i < size; i++) {
+            if (evaluator.evaluateCondition(context, conditions[ranks[i]], deadline)) {
+                return scenarios[ranks[i]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Getting the scenarios of the operation sorted by their order
+     *
+     * @return an unmodifiable {@link List} of the scenarios
+     */
+    public List<MockScenario> getScenarios() {
+        return sortedScenarios;
+    }
+
+    /**
+     * Getting the parts of the request body read by the scenario conditions
+     *
+     * @return the {@link BodySelection} of the operation
+     */
+    public BodySelection getBodySelection() {
+        return bodySelection;
+    }
+
+    /**
+     * Getting the scenario returned whenever no condition is fulfilled
+     *
+     * @return the default {@link MockScenario}, or null in case the operation doesn't have one
+     */
+    public MockScenario getDefaultScenario() {
+        return defaultScenario;
+    }
+
+    /**
+     * Getting the ranks of the scenarios that might be fulfilled by the call context, in order
+     */
+    private int[] candidates(CallContext context) {
+        if (groups.length == 0) {
+            return sequential;
+        }
+
+        int[] candidates = Arrays.copyOf(sequential, sequential.length + 4);
+        int size = sequential.length;
+        for (Group group : groups) {
+            for (int[] ranks : group.lookup(context)) {
+                if (size + ranks.length > candidates.length) {
+                    candidates = Arrays.copyOf(candidates, Math.max(candidates.length * 2, size + ranks.length));
+                }
+                System.arraycopy(ranks, 0, candidates, size, ranks.length);
+                size += ranks.length;
+            }
+        }
+        Arrays.sort(candidates, 0, size);
+
+        // removing the scenarios found by more than one key
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || candidates[distinct - 1] != candidates[i]) {
+                candidates[distinct++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, distinct);
+    }
+
+    /**
+     * The scenarios comparing the same request property
+     */
+    private static final class Group {
+        private final EqualityLookup lookup;
+        private final Map<Object, int[]> ranks;
+        private final int[] all;
+
+        private Group(EqualityLookup lookup, Map<Object, int[]> ranks, int[] all) {
+            this.lookup = lookup;
+            this.ranks = ranks;
+            this.all = all;
+        }
+
+        /**
+         * Looks up the ranks of the scenarios of this group that might be fulfilled by the call context
+         */
+        private List<int[]> lookup(CallContext context) {
+            Object value;
+            try {
+                value = lookup.read(context);
+            } catch (UnsupportedConditionException ex) {
+                // the property can't be read natively, so every scenario must be evaluated
+                return Arrays.asList(all);
+            } catch (RuntimeException ex) {
+                // reading the property fails the same way for every condition of the group
+                return Arrays.asList(NO_RANKS);
+            }
+
+            List<Object> keys = EqualityLookup.keys(value);
+            List<int[]> found = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                found.add(ranks.getOrDefault(key, NO_RANKS));
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Collects the ranks of a group while the index is built
+     */
+    private static final class GroupBuilder {
+        private final EqualityLookup lookup;
+        private final Map<Object, List<Integer>> ranks = new HashMap<>();
+        private final List<Integer> all = new ArrayList<>();
+
+        private GroupBuilder(EqualityLookup lookup) {
+            this.lookup = lookup;
+        }
+
+        private void add(int rank, EqualityLookup condition) {
+            all.add(rank);
+            condition.literalKeys().forEach(key -> ranks.computeIfAbsent(key, k -> new ArrayList<>()).add(rank));
+        }
+
+        private Group build() {
+            Map<Object, int[]> built = new HashMap<>();
+            ranks.forEach((key, list) -> built.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+            return new Group(lookup, built, all.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
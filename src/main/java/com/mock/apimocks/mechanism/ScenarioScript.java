@@ -0,0 +1,144 @@
+package com.mock.apimocks.mechanism;
+
+import javax.script.ScriptException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class describes a single script holding the conditions of all the scenarios of an operation which must be
+ * evaluated by the script engines.
+ * <p/>
+ * Each condition is wrapped into its own function, and the script runs the functions of the given scenario ranks
+ * in turn, returning the rank of the first fulfilled one, or -1 in case there's none. This way the request
+ * variables are bound once and the script engine is entered once per call, instead of once per scenario. A condition
+ * that fails is still handled as a miss for its own scenario only.
+ * <p/>
+ * Just like a condition evaluated on its own, each condition starts from the request variables alone: the global
+ * variables it creates are removed and the ones it changes are restored before the next condition runs.
+ * <p/>
+ * Each scenario gets its own {@link ConditionBudget}, and the script stops evaluating scenarios once the request
+ * budget is exhausted. Just like the {@link CompiledCondition}, the script is compiled once per pooled engine.
+ * <p/>
+ * The scenarios whose outcomes are memoized by a {@link ConditionMemo} are only evaluated by the script when their
+ * outcomes are not known yet.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class ScenarioScript {
+    /**
+     * The binding which holds the ranks of the scenarios to be evaluated
+     */
+    static final String RANKS = "__scenarioRanks";
+
+    private final Map<Integer, String> conditions;
+    private final String source;
+    private final Map<ConditionScriptEngine, ConditionScript> scripts = new ConcurrentHashMap<>();
+    private final Map<Integer, ConditionMemo> memos = new ConcurrentHashMap<>();
+
+    /**
+     * Default class constructor
+     *
+     * @param conditions the scenario conditions, indexed by their ranks
+     */
+    ScenarioScript(Map<Integer, String> conditions) {
+        this.conditions = new HashMap<>(conditions);
+        StringBuilder script = new StringBuilder("(function (conditions, global) {\n")
+                .append("    var keys = Object.keys;\n")
+                .append("    var names = keys(global);\n")
+                .append("    var bound = {};\n")
+                .append("    for (var n = 0; n < names.length; n++) {\n")
+                .append("        bound[names[n]] = global[names[n]];\n")
+                .append("    }\n")
+                .append("    var ranks = ").append(RANKS).append(";\n")
+                .append("    var budget = ").append(ConditionBudget.BINDING).append(";\n")
+                .append("    for (var i = 0; i < ranks.length; i++) {\n")
+                .append("        if (!budget.next(ranks[i])) {\n")
+                .append("            return -1;\n")
+                .append("        }\n")
+                .append("        var condition = conditions[ranks[i]];\n")
+                .append("        try {\n")
+                .append("            if (condition() === true) {\n")
+                .append("                return ranks[i];\n")
+                .append("            }\n")
+                .append("        } catch (e) {\n")
+                .append("            // at this point the failing condition, or the one exceeding its budget, is simply a miss\n")
+                .append("        } finally {\n")
+                .append("            restore();\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("    return -1;\n")
+                .append("\n")
+                .append("    // the next condition must not see the global variables created or changed by this one\n")
+                .append("    function restore() {\n")
+                .append("        var current = keys(global);\n")
+                .append("        for (var k = 0; k < current.length; k++) {\n")
+                .append("            if (!Object.prototype.hasOwnProperty.call(bound, current[k])")
+                .append(" && !delete global[current[k]]) {\n")
+                .append("                global[current[k]] = undefined;\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        for (var b = 0; b < names.length; b++) {\n")
+                .append("            global[names[b]] = bound[names[b]];\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("})({\n");
+        // the conditions are declared apart from the function above, so they can't reach its local variables
+        // the line break keeps a trailing comment from swallowing the closing parenthesis
+        conditions.forEach((rank, condition) -> script.append("    ").append(rank)
+                .append(": function () { return (").append(LoopGuard.instrument(condition)).append("\n); },\n"));
+        script.append("}, this);\n");
+        this.source = script.toString();
+    }
+
+    /**
+     * Getting the compiled script for a given engine, compiling it in case it was not compiled by the engine yet
+     *
+     * @param engine the engine which will evaluate the script
+     * @return the {@link ConditionScript}
+     * @throws ScriptException whenever any of the conditions is not a valid expression
+     */
+    ConditionScript compiledBy(ConditionScriptEngine engine) throws ScriptException {
+        ConditionScript script = scripts.get(engine);
+        if (script == null) {
+            script = engine.compile(source);
+            scripts.put(engine, script);
+        }
+        return script;
+    }
+
+    /**
+     * Sets the memoized outcomes of the condition of a scenario
+     *
+     * @param rank the scenario rank
+     * @param memo the {@link ConditionMemo} of its condition
+     */
+    void memoize(int rank, ConditionMemo memo) {
+        memos.put(rank, memo);
+    }
+
+    /**
+     * Getting the memoized outcomes of the condition of a scenario
+     *
+     * @param rank the scenario rank
+     * @return the {@link ConditionMemo}, or null in case its outcomes are not memoized
+     */
+    ConditionMemo getMemo(int rank) {
+        return memos.get(rank);
+    }
+
+    /**
+     * Getting the source code of the condition of a scenario
+     *
+     * @param rank the scenario rank
+     * @return the condition source code
+     */
+    String getCondition(int rank) {
+        return conditions.get(rank);
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
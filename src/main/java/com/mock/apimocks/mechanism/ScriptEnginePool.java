@@ -0,0 +1,161 @@
+package com.mock.apimocks.mechanism;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.mock.apimocks.enums.ConditionEngine;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class describes a bounded pool of warm script engines.
+ * <p/>
+ * Creating a script engine means looking up the engine factories and bootstrapping a whole new runtime, which costs
+ * far more than evaluating a scenario condition. Script engines such as Nashorn are not thread-safe, so instead of
+ * sharing a single one, each thread borrows an engine for the duration of an evaluation and gives it back afterwards.
+ * <p/>
+ * Engines are created on demand until the maximum size is reached. From then on, callers wait for an idle engine up to
+ * the borrow timeout. The pool usage is published as metrics when it is bound to a {@link MeterRegistry}.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class ScriptEnginePool implements MeterBinder {
+    private static final String METRIC_PREFIX = "mocks.conditions.engines";
+
+    private final ConditionEngine type;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final BlockingQueue<ConditionScriptEngine> idle;
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Default class constructor
+     *
+     * @param engine              the kind of script engine, such as {@link ConditionEngine#NASHORN}
+     * @param maxSize             the maximum number of engines kept by the pool
+     * @param borrowTimeoutMillis how long a caller waits for an idle engine, in milliseconds
+     */
+    public ScriptEnginePool(ConditionEngine engine, int maxSize, long borrowTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The script engine pool must hold at least one engine");
+        }
+        if (!engine.isScriptEngine()) {
+            throw new IllegalArgumentException("The " + engine + " engine doesn't evaluate scripts");
+        }
+        this.type = engine;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Borrowing an engine from the pool, creating a new one in case there's no idle engine and the pool is not full.
+     * <p/>
+     * Every borrowed engine must be given back through {@link #release(ConditionScriptEngine)}.
+     *
+     * @return an exclusive {@link ConditionScriptEngine}
+     * @throws IllegalStateException whenever no engine gets available within the borrow timeout
+     * @throws InterruptedException  whenever the calling thread is interrupted while waiting
+     */
+    public ConditionScriptEngine borrow() throws InterruptedException {
+        long start = System.nanoTime();
+        ConditionScriptEngine engine = idle.poll();
+        if (engine == null) {
+            engine = create();
+        }
+        if (engine == null) {
+            engine = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        waitNanos.addAndGet(System.nanoTime() - start);
+        borrows.incrementAndGet();
+
+        if (engine == null) {
+            timeouts.incrementAndGet();
+            throw new IllegalStateException("No script engine got available within " + borrowTimeoutMillis + "ms");
+        }
+        active.incrementAndGet();
+        return engine;
+    }
+
+    /**
+     * Giving a borrowed engine back to the pool
+     *
+     * @param engine the engine returned by {@link #borrow()}
+     */
+    public void release(ConditionScriptEngine engine) {
+        active.decrementAndGet();
+        idle.offer(engine);
+    }
+
+    /**
+     * Creating a new engine in case the pool is not full yet
+     *
+     * @return a new {@link ConditionScriptEngine}, or null in case the pool is already full
+     */
+    private ConditionScriptEngine create() {
+        int current;
+        do {
+            current = created.get();
+            if (current >= maxSize) {
+                return null;
+            }
+        } while (!created.compareAndSet(current, current + 1));
+
+        try {
+            return type.create();
+        } catch (RuntimeException ex) {
+            created.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    public ConditionEngine getEngine() {
+        return type;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getCreated() {
+        return created.get();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".max", this, ScriptEnginePool::getMaxSize)
+                .description("The maximum number of script engines").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".created", this, ScriptEnginePool::getCreated)
+                .description("The number of script engines created so far").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".active", this, ScriptEnginePool::getActive)
+                .description("The number of script engines evaluating conditions").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".idle", this, ScriptEnginePool::getIdle)
+                .description("The number of warm script engines waiting to be borrowed").register(registry);
+        FunctionTimer.builder(METRIC_PREFIX + ".borrow", this, pool -> pool.borrows.get(),
+                pool -> pool.waitNanos.get(), TimeUnit.NANOSECONDS)
+                .description("The time spent waiting for a script engine").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".timeouts", this, pool -> pool.timeouts.get())
+                .description("The number of evaluations that found no available script engine").register(registry);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.contants.HeaderName;
+import com.mock.apimocks.models.vo.MockOperation;
+import com.mock.apimocks.models.vo.MockScenario;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This class describes an exact-match index of static operations.
+ * <p/>
+ * A static operation has no path parameters and a single default scenario without conditions, so its response
+ * does not depend on the request at all. Those operations are indexed by their method and sanitized full path
+ * with an already built response, which could be returned without routing, evaluating conditions or parsing the
+ * request body.
+ * <p/>
+ * Instances are meant to be built once and then only read, so they could be safely shared between threads.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class StaticResponseIndex {
+    private final Map<String, TextMap<ResponseEntity<String>>> responses = new HashMap<>();
+
+    /**
+     * Builds a new index with the static operations among the given ones.
+     * <p/>
+     * In case there's more than one static operation for the same method and path, the first one is kept.
+     *
+     * @param operations the registered operations
+     * @return a {@link StaticResponseIndex} with the static operations
+     */
+    public static StaticResponseIndex build(Collection<MockOperation> operations) {
+        StaticResponseIndex index = new StaticResponseIndex();
+        operations.stream()
+                .filter(MockOperation::isStaticResponse)
+                .forEach(op -> index.responses.computeIfAbsent(op.getMethod().name(), m -> new TextMap<>())
+                        .putIfAbsent(ContextEngine.sanitizeUrl(op.getFullPath()), toResponse(op.getScenarios().get(0))));
+        return index;
+    }
+
+    /**
+     * Checks if an operation always answers with the same response
+     *
+     * @param operation the operation to be checked
+     * @return a flag indicating whether the operation is static or not
+     */
+    public static boolean isStatic(MockOperation operation) {
+        List<MockScenario> scenarios = operation.getScenarios();
+        return ContextEngine.getPathParamNames(operation.getFullPath()).isEmpty()
+                && scenarios != null && scenarios.size() == 1
+                && scenarios.get(0).isDefault()
+                && (scenarios.get(0).getConditions() == null || scenarios.get(0).getConditions().trim().isEmpty());
+    }
+
+    /**
+     * Finds the prepared response of a static operation
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL
+     * @return an {@link Optional} with the response, or an empty one in case there's no static operation for the URL
+     */
+    public Optional<ResponseEntity<String>> get(String method, String url) {
+        return get(method, UrlNormalizer.normalize(url));
+    }
+
+    /**
+     * Finds the prepared response of a static operation by its normalized URL, without creating a String for it
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL, already normalized
+     * @return an {@link Optional} with the response, or an empty one in case there's no static operation for the URL
+     */
+    public Optional<ResponseEntity<String>> get(String method, NormalizedUrl url) {
+        TextMap<ResponseEntity<String>> methodResponses = responses.get(method);
+        return methodResponses == null ? Optional.empty() : Optional.ofNullable(methodResponses.get(url));
+    }
+
+    /**
+     * Building the response of a given scenario
+     *
+     * @param scenario the mock scenario
+     * @return a {@link ResponseEntity} with the scenario status, headers and body
+     */
+    public static ResponseEntity<String> toResponse(MockScenario scenario) {
+        HttpHeaders headers = new HttpHeaders();
+        if (scenario.getHeaders() != null) {
+            headers.setAll(scenario.getHeaders());
+        }
+        if (scenario.getContentType() != null) {
+            headers.add(HeaderName.CONTENT_TYPE, scenario.getContentType().mime());
+        }
+
+        return ResponseEntity
+                .status(scenario.getHttpCode())
+                .headers(headers)
+                .body(scenario.getBody());
+    }
+}
@@ -0,0 +1,126 @@
+package com.mock.apimocks.mechanism;
+
+import java.util.function.Function;
+
+/**
+ * This class describes a map keyed by Strings that could be looked up by any {@link CharSequence}.
+ * <p/>
+ * The keys are compared by their characters, so a {@link NormalizedUrl} or one of its segments finds the entry
+ * stored under the String with the same characters without creating a String for it, and without relying on an
+ * equality that only holds one way.
+ * <p/>
+ * Instances are meant to be built once and then only read, so they could be safely shared between threads.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+final class TextMap<V> {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Checks if the map has no entries
+     *
+     * @return a flag indicating whether the map is empty or not
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Finds the value stored under the key with the same characters of a given text
+     *
+     * @param text the text to be looked up
+     * @return the value, or null in case there's none
+     */
+    @SuppressWarnings("unchecked")
+    V get(CharSequence text) {
+        int mask = keys.length - 1;
+        for (int i = spread(hash(text)) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].contentEquals(text)) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a value under a key, unless there's already one for it
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the value previously stored under the key, or null in case there was none
+     */
+    V putIfAbsent(String key, V value) {
+        V previous = get(key);
+        if (previous == null) {
+            put(key, value);
+        }
+        return previous;
+    }
+
+    /**
+     * Gets the value stored under a key, computing and storing a new one in case there's none
+     *
+     * @param key      the key
+     * @param function the function computing a new value from the key
+     * @return the current value stored under the key
+     */
+    V computeIfAbsent(String key, Function<String, V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    private void put(String key, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int i = spread(key.hashCode()) & mask;
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Computing the same hash code of a String with the same characters, reusing the ones already cached
+     */
+    private static int hash(CharSequence text) {
+        if (text instanceof String || text instanceof NormalizedUrl) {
+            return text.hashCode();
+        }
+        int h = 0;
+        for (int i = 0; i < text.length(); i++) {
+            h = 31 * h + text.charAt(i);
+        }
+        return h;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,187 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.exception.BadRequestException;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class wraps an x-www-form-urlencoded body parser.
+ * <p/>
+ * The body is scanned once, char by char: the pairs are split by <i>&</i>, the names and values are split by the
+ * first <i>=</i>, and both are decoded while they are read, turning <i>+</i> into spaces and percent escapes into
+ * the chars they encode with the given charset. Names and values without any escape are taken as substrings of the
+ * body.
+ * <p/>
+ * Names sent more than once, such as <i>item=1&item=2</i>, are collected into a {@link List} of their values, in
+ * order. The values are converted into Integers, Longs, Doubles or Booleans whenever they look like them, without
+ * any regular expression, and kept as Strings otherwise. Integers too large for a Long are kept as Strings as well,
+ * since they are usually documents or identifiers.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class UrlEncodedBodyParser {
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * Default class constructor.
+     * <p/>
+     * It is set as private because this class only should have static methods
+     */
+    private UrlEncodedBodyParser() {
+    }
+
+    /**
+     * Parses an x-www-form-urlencoded body
+     *
+     * @param body    the body text
+     * @param charset the charset of the percent escapes
+     * @return a {@link HashMap} with the parsed values by their names
+     * @throws BadRequestException whenever the body has no name and value pair or has an invalid percent escape
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parse(String body, Charset charset) throws BadRequestException {
+        if (body.indexOf('=') < 0) {
+            throw invalid();
+        }
+
+        Map<String, Object> parsed = new HashMap<>();
+        int length = body.length();
+        int start = 0;
+        while (start <= length) {
+            int end = body.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                int separator = start;
+                while (separator < end && body.charAt(separator) != '=') {
+                    separator++;
+                }
+                String name = decode(body, start, separator, charset);
+                Object value = infer(separator < end ? decode(body, separator + 1, end, charset) : "");
+
+                Object previous = parsed.putIfAbsent(name, value);
+                if (previous instanceof List) {
+                    ((List<Object>) previous).add(value);
+                } else if (previous != null) {
+                    List<Object> values = new ArrayList<>();
+                    values.add(previous);
+                    values.add(value);
+                    parsed.put(name, values);
+                }
+            }
+            start = end + 1;
+        }
+        return parsed;
+    }
+
+    /**
+     * Decodes a name or value, taking it as it is in case there's nothing to decode
+     */
+    private static String decode(String body, int start, int end, Charset charset) {
+        int i = start;
+        while (i < end && body.charAt(i) != '+' && body.charAt(i) != '%') {
+            i++;
+        }
+        if (i == end) {
+            return body.substring(start, end);
+        }
+
+        StringBuilder decoded = new StringBuilder(end - start).append(body, start, i);
+        byte[] bytes = null;
+        while (i < end) {
+            char c = body.charAt(i);
+            if (c == '%') {
+                // a run of escapes is decoded at once, since a single char may be encoded as several bytes
+                int count = 0;
+                while (i < end && body.charAt(i) == '%') {
+                    if (i + 2 >= end) {
+                        throw invalid();
+                    }
+                    if (bytes == null) {
+                        bytes = new byte[(end - i) / 3];
+                    }
+                    bytes[count++] = (byte) ((hex(body.charAt(i + 1)) << 4) | hex(body.charAt(i + 2)));
+                    i += 3;
+                }
+                decoded.append(new String(bytes, 0, count, charset));
+            } else {
+                decoded.append(c == '+' ? ' ' : c);
+                i++;
+            }
+        }
+        return decoded.toString();
+    }
+
+    private static int hex(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        throw invalid();
+    }
+
+    /**
+     * Converts a value into an Integer, Long, Double or Boolean, in case it looks like one of them
+     *
+     * @param value the decoded value
+     * @return the converted value, or the value itself
+     */
+    static Object infer(String value) {
+        int length = value.length();
+        if (length == 4 && value.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (length == 5 && value.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+
+        int start = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        int dot = -1;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && dot < 0 && i > start) {
+                dot = i;
+            } else if (c < '0' || c > '9') {
+                return value;
+            }
+        }
+        if (start == length || dot == length - 1) {
+            return value;
+        }
+        if (dot > 0) {
+            return Double.valueOf(value);
+        }
+        if (length - start > MAX_LONG_DIGITS) {
+            try {
+                return narrow(Long.parseLong(value));
+            } catch (NumberFormatException ex) {
+                return value;
+            }
+        }
+
+        long number = 0;
+        for (int i = start; i < length; i++) {
+            number = number * 10 + (value.charAt(i) - '0');
+        }
+        return narrow(start == 1 ? -number : number);
+    }
+
+    private static Object narrow(long number) {
+        return number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE ? (Object) (int) number : (Object) number;
+    }
+
+    private static BadRequestException invalid() {
+        return new BadRequestException("Invalid Request Body. The given body could not be parsed.");
+    }
+}
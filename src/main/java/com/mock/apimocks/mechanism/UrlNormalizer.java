@@ -0,0 +1,266 @@
+package com.mock.apimocks.mechanism;
+
+import java.util.Arrays;
+
+/**
+ * This class describes a single-pass URL normalizer.
+ * <p/>
+ * Normalizing a URL means:
+ * <ul>
+ *     <li>collapsing every sequence of slashes into a single one</li>
+ *     <li>removing the query string</li>
+ *     <li>removing the trailing slash</li>
+ *     <li>optionally, decoding percent-encoded characters (as UTF-8) inside each segment</li>
+ *     <li>optionally, resolving the "." and ".." segments</li>
+ * </ul>
+ * The URL is scanned only once and the result keeps the offsets of each segment. In case normalizing only cuts the
+ * end of the URL, the result is backed by the URL itself and no characters are copied at all.
+ * <p/>
+ * Encoded slashes are decoded as part of the segment they belong to, so they never split a segment.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class UrlNormalizer {
+    private static final char PATH_DELIMITER = '/';
+    private static final char QUERY_DELIMITER = '?';
+    private static final char ESCAPE = '%';
+
+    /**
+     * Default class constructor.
+     * <p/>
+     * It is set as private because this class only should have static methods
+     */
+    private UrlNormalizer() {
+    }
+
+    /**
+     * Normalizes a URL by collapsing slashes and removing the query string and the trailing slash.
+     *
+     * @param url the URL to be normalized
+     * @return a {@link NormalizedUrl} object
+     */
+    public static NormalizedUrl normalize(String url) {
+        return normalize(url, false, false);
+    }
+
+    /**
+     * Normalizes a URL by collapsing slashes and removing the query string and the trailing slash.
+     *
+     * @param url         the URL to be normalized
+     * @param decode      a flag indicating whether percent-encoded characters should be decoded
+     * @param resolveDots a flag indicating whether "." and ".." segments should be resolved
+     * @return a {@link NormalizedUrl} object
+     */
+    public static NormalizedUrl normalize(String url, boolean decode, boolean resolveDots) {
+        return new Scanner(url, decode, resolveDots).scan();
+    }
+
+    /**
+     * The state of a single normalization.
+     * <p/>
+     * While the output is a prefix of the URL, characters are not copied at all. The output buffer is only
+     * created when the output diverges from the URL, such as when a slash is collapsed or a character is decoded.
+     */
+    private static final class Scanner {
+        private final String source;
+        private final boolean decode;
+        private final boolean resolveDots;
+        private final int end;
+        private final int base;
+
+        private char[] buffer;
+        private int length;
+        private int[] segments = new int[16];
+        private int segmentCount;
+
+        private Scanner(String source, boolean decode, boolean resolveDots) {
+            int query = source.indexOf(QUERY_DELIMITER);
+            this.source = source;
+            this.decode = decode;
+            this.resolveDots = resolveDots;
+            this.end = query < 0 ? source.length() : query;
+            this.base = end > 0 && source.charAt(0) == PATH_DELIMITER ? 1 : 0;
+        }
+
+        private NormalizedUrl scan() {
+            int i = 0;
+            if (base == 1) {
+                write(PATH_DELIMITER, 0);
+                i = skipSlashes(1);
+            }
+
+            while (i < end) {
+                int start = length;
+                while (i < end && source.charAt(i) != PATH_DELIMITER) {
+                    int decoded = decode && source.charAt(i) == ESCAPE ? decode(i) : 0;
+                    if (decoded > 0) {
+                        i += decoded;
+                    } else {
+                        write(source.charAt(i), i);
+                        i++;
+                    }
+                }
+                segment(start, length);
+
+                int slash = i;
+                i = skipSlashes(i);
+                if (i < end && length > base) {
+                    write(PATH_DELIMITER, slash);
+                }
+            }
+
+            // a lonely slash is a trailing slash as well
+            if (length == base) {
+                length = 0;
+            }
+            return new NormalizedUrl(source, buffer, length, segments, segmentCount);
+        }
+
+        /**
+         * Recording a segment, resolving it in case it is a dot segment
+         */
+        private void segment(int start, int end) {
+            if (resolveDots && isDots(start, end, 1)) {
+                rollback(separatorOf(start));
+            } else if (resolveDots && isDots(start, end, 2)) {
+                rollback(separatorOf(start));
+                if (segmentCount > 0) {
+                    segmentCount--;
+                    rollback(separatorOf(segments[segmentCount * 2]));
+                }
+            } else {
+                if (segmentCount * 2 == segments.length) {
+                    segments = Arrays.copyOf(segments, segments.length * 2);
+                }
+                segments[segmentCount * 2] = start;
+                segments[segmentCount * 2 + 1] = end;
+                segmentCount++;
+            }
+        }
+
+        /**
+         * Decoding a percent-encoded character (which may take up to four encoded bytes on UTF-8)
+         *
+         * @return the number of decoded URL characters, or zero in case it was not a valid encoded character
+         */
+        private int decode(int i) {
+            int first = hexByte(i);
+            if (first < 0) {
+                return 0;
+            }
+
+            int bytes;
+            int codePoint;
+            if (first < 0x80) {
+                bytes = 1;
+                codePoint = first;
+            } else if ((first & 0xE0) == 0xC0) {
+                bytes = 2;
+                codePoint = first & 0x1F;
+            } else if ((first & 0xF0) == 0xE0) {
+                bytes = 3;
+                codePoint = first & 0x0F;
+            } else if ((first & 0xF8) == 0xF0) {
+                bytes = 4;
+                codePoint = first & 0x07;
+            } else {
+                return 0;
+            }
+
+            for (int b = 1; b < bytes; b++) {
+                int next = hexByte(i + b * 3);
+                if (next < 0 || (next & 0xC0) != 0x80) {
+                    return 0;
+                }
+                codePoint = (codePoint << 6) | (next & 0x3F);
+            }
+
+            if (!Character.isValidCodePoint(codePoint)) {
+                return 0;
+            }
+            if (Character.isBmpCodePoint(codePoint)) {
+                write((char) codePoint, i);
+            } else {
+                write(Character.highSurrogate(codePoint), i);
+                write(Character.lowSurrogate(codePoint), i);
+            }
+            return bytes * 3;
+        }
+
+        /**
+         * Reading a percent-encoded byte
+         *
+         * @return the byte value, or -1 in case there's no valid encoded byte at the given position
+         */
+        private int hexByte(int i) {
+            if (i + 2 >= end || source.charAt(i) != ESCAPE) {
+                return -1;
+            }
+            int high = Character.digit(source.charAt(i + 1), 16);
+            int low = Character.digit(source.charAt(i + 2), 16);
+            return high < 0 || low < 0 ? -1 : (high << 4) | low;
+        }
+
+        /**
+         * Writing a character on the output.
+         * <p/>
+         * The character is only copied in case the output already diverged from the URL or in case it is not the
+         * same character found on the URL at the same position.
+         */
+        private void write(char c, int sourceIndex) {
+            if (buffer == null) {
+                if (length == sourceIndex && source.charAt(sourceIndex) == c) {
+                    length++;
+                    return;
+                }
+                diverge();
+            }
+            buffer[length++] = c;
+        }
+
+        /**
+         * Moving the end of the output back to a previous position
+         */
+        private void rollback(int position) {
+            if (buffer == null) {
+                diverge();
+            }
+            length = position;
+        }
+
+        /**
+         * Copying the output written so far to a buffer
+         */
+        private void diverge() {
+            buffer = new char[Math.max(end, 1)];
+            source.getChars(0, length, buffer, 0);
+        }
+
+        /**
+         * Getting the position of the slash that precedes a segment (or the segment itself in case it has none)
+         */
+        private int separatorOf(int segmentStart) {
+            return segmentStart > base ? segmentStart - 1 : segmentStart;
+        }
+
+        private boolean isDots(int start, int end, int count) {
+            if (end - start != count) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                if ((buffer != null ? buffer[i] : source.charAt(i)) != '.') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int skipSlashes(int i) {
+            while (i < end && source.charAt(i) == PATH_DELIMITER) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
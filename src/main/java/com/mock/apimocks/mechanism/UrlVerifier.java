@@ -0,0 +1,115 @@
+package com.mock.apimocks.mechanism;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class represents a pre-compiled URL verifier.
+ * <p/>
+ * It wraps the {@link Pattern} of a verifier created by {@link ContextEngine#createUrlVerifier(String)}, so callers
+ * could hold on to it instead of compiling the same verifier on each call.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class UrlVerifier {
+    private final Pattern pattern;
+
+    /**
+     * Default class constructor
+     *
+     * @param pattern the compiled verifier
+     */
+    UrlVerifier(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Verifies if a given URL belongs to this verifier's context
+     *
+     * @param url the URL to be checked
+     * @return a flag that indicates whether the URL is valid or not
+     */
+    public boolean verify(CharSequence url) {
+        return pattern.matcher(url).matches();
+    }
+
+    /**
+     * Verifies a given URL and extracts its path parameters in a single matcher run.
+     *
+     * @param url        the requested URL with the path parameter values
+     * @param paramNames the ordered path parameter names of the mocked URL
+     * @return an {@link Optional} with the path parameters names and values, or an empty one in case the URL does
+     *      not belong to this verifier's context
+     */
+    public Optional<Map<String, String>> match(CharSequence url, List<String> paramNames) {
+        Matcher matcher = pattern.matcher(url);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+
+        // the first group contains the full matched path, so the path parameters start at the second one
+        int paramCount = Math.min(matcher.groupCount() - 1, paramNames.size());
+        Map<String, String> pathParams = new HashMap<>(Math.max(4, paramCount * 2));
+        for (int i = 0; i < paramCount; i++) {
+            pathParams.put(paramNames.get(i), matcher.group(i + 2));
+        }
+        return Optional.of(pathParams);
+    }
+
+    /**
+     * Verifies a given URL and captures the raw path parameter values in a single matcher run.
+     *
+     * @param url the requested URL with the path parameter values
+     * @return an {@link Optional} with the path parameter values ordered by occurrences, or an empty one in case the
+     *      URL does not belong to this verifier's context
+     */
+    public Optional<String[]> capture(CharSequence url) {
+        Matcher matcher = pattern.matcher(url);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+
+        // the first group contains the full matched path, so the path parameters start at the second one
+        String[] values = new String[Math.max(0, matcher.groupCount() - 1)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = matcher.group(i + 2);
+        }
+        return Optional.of(values);
+    }
+
+    /**
+     * Get the path parameter names and values on a map.
+     *
+     * @param paramNames the ordered path parameter names of the mocked URL
+     * @param url        the requested URL with the path parameter values
+     * @return a {@link Map} with the path parameters names and values
+     */
+    public Map<String, String> getPathParameters(List<String> paramNames, CharSequence url) {
+        Map<String, String> pathParams = new HashMap<>();
+        Matcher matcher = pattern.matcher(url);
+
+        // we should start at the second group position because the first
+        // group will always contain the full matched string, the following
+        // ones will contain the path parameters
+        while (matcher.find()) {
+            for (int i = 2; i <= matcher.groupCount(); i++) {
+                pathParams.put(paramNames.get(i - 2), matcher.group(i));
+            }
+        }
+        return pathParams;
+    }
+
+    /**
+     * Getting the verifier's regular expression
+     *
+     * @return the regular expression
+     */
+    public String getRegex() {
+        return pattern.pattern();
+    }
+}
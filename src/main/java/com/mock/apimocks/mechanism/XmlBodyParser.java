@@ -0,0 +1,338 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.exception.BadRequestException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class wraps a streaming XML body parser.
+ * <p/>
+ * The body is read event by event with StAX into the same structure the org.json XML conversion used to build:
+ * <ul>
+ * <li>every element becomes a field named after its tag, and elements repeated on the same parent become a
+ * {@link List} of their values, in order;</li>
+ * <li>an element with nothing but text becomes the text itself, converted into an Integer, Long, Double, Boolean or
+ * null whenever it looks like one of them, and an empty element becomes an empty String;</li>
+ * <li>an element with children or attributes becomes a {@link HashMap}, with its text, if any, under
+ * <i>content</i>.</li>
+ * </ul>
+ * As before, the body may have several root elements, such as <i>&lt;id&gt;1&lt;/id&gt;&lt;name&gt;a&lt;/name&gt;
+ * </i>, and they are all fields of the parsed map. Unlike before, text outside the elements, bodies without any
+ * element and malformed XML are reported as parse errors, and DTDs are not accepted at all, so no external entity is
+ * ever resolved.
+ * <p/>
+ * The namespace prefixes can be stripped from the names, the attributes can be left out of the fields, and the depth
+ * of the elements is capped, so a deeply nested body can't hold the parser for long.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class XmlBodyParser {
+    /**
+     * The default maximum depth of the elements
+     */
+    public static final int DEFAULT_MAX_DEPTH = 128;
+
+    private static final XMLInputFactory FACTORY = factory();
+    private static final String ROOT = "body";
+    private static final String CONTENT = "content";
+    private static final String XMLNS = "xmlns";
+    private static final String DECLARATION_START = "<?xml";
+    private static final String DECLARATION_END = "?>";
+    private static final int MAX_DECLARATION_LENGTH = 512;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final boolean stripNamespaces;
+    private final boolean attributesAsFields;
+    private final int maxDepth;
+
+    /**
+     * Default class constructor
+     *
+     * @param stripNamespaces    whether the namespace prefixes are removed from the names, such as <i>Envelope</i>
+     *                           instead of <i>soap:Envelope</i>, along with the namespace declarations
+     * @param attributesAsFields whether the attributes are fields of their elements
+     * @param maxDepth           the maximum depth of the elements, the root elements being at depth 1
+     */
+    public XmlBodyParser(boolean stripNamespaces, boolean attributesAsFields, int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("The maximum depth of the XML elements must be positive");
+        }
+        this.stripNamespaces = stripNamespaces;
+        this.attributesAsFields = attributesAsFields;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Parses an XML body from its bytes
+     *
+     * @param input   the body stream
+     * @param charset the charset of the body, which takes precedence over the one on the XML declaration
+     * @return a {@link HashMap} with the root elements
+     * @throws BadRequestException whenever the body is not valid XML
+     */
+    public Map<String, Object> parse(InputStream input, Charset charset) throws BadRequestException {
+        return parse(new InputStreamReader(input, charset));
+    }
+
+    /**
+     * Parses an XML body from its text
+     *
+     * @param body the body text
+     * @return a {@link HashMap} with the root elements
+     * @throws BadRequestException whenever the body is not valid XML
+     */
+    public Map<String, Object> parse(String body) throws BadRequestException {
+        return parse(new StringReader(body));
+    }
+
+    private Map<String, Object> parse(Reader body) {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(fragment(body));
+            return read(reader);
+        } catch (XMLStreamException | IOException ex) {
+            throw invalid("The given body could not be parsed.");
+        } finally {
+            close(reader);
+        }
+    }
+
+    private Map<String, Object> read(XMLStreamReader reader) throws XMLStreamException {
+        Deque<Element> elements = new ArrayDeque<>();
+        Element root = null;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (root == null) {
+                        root = new Element(ROOT);
+                        elements.push(root);
+                        break;
+                    }
+                    if (elements.size() > maxDepth) {
+                        throw invalid("The given body is nested deeper than " + maxDepth + " elements.");
+                    }
+                    elements.peek().flush();
+                    elements.push(start(reader));
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (elements.peek() == root && !reader.isWhiteSpace()) {
+                        throw invalid("The given body has text outside of its elements.");
+                    }
+                    elements.peek().append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    Element element = elements.pop();
+                    if (element != root) {
+                        elements.peek().accumulate(element.name, element.value());
+                    }
+                    break;
+                case XMLStreamConstants.DTD:
+                    throw invalid("DTDs are not supported.");
+                default:
+                    // comments and processing instructions are ignored
+            }
+        }
+        if (root == null || root.fields.isEmpty()) {
+            throw invalid("The given body has no elements.");
+        }
+        return root.fields;
+    }
+
+    /**
+     * Starts an element, with its namespace declarations and attributes as fields
+     */
+    private Element start(XMLStreamReader reader) {
+        Element element = new Element(name(reader.getPrefix(), reader.getLocalName()));
+        if (!attributesAsFields) {
+            return element;
+        }
+        if (!stripNamespaces) {
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                String prefix = reader.getNamespacePrefix(i);
+                element.accumulate(prefix == null || prefix.isEmpty() ? XMLNS : XMLNS + ':' + prefix,
+                        infer(reader.getNamespaceURI(i)));
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.accumulate(name(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                    infer(reader.getAttributeValue(i)));
+        }
+        return element;
+    }
+
+    private String name(String prefix, String localName) {
+        return stripNamespaces || prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    /**
+     * Converts a text into an Integer, Long, Double, Boolean or null, in case it looks like one of them
+     */
+    private static Object infer(String text) {
+        if (text.length() == 4 && text.equalsIgnoreCase("null")) {
+            return null;
+        }
+        return UrlEncodedBodyParser.infer(text);
+    }
+
+    /**
+     * Wraps the body with a root element, so its root elements are parsed as the children of a single one, and
+     * leaves its XML declaration out, since it can't follow the wrapping element
+     */
+    private static Reader fragment(Reader body) throws IOException {
+        char[] head = new char[MAX_DECLARATION_LENGTH];
+        int length = 0;
+        int read;
+        while (length < head.length && (read = body.read(head, length, head.length - length)) >= 0) {
+            length += read;
+        }
+
+        int start = length > 0 && head[0] == BYTE_ORDER_MARK ? 1 : 0;
+        String text = new String(head, start, length - start);
+        if (text.startsWith(DECLARATION_START)) {
+            int end = text.indexOf(DECLARATION_END);
+            if (end > 0) {
+                text = text.substring(end + DECLARATION_END.length());
+            }
+        }
+        return new SequenceReader(new StringReader('<' + ROOT + '>' + text), body,
+                new StringReader("</" + ROOT + '>'));
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException ex) {
+                // nothing else to release
+            }
+        }
+    }
+
+    private static BadRequestException invalid(String reason) {
+        return new BadRequestException("Invalid Request Body. " + reason);
+    }
+
+    private static XMLInputFactory factory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * An element being parsed, along with its fields and text
+     */
+    private static final class Element {
+        private final String name;
+        private final Map<String, Object> fields = new HashMap<>();
+        private StringBuilder text;
+
+        private Element(String name) {
+            this.name = name;
+        }
+
+        private void append(char[] chars, int start, int length) {
+            if (text == null) {
+                text = new StringBuilder(length);
+            }
+            text.append(chars, start, length);
+        }
+
+        /**
+         * Adds the text read so far as the content of the element, so the texts split by children are kept apart
+         */
+        private void flush() {
+            if (text != null) {
+                String content = text.toString().trim();
+                if (!content.isEmpty()) {
+                    accumulate(CONTENT, infer(content));
+                }
+                text = null;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void accumulate(String field, Object value) {
+            if (!fields.containsKey(field)) {
+                fields.put(field, value);
+                return;
+            }
+            Object previous = fields.get(field);
+            if (previous instanceof List) {
+                ((List<Object>) previous).add(value);
+            } else {
+                List<Object> values = new ArrayList<>();
+                values.add(previous);
+                values.add(value);
+                fields.put(field, values);
+            }
+        }
+
+        private Object value() {
+            flush();
+            if (fields.isEmpty()) {
+                return "";
+            }
+            if (fields.size() == 1 && fields.containsKey(CONTENT)) {
+                return fields.get(CONTENT);
+            }
+            return fields;
+        }
+    }
+
+    /**
+     * Reads a sequence of readers, one after the other
+     */
+    private static final class SequenceReader extends Reader {
+        private final Reader[] readers;
+        private int current;
+
+        private SequenceReader(Reader... readers) {
+            this.readers = readers;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (current < readers.length) {
+                int read = readers[current].read(buffer, offset, length);
+                if (read > 0) {
+                    return read;
+                }
+                if (read < 0) {
+                    current++;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Reader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.mock.apimocks.mechanism.condition;
+
+import com.mock.apimocks.models.CallContext;
+
+/**
+ * This interface describes a scenario condition compiled into a tree of Java expressions.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ * @see ConditionParser
+ */
+@FunctionalInterface
+public interface ConditionExpression {
+    /**
+     * Evaluates the expression against a call context
+     *
+     * @param context the call context with the request variables
+     * @return the expression value, following the JavaScript semantics
+     * @throws UnsupportedConditionException whenever the request values can't be handled natively
+     */
+    Object evaluate(CallContext context);
+
+    /**
+     * Evaluates the expression as a condition. Just like on the script engines, only a boolean true fulfills it.
+     *
+     * @param context the call context with the request variables
+     * @return a flag with the valuation result
+     * @throws UnsupportedConditionException whenever the request values can't be handled natively
+     */
+    default boolean test(CallContext context) {
+        return Boolean.TRUE.equals(evaluate(context));
+    }
+}
@@ -0,0 +1,559 @@
+package com.mock.apimocks.mechanism.condition;
+
+import com.mock.apimocks.contants.ConditionEngineScope;
+import com.mock.apimocks.models.CallContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+/**
+ * This class compiles the common scenario conditions into native {@link ConditionExpression}s, so they don't need a
+ * script engine to be evaluated.
+ * <p/>
+ * The supported conditions are a subset of JavaScript, evaluated with the same semantics as Nashorn:
+ * <ul>
+ *     <li>the request scopes from {@link ConditionEngineScope}, with dotted (<i>$path.id</i>), quoted
+ *     (<i>$header['x-tenant']</i>) and indexed (<i>$body.items[0]</i>) properties</li>
+ *     <li>string, number, boolean, <i>null</i> and <i>undefined</i> literals</li>
+ *     <li>the <i>==</i>, <i>!=</i>, <i>===</i>, <i>!==</i>, <i>&lt;</i>, <i>&lt;=</i>, <i>&gt;</i> and
+ *     <i>&gt;=</i> comparisons, which also cover the null checks</li>
+ *     <li>the <i>&amp;&amp;</i>, <i>||</i> and <i>!</i> operators and parentheses</li>
+ *     <li>regular expression matches, such as <i>/^\d+$/.test($path.id)</i></li>
+ *     <li>list membership, such as <i>$query.status in ['A', 'B']</i>. Unlike JavaScript, which would look for an
+ *     index of the list, it is fulfilled when the value is equal (<i>==</i>) to one of the items</li>
+ * </ul>
+ * Anything else, such as method calls or the <i>length</i> property, is left to the script engines.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class ConditionParser {
+    private static final String OPERATORS = "=== !== == != <= >= && || < > ! ( ) [ ] , .";
+
+    private final List<Token> tokens;
+    private int position;
+
+    private ConditionParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Compiles a condition into a native expression
+     *
+     * @param condition the scenario condition
+     * @return an {@link Optional} with the {@link ConditionExpression}, or an empty one in case the condition is not
+     *      supported natively
+     */
+    public static Optional<ConditionExpression> parse(String condition) {
+        if (condition == null || condition.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            ConditionParser parser = new ConditionParser(tokenize(condition));
+            ConditionExpression expression = parser.parseOr();
+            parser.expect(Kind.END, null);
+            return Optional.of(expression);
+        } catch (UnsupportedConditionException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Analyses a condition which only compares a request property with a literal, such as <i>$path.cpf ==
+     * '12345678900'</i>, so the scenarios can be indexed by the literal value
+     *
+     * @param condition the scenario condition
+     * @return an {@link Optional} with the {@link EqualityLookup}, or an empty one in case the condition has any other
+     *      form
+     */
+    public static Optional<EqualityLookup> parseLookup(String condition) {
+        if (condition == null || condition.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            ConditionParser parser = new ConditionParser(tokenize(condition));
+            EqualityLookup lookup = parser.parseLookupOperands();
+            parser.expect(Kind.END, null);
+            return Optional.of(lookup);
+        } catch (UnsupportedConditionException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private EqualityLookup parseLookupOperands() {
+        Object literal;
+        List<Object> keys = new ArrayList<>();
+        ConditionExpression operand;
+        if (peek().kind == Kind.STRING || peek().kind == Kind.NUMBER) {
+            literal = next().value;
+            expectEquality();
+            operand = parseLookupOperand(keys);
+        } else {
+            operand = parseLookupOperand(keys);
+            expectEquality();
+            Token token = next();
+            if (token.kind != Kind.STRING && token.kind != Kind.NUMBER) {
+                throw unsupported(token);
+            }
+            literal = token.value;
+        }
+
+        String path = keys.stream().map(JsValues::toJsString).collect(Collectors.joining("."));
+        return new EqualityLookup(path, operand, literal);
+    }
+
+    private ConditionExpression parseLookupOperand(List<Object> keys) {
+        Token scope = expect(Kind.IDENTIFIER, null);
+        if (!scope.text.startsWith("$")) {
+            throw unsupported(scope);
+        }
+        keys.add(scope.text);
+        ConditionExpression operand = parseIdentifier(scope, keys);
+        if (keys.size() == 1) {
+            throw unsupported(scope);
+        }
+        return operand;
+    }
+
+    private void expectEquality() {
+        if (!accept("===") && !accept("==")) {
+            throw unsupported(peek());
+        }
+    }
+
+    /*
+     * Parser, from the lowest to the highest precedence
+     */
+    private ConditionExpression parseOr() {
+        ConditionExpression left = parseAnd();
+        while (accept("||")) {
+            ConditionExpression l = left;
+            ConditionExpression r = parseAnd();
+            left = ctx -> {
+                Object value = l.evaluate(ctx);
+                return JsValues.toBoolean(value) ? value : r.evaluate(ctx);
+            };
+        }
+        return left;
+    }
+
+    private ConditionExpression parseAnd() {
+        ConditionExpression left = parseEquality();
+        while (accept("&&")) {
+            ConditionExpression l = left;
+            ConditionExpression r = parseEquality();
+            left = ctx -> {
+                Object value = l.evaluate(ctx);
+                return JsValues.toBoolean(value) ? r.evaluate(ctx) : value;
+            };
+        }
+        return left;
+    }
+
+    private ConditionExpression parseEquality() {
+        ConditionExpression left = parseRelational();
+        while (true) {
+            ConditionExpression l = left;
+            if (accept("===")) {
+                ConditionExpression r = parseRelational();
+                left = ctx -> JsValues.strictEquals(l.evaluate(ctx), r.evaluate(ctx));
+            } else if (accept("!==")) {
+                ConditionExpression r = parseRelational();
+                left = ctx -> !JsValues.strictEquals(l.evaluate(ctx), r.evaluate(ctx));
+            } else if (accept("==")) {
+                ConditionExpression r = parseRelational();
+                left = ctx -> JsValues.looseEquals(l.evaluate(ctx), r.evaluate(ctx));
+            } else if (accept("!=")) {
+                ConditionExpression r = parseRelational();
+                left = ctx -> !JsValues.looseEquals(l.evaluate(ctx), r.evaluate(ctx));
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private ConditionExpression parseRelational() {
+        ConditionExpression left = parseUnary();
+        while (true) {
+            ConditionExpression l = left;
+            if (accept("<=")) {
+                left = relational(l, parseUnary(), cmp -> cmp <= 0);
+            } else if (accept(">=")) {
+                left = relational(l, parseUnary(), cmp -> cmp >= 0);
+            } else if (accept("<")) {
+                left = relational(l, parseUnary(), cmp -> cmp < 0);
+            } else if (accept(">")) {
+                left = relational(l, parseUnary(), cmp -> cmp > 0);
+            } else if (peek().is(Kind.IDENTIFIER, "in")) {
+                position++;
+                List<Object> items = parseList();
+                left = ctx -> {
+                    Object value = l.evaluate(ctx);
+                    return items.stream().anyMatch(item -> JsValues.looseEquals(value, item));
+                };
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private ConditionExpression parseUnary() {
+        if (accept("!")) {
+            ConditionExpression operand = parseUnary();
+            return ctx -> !JsValues.toBoolean(operand.evaluate(ctx));
+        }
+        return parsePrimary();
+    }
+
+    private ConditionExpression parsePrimary() {
+        Token token = next();
+        switch (token.kind) {
+            case NUMBER:
+            case STRING:
+                return ctx -> token.value;
+            case REGEX:
+                return parseRegexTest((Pattern) token.value);
+            case IDENTIFIER:
+                return parseIdentifier(token);
+            default:
+                if (token.is(Kind.OPERATOR, "(")) {
+                    ConditionExpression inner = parseOr();
+                    expect(Kind.OPERATOR, ")");
+                    return inner;
+                }
+                throw unsupported(token);
+        }
+    }
+
+    private ConditionExpression parseIdentifier(Token token) {
+        return parseIdentifier(token, new ArrayList<>());
+    }
+
+    private ConditionExpression parseIdentifier(Token token, List<Object> keys) {
+        switch (token.text) {
+            case "true":
+                return ctx -> Boolean.TRUE;
+            case "false":
+                return ctx -> Boolean.FALSE;
+            case "null":
+                return ctx -> null;
+            case "undefined":
+                return ctx -> JsValues.UNDEFINED;
+            case ConditionEngineScope.HEADER:
+                return parseProperties(CallContext::getHeaders, keys);
+            case ConditionEngineScope.PATH_PARAM:
+                return parseProperties(CallContext::getPathParams, keys);
+            case ConditionEngineScope.QUERY_PARAM:
+                return parseProperties(CallContext::getQueryParams, keys);
+            case ConditionEngineScope.BODY:
+                return parseProperties(CallContext::getParsedBody, keys);
+            default:
+                throw unsupported(token);
+        }
+    }
+
+    private ConditionExpression parseProperties(Function<CallContext, Object> scope, List<Object> keys) {
+        ConditionExpression expression = scope::apply;
+        while (true) {
+            Object key;
+            if (accept(".")) {
+                Token name = expect(Kind.IDENTIFIER, null);
+                if ("length".equals(name.text) || peek().is(Kind.OPERATOR, "(")) {
+                    throw unsupported(name);
+                }
+                key = name.text;
+            } else if (accept("[")) {
+                Token literal = next();
+                if (literal.kind != Kind.STRING && literal.kind != Kind.NUMBER) {
+                    throw unsupported(literal);
+                }
+                expect(Kind.OPERATOR, "]");
+                key = literal.value;
+            } else {
+                return expression;
+            }
+            keys.add(key);
+            ConditionExpression target = expression;
+            expression = ctx -> JsValues.property(target.evaluate(ctx), key);
+        }
+    }
+
+    private ConditionExpression parseRegexTest(Pattern pattern) {
+        expect(Kind.OPERATOR, ".");
+        expect(Kind.IDENTIFIER, "test");
+        expect(Kind.OPERATOR, "(");
+        ConditionExpression argument = parseOr();
+        expect(Kind.OPERATOR, ")");
+        return ctx -> pattern.matcher(JsValues.toJsString(argument.evaluate(ctx))).find();
+    }
+
+    private List<Object> parseList() {
+        List<Object> items = new ArrayList<>();
+        expect(Kind.OPERATOR, "[");
+        do {
+            Token item = next();
+            if (item.kind == Kind.NUMBER || item.kind == Kind.STRING) {
+                items.add(item.value);
+            } else if (item.is(Kind.IDENTIFIER, "true") || item.is(Kind.IDENTIFIER, "false")) {
+                items.add(Boolean.valueOf(item.text));
+            } else if (item.is(Kind.IDENTIFIER, "null")) {
+                items.add(null);
+            } else {
+                throw unsupported(item);
+            }
+        } while (accept(","));
+        expect(Kind.OPERATOR, "]");
+        return items;
+    }
+
+    private static ConditionExpression relational(ConditionExpression left, ConditionExpression right,
+                                                  IntPredicate test) {
+        return ctx -> {
+            Integer cmp = JsValues.compare(left.evaluate(ctx), right.evaluate(ctx));
+            return cmp != null && test.test(cmp);
+        };
+    }
+
+    /*
+     * Token helpers
+     */
+    private Token peek() {
+        return tokens.get(position);
+    }
+
+    private Token next() {
+        Token token = tokens.get(position);
+        if (token.kind != Kind.END) {
+            position++;
+        }
+        return token;
+    }
+
+    private boolean accept(String operator) {
+        if (peek().is(Kind.OPERATOR, operator)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private Token expect(Kind kind, String text) {
+        Token token = next();
+        if (token.kind != kind || text != null && !text.equals(token.text)) {
+            throw unsupported(token);
+        }
+        return token;
+    }
+
+    private static UnsupportedConditionException unsupported(Token token) {
+        return new UnsupportedConditionException("Unsupported token " + token.text);
+    }
+
+    /*
+     * Tokenizer
+     */
+    private static List<Token> tokenize(String condition) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < condition.length()) {
+            char c = condition.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                i++;
+            } else if (Character.isLetter(c) || c == '$' || c == '_') {
+                int start = i;
+                while (i < condition.length() && (Character.isLetterOrDigit(condition.charAt(i))
+                        || condition.charAt(i) == '$' || condition.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.IDENTIFIER, condition.substring(start, i), null));
+            } else if (c >= '0' && c <= '9') {
+                i = readNumber(condition, i, tokens);
+            } else if (c == '-' && i + 1 < condition.length() && Character.isDigit(condition.charAt(i + 1))
+                    && !endsWithValue(tokens)) {
+                i = readNumber(condition, i + 1, tokens);
+                Token number = tokens.remove(tokens.size() - 1);
+                tokens.add(negate(number));
+            } else if (c == '\'' || c == '"') {
+                i = readString(condition, i, tokens);
+            } else if (c == '/') {
+                i = readRegex(condition, i, tokens);
+            } else {
+                i = readOperator(condition, i, tokens);
+            }
+        }
+        tokens.add(new Token(Kind.END, "end of condition", null));
+        return tokens;
+    }
+
+    private static boolean endsWithValue(List<Token> tokens) {
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        Token last = tokens.get(tokens.size() - 1);
+        return last.kind != Kind.OPERATOR || last.is(Kind.OPERATOR, ")") || last.is(Kind.OPERATOR, "]");
+    }
+
+    private static int readNumber(String condition, int start, List<Token> tokens) {
+        int i = start;
+        while (i < condition.length() && (Character.isLetterOrDigit(condition.charAt(i))
+                || condition.charAt(i) == '.' || (condition.charAt(i) == '+' || condition.charAt(i) == '-')
+                && (condition.charAt(i - 1) == 'e' || condition.charAt(i - 1) == 'E'))) {
+            i++;
+        }
+        String text = condition.substring(start, i);
+        // hexadecimal and legacy octal literals are left to the script engines
+        if (!text.matches("(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?")) {
+            throw new UnsupportedConditionException("Unsupported number " + text);
+        }
+        Object value;
+        if (text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+            value = Double.parseDouble(text);
+        } else {
+            long number = Long.parseLong(text.length() > 18 ? "-1" : text);
+            value = number >= 0 && number <= Integer.MAX_VALUE ? (Object) (int) number : Double.parseDouble(text);
+        }
+        tokens.add(new Token(Kind.NUMBER, text, value));
+        return i;
+    }
+
+    private static Token negate(Token number) {
+        Object value = number.value instanceof Integer && (Integer) number.value != 0 ? (Object) (-(Integer) number.value)
+                : (Object) (-((Number) number.value).doubleValue());
+        return new Token(Kind.NUMBER, "-" + number.text, value);
+    }
+
+    private static int readString(String condition, int start, List<Token> tokens) {
+        char quote = condition.charAt(start);
+        StringBuilder value = new StringBuilder();
+        int i = start + 1;
+        while (i < condition.length() && condition.charAt(i) != quote) {
+            char c = condition.charAt(i++);
+            if (c == '\n' || c == '\r') {
+                throw new UnsupportedConditionException("Unterminated string");
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (i >= condition.length()) {
+                break;
+            }
+            char escaped = condition.charAt(i++);
+            switch (escaped) {
+                case '\\':
+                case '\'':
+                case '"':
+                case '/':
+                    value.append(escaped);
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'u':
+                    if (i + 4 > condition.length() || !condition.substring(i, i + 4).matches("[0-9a-fA-F]{4}")) {
+                        throw new UnsupportedConditionException("Unsupported unicode escape");
+                    }
+                    value.append((char) Integer.parseInt(condition.substring(i, i + 4), 16));
+                    i += 4;
+                    break;
+                default:
+                    throw new UnsupportedConditionException("Unsupported escape \\" + escaped);
+            }
+        }
+        if (i >= condition.length()) {
+            throw new UnsupportedConditionException("Unterminated string");
+        }
+        tokens.add(new Token(Kind.STRING, condition.substring(start, i + 1), value.toString()));
+        return i + 1;
+    }
+
+    private static int readRegex(String condition, int start, List<Token> tokens) {
+        int i = start + 1;
+        boolean inClass = false;
+        while (i < condition.length() && (inClass || condition.charAt(i) != '/')) {
+            char c = condition.charAt(i);
+            if (c == '\n' || c == '\r') {
+                break;
+            }
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            }
+            i++;
+        }
+        if (i >= condition.length() || condition.charAt(i) != '/' || i == start + 1) {
+            throw new UnsupportedConditionException("Unsupported regular expression");
+        }
+        String source = condition.substring(start + 1, i);
+
+        int flags = 0;
+        for (i++; i < condition.length() && Character.isLetter(condition.charAt(i)); i++) {
+            switch (condition.charAt(i)) {
+                case 'i':
+                    flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+                    break;
+                case 'm':
+                    flags |= Pattern.MULTILINE;
+                    break;
+                default:
+                    // the global and sticky flags make the test calls stateful
+                    throw new UnsupportedConditionException("Unsupported flag " + condition.charAt(i));
+            }
+        }
+
+        try {
+            tokens.add(new Token(Kind.REGEX, condition.substring(start, i), Pattern.compile(source, flags)));
+        } catch (PatternSyntaxException ex) {
+            throw new UnsupportedConditionException("Unsupported regular expression " + source);
+        }
+        return i;
+    }
+
+    private static int readOperator(String condition, int start, List<Token> tokens) {
+        for (String operator : OPERATORS.split(" ")) {
+            if (condition.startsWith(operator, start)) {
+                tokens.add(new Token(Kind.OPERATOR, operator, null));
+                return start + operator.length();
+            }
+        }
+        throw new UnsupportedConditionException("Unsupported character " + condition.charAt(start));
+    }
+
+    private enum Kind {
+        IDENTIFIER, NUMBER, STRING, REGEX, OPERATOR, END
+    }
+
+    /**
+     * A single condition token
+     */
+    private static final class Token {
+        private final Kind kind;
+        private final String text;
+        private final Object value;
+
+        private Token(Kind kind, String text, Object value) {
+            this.kind = kind;
+            this.text = text;
+            this.value = value;
+        }
+
+        private boolean is(Kind kind, String text) {
+            return this.kind == kind && this.text.equals(text);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mock.apimocks.mechanism.condition;
+
+import com.mock.apimocks.models.CallContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class describes a condition which only compares a request property with a literal, such as
+ * <i>$path.cpf == '12345678900'</i> or <i>$query.page === 2</i>.
+ * <p/>
+ * Such conditions can be looked up by the property value instead of being evaluated one by one. Since the
+ * JavaScript equality coerces strings, numbers and booleans into each other, both sides are turned into lookup keys:
+ * their text, in case they are strings, and their numeric value, in case they can be converted into a number. Two
+ * values which are equal always share at least one key, so a lookup finds every scenario that might be fulfilled,
+ * which must still be confirmed by evaluating its condition.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ * @see ConditionParser#parseLookup(String)
+ */
+public final class EqualityLookup {
+    private final String path;
+    private final ConditionExpression operand;
+    private final Object literal;
+
+    EqualityLookup(String path, ConditionExpression operand, Object literal) {
+        this.path = path;
+        this.operand = operand;
+        this.literal = literal;
+    }
+
+    /**
+     * Getting the compared property path, such as <i>$path.cpf</i>. Dotted and quoted properties share the same path.
+     *
+     * @return the property path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Reading the compared property from a call context
+     *
+     * @param context the call context with the request variables
+     * @return the property value
+     * @throws UnsupportedConditionException whenever the property can't be read natively
+     */
+    public Object read(CallContext context) {
+        return operand.evaluate(context);
+    }
+
+    /**
+     * Getting the lookup keys of the literal value
+     *
+     * @return a List of keys
+     */
+    public List<Object> literalKeys() {
+        return keys(literal);
+    }
+
+    /**
+     * Getting the lookup keys of a property value
+     *
+     * @param value the property value
+     * @return a List of keys, which is empty in case the value can't be equal to any literal
+     */
+    public static List<Object> keys(Object value) {
+        List<Object> keys = new ArrayList<>(2);
+        if (value == null || value == JsValues.UNDEFINED) {
+            return keys;
+        }
+
+        if (value instanceof String || !(value instanceof Number) && !(value instanceof Boolean)) {
+            keys.add(value.toString());
+        }
+        double number = JsValues.toNumber(value);
+        if (!Double.isNaN(number)) {
+            // negative and positive zeros are equal, but not for Double.equals
+            keys.add(number == 0 ? 0d : number);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,229 @@
+package com.mock.apimocks.mechanism.condition;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * This class mimics the JavaScript value semantics used by the scenario conditions.
+ * <p/>
+ * Conditions were always evaluated by Nashorn, so the native expressions must coerce and compare values exactly
+ * like it does. Nashorn takes {@link Integer} and {@link Double} values as JavaScript numbers, while any other Java
+ * object (including {@link Long} and {@link BigDecimal}) is taken as an object, which only turns into a number or
+ * a string when compared with a primitive value.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+final class JsValues {
+    /**
+     * The JavaScript <i>undefined</i> value. Java nulls are taken as JavaScript nulls.
+     */
+    static final Object UNDEFINED = new Object() {
+        @Override
+        public String toString() {
+            return "undefined";
+        }
+    };
+
+    private static final Pattern HEXADECIMAL = Pattern.compile("0[xX][0-9a-fA-F]+");
+    private static final Pattern NUMERIC = Pattern.compile("[+-]?(Infinity|(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?)");
+
+    /**
+     * Default class constructor.
+     * <p/>
+     * It is set as private because this class only should have static methods
+     */
+    private JsValues() {
+    }
+
+    /**
+     * Reading a property of a value, the same way Nashorn does for maps and lists
+     *
+     * @param target the value that holds the property
+     * @param key    the property name or index
+     * @return the property value, which is null in case a map does not have it
+     * @throws IllegalStateException         whenever the target is null or undefined, just like a TypeError
+     * @throws IndexOutOfBoundsException     whenever a list index is out of range
+     * @throws UnsupportedConditionException whenever the target is not a map nor a list
+     */
+    static Object property(Object target, Object key) {
+        if (target == null || target == UNDEFINED) {
+            throw new IllegalStateException("Cannot read property " + key + " of " + target);
+        }
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(toJsString(key));
+        }
+        if (target instanceof List) {
+            Integer index = toIndex(key);
+            if (index != null) {
+                return ((List<?>) target).get(index);
+            }
+        }
+        throw new UnsupportedConditionException("Property " + key + " of " + target.getClass().getSimpleName());
+    }
+
+    /**
+     * Converting a value to a boolean, following the JavaScript truthiness rules
+     */
+    static boolean toBoolean(Object value) {
+        if (value == null || value == UNDEFINED) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (isNumber(value)) {
+            double number = ((Number) value).doubleValue();
+            return number != 0 && !Double.isNaN(number);
+        }
+        if (value instanceof String) {
+            return !((String) value).isEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * Converting a value to a number, following the JavaScript ToNumber rules
+     */
+    static double toNumber(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value == UNDEFINED) {
+            return Double.NaN;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        String text = toJsString(value).trim();
+        if (text.isEmpty()) {
+            return 0;
+        }
+        if (HEXADECIMAL.matcher(text).matches()) {
+            return new BigInteger(text.substring(2), 16).doubleValue();
+        }
+        return NUMERIC.matcher(text).matches() ? Double.parseDouble(text) : Double.NaN;
+    }
+
+    /**
+     * Converting a value to a string, following the JavaScript ToString rules
+     */
+    static String toJsString(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isNaN(number)) {
+                return "NaN";
+            }
+            if (Double.isInfinite(number)) {
+                return number > 0 ? "Infinity" : "-Infinity";
+            }
+            if (number == 0) {
+                return "0";
+            }
+            double abs = Math.abs(number);
+            if (abs >= 1e-6 && abs < 1e21) {
+                return BigDecimal.valueOf(number).stripTrailingZeros().toPlainString();
+            }
+            return Double.toString(number).replace(".0E", "E").replace("E", "e").replace("e", abs >= 1 ? "e+" : "e");
+        }
+        return value.toString();
+    }
+
+    /**
+     * Comparing two values through the JavaScript strict equality (<i>===</i>)
+     */
+    static boolean strictEquals(Object a, Object b) {
+        if (isNumber(a) && isNumber(b)) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        if (a instanceof String && b instanceof String || a instanceof Boolean && b instanceof Boolean) {
+            return a.equals(b);
+        }
+        return a == b;
+    }
+
+    /**
+     * Comparing two values through the JavaScript abstract equality (<i>==</i>)
+     */
+    static boolean looseEquals(Object a, Object b) {
+        if (isNullish(a) || isNullish(b)) {
+            return isNullish(a) && isNullish(b);
+        }
+        if (isPrimitive(a) == isPrimitive(b)) {
+            if (!isPrimitive(a) || sameType(a, b)) {
+                return strictEquals(a, b);
+            }
+            if (a instanceof String && b instanceof String) {
+                return a.equals(b);
+            }
+            return toNumber(a) == toNumber(b);
+        }
+        Object primitive = isPrimitive(a) ? a : b;
+        Object converted = toPrimitive(isPrimitive(a) ? b : a);
+        return looseEquals(primitive, converted);
+    }
+
+    /**
+     * Comparing two values through the JavaScript relational operators
+     *
+     * @return a negative number, zero or a positive number, or null whenever the values can't be compared
+     */
+    static Integer compare(Object a, Object b) {
+        Object left = toPrimitive(a);
+        Object right = toPrimitive(b);
+        if (left instanceof String && right instanceof String) {
+            return ((String) left).compareTo((String) right);
+        }
+        double x = toNumber(left);
+        double y = toNumber(right);
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return null;
+        }
+        return Double.compare(x == 0 ? 0 : x, y == 0 ? 0 : y);
+    }
+
+    private static Object toPrimitive(Object value) {
+        if (value == null || value == UNDEFINED || isPrimitive(value)) {
+            return value;
+        }
+        return value instanceof Number ? (Object) ((Number) value).doubleValue() : value.toString();
+    }
+
+    private static boolean isNumber(Object value) {
+        return value instanceof Integer || value instanceof Double || value instanceof Float
+                || value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean isPrimitive(Object value) {
+        return isNumber(value) || value instanceof String || value instanceof Boolean;
+    }
+
+    private static boolean isNullish(Object value) {
+        return value == null || value == UNDEFINED;
+    }
+
+    private static boolean sameType(Object a, Object b) {
+        return isNumber(a) && isNumber(b) || a.getClass() == b.getClass();
+    }
+
+    private static Integer toIndex(Object key) {
+        if (isNumber(key)) {
+            double number = ((Number) key).doubleValue();
+            return number >= 0 && number == Math.floor(number) ? (int) number : null;
+        }
+        if (key instanceof String && !((String) key).isEmpty() && ((String) key).length() < 10
+                && ((String) key).chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return Integer.parseInt((String) key);
+        }
+        return null;
+    }
+}
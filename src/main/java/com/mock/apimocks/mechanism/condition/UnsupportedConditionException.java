@@ -0,0 +1,14 @@
+package com.mock.apimocks.mechanism.condition;
+
+/**
+ * Thrown whenever a condition, or one of the values it reads, can't be handled by the native expressions, so the
+ * condition must be evaluated by a script engine instead.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public class UnsupportedConditionException extends RuntimeException {
+    public UnsupportedConditionException(String message) {
+        super(message);
+    }
+}
@@ -15,7 +15,6 @@ import java.util.Map;
 @AllArgsConstructor
 public class CallContext {
     private String url;
-    private String body;
     private Object parsedBody;
     private String method;
 
@@ -23,5 +22,5 @@ public class CallContext {
 
     private Map<String, String> headers = new HashMap<>();
     private Map<String, String> queryParams = new HashMap<>();
-    private Map<String, String> pathParams = new HashMap<>();
+    private Map<String, Object> pathParams = new HashMap<>();
 }
@@ -0,0 +1,15 @@
+package com.mock.apimocks.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MockChangeEvent {
+    private String mockId;
+    private Set<String> operationIds;
+}
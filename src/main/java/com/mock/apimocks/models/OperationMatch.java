@@ -0,0 +1,26 @@
+package com.mock.apimocks.models;
+
+import com.mock.apimocks.mechanism.BodySelection;
+import com.mock.apimocks.mechanism.ScenarioIndex;
+import com.mock.apimocks.models.vo.MockOperation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class OperationMatch {
+    private MockOperation operation;
+    private Map<String, Object> pathParams;
+    private ScenarioIndex scenarioIndex;
+
+    /**
+     * Getting the parts of the request body read by the scenario conditions of the matched operation
+     *
+     * @return the {@link BodySelection} of the operation
+     */
+    public BodySelection getBodySelection() {
+        return scenarioIndex.getBodySelection();
+    }
+}
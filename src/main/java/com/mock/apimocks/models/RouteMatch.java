@@ -0,0 +1,13 @@
+package com.mock.apimocks.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class RouteMatch {
+    private String operationId;
+    private Map<String, Object> pathParams;
+}
@@ -1,10 +1,13 @@
 package com.mock.apimocks.models.vo;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mock.apimocks.mechanism.ScenarioIndex;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Builder;
 import lombok.Data;
+import lombok.ToString;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.redis.core.RedisHash;
 import org.springframework.http.HttpMethod;
 
@@ -37,6 +40,17 @@ public class MockOperation {
     @JsonIgnore
     private String regex;
 
+    @JsonIgnore
+    private List<String> pathParamNames;
+
+    @JsonIgnore
+    private boolean staticResponse;
+
+    @JsonIgnore
+    @Transient
+    @ToString.Exclude
+    private transient ScenarioIndex scenarioIndex;
+
     @ApiModelProperty(value = "Mock Response Scenarios", required = true)
     @Valid
     private List<MockScenario> scenarios;
@@ -1,9 +1,15 @@
 package com.mock.apimocks.models.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mock.apimocks.enums.ConditionEngine;
 import com.mock.apimocks.enums.ContentType;
+import com.mock.apimocks.mechanism.CompiledCondition;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Builder;
 import lombok.Data;
+import lombok.ToString;
+import org.springframework.data.annotation.Transient;
 
 import javax.validation.constraints.*;
 import java.util.Map;
@@ -18,6 +24,18 @@ public class MockScenario {
     @ApiModelProperty(value = "Operation Scenario Condition to be fulfilled. Must not be empty in case the 'isDefault' property was false.", example = "$path.id == 3")
     private String conditions;
 
+    @ApiModelProperty(value = "Engine which evaluates the scenario conditions. Conditions that can't be compiled into native expressions are evaluated by the configured script engine", readOnly = true, example = "NATIVE", allowableValues = "NATIVE, NASHORN, GRAALJS")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private ConditionEngine conditionEngine;
+
+    @ApiModelProperty(value = "A flag which indicates that the scenario conditions may give different results for the same request, so their results are never memoized", example = "false")
+    private boolean nonDeterministic;
+
+    @JsonIgnore
+    @Transient
+    @ToString.Exclude
+    private transient CompiledCondition compiledConditions;
+
     @ApiModelProperty(value = "HTTP Status code", required = true, example = "200")
     @Min(value = 100, message = "The property 'httpCode' should be greater than 100 and lesser than 600")
     @Max(value = 599, message = "The property 'httpCode' should be greater than 100 and lesser than 600")
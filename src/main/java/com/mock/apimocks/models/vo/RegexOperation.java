@@ -6,6 +6,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.redis.core.RedisHash;
 
 import java.io.Serializable;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -14,9 +15,11 @@ public class RegexOperation implements Serializable {
     public RegexOperation(MockOperation operation) {
         this.regex = operation.getMethod() + operation.getRegex();
         this.operationId = operation.getId();
+        this.pathParamNames = operation.getPathParamNames();
     }
 
     @Id
     private String regex;
     private String operationId;
+    private List<String> pathParamNames;
 }
@@ -0,0 +1,106 @@
+package com.mock.apimocks.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mock.apimocks.models.MockChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * This class spreads mock changes across all nodes.
+ * <p/>
+ * Whenever a mock is created, updated or deleted a {@link MockChangeEvent} is published on a Redis channel. Every
+ * node, including the publisher, listens to that channel and drops the changed operations from its local caches and
+ * routes, and reloads the changed mock on its {@link RouteOverlapGuard}, so all nodes stay consistent without polling
+ * the database.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+@Component
+public class MockChangeNotifier implements MessageListener {
+    public static final String CHANNEL = "MockChanges";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MockChangeNotifier.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StringRedisTemplate redisTemplate;
+    private final OperationCache operationCache;
+    private final OperationRouter router;
+    private final RouteOverlapGuard overlapGuard;
+
+    /**
+     * Default class constructor
+     * <p/>
+     * Used to inject dependencies
+     *
+     * @param redisTemplate  the {@link StringRedisTemplate} instance used to publish the events
+     * @param operationCache the {@link OperationCache} instance
+     * @param router         the {@link OperationRouter} instance
+     * @param overlapGuard   the {@link RouteOverlapGuard} instance
+     */
+    public MockChangeNotifier(StringRedisTemplate redisTemplate, OperationCache operationCache,
+                              OperationRouter router, RouteOverlapGuard overlapGuard) {
+        this.redisTemplate = redisTemplate;
+        this.operationCache = operationCache;
+        this.router = router;
+        this.overlapGuard = overlapGuard;
+    }
+
+    /**
+     * Publishing a mock change to all nodes.
+     * <p/>
+     * The change is also applied locally right away, so the next request on this node already sees it even before
+     * the event is delivered back by Redis.
+     *
+     * @param event the change event
+     */
+    public void publish(MockChangeEvent event) {
+        apply(event);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, MAPPER.writeValueAsString(event));
+        } catch (IOException ex) {
+            // the event is built by ourselves, so it should always be serializable
+            throw new IllegalStateException("Could not serialize mock change event", ex);
+        }
+    }
+
+    /**
+     * Handling a change event published by any node
+     *
+     * @param message the Redis message with the serialized event
+     * @param pattern the channel pattern
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            apply(MAPPER.readValue(message.getBody(), MockChangeEvent.class));
+        } catch (IOException ex) {
+            // an event that could not be read may hide any change, so we must drop everything
+            LOGGER.warn("Invalid mock change event received, invalidating all cached operations", ex);
+            operationCache.invalidateAll();
+            router.invalidate();
+            overlapGuard.invalidateAll();
+        }
+    }
+
+    /**
+     * Applying a change event on the local caches
+     *
+     * @param event the change event
+     */
+    private void apply(MockChangeEvent event) {
+        if (event.getOperationIds() != null) {
+            operationCache.invalidate(event.getOperationIds());
+        } else {
+            operationCache.invalidateAll();
+        }
+        router.invalidate();
+        overlapGuard.refresh(event.getMockId());
+    }
+}
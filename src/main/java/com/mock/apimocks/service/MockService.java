@@ -2,8 +2,16 @@ package com.mock.apimocks.service;
 
 import com.mock.apimocks.exception.InternalServerErrorException;
 import com.mock.apimocks.exception.ResourceNotFoundException;
+import com.mock.apimocks.exception.UnprocessableEntityException;
+import com.mock.apimocks.mechanism.CompiledCondition;
+import com.mock.apimocks.mechanism.ConditionEvaluator;
 import com.mock.apimocks.mechanism.ContextEngine;
+import com.mock.apimocks.mechanism.ScenarioIndex;
+import com.mock.apimocks.mechanism.StaticResponseIndex;
 import com.mock.apimocks.models.CallContext;
+import com.mock.apimocks.models.MockChangeEvent;
+import com.mock.apimocks.models.OperationMatch;
+import com.mock.apimocks.models.RouteMatch;
 import com.mock.apimocks.models.vo.MockApi;
 import com.mock.apimocks.models.vo.MockOperation;
 import com.mock.apimocks.models.vo.MockScenario;
@@ -11,11 +19,15 @@ import com.mock.apimocks.models.vo.RegexOperation;
 import com.mock.apimocks.repository.MockApiRepository;
 import com.mock.apimocks.repository.MockOperationRepository;
 import com.mock.apimocks.repository.RegexOperationRepository;
+import com.mock.apimocks.validator.MockRequestValidator;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import javax.script.ScriptException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -26,6 +38,15 @@ public class MockService {
     private final MockOperationRepository mockOpRepo;
     private final RegexOperationRepository regexRepo;
 
+    // routing and caching references
+    private final OperationRouter router;
+    private final OperationCache operationCache;
+    private final MockChangeNotifier changeNotifier;
+    private final RouteOverlapGuard overlapGuard;
+
+    // condition references
+    private final ConditionEvaluator evaluator;
+
     /**
      * Default class constructor
      * <p/>
@@ -34,12 +55,24 @@ public class MockService {
      * @param mockApiRepo the {@link MockApiRepository} instance
      * @param mockOpRepo  the {@link MockOperationRepository} instance
      * @param regexRepo   the {@link RegexOperationRepository} instance
+     * @param router         the {@link OperationRouter} instance
+     * @param operationCache the {@link OperationCache} instance
+     * @param changeNotifier the {@link MockChangeNotifier} instance
+     * @param overlapGuard   the {@link RouteOverlapGuard} instance
+     * @param evaluator      the {@link ConditionEvaluator} instance
      */
     public MockService(MockApiRepository mockApiRepo, MockOperationRepository mockOpRepo,
-                       RegexOperationRepository regexRepo) {
+                       RegexOperationRepository regexRepo, OperationRouter router, OperationCache operationCache,
+                       MockChangeNotifier changeNotifier, RouteOverlapGuard overlapGuard,
+                       ConditionEvaluator evaluator) {
         this.mockApiRepo = mockApiRepo;
         this.mockOpRepo = mockOpRepo;
         this.regexRepo = regexRepo;
+        this.router = router;
+        this.operationCache = operationCache;
+        this.changeNotifier = changeNotifier;
+        this.overlapGuard = overlapGuard;
+        this.evaluator = evaluator;
     }
 
     /**
@@ -71,6 +104,9 @@ public class MockService {
         // adding mock identifier
         mock.setId(UUID.randomUUID().toString());
 
+        // rejecting operations that would shadow the ones of another mock
+        overlapGuard.check(mock);
+
         // adding identifiers to each operation and
         // generating regular expressions for each operation
         enhanceOperations(mock);
@@ -81,6 +117,7 @@ public class MockService {
         mockOpRepo.saveAll(mock.getOperations());
         regexRepo.saveAll(mock.getOperations().stream()
                 .map(RegexOperation::new).collect(Collectors.toList()));
+        changeNotifier.publish(changeEvent(mock));
 
         // returning the created mock identifier
         return mock.getId();
@@ -95,6 +132,9 @@ public class MockService {
         MockApi oldMock = mockApiRepo.findById(mock.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Mock not found"));
 
+        // rejecting operations that would shadow the ones of another mock
+        overlapGuard.check(mock);
+
         // filling new ids and regular expressions
         enhanceOperations(mock);
 
@@ -108,6 +148,7 @@ public class MockService {
         mockOpRepo.saveAll(mock.getOperations());
         regexRepo.saveAll(mock.getOperations().stream()
                 .map(RegexOperation::new).collect(Collectors.toList()));
+        changeNotifier.publish(changeEvent(oldMock, mock));
     }
 
     /**
@@ -124,6 +165,50 @@ public class MockService {
         mockOpRepo.deleteAll(mock.getOperations());
         regexRepo.deleteAll(mock.getOperations().stream()
                 .map(RegexOperation::new).collect(Collectors.toList()));
+        changeNotifier.publish(changeEvent(mock));
+    }
+
+    /**
+     * Get the prepared response of a static operation.
+     * <p/>
+     * Static operations always answer with the same response, so they could be served without building a call
+     * context at all.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL
+     * @return an {@link Optional} with the prepared response, or an empty one in case the URL does not belong to a
+     *      static operation
+     */
+    public Optional<ResponseEntity<String>> getStaticResponse(String method, String url) {
+        return router.staticResponse(method, url);
+    }
+
+    /**
+     * Find the operation of a request, along with its path parameters and scenario index.
+     * <p/>
+     * The request is routed only once, so the match is meant to be used both to select the parts of the request body
+     * read by the scenario conditions, see {@link OperationMatch#getBodySelection()}, and to find the scenario of the
+     * call through {@link #getScenario(CallContext, OperationMatch)}.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL
+     * @return an {@link Optional} with the {@link OperationMatch}, or an empty one in case the URL does not belong to
+     *      an operation
+     * @throws InternalServerErrorException whenever the operation was found, but could not be loaded
+     */
+    public Optional<OperationMatch> findOperation(String method, String url) {
+        // first, we must route the incoming method and URL through our in-memory routes in order to find the correct
+        // operation and its path parameters
+        Optional<RouteMatch> route = router.route(method, url);
+        if (!route.isPresent()) {
+            return Optional.empty();
+        }
+
+        // getting the operation details from our local cache or from the operation search table
+        MockOperation operation = operationCache.get(route.get().getOperationId())
+                .orElseThrow(() -> new InternalServerErrorException("The requested operation was found, however it " +
+                        "was not possible load it properly. If the problem persist, call an administrator."));
+        return Optional.of(new OperationMatch(operation, route.get().getPathParams(), scenarioIndex(operation)));
     }
 
     /**
@@ -132,43 +217,35 @@ public class MockService {
      * The call context contains the headers, query parameters, path parameters and request body.
      *
      * @param context the request context that contains the call information
+     * @param match   the operation of the request, found by {@link #findOperation(String, String)}, or null in case
+     *                there's none
      * @return a {@link MockScenario} with the response scenario based on the context
-     * @throws ResourceNotFoundException whenever a scenario could not be found for the given context. This error
-     *      scenario is not likely to happen because we have means to ensure that at least one scenario should be
-     *      added
+     * @throws ResourceNotFoundException whenever the request does not belong to an operation or a scenario could not
+     *      be found for the given context. The latter is not likely to happen because we have means to ensure that at
+     *      least one scenario should be added
      */
-    public MockScenario getScenario(CallContext context) {
-        // first, we must all the operations registered on our database and try to find the correct one
-        // by using its regex against the incoming URL, throwing an ResourceNotFoundException in case it was not found
-        RegexOperation regexOp = regexRepo.findAll().stream()
-                .filter(op -> ContextEngine.verifyUrl(context.getMethod() + context.getUrl(), op.getRegex()))
-                .findFirst().orElseThrow(() -> new ResourceNotFoundException("Operation Not Found"));
-
-        // getting the operation details on the operation search table
-        MockOperation operation = mockOpRepo.findById(regexOp.getOperationId())
-                .orElseThrow(() -> new InternalServerErrorException("The requested operation was found, however it " +
-                        "was not possible load it properly. If the problem persist, call an administrator."));
+    public MockScenario getScenario(CallContext context, OperationMatch match) {
+        if (match == null) {
+            throw new ResourceNotFoundException("Operation Not Found");
+        }
 
         // with the correct operation, we should be able to fill the path parameter values on the context object
-        context.setPathParams(ContextEngine
-                .getPathParameters(operation.getFullPath(), operation.getRegex(), context.getUrl()));
+        context.setPathParams(match.getPathParams());
 
         // trying to find the correct scenario for our mock operation
-        Optional<MockScenario> scenario = operation.getScenarios().stream()
-                .sorted(Comparator.comparing(MockScenario::getOrder))
-                .filter(sc -> ContextEngine.evaluateCondition(context, sc.getConditions()))
-                .findFirst();
+        ScenarioIndex index = match.getScenarioIndex();
+        Optional<MockScenario> scenario = index.select(context);
 
         // in case no scenarios were found, we must return the default one
         if (!scenario.isPresent()) {
-            scenario = operation.getScenarios().stream().filter(MockScenario::isDefault).findFirst();
+            scenario = Optional.ofNullable(index.getDefaultScenario());
         }
         return scenario.orElseThrow(() -> new ResourceNotFoundException("There's no default scenario on this operation."));
     }
 
     /**
-     * Enhance the Mock operations by updating path and regex strings and filling it with a new identifier in case
-     * it was a new instance and doesn't have one yet
+     * Enhance the Mock operations by updating path, regex, path parameter names and static response flag and filling
+     * it with a new identifier in case it was a new instance and doesn't have one yet
      *
      * @param mock the mock with the operations to be enhanced
      */
@@ -178,6 +255,25 @@ public class MockService {
             String fullPath = mock.getBasePath() + "/" + op.getPath();
             op.setFullPath(ContextEngine.sanitizeUrl(fullPath));
             op.setRegex(ContextEngine.createUrlVerifier(fullPath));
+            op.setPathParamNames(ContextEngine.getPathParamNames(op.getFullPath()));
+            op.setStaticResponse(StaticResponseIndex.isStatic(op));
+
+            // compiling the scenario conditions, so they are not parsed again on every call,
+            // and reporting which engine evaluates each one of them
+            // the conditions already compiled by the MockRequestValidator are kept as they are
+            op.getScenarios().forEach(sc -> {
+                if (sc.getConditions() == null || sc.getConditions().isEmpty()) {
+                    sc.setCompiledConditions(null);
+                    sc.setConditionEngine(null);
+                    return;
+                }
+                if (sc.getCompiledConditions() == null
+                        || !sc.getConditions().equals(sc.getCompiledConditions().getSource())) {
+                    sc.setCompiledConditions(compileCondition(sc.getConditions()));
+                }
+                sc.setConditionEngine(evaluator.getEngine(sc.getCompiledConditions()));
+            });
+            op.setScenarioIndex(ScenarioIndex.build(op.getScenarios(), evaluator));
 
             // creating a new identifier in case it doesn't have one
             if (op.getId() == null) {
@@ -185,4 +281,50 @@ public class MockService {
             }
         });
     }
+
+    /**
+     * Compiles a scenario condition which was not compiled by the {@link MockRequestValidator}
+     *
+     * @param condition the scenario condition
+     * @return the {@link CompiledCondition}
+     */
+    private CompiledCondition compileCondition(String condition) {
+        try {
+            return evaluator.compileCondition(condition);
+        } catch (ScriptException ex) {
+            throw new UnprocessableEntityException("The condition " + condition + " is not a valid script");
+        }
+    }
+
+    /**
+     * Getting the scenario index of an operation.
+     * <p/>
+     * The index is built by the {@link OperationCache} when the operation is loaded, so it is only built here in case
+     * the operation got to the cache some other way. It is kept along with the cached operation until its mock changes.
+     *
+     * @param operation the mock operation
+     * @return the {@link ScenarioIndex} of the operation
+     */
+    private ScenarioIndex scenarioIndex(MockOperation operation) {
+        ScenarioIndex index = operation.getScenarioIndex();
+        if (index == null) {
+            index = ScenarioIndex.build(operation.getScenarios(), evaluator);
+            operation.setScenarioIndex(index);
+        }
+        return index;
+    }
+
+    /**
+     * Building a change event with all the operations of the given mocks
+     *
+     * @param mocks the changed mocks, such as the old and new versions of an updated mock
+     * @return a {@link MockChangeEvent} for the given mocks
+     */
+    private MockChangeEvent changeEvent(MockApi... mocks) {
+        Set<String> operationIds = new HashSet<>();
+        for (MockApi mock : mocks) {
+            mock.getOperations().forEach(op -> operationIds.add(op.getId()));
+        }
+        return new MockChangeEvent(mocks[0].getId(), operationIds);
+    }
 }
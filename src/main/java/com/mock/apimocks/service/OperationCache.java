@@ -0,0 +1,138 @@
+package com.mock.apimocks.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mock.apimocks.mechanism.ConditionEvaluator;
+import com.mock.apimocks.mechanism.ScenarioIndex;
+import com.mock.apimocks.models.vo.MockOperation;
+import com.mock.apimocks.models.vo.MockScenario;
+import com.mock.apimocks.repository.MockOperationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * This class holds a local near-cache of {@link MockOperation} objects.
+ * <p/>
+ * Loading an operation from Redis means reading its whole hash and rebuilding its scenarios through the mapping
+ * converter, so every node keeps the deserialized operations in memory. The cache is bounded by the approximate size
+ * of the cached operations and concurrent misses on the same operation trigger a single load.
+ * <p/>
+ * The entries are not refreshed by time. Instead, they are invalidated by the {@link MockChangeNotifier} whenever a
+ * mock is changed on any node.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+@Component
+public class OperationCache {
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final int SCENARIO_OVERHEAD = 128;
+
+    private final MockOperationRepository mockOpRepo;
+    private final ConditionEvaluator evaluator;
+    private final Cache<String, MockOperation> cache;
+
+    /**
+     * Default class constructor
+     * <p/>
+     * Used to inject dependencies
+     *
+     * @param mockOpRepo the {@link MockOperationRepository} instance
+     * @param evaluator  the {@link ConditionEvaluator} instance
+     * @param maxWeight  the maximum approximate size, in bytes, of all cached operations
+     */
+    public OperationCache(MockOperationRepository mockOpRepo, ConditionEvaluator evaluator,
+                          @Value("${mocks.cache.operations.max-weight}") long maxWeight) {
+        this.mockOpRepo = mockOpRepo;
+        this.evaluator = evaluator;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String id, MockOperation op) -> weigh(op))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Getting an operation by its identifier, loading it from the database in case it was not cached yet.
+     * <p/>
+     * Loaded operations are cached along with their {@link ScenarioIndex}, so their scenarios are sorted only once.
+     *
+     * @param id the operation identifier
+     * @return an {@link Optional} with the {@link MockOperation}, or an empty one in case it does not exist
+     */
+    public Optional<MockOperation> get(String id) {
+        return Optional.ofNullable(cache.get(id, key -> mockOpRepo.findById(key).map(this::indexed)
+                .orElse(null)));
+    }
+
+    /**
+     * Building the scenario index of a loaded operation
+     *
+     * @param operation the operation loaded from the database
+     * @return the same operation, holding its {@link ScenarioIndex}
+     */
+    private MockOperation indexed(MockOperation operation) {
+        if (operation.getScenarioIndex() == null && operation.getScenarios() != null) {
+            operation.setScenarioIndex(ScenarioIndex.build(operation.getScenarios(), evaluator));
+        }
+        return operation;
+    }
+
+    /**
+     * Removing the given operations from the cache
+     *
+     * @param ids the operation identifiers
+     */
+    public void invalidate(Collection<String> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    /**
+     * Removing all operations from the cache
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Getting the cache statistics, such as hit, miss, load and eviction counts
+     *
+     * @return a {@link CacheStats} snapshot
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Estimating the in-memory size of an operation.
+     * <p/>
+     * Only the variable sized properties are taken into account, which is good enough to keep operations with huge
+     * response bodies from crowding out the small ones.
+     *
+     * @param op the operation to be weighed
+     * @return the approximate size of the operation in bytes
+     */
+    private static int weigh(MockOperation op) {
+        long chars = length(op.getFullPath()) + length(op.getRegex());
+        long weight = ENTRY_OVERHEAD;
+        if (op.getScenarios() != null) {
+            for (MockScenario scenario : op.getScenarios()) {
+                weight += SCENARIO_OVERHEAD;
+                chars += length(scenario.getName()) + length(scenario.getConditions()) + length(scenario.getBody());
+                if (scenario.getHeaders() != null) {
+                    chars += scenario.getHeaders().entrySet().stream()
+                            .mapToLong(h -> length(h.getKey()) + length(h.getValue())).sum();
+                }
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, weight + chars * 2);
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
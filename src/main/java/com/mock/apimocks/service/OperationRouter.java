@@ -0,0 +1,223 @@
+package com.mock.apimocks.service;
+
+import com.mock.apimocks.enums.RouterMode;
+import com.mock.apimocks.mechanism.NegativeLookupFilter;
+import com.mock.apimocks.mechanism.NormalizedUrl;
+import com.mock.apimocks.mechanism.RouteMatcher;
+import com.mock.apimocks.mechanism.StaticResponseIndex;
+import com.mock.apimocks.mechanism.UrlNormalizer;
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+import com.mock.apimocks.repository.MockOperationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds the in-process router of mocked operations.
+ * <p/>
+ * The operations are kept on a {@link RouteMatcher} built from the operations stored on our database, so each
+ * request is routed in memory instead of scanning every registered regular expression. The kind of matcher is
+ * chosen through the <i>mocks.router.mode</i> property.
+ * <p/>
+ * Whenever the routes are invalidated by the {@link MockChangeNotifier}, a new matcher is built on a background
+ * thread and then atomically swapped in, while the requests keep being served by the previous one. A lookup that
+ * misses while a rebuild is pending waits for it, so a recently created operation is never reported as missing.
+ * <p/>
+ * Each matcher comes along with a {@link NegativeLookupFilter}, so calls to URLs that were never mocked are
+ * rejected without running the matcher. Since the filter is rebuilt with the matcher, it's cleared on every change.
+ * The same goes for the {@link StaticResponseIndex} holding the prepared responses of the static operations.
+ * <p/>
+ * The requested URL is normalized once by the {@link UrlNormalizer} and its segment views are shared by all of these
+ * structures. Since the servlet path is already decoded by the container, no percent-decoding is done here.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+@Component
+public class OperationRouter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationRouter.class);
+    private static final long REBUILD_TIMEOUT_SECONDS = 30;
+
+    private final MockOperationRepository mockOpRepo;
+    private final RouterMode mode;
+    private final long maxMissedUrls;
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "route-rebuilder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Routes routes;
+    private volatile CompletableFuture<Routes> pending;
+
+    /**
+     * Default class constructor
+     * <p/>
+     * Used to inject dependencies
+     *
+     * @param mockOpRepo    the {@link MockOperationRepository} instance
+     * @param mode          the {@link RouterMode} used to build the matcher
+     * @param maxMissedUrls the maximum number of missed URLs remembered by the negative lookup filter
+     */
+    public OperationRouter(MockOperationRepository mockOpRepo, @Value("${mocks.router.mode}") RouterMode mode,
+                           @Value("${mocks.router.missed-urls.max-size}") long maxMissedUrls) {
+        this.mockOpRepo = mockOpRepo;
+        this.mode = mode;
+        this.maxMissedUrls = maxMissedUrls;
+    }
+
+    /**
+     * Finds the operation that matches with the given method and URL.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL
+     * @return an {@link Optional} with the {@link RouteMatch}, or an empty one in case no operation was found
+     */
+    public Optional<RouteMatch> route(String method, String url) {
+        Routes current = this.routes;
+        if (current == null) {
+            current = awaitRebuild();
+        }
+
+        NormalizedUrl path = UrlNormalizer.normalize(url);
+        Optional<RouteMatch> match = current.match(method, path);
+        if (!match.isPresent() && current.generation != generation.get()) {
+            match = awaitRebuild().match(method, path);
+        }
+        return match;
+    }
+
+    /**
+     * Finds the prepared response of a static operation that matches exactly with the given method and URL.
+     * <p/>
+     * Static responses are only served from up to date routes, so a changed operation is never answered with its
+     * previous response. Otherwise, the call must follow the regular path.
+     *
+     * @param method the HTTP method of the request
+     * @param url    the requested URL
+     * @return an {@link Optional} with the response, or an empty one in case there's no static operation for the URL
+     */
+    public Optional<ResponseEntity<String>> staticResponse(String method, String url) {
+        Routes current = this.routes;
+        if (current == null || current.generation != generation.get()) {
+            return Optional.empty();
+        }
+        return current.responses.get(method, UrlNormalizer.normalize(url));
+    }
+
+    /**
+     * Invalidates the local routes and schedules them to be rebuilt on background.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    /**
+     * Stops the background rebuilds
+     */
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Schedules a rebuild of the routes.
+     * <p/>
+     * Rebuilds are run one at a time, and a rebuild that finds the routes already up to date does nothing, so
+     * a burst of invalidations ends up building the matcher only once or twice.
+     *
+     * @return a {@link CompletableFuture} completed with the rebuilt routes
+     */
+    private synchronized CompletableFuture<Routes> scheduleRebuild() {
+        pending = CompletableFuture.supplyAsync(this::rebuild, rebuilder);
+        return pending;
+    }
+
+    /**
+     * Waits for the routes to be up to date, scheduling a rebuild in case there's none pending.
+     *
+     * @return the up to date {@link Routes}
+     */
+    private Routes awaitRebuild() {
+        CompletableFuture<Routes> rebuild = this.pending;
+        if (rebuild == null || rebuild.isDone()) {
+            rebuild = scheduleRebuild();
+        }
+
+        try {
+            return rebuild.get(REBUILD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the routes", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not rebuild the routes", e);
+        }
+    }
+
+    /**
+     * Rebuilds the routes in case they are not up to date.
+     * <p/>
+     * The generation is read before loading the operations, so an invalidation that happens while the matcher is
+     * being built marks the new one as stale right away.
+     *
+     * @return the up to date {@link Routes}
+     */
+    private Routes rebuild() {
+        Routes current = this.routes;
+        long currentGeneration = generation.get();
+        if (current == null || current.generation != currentGeneration) {
+            long start = System.nanoTime();
+            List<MockOperation> operations = mockOpRepo.findAll();
+            current = new Routes(mode.build(operations), NegativeLookupFilter.build(operations, maxMissedUrls),
+                    StaticResponseIndex.build(operations), currentGeneration);
+            this.routes = current;
+            LOGGER.debug("Routes rebuilt with the {} mode in {} ms", mode,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return current;
+    }
+
+    /**
+     * A built matcher, its negative lookup filter, the static responses and the generation they were built from
+     */
+    private static class Routes {
+        private final RouteMatcher matcher;
+        private final NegativeLookupFilter filter;
+        private final StaticResponseIndex responses;
+        private final long generation;
+
+        private Routes(RouteMatcher matcher, NegativeLookupFilter filter, StaticResponseIndex responses,
+                       long generation) {
+            this.matcher = matcher;
+            this.filter = filter;
+            this.responses = responses;
+            this.generation = generation;
+        }
+
+        private Optional<RouteMatch> match(String method, NormalizedUrl url) {
+            if (!filter.mightMatch(method, url)) {
+                return Optional.empty();
+            }
+
+            Optional<RouteMatch> match = matcher.match(method, url);
+            if (!match.isPresent()) {
+                filter.recordMiss(method, url);
+            }
+            return match;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.mock.apimocks.service;
+
+import com.mock.apimocks.exception.UnprocessableEntityException;
+import com.mock.apimocks.mechanism.ContextEngine;
+import com.mock.apimocks.mechanism.RouteOverlapIndex;
+import com.mock.apimocks.models.vo.MockApi;
+import com.mock.apimocks.models.vo.MockOperation;
+import com.mock.apimocks.repository.MockApiRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class guards the routes of all mocks against overlaps.
+ * <p/>
+ * It holds a {@link RouteOverlapIndex} with the routes of every stored mock, so a created or updated mock is checked
+ * against all the others in O(path depth) per operation instead of scanning every stored verifier. Operations that
+ * shadow a route of another mock are rejected, while the ones that partially overlap with another mock are only
+ * reported on the logs.
+ * <p/>
+ * The index is built from the database on the first check and then kept up to date one mock at a time by the
+ * {@link MockChangeNotifier}, which also spreads the changes made by the other nodes.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+@Component
+public class RouteOverlapGuard {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteOverlapGuard.class);
+
+    private final MockApiRepository mockApiRepo;
+    private RouteOverlapIndex index;
+
+    /**
+     * Default class constructor
+     * <p/>
+     * Used to inject dependencies
+     *
+     * @param mockApiRepo the {@link MockApiRepository} instance
+     */
+    public RouteOverlapGuard(MockApiRepository mockApiRepo) {
+        this.mockApiRepo = mockApiRepo;
+    }
+
+    /**
+     * Checks the operations of a mock against the routes of all the other mocks
+     *
+     * @param mock the created or updated mock, with its identifier already set
+     * @throws UnprocessableEntityException whenever an operation shadows a route of another mock
+     */
+    public synchronized void check(MockApi mock) {
+        RouteOverlapIndex current = index();
+        for (MockOperation op : mock.getOperations()) {
+            String method = op.getMethod().name();
+            String fullPath = ContextEngine.sanitizeUrl(mock.getBasePath() + "/" + op.getPath());
+
+            current.findShadowed(mock.getId(), method, fullPath).ifPresent(route -> {
+                throw new UnprocessableEntityException("The operation " + method + " " + op.getPath() +
+                        " is already mocked by the operation " + route.getFullPath() + " of mock " + route.getMockId());
+            });
+            current.findOverlaps(mock.getId(), method, fullPath).forEach(route ->
+                    LOGGER.warn("The operation {} {} of mock {} overlaps with the operation {} {} of mock {}",
+                            method, fullPath, mock.getId(), route.getMethod(), route.getFullPath(),
+                            route.getMockId()));
+        }
+    }
+
+    /**
+     * Reloads the routes of a changed mock, removing them in case the mock was deleted
+     *
+     * @param mockId the changed mock identifier
+     */
+    public synchronized void refresh(String mockId) {
+        if (index == null) {
+            return;
+        }
+        index.remove(mockId);
+        mockApiRepo.findById(mockId).ifPresent(index::insert);
+    }
+
+    /**
+     * Drops the whole index, so it is built again from the database on the next check
+     */
+    public synchronized void invalidateAll() {
+        index = null;
+    }
+
+    /**
+     * Getting the index, building it in case it was not built yet
+     *
+     * @return the {@link RouteOverlapIndex} with the routes of all stored mocks
+     */
+    private RouteOverlapIndex index() {
+        if (index == null) {
+            index = RouteOverlapIndex.build(mockApiRepo.findAll());
+        }
+        return index;
+    }
+}
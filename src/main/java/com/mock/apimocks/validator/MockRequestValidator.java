@@ -1,10 +1,17 @@
 package com.mock.apimocks.validator;
 
+import com.mock.apimocks.enums.PathParamType;
+import com.mock.apimocks.mechanism.PathParam;
 import com.mock.apimocks.models.vo.MockApi;
+import com.mock.apimocks.models.vo.MockOperation;
 import com.mock.apimocks.models.vo.MockScenario;
 import com.mock.apimocks.exception.UnprocessableEntityException;
+import com.mock.apimocks.mechanism.ConditionEvaluator;
 import com.mock.apimocks.mechanism.ContextEngine;
 
+import javax.script.ScriptException;
+import java.util.regex.PatternSyntaxException;
+
 /**
  * Validator class for MockApi Crud Controller
  *
@@ -23,12 +30,13 @@ public class MockRequestValidator {
     /**
      * Validate a given {@link MockApi} object
      *
-     * @param mock the mock object to be validated
+     * @param mock      the mock object to be validated
+     * @param evaluator the {@link ConditionEvaluator} which compiles the scenario conditions
      */
-    public static void validate(MockApi mock) {
+    public static void validate(MockApi mock, ConditionEvaluator evaluator) {
         validateBasePath(mock);
         validateDuplicateOperations(mock);
-        validateOperations(mock);
+        validateOperations(mock, evaluator);
     }
 
     /**
@@ -59,15 +67,26 @@ public class MockRequestValidator {
     /**
      * Validate each oe of the operation path value, default scenario and conditions properties.
      *
-     * @param mock the mock object to be validated
+     * @param mock      the mock object to be validated
+     * @param evaluator the {@link ConditionEvaluator} which compiles the scenario conditions
      */
-    private static void validateOperations(MockApi mock) {
+    private static void validateOperations(MockApi mock, ConditionEvaluator evaluator) {
         mock.getOperations().forEach(op -> {
             if (!op.getPath().startsWith("/")) {
                 throw new UnprocessableEntityException("The 'path' of operation " + op.getPath() +
                         " should start with a slash");
             }
 
+            // compiling the operation verifier beforehand, so invalid paths are rejected
+            // and the compiled verifier is already cached for the upcoming calls
+            try {
+                ContextEngine.compileVerifier(ContextEngine.createUrlVerifier(mock.getBasePath() + "/" + op.getPath()));
+            } catch (PatternSyntaxException ex) {
+                throw new UnprocessableEntityException("The 'path' of operation " + op.getPath() +
+                        " could not be converted into a valid verifier");
+            }
+            validatePathParams(op.getPath());
+
             if (op.getScenarios().stream().filter(MockScenario::isDefault).count() != 1) {
                 throw new UnprocessableEntityException("The should be at least one, and only one, default " +
                         "scenario for operation: " + op.getPath());
@@ -78,6 +97,58 @@ public class MockRequestValidator {
                 throw new UnprocessableEntityException("Only scenarios flagged with 'default' property can have empty " +
                         "'conditions' properties on operation: " + op.getPath());
             }
+            validateConditions(op, evaluator);
         });
     }
+
+    /**
+     * Validate the scenario conditions of an operation, compiling each one of them so invalid scripts are rejected
+     * before being saved.
+     * <p/>
+     * The compiled conditions are kept on their scenarios, so the {@link com.mock.apimocks.service.MockService} does
+     * not need to compile them again.
+     *
+     * @param op        the operation to be validated
+     * @param evaluator the {@link ConditionEvaluator} which compiles the scenario conditions
+     */
+    private static void validateConditions(MockOperation op, ConditionEvaluator evaluator) {
+        op.getScenarios().stream().filter(sc -> sc.getConditions() != null && !sc.getConditions().isEmpty())
+                .forEach(sc -> {
+                    try {
+                        sc.setCompiledConditions(evaluator.compileCondition(sc.getConditions()));
+                    } catch (ScriptException ex) {
+                        throw new UnprocessableEntityException("The condition " + sc.getConditions() +
+                                " of operation " + op.getPath() + " is not a valid script");
+                    }
+                });
+    }
+
+    /**
+     * Validate the path parameter placeholders of an operation path.
+     * <p/>
+     * Constraints are matched against a single segment, so they can't have slashes (nor question marks, which
+     * would be taken as the start of a query string). Catch-all placeholders must be the last segment of the path.
+     *
+     * @param path the operation path
+     */
+    private static void validatePathParams(String path) {
+        for (int i = path.indexOf('{'); i >= 0; i = path.indexOf('{', i + 1)) {
+            int close = PathParam.closingBrace(path, i);
+            if (close < 0) {
+                break;
+            }
+
+            String placeholder = path.substring(i, close + 1);
+            if (placeholder.indexOf('/') >= 0 || placeholder.indexOf('?') >= 0) {
+                throw new UnprocessableEntityException("The path parameter " + placeholder + " of operation " + path +
+                        " should not have slashes nor question marks");
+            }
+            if (PathParam.parse(placeholder.substring(1, placeholder.length() - 1)).getType()
+                    == PathParamType.CATCH_ALL && !ContextEngine.sanitizeUrl(path).endsWith("/" + placeholder)) {
+                throw new UnprocessableEntityException("The path parameter " + placeholder + " of operation " + path +
+                        " should be the last segment of the path");
+            }
+            i = close;
+        }
+    }
 }
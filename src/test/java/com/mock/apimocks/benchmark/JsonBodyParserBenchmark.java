@@ -0,0 +1,97 @@
+package com.mock.apimocks.benchmark;
+
+import com.mock.apimocks.mechanism.BodySelection;
+import com.mock.apimocks.mechanism.JsonBodyParser;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the JSON body parsers with a growing number of items on the body.
+ * <p/>
+ * The ORG_JSON benchmark is the former parser, which builds an org.json tree from the body text and converts it into
+ * maps and lists, while the JACKSON ones parse the body text or bytes straight into them. The selected benchmark
+ * only parses the properties read by a condition, which are found at the beginning of the body. Running it with the
+ * <i>-prof gc</i> JMH option also shows the allocations per parse. To run it:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *     com.mock.apimocks.benchmark.JsonBodyParserBenchmark
+ * </pre>
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class JsonBodyParserBenchmark {
+    @Param({"1", "100", "10000"})
+    private int items;
+
+    private String text;
+    private byte[] bytes;
+    private BodySelection selection;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder body = new StringBuilder("{\"customer\": {\"document\": \"111.222.333-44\", \"name\": \"John\"},")
+                .append(" \"items\": [");
+        for (int i = 0; i < items; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"id\": ").append(i)
+                    .append(", \"description\": \"item number ").append(i)
+                    .append("\", \"price\": ").append(i * 1.5)
+                    .append(", \"available\": ").append(i % 2 == 0)
+                    .append(", \"tags\": [\"a\", \"b\", null]}");
+        }
+        this.text = body.append("]}").toString();
+        this.bytes = text.getBytes(StandardCharsets.UTF_8);
+        this.selection = BodySelection.of(Collections.singletonList("$body.customer.document == '111.222.333-44'"));
+    }
+
+    @Benchmark
+    public Object orgJson() {
+        return new JSONObject(text).toMap();
+    }
+
+    @Benchmark
+    public Object jacksonText() {
+        return JsonBodyParser.parse(text);
+    }
+
+    @Benchmark
+    public Object jacksonBytes() {
+        return JsonBodyParser.parse(new ByteArrayInputStream(bytes));
+    }
+
+    @Benchmark
+    public Object jacksonSelected() {
+        return JsonBodyParser.parse(new ByteArrayInputStream(bytes), selection);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonBodyParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.mock.apimocks.benchmark;
+
+import com.mock.apimocks.enums.RouterMode;
+import com.mock.apimocks.mechanism.ContextEngine;
+import com.mock.apimocks.mechanism.RouteMatcher;
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the route matchers with a growing number of registered operations.
+ * <p/>
+ * The REGEX mode is the per-operation verifier loop, while AUTOMATON and TRIE are the in-memory routers. To run it:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *     com.mock.apimocks.benchmark.RouteMatcherBenchmark
+ * </pre>
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class RouteMatcherBenchmark {
+    private static final int OPERATIONS_PER_MOCK = 20;
+    private static final int REQUESTS = 1024;
+
+    @Param({"100", "10000", "100000"})
+    private int routes;
+
+    @Param({"REGEX", "AUTOMATON", "TRIE"})
+    private RouterMode mode;
+
+    private RouteMatcher matcher;
+    private String[] methods;
+    private String[] urls;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<MockOperation> operations = new ArrayList<>(routes);
+        for (int i = 0; i < routes; i++) {
+            operations.add(operation(i));
+        }
+        this.matcher = mode.build(operations);
+
+        Random random = new Random(42);
+        this.methods = new String[REQUESTS];
+        this.urls = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            MockOperation operation = operations.get(random.nextInt(routes));
+            methods[i] = operation.getMethod().name();
+            urls[i] = operation.getFullPath().replaceAll("\\{.*?}", String.valueOf(random.nextInt(100000)));
+        }
+    }
+
+    @Benchmark
+    public Optional<RouteMatch> match() {
+        int index = next++ & (REQUESTS - 1);
+        return matcher.match(methods[index], urls[index]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RouteMatcherBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Creating an operation the same way it would be saved, spreading them among mocks of twenty operations each
+     */
+    private static MockOperation operation(int index) {
+        int resource = index % OPERATIONS_PER_MOCK;
+        String basePath = "/service" + (index / OPERATIONS_PER_MOCK) + "/v1/resource" + resource;
+        String fullPath;
+        switch (resource % 4) {
+            case 0:
+                fullPath = basePath;
+                break;
+            case 1:
+                fullPath = basePath + "/{id}";
+                break;
+            case 2:
+                fullPath = basePath + "/{id}/items";
+                break;
+            default:
+                fullPath = basePath + "/{id}/items/{item_id}";
+        }
+
+        return MockOperation.builder()
+                .id(String.valueOf(index))
+                .method(resource % 5 == 0 ? HttpMethod.POST : HttpMethod.GET)
+                .fullPath(fullPath)
+                .regex(ContextEngine.createUrlVerifier(fullPath))
+                .pathParamNames(ContextEngine.getPathParamNames(fullPath))
+                .build();
+    }
+}
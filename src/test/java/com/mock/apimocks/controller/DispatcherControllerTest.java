@@ -5,12 +5,17 @@ import com.mock.apimocks.service.MockService;
 import com.mock.apimocks.MvcControllerTestable;
 import com.mock.apimocks.exception.InternalServerErrorException;
 import com.mock.apimocks.exception.ResourceNotFoundException;
+import com.mock.apimocks.mechanism.BodySelection;
+import com.mock.apimocks.mechanism.RequestBodyParser;
+import com.mock.apimocks.mechanism.StaticResponseIndex;
+import com.mock.apimocks.mechanism.XmlBodyParser;
 import com.mock.apimocks.models.CallContext;
+import com.mock.apimocks.models.OperationMatch;
 import com.mock.apimocks.models.vo.MockScenario;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.HttpHeaders;
@@ -21,17 +26,29 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DispatcherControllerTest extends MvcControllerTestable<DispatcherController> {
     private MvcResult response;
+    private OperationMatch operation;
 
     private String id;
     private String body;
@@ -94,7 +111,9 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
             .contentType(ContentType.JSON)
             .build();
 
-    @InjectMocks
+    private static final String CRLF_BODY = "{\r\n  \"test\": 123\r\n}\r\n";
+    private static final long MAX_BODY_SIZE = 1024;
+
     private DispatcherController controller;
 
     @Mock
@@ -102,7 +121,7 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
 
     @Before
     public void setup() {
-        initializeMvc(controller);
+        givenWeHaveAnXmlParser(false);
     }
 
     // Testing wildcardApiCall
@@ -242,6 +261,17 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
         thenWeExpectABadRequestStatus();
     }
 
+    @Test
+    public void wildcardApiCallToAnUnmockedUrlWithInvalidBody() throws Exception {
+        givenWeHaveAValidPathParameter();
+        givenWeHaveSomeValidQueryParameter();
+        givenWeHaveSomeValidHeaders();
+        givenWeHaveAValidBody();
+        whenWeCallWildcardApiCallWithInvalidBody();
+        thenWeExpectANotFoundStatus();
+        thenWeExpectNoScenarioToBeEvaluated();
+    }
+
     @Test
     public void wildcardApiCallWithGenericBusinessError() throws Exception {
         givenWeHaveAValidPathParameter();
@@ -253,7 +283,101 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
         thenWeExpectAnInternalServerErrorStatus();
     }
 
+    @Test
+    public void wildcardApiCallWithStaticResponse() throws Exception {
+        givenWeHaveAValidPathParameter();
+        givenWeHaveSomeValidQueryParameter();
+        givenWeHaveSomeValidHeaders();
+        givenServiceGetStaticResponseReturnsAValidResponse();
+        whenWeCallWildcardApiCallWithGet();
+        thenWeExpectAnOkStatus();
+        thenWeExpectTheCorrectHeaders();
+        thenWeExpectTheCorrectBody();
+        thenWeExpectNoScenarioToBeEvaluated();
+    }
+
+    @Test
+    public void wildcardApiCallWithGzipBody() throws Exception {
+        givenWeHaveAValidPathParameter();
+        givenWeHaveSomeValidQueryParameter();
+        givenWeHaveSomeValidHeaders();
+        givenWeHaveAValidBody();
+        givenServiceGetScenarioReturnsAValidScenario();
+        whenWeCallWildcardApiCallWithEncodedBody("gzip", gzip(this.body));
+        thenWeExpectAnOkStatus();
+        thenWeExpectTheParsedBodyToHaveTheField("test", 123);
+    }
+
+    @Test
+    public void wildcardApiCallWithSelectedBody() throws Exception {
+        givenWeHaveAValidPathParameter();
+        givenWeHaveSomeValidQueryParameter();
+        givenWeHaveSomeValidHeaders();
+        givenWeHaveABodyWithManyProperties();
+        givenServiceFindOperationReturnsTheSelection("$body.test == 123");
+        givenServiceGetScenarioReturnsAValidScenario();
+        whenWeCallWildcardApiCallWithPost();
+        thenWeExpectAnOkStatus();
+        thenWeExpectTheParsedBody(Collections.singletonMap("test", 123));
+        thenWeExpectTheOperationToBeFoundOnlyOnce();
+    }
+
+    @Test
+    public void wildcardApiCallWithTheConfiguredXmlParser() throws Exception {
+        givenWeHaveAnXmlParser(true);
+        givenWeHaveAValidPathParameter();
+        givenWeHaveSomeValidQueryParameter();
+        givenWeHaveSomeValidHeaders();
+        givenWeHaveANamespacedXmlBody();
+        givenServiceGetScenarioReturnsAValidScenario();
+        whenWeCallWildcardApiCallWithXml();
+        thenWeExpectAnOkStatus();
+        thenWeExpectTheParsedBody(Collections.singletonMap("price", 10));
+    }
+
+    @Test
+    public void wildcardApiCallWithLineBreaks() throws Exception {
+        givenWeHaveAValidPathParameter();
+        givenWeHaveSomeValidQueryParameter();
+        givenWeHaveSomeValidHeaders();
+        givenWeHaveABodyWithLineBreaks();
+        givenServiceGetScenarioReturnsAValidScenario();
+        whenWeCallWildcardApiCallWithEncodedBody("identity", this.body.getBytes(StandardCharsets.UTF_8));
+        thenWeExpectAnOkStatus();
+        thenWeExpectTheParsedBodyToHaveTheField("test", 123);
+    }
+
+    @Test
+    public void wildcardApiCallWithUnsupportedEncoding() throws Exception {
+        givenWeHaveAValidPathParameter();
+        givenWeHaveSomeValidQueryParameter();
+        givenWeHaveSomeValidHeaders();
+        givenWeHaveAValidBody();
+        givenServiceFindsTheOperation();
+        whenWeCallWildcardApiCallWithEncodedBody("br", this.body.getBytes(StandardCharsets.UTF_8));
+        thenWeExpectAnUnsupportedMediaTypeStatus();
+        thenWeExpectNoScenarioToBeEvaluated();
+    }
+
+    @Test
+    public void wildcardApiCallWithTooLargeBody() throws Exception {
+        givenWeHaveAValidPathParameter();
+        givenWeHaveSomeValidQueryParameter();
+        givenWeHaveSomeValidHeaders();
+        givenWeHaveATooLargeBody();
+        givenServiceFindsTheOperation();
+        whenWeCallWildcardApiCallWithEncodedBody("gzip", gzip(this.body));
+        thenWeExpectAPayloadTooLargeStatus();
+        thenWeExpectNoScenarioToBeEvaluated();
+    }
+
     // Given methods
+    private void givenWeHaveAnXmlParser(boolean stripNamespaces) {
+        XmlBodyParser xmlParser = new XmlBodyParser(stripNamespaces, true, XmlBodyParser.DEFAULT_MAX_DEPTH);
+        controller = new DispatcherController(service, new RequestBodyParser(xmlParser), MAX_BODY_SIZE);
+        initializeMvc(controller);
+    }
+
     private void givenWeHaveAValidPathParameter() {
         this.id = VALID_ID;
     }
@@ -270,32 +394,78 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
         this.body = VALID_BODY;
     }
 
+    private void givenWeHaveANamespacedXmlBody() {
+        this.body = "<m:price xmlns:m=\"urn:prices\">10</m:price>";
+    }
+
+    private void givenWeHaveABodyWithLineBreaks() {
+        this.body = CRLF_BODY;
+    }
+
+    private void givenWeHaveABodyWithManyProperties() {
+        this.body = "{\"other\": [1, 2, 3], \"test\": 123, \"last\": {\"a\": true}}";
+    }
+
+    private void givenServiceFindsTheOperation() {
+        if (this.operation == null) {
+            // the whole body is selected, unless a test selects some of its properties
+            this.operation = mock(OperationMatch.class, invocation -> BodySelection.ALL);
+            doReturn(Optional.of(this.operation)).when(service).findOperation(anyString(), anyString());
+        }
+    }
+
+    private void givenServiceFindOperationReturnsTheSelection(String condition) {
+        this.operation = mock(OperationMatch.class);
+        doReturn(BodySelection.of(Collections.singletonList(condition))).when(this.operation).getBodySelection();
+        doReturn(Optional.of(this.operation)).when(service).findOperation(anyString(), anyString());
+    }
+
+    private void givenWeHaveATooLargeBody() {
+        StringBuilder builder = new StringBuilder("{\"text\": \"");
+        for (int i = 0; i < MAX_BODY_SIZE; i++) {
+            builder.append('a');
+        }
+        this.body = builder.append("\"}").toString();
+    }
+
+    private void givenServiceGetStaticResponseReturnsAValidResponse() {
+        doReturn(Optional.of(StaticResponseIndex.toResponse(VALID_SCENARIO)))
+                .when(service).getStaticResponse(anyString(), anyString());
+    }
+
     private void givenServiceGetScenarioReturnsAValidScenario() {
-        doReturn(VALID_SCENARIO).when(service).getScenario(any(CallContext.class));
+        givenServiceFindsTheOperation();
+        doReturn(VALID_SCENARIO).when(service).getScenario(any(CallContext.class), any());
     }
 
     private void givenServiceGetScenarioReturnsAScenarioWithNoContentType() {
-        doReturn(NO_CONTENT_TYPE_SCENARIO).when(service).getScenario(any(CallContext.class));
+        givenServiceFindsTheOperation();
+        doReturn(NO_CONTENT_TYPE_SCENARIO).when(service).getScenario(any(CallContext.class), any());
     }
 
     private void givenServiceGetScenarioReturnsAScenarioWithNoHeaders() {
-        doReturn(NULL_HEADERS_SCENARIO).when(service).getScenario(any(CallContext.class));
+        givenServiceFindsTheOperation();
+        doReturn(NULL_HEADERS_SCENARIO).when(service).getScenario(any(CallContext.class), any());
     }
 
     private void givenServiceGetScenarioReturnsAScenarioWithNoBody() {
-        doReturn(EMPTY_BODY_SCENARIO).when(service).getScenario(any(CallContext.class));
+        givenServiceFindsTheOperation();
+        doReturn(EMPTY_BODY_SCENARIO).when(service).getScenario(any(CallContext.class), any());
     }
 
     private void givenServiceThrowsAnGenericException() {
-        doThrow(new RuntimeException()).when(service).getScenario(any(CallContext.class));
+        givenServiceFindsTheOperation();
+        doThrow(new RuntimeException()).when(service).getScenario(any(CallContext.class), any());
     }
 
     private void givenServiceGetScenarioThrowsAResourceNotFoundException() {
-        doThrow(new ResourceNotFoundException("Operation not found")).when(service).getScenario(any(CallContext.class));
+        givenServiceFindsTheOperation();
+        doThrow(new ResourceNotFoundException("Operation not found")).when(service).getScenario(any(CallContext.class), any());
     }
 
     private void givenServiceGetScenarioThrowsAnInternalServerError() {
-        doThrow(new InternalServerErrorException("Internal Server error")).when(service).getScenario(any(CallContext.class));
+        givenServiceFindsTheOperation();
+        doThrow(new InternalServerErrorException("Internal Server error")).when(service).getScenario(any(CallContext.class), any());
     }
 
     // When methods
@@ -340,6 +510,15 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
                 .accept(MediaType.APPLICATION_JSON)).andReturn();
     }
 
+    private void whenWeCallWildcardApiCallWithXml() throws Exception {
+        this.response = mvc.perform(MockMvcRequestBuilders.post("/any-url-that-not-mocks/{id}", this.id)
+                .headers(this.headers)
+                .params(this.queryParams)
+                .contentType(MediaType.APPLICATION_XML)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(this.body)).andReturn();
+    }
+
     private void whenWeCallWildcardApiCallWithInvalidBody() throws Exception {
         this.response = mvc.perform(MockMvcRequestBuilders.post("/any-url-that-not-mocks/{id}", this.id)
                 .headers(this.headers)
@@ -349,6 +528,16 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
                 .content(new byte[] {0, -121, -80, 116, -62})).andReturn();
     }
 
+    private void whenWeCallWildcardApiCallWithEncodedBody(String encoding, byte[] content) throws Exception {
+        this.response = mvc.perform(MockMvcRequestBuilders.post("/any-url-that-not-mocks/{id}", this.id)
+                .headers(this.headers)
+                .params(this.queryParams)
+                .header(HttpHeaders.CONTENT_ENCODING, encoding)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(content)).andReturn();
+    }
+
     // Then methods
     private void thenWeExpectAnOkStatus() {
         assertEquals(HttpStatus.OK.value(), this.response.getResponse().getStatus());
@@ -366,6 +555,27 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
         assertEquals(HttpStatus.BAD_REQUEST.value(), this.response.getResponse().getStatus());
     }
 
+    private void thenWeExpectAnUnsupportedMediaTypeStatus() {
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), this.response.getResponse().getStatus());
+    }
+
+    private void thenWeExpectAPayloadTooLargeStatus() {
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), this.response.getResponse().getStatus());
+    }
+
+    private void thenWeExpectTheParsedBody(Object expected) {
+        ArgumentCaptor<CallContext> context = ArgumentCaptor.forClass(CallContext.class);
+        verify(service).getScenario(context.capture(), any());
+        assertEquals(expected, context.getValue().getParsedBody());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void thenWeExpectTheParsedBodyToHaveTheField(String field, Object value) {
+        ArgumentCaptor<CallContext> context = ArgumentCaptor.forClass(CallContext.class);
+        verify(service).getScenario(context.capture(), any());
+        assertEquals(value, ((Map<String, Object>) context.getValue().getParsedBody()).get(field));
+    }
+
     private void thenWeExpectTheCorrectHeaders() {
         assertEquals("retA", this.response.getResponse().getHeader("returnedHeader1"));
         assertEquals("retB", this.response.getResponse().getHeader("returnedHeader2"));
@@ -376,7 +586,24 @@ public class DispatcherControllerTest extends MvcControllerTestable<DispatcherCo
         assertEquals("{\"returned\": \"OK\"}", this.response.getResponse().getContentAsString());
     }
 
+    private void thenWeExpectTheOperationToBeFoundOnlyOnce() {
+        verify(service).findOperation(anyString(), anyString());
+        verify(service).getScenario(any(CallContext.class), eq(this.operation));
+    }
+
+    private void thenWeExpectNoScenarioToBeEvaluated() {
+        verify(service, never()).getScenario(any(CallContext.class), any());
+    }
+
     private void thenWeExpectAnEmptyBody() throws Exception {
         assertEquals("", this.response.getResponse().getContentAsString());
     }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
 }
@@ -1,16 +1,20 @@
 package com.mock.apimocks.controller;
 
+import com.mock.apimocks.mechanism.ConditionEvaluator;
+import com.mock.apimocks.mechanism.ConditionEvaluators;
 import com.mock.apimocks.service.MockService;
 import com.mock.apimocks.MvcControllerTestable;
 import com.mock.apimocks.exception.ResourceNotFoundException;
 import com.mock.apimocks.models.vo.MockApi;
 import com.mock.apimocks.models.vo.MockOperation;
 import com.mock.apimocks.models.vo.MockScenario;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -117,11 +121,19 @@ public class MockControllerTest extends MvcControllerTestable<MockController> {
     @Mock
     private MockService service;
 
+    @Spy
+    private ConditionEvaluator evaluator = ConditionEvaluators.create();
+
     @Before
     public void setup() {
         initializeMvc(controller);
     }
 
+    @After
+    public void tearDown() {
+        evaluator.shutdown();
+    }
+
     // Testing getAllMocks
     @Test
     public void getAllMocksWithSuccess() throws Exception {
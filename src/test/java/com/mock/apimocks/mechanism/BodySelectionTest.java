@@ -0,0 +1,138 @@
+package com.mock.apimocks.mechanism;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BodySelectionTest {
+    private String[] conditions;
+    private BodySelection selection;
+
+    /*
+     * Testing of
+     */
+    @Test
+    public void ofPropertyChains() {
+        givenTheConditions("$body.customer.document == '123' && $header.tenant == 'A'", "$body.type == 'PF'", null);
+        whenWeCallOf();
+        thenWeExpectAPartialSelection();
+        thenWeExpectTheSelectedProperties(2);
+        thenWeExpectTheSelectedProperties(1, "customer");
+        thenWeExpectTheWholeProperty("customer", "document");
+        thenWeExpectTheWholeProperty("type");
+        thenWeExpectThePropertyNotToBeSelected("tenant");
+    }
+
+    @Test
+    public void ofParentAndChildProperties() {
+        givenTheConditions("$body.customer.document == '123'", "$body.customer.contains('x')");
+        whenWeCallOf();
+        thenWeExpectAPartialSelection();
+        thenWeExpectTheWholeProperty("customer");
+        thenWeExpectTheSelectedProperties(0, "customer");
+    }
+
+    @Test
+    public void ofConditionsWithoutBody() {
+        givenTheConditions("$header.tenant == 'A'", "");
+        whenWeCallOf();
+        thenWeExpectAPartialSelection();
+        thenWeExpectTheSelectedProperties(0);
+    }
+
+    @Test
+    public void ofDynamicProperty() {
+        givenTheConditions("$body.type == 'PF'", "(function () { var key = 'type'; return $body[key] == 'PF'; })()");
+        whenWeCallOf();
+        thenWeExpectTheWholeBody();
+    }
+
+    @Test
+    public void ofWholeBody() {
+        givenTheConditions("JSON.stringify($body).length > 10");
+        whenWeCallOf();
+        thenWeExpectTheWholeBody();
+    }
+
+    @Test
+    public void ofNonDeterministicCondition() {
+        givenTheConditions("$body.type == 'PF' && Math.random() > 0.5");
+        whenWeCallOf();
+        thenWeExpectTheWholeBody();
+    }
+
+    @Test
+    public void ofThisQualifiedBody() {
+        givenTheConditions("this.$body.a == 1");
+        whenWeCallOf();
+        thenWeExpectTheWholeBody();
+    }
+
+    @Test
+    public void ofComputedBody() {
+        givenTheConditions("$body.type == 'PF'", "this['$body'].a == 1");
+        whenWeCallOf();
+        thenWeExpectTheWholeBody();
+    }
+
+    @Test
+    public void ofEvaluatedBody() {
+        givenTheConditions("eval('$bo' + 'dy.a') == 1");
+        whenWeCallOf();
+        thenWeExpectTheWholeBody();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheConditions(String... conditions) {
+        this.conditions = conditions;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallOf() {
+        this.selection = BodySelection.of(Arrays.asList(this.conditions));
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectAPartialSelection() {
+        assertFalse(this.selection.isAll());
+    }
+
+    private void thenWeExpectTheWholeBody() {
+        assertTrue(this.selection.isAll());
+        assertNull(this.selection.getRoot());
+    }
+
+    private void thenWeExpectTheSelectedProperties(int size, String... path) {
+        assertEquals(size, node(path).size());
+    }
+
+    private void thenWeExpectTheWholeProperty(String... path) {
+        assertTrue(node(path).isWhole());
+    }
+
+    private void thenWeExpectThePropertyNotToBeSelected(String name) {
+        assertNull(this.selection.getRoot().child(name));
+    }
+
+    private BodySelection.Node node(String... path) {
+        BodySelection.Node node = this.selection.getRoot();
+        for (String name : path) {
+            node = node.child(name);
+        }
+        return node;
+    }
+}
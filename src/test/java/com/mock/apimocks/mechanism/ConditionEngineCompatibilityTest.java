@@ -0,0 +1,232 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.ConditionEngine;
+import com.mock.apimocks.models.CallContext;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+
+import static com.mock.apimocks.mechanism.ContextEngineTest.*;
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConditionEngineCompatibilityTest {
+    private static final Map<String, Boolean> CONDITIONS = new LinkedHashMap<String, Boolean>() {
+        {
+            put(TRUE_HEADER_CONDITION, true);
+            put(TRUE_PATH_CONDITION, true);
+            put(TRUE_QUERY_CONDITION, true);
+            put(TRUE_BODY_CONDITION, true);
+            put(BRACKETS_HEADER_CONDITION, true);
+            put(BRACKETS_PATH_CONDITION, true);
+            put(BRACKETS_QUERY_CONDITION, true);
+            put(BRACKETS_BODY_CONDITION, true);
+            put(MISSING_HEADER_CONDITION, false);
+            put(MISSING_PATH_CONDITION, false);
+            put(MISSING_QUERY_CONDITION, false);
+            put(MISSING_BODY_CONDITION, false);
+            put(WRONG_HEADER_CONDITION, false);
+            put(WRONG_PATH_CONDITION, false);
+            put(WRONG_QUERY_CONDITION, false);
+            put(WRONG_BODY_CONDITION, false);
+            put(TRUE_OR_CONDITION, true);
+            put(FALSE_OR_CONDITION, false);
+            put(TRUE_AND_CONDITION, true);
+            put(FALSE_AND_CONDITION, false);
+            put(COMPLEX_TRUE_CONDITION, true);
+            put(COMPLEX_FALSE_CONDITION, false);
+            put(MULTILEVEL_BODY_CONDITION, true);
+            put(MISSING_PARENT_ON_MULTILEVEL_BODY_PROPERTY, false);
+            put(ARRAY_INDEX_TRUE_CONDITION, true);
+            put(ARRAY_INDEX_FALSE_CONDITION, false);
+            put(ARRAY_OUT_OF_BOUNDS_CONDITION, false);
+            put(ARRAY_CONTAINS_ITEM_CONDITION, true);
+            put(ARRAY_DOES_NOT_CONTAINS_ITEM_CONDITION, false);
+            put(ARRAY_LENGTH_TEST_CONDITION, true);
+            put(ARRAY_CONTAINS_ALL_TRUE_CONDITION, true);
+            put(ARRAY_CONTAINS_ALL_FALSE_CONDITION, false);
+            put(ARRAY_INDEX_OF_TEST_CONDITION, true);
+            put(STRING_CONTAINS_TRUE_CONDITION, true);
+            put(STRING_CONTAINS_FALSE_CONDITION, false);
+            put(STRING_INDEX_OF_CONDITION, true);
+            put(INTEGER_CONDITION, true);
+            put(NEGATIVE_INTEGER_CONDITION, true);
+            put(FLOAT_CONDITION, true);
+            put(NEGATIVE_FLOAT_CONDITION, true);
+            put(DOT_FLOAT_CONDITION, true);
+            put(DOT_NEGATIVE_FLOAT_CONDITION, true);
+            put(BOOLEAN_TRUE_CONDITION, true);
+            put(BOOLEAN_FALSE_CONDITION, false);
+            put("$body.missing === null", true);
+            put("$body.accountNumbers.length", false);
+            put("$body.addresses === $body.addresses", true);
+            put("(function () { var keys = 0; for (var key in $header) { keys++; } return keys == 3; })()", true);
+            put("(function () { var found = false; for (var i = 0; i < 4; i++) { found = found || $body.accountNumbers[i] == '345'; } return found; })()", true);
+        }
+    };
+
+    private CallContext context;
+    private List<String> mismatches;
+    private int expectedRank;
+    private OptionalInt firstRank;
+    private ConditionEvaluator evaluator;
+
+    @After
+    public void tearDown() {
+        if (this.evaluator != null) {
+            this.evaluator.shutdown();
+        }
+    }
+
+    /*
+     * Testing evaluateCondition
+     */
+    @Test
+    public void evaluateConditionsWithNashorn() {
+        givenWeHaveAPopulatedCallContext();
+        givenWeUseTheEngine(ConditionEngine.NASHORN);
+        whenWeEvaluateAllConditions();
+        thenWeExpectNoMismatches();
+    }
+
+    @Test
+    public void evaluateConditionsWithGraalJs() {
+        givenWeHaveAPopulatedCallContext();
+        givenWeUseTheEngine(ConditionEngine.GRAALJS);
+        whenWeEvaluateAllConditions();
+        thenWeExpectNoMismatches();
+    }
+
+    @Test
+    public void evaluateConditionsWithVariablesFromPreviousEvaluationsWithGraalJs() {
+        givenWeHaveAPopulatedCallContext();
+        givenWeUseTheEngine(ConditionEngine.GRAALJS);
+        whenWeEvaluate("(leaked = true) && false; var declared = true");
+        whenWeEvaluate("typeof leaked !== 'undefined' || typeof declared !== 'undefined'");
+        thenWeExpectNoMismatches();
+    }
+
+    /*
+     * Testing evaluateFirst
+     */
+    @Test
+    public void evaluateFirstWithNashorn() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeUseTheEngine(ConditionEngine.NASHORN);
+        whenWeEvaluateAllConditionsAtOnce();
+        thenWeExpectTheFirstTrueCondition();
+    }
+
+    @Test
+    public void evaluateFirstWithGraalJs() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeUseTheEngine(ConditionEngine.GRAALJS);
+        whenWeEvaluateAllConditionsAtOnce();
+        thenWeExpectTheFirstTrueCondition();
+    }
+
+    @Test
+    public void evaluateFirstWithVariablesFromPreviousConditionsWithNashorn() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeUseTheEngine(ConditionEngine.NASHORN);
+        whenWeEvaluateConditionsReadingThePreviousOnes();
+        thenWeExpectTheFirstTrueCondition();
+    }
+
+    @Test
+    public void evaluateFirstWithVariablesFromPreviousConditionsWithGraalJs() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeUseTheEngine(ConditionEngine.GRAALJS);
+        whenWeEvaluateConditionsReadingThePreviousOnes();
+        thenWeExpectTheFirstTrueCondition();
+    }
+
+    @Test
+    public void evaluateRunawayConditionWithGraalJs() {
+        givenWeHaveAPopulatedCallContext();
+        givenWeUseTheEngine(ConditionEngine.GRAALJS);
+        whenWeEvaluate("(function () { while (true) {} })()");
+        thenWeExpectNoMismatches();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAPopulatedCallContext() {
+        this.context = new CallContext();
+        this.context.setPathParams(new HashMap<>(PATH_PARAMS));
+        this.context.setQueryParams(QUERY_PARAMS);
+        this.context.setHeaders(HEADERS);
+        this.context.setParsedBody(BODY);
+    }
+
+    private void givenWeUseTheEngine(ConditionEngine engine) {
+        this.evaluator = ConditionEvaluators.create(engine);
+        this.mismatches = new ArrayList<>();
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeEvaluateAllConditions() {
+        CONDITIONS.forEach((condition, expected) -> {
+            if (this.evaluator.evaluateCondition(this.context, condition) != expected) {
+                this.mismatches.add(condition);
+            }
+        });
+    }
+
+    private void whenWeEvaluate(String condition) {
+        if (this.evaluator.evaluateCondition(this.context, condition)) {
+            this.mismatches.add(condition);
+        }
+    }
+
+    private void whenWeEvaluateAllConditionsAtOnce() throws ScriptException {
+        // only the false conditions, followed by a true one
+        Map<Integer, String> ranked = new TreeMap<>();
+        CONDITIONS.forEach((condition, expected) -> {
+            if (!expected) {
+                ranked.put(ranked.size(), condition);
+            }
+        });
+        ranked.put(ranked.size(), TRUE_BODY_CONDITION);
+        ranked.put(ranked.size(), TRUE_HEADER_CONDITION);
+        this.firstRank = this.evaluator.evaluateFirst(this.context, this.evaluator.compileScenarioScript(ranked),
+                ranked.keySet().stream().mapToInt(Integer::intValue).toArray());
+        this.expectedRank = ranked.size() - 2;
+    }
+
+    private void whenWeEvaluateConditionsReadingThePreviousOnes() throws ScriptException {
+        // the first condition creates a global variable and replaces a request variable
+        Map<Integer, String> ranked = new TreeMap<>();
+        ranked.put(0, "(leaked = true) && ($header = null) === 1");
+        ranked.put(1, "typeof leaked !== 'undefined' || $header == null");
+        ranked.put(2, TRUE_HEADER_CONDITION);
+        this.firstRank = this.evaluator.evaluateFirst(this.context, this.evaluator.compileScenarioScript(ranked),
+                new int[]{0, 1, 2});
+        this.expectedRank = 2;
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectNoMismatches() {
+        assertEquals("Conditions evaluated differently", new ArrayList<>(), this.mismatches);
+    }
+
+    private void thenWeExpectTheFirstTrueCondition() {
+        assertTrue(this.firstRank.isPresent());
+        assertEquals(this.expectedRank, this.firstRank.getAsInt());
+    }
+}
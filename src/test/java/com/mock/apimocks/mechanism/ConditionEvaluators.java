@@ -0,0 +1,50 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.ConditionEngine;
+import com.mock.apimocks.enums.ConditionEvaluation;
+
+/**
+ * This class creates the {@link ConditionEvaluator}s used by the tests.
+ * <p/>
+ * Every evaluator has its own pool, watchdog and memoization, with the same defaults of the application
+ * configuration, so the tests never share them. They must be released by {@link ConditionEvaluator#shutdown()}.
+ *
+ * @author gabriel.nascimento
+ * @version 1.0
+ */
+public final class ConditionEvaluators {
+    private static final int ENGINES = Runtime.getRuntime().availableProcessors();
+    private static final long BORROW_TIMEOUT = 5_000L;
+    private static final long SCENARIO_BUDGET = 1_000L;
+    private static final long REQUEST_BUDGET = 3_000L;
+    private static final int MEMO_SIZE = 1_024;
+
+    /**
+     * Default class constructor.
+     * <p/>
+     * It is set as private because this class only should have static methods
+     */
+    private ConditionEvaluators() {
+    }
+
+    /**
+     * Creates an evaluator with the default collaborators
+     *
+     * @return a new {@link ConditionEvaluator}
+     */
+    public static ConditionEvaluator create() {
+        return create(ConditionEngine.NASHORN);
+    }
+
+    /**
+     * Creates an evaluator whose scripted conditions are evaluated by a given engine
+     *
+     * @param engine the script engine
+     * @return a new {@link ConditionEvaluator}
+     */
+    public static ConditionEvaluator create(ConditionEngine engine) {
+        return new ConditionEvaluator(new ScriptEnginePool(engine, ENGINES, BORROW_TIMEOUT),
+                new ConditionWatchdog(ENGINES, SCENARIO_BUDGET, REQUEST_BUDGET), ConditionEvaluation.OPERATION,
+                new ConditionMemoization(MEMO_SIZE));
+    }
+}
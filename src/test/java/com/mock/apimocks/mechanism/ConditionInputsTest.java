@@ -0,0 +1,182 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.models.CallContext;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConditionInputsTest {
+    private String condition;
+    private Optional<ConditionInputs> inputs;
+    private List<Object> values;
+
+    /*
+     * Testing of
+     */
+    @Test
+    public void ofPropertyChains() {
+        givenTheCondition("$body.customer.document == '123' && $header['x-tenant'] == 'A' || $path.items[0].id");
+        whenWeCallOf();
+        thenWeExpectThePaths("$body.customer.document", "$header.x-tenant", "$path.items.0.id");
+    }
+
+    @Test
+    public void ofMethodCalls() {
+        givenTheCondition("$body.accountNumbers.contains('234') && $query.name.toUpperCase() == 'A'");
+        whenWeCallOf();
+        thenWeExpectThePaths("$body.accountNumbers", "$query.name");
+    }
+
+    @Test
+    public void ofDynamicProperty() {
+        givenTheCondition("(function () { var key = 'type'; return $body[key] == 'PF'; })()");
+        whenWeCallOf();
+        thenWeExpectThePaths("$body");
+    }
+
+    @Test
+    public void ofRepeatedInputs() {
+        givenTheCondition("$body.type == 'PF' || $body.type == 'PJ' || $body . type == 'ME'");
+        whenWeCallOf();
+        thenWeExpectThePaths("$body.type");
+    }
+
+    @Test
+    public void ofLiteralsAndProperties() {
+        givenTheCondition("$query.value == '$body.type' && /$header.x/.test('a') && other.$path == 1 // $body.id");
+        whenWeCallOf();
+        thenWeExpectThePaths("$query.value");
+    }
+
+    @Test
+    public void ofRandomCondition() {
+        givenTheCondition("Math.random() > 0.5");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofDateCondition() {
+        givenTheCondition("new Date().getHours() > 12 && $path.id == 1");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofJavaCondition() {
+        givenTheCondition("java.lang.System.currentTimeMillis() % 2 == 0");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofThisQualifiedScope() {
+        givenTheCondition("this.$body.a == 1");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofComputedScope() {
+        givenTheCondition("this['$body'].a == 1");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofGlobalThisScope() {
+        givenTheCondition("globalThis.$body.a == 1 && $path.id == 1");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofEvaluatedScope() {
+        givenTheCondition("eval('$bo' + 'dy.a') == 1");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofFunctionScope() {
+        givenTheCondition("Function('return $body')().a == 1");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofConstructorScope() {
+        givenTheCondition("[].map.constructor('return $body')().a == 1");
+        whenWeCallOf();
+        thenWeExpectNoInputs();
+    }
+
+    @Test
+    public void ofMathCondition() {
+        givenTheCondition("Math.abs($body.balance) > 100 && $body.Date == 1");
+        whenWeCallOf();
+        thenWeExpectThePaths("$body.balance", "$body.Date");
+    }
+
+    /*
+     * Testing read
+     */
+    @Test
+    public void read() {
+        givenTheCondition("$body.customer.document == '123' && $body.items[1] == 'b' && $body.items[5] == 'c'"
+                + " && $path.id == 3 && $body.customer.document.missing == null");
+        whenWeCallOf();
+        whenWeRead();
+        thenWeExpectTheValues("123", "b", Arrays.asList("a", "b"), 3, "123");
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheCondition(String condition) {
+        this.condition = condition;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallOf() {
+        this.inputs = ConditionInputs.of(this.condition);
+    }
+
+    private void whenWeRead() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("customer", Collections.singletonMap("document", "123"));
+        body.put("items", Arrays.asList("a", "b"));
+        Map<String, Object> pathParams = new HashMap<>();
+        pathParams.put("id", 3);
+        CallContext context = CallContext.builder().parsedBody(body).pathParams(pathParams).build();
+        this.values = this.inputs.get().read(context);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectThePaths(String... paths) {
+        assertTrue(this.inputs.isPresent());
+        assertEquals(Arrays.asList(paths), this.inputs.get().getPaths());
+    }
+
+    private void thenWeExpectNoInputs() {
+        assertFalse(this.inputs.isPresent());
+    }
+
+    private void thenWeExpectTheValues(Object... values) {
+        assertEquals(Arrays.asList(values), this.values);
+    }
+}
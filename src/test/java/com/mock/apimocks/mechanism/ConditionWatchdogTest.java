@@ -0,0 +1,157 @@
+package com.mock.apimocks.mechanism;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConditionWatchdogTest {
+    private ConditionWatchdog watchdog;
+    private MeterRegistry registry;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final AtomicBoolean interrupted = new AtomicBoolean();
+    private final AtomicBoolean skipped = new AtomicBoolean();
+    private Object result;
+
+    @After
+    public void tearDown() {
+        this.finished.countDown();
+        this.watchdog.shutdown();
+    }
+
+    /*
+     * Testing execute
+     */
+    @Test
+    public void executeWithinTheBudget() throws Exception {
+        givenWeHaveAWatchdog(1);
+        whenWeExecute(() -> true);
+        thenWeExpectTheResult(true);
+        thenWeExpectTheEvaluationNotToBeSkipped();
+    }
+
+    @Test
+    public void executeBeyondTheBudget() throws Exception {
+        givenWeHaveAWatchdog(1);
+        try {
+            whenWeExecute(() -> {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException ex) {
+                    interrupted.set(true);
+                } finally {
+                    finished.countDown();
+                }
+                return true;
+            });
+            fail("The evaluation should have been abandoned");
+        } catch (ConditionTimeoutException ex) {
+            thenWeExpectTheEvaluationToBeInterrupted();
+        }
+    }
+
+    @Test
+    public void executeWithoutAvailableEvaluators() throws Exception {
+        givenWeHaveAWatchdog(1);
+        givenTheEvaluatorsAreBusy();
+        try {
+            whenWeExecute(() -> true);
+            fail("The evaluation should have been skipped");
+        } catch (ConditionTimeoutException ex) {
+            thenWeExpectTheEvaluationToBeSkipped();
+        }
+    }
+
+    /*
+     * Testing bindTo
+     */
+    @Test
+    public void bindMetrics() {
+        givenWeHaveAWatchdog(1);
+        givenTheWatchdogIsBoundToARegistry();
+        whenAConditionExceedsItsBudget();
+        thenWeExpectTheCounter("mocks.conditions.timeouts", 1);
+        thenWeExpectTheCounter("mocks.conditions.rejections", 0);
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAWatchdog(int threads) {
+        this.watchdog = new ConditionWatchdog(threads, 100, 1000);
+    }
+
+    private void givenTheWatchdogIsBoundToARegistry() {
+        this.registry = new SimpleMeterRegistry();
+        this.watchdog.bindTo(this.registry);
+    }
+
+    private void givenTheEvaluatorsAreBusy() {
+        // one runaway evaluation, which ignores interruptions, and another one queued behind it
+        long[] budgets = {TimeUnit.MILLISECONDS.toNanos(50), 0};
+        for (long budget : budgets) {
+            try {
+                this.watchdog.execute(() -> {
+                    while (this.finished.getCount() > 0) {
+                        try {
+                            this.finished.await();
+                        } catch (InterruptedException ex) {
+                            // a runaway script doesn't stop when it is interrupted
+                        }
+                    }
+                    return true;
+                }, () -> { }, System.nanoTime() + budget);
+            } catch (Exception ex) {
+                // the request thread doesn't wait for them
+            }
+        }
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeExecute(Callable<Object> evaluation) throws Exception {
+        this.result = this.watchdog.execute(evaluation, () -> this.skipped.set(true),
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    private void whenAConditionExceedsItsBudget() {
+        this.watchdog.exceeded("while (true) {}");
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheResult(Object expected) {
+        assertEquals(expected, this.result);
+    }
+
+    private void thenWeExpectTheEvaluationNotToBeSkipped() {
+        assertFalse(this.skipped.get());
+    }
+
+    private void thenWeExpectTheEvaluationToBeInterrupted() throws InterruptedException {
+        assertTrue(this.finished.await(1, TimeUnit.SECONDS));
+        assertTrue(this.interrupted.get());
+        assertFalse(this.skipped.get());
+    }
+
+    private void thenWeExpectTheEvaluationToBeSkipped() {
+        assertTrue(this.skipped.get());
+        assertEquals(1, this.watchdog.getRejections());
+    }
+
+    private void thenWeExpectTheCounter(String name, double value) {
+        assertEquals(value, this.registry.get(name).functionCounter().count(), 0);
+    }
+}
@@ -1,13 +1,22 @@
 package com.mock.apimocks.mechanism;
 
+import com.mock.apimocks.enums.ConditionEngine;
 import com.mock.apimocks.models.CallContext;
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.RegexOperation;
+import org.junit.AfterClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import javax.script.ScriptException;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeMap;
 
 import static org.junit.Assert.*;
 
@@ -21,80 +30,83 @@ public class ContextEngineTest {
     private static final String URL_WITH_QUERY_PARAMS = "/test/api/v1/users?name=abc&age=3";
     private static final String URL_WITH_QUERY_AND_PATH_PARAMS = "/test/api/v1/users/{user_id}/addresses/{cep}/city?name=abc&age=3";
 
+    private static final String URL_WITH_TYPED_PATH_PARAMS = "/test/api/v1/users/{user_id:int}/addresses/{cep:(\\d{8})}/city";
     private static final String REGEX_WITHOUT_PATH_PARAMS = "(\\/+test\\/+api\\/+v1\\/+users)";
     private static final String REGEX_WITH_PATH_PARAMS = "(\\/+test\\/+api\\/+v1\\/+users\\/+([^\\/]+)\\/+addresses\\/+([^\\/]+)\\/+city)";
 
     private static final String REQUESTED_URL_WITHOUT_PATH_PARAMETERS = "/test/api/v1/users";
     private static final String REQUESTED_URL_WITH_PATH_PARAMETERS = "/test/api/v1/users/1234/addresses/13000123/city";
+    private static final String REGEX_WITH_TYPED_PATH_PARAMS = "(\\/+test\\/+api\\/+v1\\/+users\\/+(-?\\d+)\\/+addresses\\/+((?:(?:\\d{8})))\\/+city)";
     private static final String INCORRECT_URL_WITHOUT_PATH_PARAMS = "/api/v1/users";
     private static final String INCORRECT_URL_WITH_PATH_PARAMS = "/api/v1/users/1234/addresses/13000123/city";
-
-    private static final String TRUE_HEADER_CONDITION = "$header.server == 'Tomcat'";
-    private static final String TRUE_PATH_CONDITION = "$path.user_id == '1234'";
-    private static final String TRUE_QUERY_CONDITION = "$query.name == 'gabriel'";
-    private static final String TRUE_BODY_CONDITION = "$body.phone == '19998765432'";
-    private static final String BRACKETS_HEADER_CONDITION = "$header['x-forwarded-from'] == '192.168.0.1'";
-    private static final String BRACKETS_PATH_CONDITION = "$path['cep'] == '13000123'";
-    private static final String BRACKETS_QUERY_CONDITION = "$query['cpf'] == '333.888.777-11'";
-    private static final String BRACKETS_BODY_CONDITION = "$body['phone'] == '19998765432'";
-    private static final String MISSING_HEADER_CONDITION = "$header.missingProperty == 'Tomcat'";
-    private static final String MISSING_PATH_CONDITION = "$path.missingProperty == '1234'";
-    private static final String MISSING_QUERY_CONDITION = "$query.missingProperty == 'gabriel'";
-    private static final String MISSING_BODY_CONDITION = "$body.missingProperty == '19998765432'";
-    private static final String WRONG_HEADER_CONDITION = "$header.server == 'wrong value'";
-    private static final String WRONG_PATH_CONDITION = "$path.user_id == 'wrong value'";
-    private static final String WRONG_QUERY_CONDITION = "$query.name == 'wrong value'";
-    private static final String WRONG_BODY_CONDITION = "$body.phone == 'wrong value'";
-    private static final String TRUE_OR_CONDITION = "$header.server == 'Tomcat' || $query.name == 'wrong value'";
-    private static final String FALSE_OR_CONDITION = "$header.server == 'wrong value' || $query.name == 'wrong value'";
-    private static final String TRUE_AND_CONDITION = "$header.server == 'Tomcat' && $query.name == 'gabriel'";
-    private static final String FALSE_AND_CONDITION = "$header.server == 'Tomcat' && $query.name == 'wrong value'";
-    private static final String COMPLEX_TRUE_CONDITION = "($header.server == 'Tomcat' || $query.name == 'wrong value') && $path.user_id == '1234'";
-    private static final String COMPLEX_FALSE_CONDITION = "($header.server == 'Tomcat' || $query.name == 'wrong value') && $path.user_id == 'wrong value'";
-    private static final String MULTILEVEL_BODY_CONDITION = "$body.addresses.work == '156 Grant Drive Avenue'";
-    private final static String MISSING_PARENT_ON_MULTILEVEL_BODY_PROPERTY = "$body.phones.work == '1932547698'";
-    private final static String ARRAY_INDEX_TRUE_CONDITION = "$body.accountNumbers[2] == '345'";
-    private final static String ARRAY_INDEX_FALSE_CONDITION = "$body.accountNumbers[2] == '123'";
-    private final static String ARRAY_OUT_OF_BOUNDS_CONDITION = "$body.accountNumbers[10] == '123'";
-    private final static String ARRAY_CONTAINS_ITEM_CONDITION = "$body.accountNumbers.contains('234')";
-    private final static String ARRAY_DOES_NOT_CONTAINS_ITEM_CONDITION = "$body.accountNumbers.contains('789')";
-    private final static String ARRAY_LENGTH_TEST_CONDITION = "$body.accountNumbers.length == 4";
-    private final static String ARRAY_CONTAINS_ALL_TRUE_CONDITION = "$body.accountNumbers.containsAll(['234', '345'])";
-    private final static String ARRAY_CONTAINS_ALL_FALSE_CONDITION = "$body.accountNumbers.containsAll(['234', '789'])";
-    private final static String ARRAY_INDEX_OF_TEST_CONDITION = "$body.accountNumbers.indexOf('234') == 1";
-    private final static String STRING_CONTAINS_TRUE_CONDITION = "$body.cpf.contains('888')";
-    private final static String STRING_CONTAINS_FALSE_CONDITION = "$body.cpf.contains('000')";
-    private final static String STRING_INDEX_OF_CONDITION = "$body.cpf.indexOf('888') == 4";
-    private final static String INTEGER_CONDITION = "$body.balance == 456.78";
-    private final static String NEGATIVE_INTEGER_CONDITION = "$body.debits == -123.45";
-    private final static String FLOAT_CONDITION = "$body.score == 75";
-    private final static String NEGATIVE_FLOAT_CONDITION = "$body.lowestScore == -20";
-    private final static String DOT_FLOAT_CONDITION = "$body.highestRate == 0.86";
-    private final static String DOT_NEGATIVE_FLOAT_CONDITION = "$body.lowestRate == -0.32";
-    private final static String BOOLEAN_TRUE_CONDITION = "$body.married";
-    private final static String BOOLEAN_FALSE_CONDITION = "$body.hasChildren";
-
-    private static final Map<String, String> PATH_PARAMS = new HashMap<String, String>() {
+    private static final ConditionEvaluator EVALUATOR = ConditionEvaluators.create();
+
+    static final String TRUE_HEADER_CONDITION = "$header.server == 'Tomcat'";
+    static final String TRUE_PATH_CONDITION = "$path.user_id == '1234'";
+    static final String TRUE_QUERY_CONDITION = "$query.name == 'gabriel'";
+    static final String TRUE_BODY_CONDITION = "$body.phone == '19998765432'";
+    static final String BRACKETS_HEADER_CONDITION = "$header['x-forwarded-from'] == '192.168.0.1'";
+    static final String BRACKETS_PATH_CONDITION = "$path['cep'] == '13000123'";
+    static final String BRACKETS_QUERY_CONDITION = "$query['cpf'] == '333.888.777-11'";
+    static final String BRACKETS_BODY_CONDITION = "$body['phone'] == '19998765432'";
+    static final String MISSING_HEADER_CONDITION = "$header.missingProperty == 'Tomcat'";
+    static final String MISSING_PATH_CONDITION = "$path.missingProperty == '1234'";
+    static final String MISSING_QUERY_CONDITION = "$query.missingProperty == 'gabriel'";
+    static final String MISSING_BODY_CONDITION = "$body.missingProperty == '19998765432'";
+    static final String WRONG_HEADER_CONDITION = "$header.server == 'wrong value'";
+    static final String WRONG_PATH_CONDITION = "$path.user_id == 'wrong value'";
+    static final String WRONG_QUERY_CONDITION = "$query.name == 'wrong value'";
+    static final String WRONG_BODY_CONDITION = "$body.phone == 'wrong value'";
+    static final String TRUE_OR_CONDITION = "$header.server == 'Tomcat' || $query.name == 'wrong value'";
+    static final String FALSE_OR_CONDITION = "$header.server == 'wrong value' || $query.name == 'wrong value'";
+    static final String TRUE_AND_CONDITION = "$header.server == 'Tomcat' && $query.name == 'gabriel'";
+    static final String FALSE_AND_CONDITION = "$header.server == 'Tomcat' && $query.name == 'wrong value'";
+    static final String COMPLEX_TRUE_CONDITION = "($header.server == 'Tomcat' || $query.name == 'wrong value') && $path.user_id == '1234'";
+    static final String COMPLEX_FALSE_CONDITION = "($header.server == 'Tomcat' || $query.name == 'wrong value') && $path.user_id == 'wrong value'";
+    static final String MULTILEVEL_BODY_CONDITION = "$body.addresses.work == '156 Grant Drive Avenue'";
+    static final String MISSING_PARENT_ON_MULTILEVEL_BODY_PROPERTY = "$body.phones.work == '1932547698'";
+    static final String ARRAY_INDEX_TRUE_CONDITION = "$body.accountNumbers[2] == '345'";
+    static final String ARRAY_INDEX_FALSE_CONDITION = "$body.accountNumbers[2] == '123'";
+    static final String ARRAY_OUT_OF_BOUNDS_CONDITION = "$body.accountNumbers[10] == '123'";
+    static final String ARRAY_CONTAINS_ITEM_CONDITION = "$body.accountNumbers.contains('234')";
+    static final String ARRAY_DOES_NOT_CONTAINS_ITEM_CONDITION = "$body.accountNumbers.contains('789')";
+    static final String ARRAY_LENGTH_TEST_CONDITION = "$body.accountNumbers.length == 4";
+    static final String ARRAY_CONTAINS_ALL_TRUE_CONDITION = "$body.accountNumbers.containsAll(['234', '345'])";
+    static final String ARRAY_CONTAINS_ALL_FALSE_CONDITION = "$body.accountNumbers.containsAll(['234', '789'])";
+    static final String ARRAY_INDEX_OF_TEST_CONDITION = "$body.accountNumbers.indexOf('234') == 1";
+    static final String STRING_CONTAINS_TRUE_CONDITION = "$body.cpf.contains('888')";
+    static final String STRING_CONTAINS_FALSE_CONDITION = "$body.cpf.contains('000')";
+    static final String STRING_INDEX_OF_CONDITION = "$body.cpf.indexOf('888') == 4";
+    static final String INTEGER_CONDITION = "$body.balance == 456.78";
+    static final String NEGATIVE_INTEGER_CONDITION = "$body.debits == -123.45";
+    static final String FLOAT_CONDITION = "$body.score == 75";
+    static final String NEGATIVE_FLOAT_CONDITION = "$body.lowestScore == -20";
+    static final String DOT_FLOAT_CONDITION = "$body.highestRate == 0.86";
+    static final String DOT_NEGATIVE_FLOAT_CONDITION = "$body.lowestRate == -0.32";
+    static final String BOOLEAN_TRUE_CONDITION = "$body.married";
+    static final String BOOLEAN_FALSE_CONDITION = "$body.hasChildren";
+
+    static final Map<String, String> PATH_PARAMS = new HashMap<String, String>() {
         {
             put("user_id", "1234");
             put("cep", "13000123");
         }
     };
-    private static final Map<String, String> HEADERS = new HashMap<String, String>() {
+    static final Map<String, String> HEADERS = new HashMap<String, String>() {
         {
             put("Content-Type", "application/json");
             put("x-forwarded-from", "192.168.0.1");
             put("server", "Tomcat");
         }
     };
-    private static final Map<String, String> QUERY_PARAMS = new HashMap<String, String>() {
+    static final Map<String, String> QUERY_PARAMS = new HashMap<String, String>() {
         {
             put("name", "gabriel");
             put("cpf", "333.888.777-11");
             put("phone", "19998765432");
         }
     };
-    private static final Map<String, Object> BODY = new HashMap<String, Object>() {
+    static final Map<String, Object> BODY = new HashMap<String, Object>() {
         {
             put("name", "gabriel");
             put("cpf", "333.888.777-11");
@@ -120,16 +132,29 @@ public class ContextEngineTest {
     };
 
     // Test variables
+    private RegexOperation regexOperation;
+    private Optional<RouteMatch> routeMatch;
+    private List<String> pathParamNames;
+    private UrlVerifier verifier;
+    private long cacheHits;
     private String url;
     private String regex;
     private Boolean matchedUrl;
     private String requestedUrl;
     private Map<String, String> pathParams;
     private Boolean conditionMatched;
+    private CompiledCondition compiledCondition;
+    private ScenarioScript scenarioScript;
+    private OptionalInt firstRank;
     private CallContext callContext;
     private String condition;
     private String sanitizedUrl;
 
+    @AfterClass
+    public static void tearDown() {
+        EVALUATOR.shutdown();
+    }
+
     /*
      * Testing createUrlVerifier
      */
@@ -175,6 +200,13 @@ public class ContextEngineTest {
         thenWeExpectARegexWithPathParams();
     }
 
+    @Test
+    public void createUrlVerifierWithTypedPathParameters() {
+        givenWeHaveAUrlWithTypedPathParameters();
+        whenWeCallCreateUrlVerifier();
+        thenWeExpectARegexWithTypedPathParams();
+    }
+
     /*
      * Testing verifyUrl
      */
@@ -210,6 +242,69 @@ public class ContextEngineTest {
         thenWeExpectTheVerifyResultToBeFalse();
     }
 
+    /*
+     * Testing compileVerifier
+     */
+    @Test
+    public void compileVerifierWithMatchedUrl() {
+        givenWeHaveARegexWithPathParameters();
+        givenWeHaveAMatchedUrlWithPathParameters();
+        whenWeCallCompileVerifier();
+        thenWeExpectTheCompiledVerifierToMatchTheUrl();
+    }
+
+    @Test
+    public void compileVerifierTwiceHitsTheCache() {
+        givenWeHaveARegexWithPathParameters();
+        givenWeHaveAlreadyCompiledTheVerifier();
+        whenWeCallCompileVerifier();
+        thenWeExpectACacheHit();
+    }
+
+    /*
+     * Testing matchOperation
+     */
+    @Test
+    public void matchOperationWithMatchedUrl() {
+        givenWeHaveARegexOperationWithPathParameters();
+        givenWeHaveARequestedUrlWithPathParameters();
+        whenWeCallMatchOperation();
+        thenWeExpectTheOperationToBeMatched();
+        thenWeExpectTheMatchedPathParametersToContainsAllValues();
+    }
+
+    @Test
+    public void matchOperationWithUnmatchedUrl() {
+        givenWeHaveARegexOperationWithPathParameters();
+        givenWeHaveAnIncorrectRequestedUrlWithPathParameters();
+        whenWeCallMatchOperation();
+        thenWeExpectTheOperationToNotBeMatched();
+    }
+
+    /*
+     * Testing getPathParamNames
+     */
+    @Test
+    public void getPathParamNamesWithPathParameters() {
+        givenWeHaveAFormattedUrlWithPathParameters();
+        whenWeCallGetPathParamNames();
+        thenWeExpectTheOrderedPathParamNames();
+    }
+
+    @Test
+    public void getPathParamNamesWithTypedPathParameters() {
+        givenWeHaveAUrlWithTypedPathParameters();
+        whenWeCallGetPathParamNames();
+        thenWeExpectTheOrderedPathParamNames();
+    }
+
+    @Test
+    public void getPathParamNamesWithoutPathParameters() {
+        givenWeHaveAFormattedUrlWithoutPathParameters();
+        whenWeCallGetPathParamNames();
+        thenWeExpectNoPathParamNames();
+    }
+
     /*
      * Testing getPathParameters
      */
@@ -586,6 +681,113 @@ public class ContextEngineTest {
         thenWeExpectTheConditionToBeFalse();
     }
 
+    @Test
+    public void evaluateConditionWithVariablesFromPreviousEvaluations() {
+        givenWeHaveAPopulatedCallContext();
+        givenOurConditionDeclaresAGlobalVariable();
+        whenWeCallEvaluateCondition();
+        thenWeExpectTheConditionToBeTrue();
+        givenOurConditionReadsTheGlobalVariable();
+        whenWeCallEvaluateCondition();
+        thenWeExpectTheConditionToBeFalse();
+    }
+
+    /*
+     * Testing compileCondition
+     */
+    @Test
+    public void evaluateCompiledConditionWithHeaderValidation() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenOurConditionTestsHeaders();
+        whenWeCallCompileCondition();
+        whenWeCallEvaluateCompiledCondition();
+        thenWeExpectTheConditionToBeTrue();
+        whenWeCallEvaluateCompiledCondition();
+        thenWeExpectTheConditionToBeTrue();
+    }
+
+    @Test
+    public void evaluateCompiledConditionWithWrongValue() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenOurConditionTestsHeadersWithWrongValue();
+        whenWeCallCompileCondition();
+        whenWeCallEvaluateCompiledCondition();
+        thenWeExpectTheConditionToBeFalse();
+    }
+
+    @Test
+    public void compileConditionIntoANativeExpression() throws ScriptException {
+        givenOurConditionTestsHeaders();
+        whenWeCallCompileCondition();
+        thenWeExpectTheConditionEngine(ConditionEngine.NATIVE);
+    }
+
+    @Test
+    public void evaluateCompiledConditionWithMethodCall() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenOurConditionTestsATrueArrayContainsValidation();
+        whenWeCallCompileCondition();
+        whenWeCallEvaluateCompiledCondition();
+        thenWeExpectTheConditionEngine(ConditionEngine.NASHORN);
+        thenWeExpectTheConditionToBeTrue();
+    }
+
+    @Test(expected = ScriptException.class)
+    public void compileInvalidCondition() throws ScriptException {
+        givenOurConditionIsNotAValidScript();
+        whenWeCallCompileCondition();
+    }
+
+    /*
+     * Testing evaluateFirst
+     */
+    @Test
+    public void evaluateFirstWithFulfilledScenario() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeHaveAScenarioScript(ARRAY_DOES_NOT_CONTAINS_ITEM_CONDITION, ARRAY_LENGTH_TEST_CONDITION,
+                ARRAY_CONTAINS_ITEM_CONDITION);
+        whenWeCallEvaluateFirst(0, 1, 2);
+        thenWeExpectTheFirstRank(1);
+    }
+
+    @Test
+    public void evaluateFirstWithFailingCondition() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeHaveAScenarioScript(MISSING_PARENT_ON_MULTILEVEL_BODY_PROPERTY, STRING_CONTAINS_TRUE_CONDITION);
+        whenWeCallEvaluateFirst(0, 1);
+        thenWeExpectTheFirstRank(1);
+    }
+
+    @Test
+    public void evaluateFirstOnlyWithTheGivenRanks() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeHaveAScenarioScript(STRING_CONTAINS_TRUE_CONDITION, ARRAY_CONTAINS_ITEM_CONDITION);
+        whenWeCallEvaluateFirst(1);
+        thenWeExpectTheFirstRank(1);
+    }
+
+    @Test
+    public void evaluateFirstWithoutFulfilledScenario() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeHaveAScenarioScript(STRING_CONTAINS_FALSE_CONDITION, ARRAY_DOES_NOT_CONTAINS_ITEM_CONDITION);
+        whenWeCallEvaluateFirst(0, 1);
+        thenWeExpectTheFirstRank(-1);
+    }
+
+    @Test
+    public void evaluateFirstWithVariablesFromPreviousConditions() throws ScriptException {
+        givenWeHaveAPopulatedCallContext();
+        givenWeHaveAScenarioScript("(leaked = true) && false", "typeof leaked !== 'undefined'",
+                STRING_CONTAINS_TRUE_CONDITION);
+        whenWeCallEvaluateFirst(0, 1, 2);
+        thenWeExpectTheFirstRank(2);
+    }
+
+    @Test(expected = ScriptException.class)
+    public void compileInvalidScenarioScript() throws ScriptException {
+        givenWeHaveAScenarioScript(STRING_CONTAINS_TRUE_CONDITION, "$header.server == ");
+    }
+
     /*
      * Testing sanitizeUrl
      */
@@ -678,7 +880,7 @@ public class ContextEngineTest {
 
     private void givenWeHaveAPopulatedCallContext() {
         this.callContext = new CallContext();
-        this.callContext.setPathParams(PATH_PARAMS);
+        this.callContext.setPathParams(new HashMap<>(PATH_PARAMS));
         this.callContext.setQueryParams(QUERY_PARAMS);
         this.callContext.setHeaders(HEADERS);
         this.callContext.setParsedBody(BODY);
@@ -688,6 +890,10 @@ public class ContextEngineTest {
         this.url = URL_WITHOUT_PATH_PARAMS;
     }
 
+    private void givenWeHaveAUrlWithTypedPathParameters() {
+        this.url = URL_WITH_TYPED_PATH_PARAMS;
+    }
+
     private void givenWeHaveAUrlWithMultipleSlashes() {
         this.url = UNFORMATTED_URL_WITHOUT_PATH_PARAMS;
     }
@@ -748,6 +954,18 @@ public class ContextEngineTest {
         this.condition = MISSING_BODY_CONDITION;
     }
 
+    private void givenOurConditionIsNotAValidScript() {
+        this.condition = "$header.header1 == (1";
+    }
+
+    private void givenOurConditionDeclaresAGlobalVariable() {
+        this.condition = "leaked = true";
+    }
+
+    private void givenOurConditionReadsTheGlobalVariable() {
+        this.condition = "typeof leaked !== 'undefined'";
+    }
+
     private void givenOurConditionTestsHeadersWithWrongValue() {
         this.condition = WRONG_HEADER_CONDITION;
     }
@@ -877,6 +1095,14 @@ public class ContextEngineTest {
         this.condition = BOOLEAN_FALSE_CONDITION;
     }
 
+    private void givenWeHaveAScenarioScript(String... conditions) throws ScriptException {
+        Map<Integer, String> ranked = new TreeMap<>();
+        for (int rank = 0; rank < conditions.length; rank++) {
+            ranked.put(rank, conditions[rank]);
+        }
+        this.scenarioScript = EVALUATOR.compileScenarioScript(ranked);
+    }
+
     /*
      * When Methods
      */
@@ -888,12 +1114,49 @@ public class ContextEngineTest {
         this.matchedUrl = ContextEngine.verifyUrl(this.url, this.regex);
     }
 
+    private void givenWeHaveARegexOperationWithPathParameters() {
+        this.regexOperation = new RegexOperation("GET" + REGEX_WITH_PATH_PARAMS, "1", Arrays.asList("user_id", "cep"));
+    }
+
+    private void givenWeHaveAnIncorrectRequestedUrlWithPathParameters() {
+        this.requestedUrl = INCORRECT_URL_WITH_PATH_PARAMS;
+    }
+
+    private void givenWeHaveAlreadyCompiledTheVerifier() {
+        ContextEngine.compileVerifier(this.regex);
+        this.cacheHits = PatternCache.stats().hitCount();
+    }
+
+    private void whenWeCallMatchOperation() {
+        this.routeMatch = ContextEngine.matchOperation(this.regexOperation, "GET", this.requestedUrl);
+    }
+
+    private void whenWeCallGetPathParamNames() {
+        this.pathParamNames = ContextEngine.getPathParamNames(this.url);
+    }
+
+    private void whenWeCallCompileVerifier() {
+        this.verifier = ContextEngine.compileVerifier(this.regex);
+    }
+
     private void whenWeCallGetPathParameters() {
         this.pathParams = ContextEngine.getPathParameters(this.url, this.regex, this.requestedUrl);
     }
 
     private void whenWeCallEvaluateCondition() {
-        this.conditionMatched = ContextEngine.evaluateCondition(this.callContext, this.condition);
+        this.conditionMatched = EVALUATOR.evaluateCondition(this.callContext, this.condition);
+    }
+
+    private void whenWeCallCompileCondition() throws ScriptException {
+        this.compiledCondition = EVALUATOR.compileCondition(this.condition);
+    }
+
+    private void whenWeCallEvaluateCompiledCondition() {
+        this.conditionMatched = EVALUATOR.evaluateCondition(this.callContext, this.compiledCondition);
+    }
+
+    private void whenWeCallEvaluateFirst(int... ranks) {
+        this.firstRank = EVALUATOR.evaluateFirst(this.callContext, this.scenarioScript, ranks);
     }
 
     private void whenWeCallSanitizeUrl() {
@@ -903,6 +1166,11 @@ public class ContextEngineTest {
     /*
      * Then Methods
      */
+    private void thenWeExpectTheFirstRank(int rank) {
+        assertTrue(this.firstRank.isPresent());
+        assertEquals(rank, this.firstRank.getAsInt());
+    }
+
     private void thenWeExpectARegexWithoutPathParams() {
         assertEquals(REGEX_WITHOUT_PATH_PARAMS, this.regex);
     }
@@ -911,6 +1179,10 @@ public class ContextEngineTest {
         assertEquals(REGEX_WITH_PATH_PARAMS, this.regex);
     }
 
+    private void thenWeExpectARegexWithTypedPathParams() {
+        assertEquals(REGEX_WITH_TYPED_PATH_PARAMS, this.regex);
+    }
+
     private void thenWeExpectTheVerifyResultToBeTrue() {
         assertTrue(this.matchedUrl);
     }
@@ -919,6 +1191,36 @@ public class ContextEngineTest {
         assertFalse(this.matchedUrl);
     }
 
+    private void thenWeExpectTheOperationToBeMatched() {
+        assertTrue(this.routeMatch.isPresent());
+        assertEquals("1", this.routeMatch.get().getOperationId());
+    }
+
+    private void thenWeExpectTheOperationToNotBeMatched() {
+        assertFalse(this.routeMatch.isPresent());
+    }
+
+    private void thenWeExpectTheMatchedPathParametersToContainsAllValues() {
+        assertEquals(PATH_PARAMS, this.routeMatch.get().getPathParams());
+    }
+
+    private void thenWeExpectTheOrderedPathParamNames() {
+        assertEquals(Arrays.asList("user_id", "cep"), this.pathParamNames);
+    }
+
+    private void thenWeExpectNoPathParamNames() {
+        assertTrue(this.pathParamNames.isEmpty());
+    }
+
+    private void thenWeExpectTheCompiledVerifierToMatchTheUrl() {
+        assertTrue(this.verifier.verify(this.url));
+        assertEquals(this.regex, this.verifier.getRegex());
+    }
+
+    private void thenWeExpectACacheHit() {
+        assertTrue(PatternCache.stats().hitCount() > this.cacheHits);
+    }
+
     private void thenWeExpectThePathParametersToContainsAllValues() {
         for (Map.Entry<String, String> path : this.pathParams.entrySet()) {
             assertTrue(PATH_PARAMS.containsKey(path.getKey()));
@@ -934,6 +1236,10 @@ public class ContextEngineTest {
         assertTrue(this.conditionMatched);
     }
 
+    private void thenWeExpectTheConditionEngine(ConditionEngine engine) {
+        assertEquals(engine, EVALUATOR.getEngine(this.compiledCondition));
+    }
+
     private void thenWeExpectTheConditionToBeFalse() {
         assertFalse(this.conditionMatched);
     }
@@ -0,0 +1,285 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.exception.BadRequestException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JsonBodyParserTest {
+    private String body;
+    private BodySelection selection;
+    private Object parsed;
+
+    private static final String NESTED_BODY = "{\"customer\": {\"document\": \"123\", \"tags\": [\"a\", {\"b\": null}]},"
+            + " \"items\": [], \"empty\": {}, \"active\": true}";
+    private static final String NUMBERS_BODY = "[1, -2147483649, 123456789012345678901234567890, 10.45, -1e3]";
+
+    /*
+     * Testing parse
+     */
+    @Test
+    public void parseNestedObject() {
+        givenTheBody(NESTED_BODY);
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedValue(nestedObject());
+        thenWeExpectAMap();
+    }
+
+    @Test
+    public void parseNestedObjectFromText() {
+        givenTheBody(NESTED_BODY);
+        whenWeCallParseFromText();
+        thenWeExpectTheParsedValue(nestedObject());
+    }
+
+    @Test
+    public void parseNumbers() {
+        givenTheBody(NUMBERS_BODY);
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedValue(Arrays.asList(1, -2147483649L,
+                new BigInteger("123456789012345678901234567890"), 10.45, -1000.0));
+    }
+
+    @Test
+    public void parseTopLevelArray() {
+        givenTheBody("[{\"id\": 1}, {\"id\": 2}]");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedValue(Arrays.asList(Collections.singletonMap("id", 1), Collections.singletonMap("id", 2)));
+    }
+
+    @Test
+    public void parseTopLevelString() {
+        givenTheBody(" \"text\" ");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedValue("text");
+    }
+
+    @Test
+    public void parseTopLevelNumber() {
+        givenTheBody("42");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedValue(42);
+    }
+
+    @Test
+    public void parseTopLevelNull() {
+        givenTheBody("null");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedValue(null);
+    }
+
+    @Test
+    public void parseDeeplyNestedArrays() {
+        givenTheDeeplyNestedBody(100000);
+        whenWeCallParseFromBytes();
+        thenWeExpectAList();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseEmptyBody() {
+        givenTheBody("  ");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseTruncatedBody() {
+        givenTheBody("{\"customer\": {\"document\": \"123\"");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseTrailingValue() {
+        givenTheBody("{\"id\": 1} {\"id\": 2}");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseInvalidBody() {
+        givenTheBody("{id: 1}");
+        whenWeCallParseFromText();
+    }
+
+    @Test
+    public void parseSelectedProperties() {
+        givenTheBody(NESTED_BODY);
+        givenTheConditions("$body.customer.document == '123'", "$body.active");
+        whenWeCallParseWithTheSelection();
+        thenWeExpectTheParsedValue(selectedObject());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseSelectedPropertiesOfABodyTruncatedAfterThem() {
+        givenTheBody("{\"type\": \"PF\", \"customer\": {\"document\": \"123\", \"other\": 1}, \"rest\": [1, 2,");
+        givenTheConditions("$body.type == 'PF' && $body.customer.document == '123'");
+        whenWeCallParseWithTheSelection();
+    }
+
+    @Test
+    public void parseRepeatedSelectedProperties() {
+        givenTheBody("{\"type\": \"PJ\", \"customer\": {\"document\": \"1\", \"document\": \"123\"}, "
+                + "\"type\": \"PF\"}");
+        givenTheConditions("$body.type == 'PF' && $body.customer.document == '123'");
+        whenWeCallParseWithTheSelection();
+        thenWeExpectTheParsedValue(selectedTypeAndDocument());
+        whenWeCallParseFromText();
+        thenWeExpectTheParsedValue(selectedTypeAndDocument());
+    }
+
+    @Test
+    public void parseWithDynamicallyReadBody() {
+        givenTheBody(NESTED_BODY);
+        givenTheConditions("this.$body.customer.document == '123'");
+        whenWeCallParseWithTheSelection();
+        thenWeExpectTheParsedValue(nestedObject());
+    }
+
+    @Test
+    public void parseSelectedListAsAWhole() {
+        givenTheBody(NESTED_BODY);
+        givenTheConditions("$body.customer.tags[0] == 'a'");
+        whenWeCallParseWithTheSelection();
+        thenWeExpectTheParsedValue(Collections.singletonMap("customer",
+                Collections.singletonMap("tags", Arrays.asList("a", Collections.singletonMap("b", null)))));
+    }
+
+    @Test
+    public void parseMissingSelectedProperties() {
+        givenTheBody(NESTED_BODY);
+        givenTheConditions("$body.type == 'PF' || $body.customer.name.first == 'A'");
+        whenWeCallParseWithTheSelection();
+        thenWeExpectTheParsedValue(Collections.singletonMap("customer", Collections.emptyMap()));
+    }
+
+    @Test
+    public void parseWithoutSelectedProperties() {
+        givenTheBody("{\"type\": \"PF\", \"rest\": [1, 2,");
+        givenTheConditions("$header.tenant == 'A'");
+        whenWeCallParseWithTheSelection();
+        thenWeExpectTheParsedValue(Collections.emptyMap());
+    }
+
+    @Test
+    public void parseSelectedPropertiesOfAList() {
+        givenTheBody("[{\"id\": 1}, {\"id\": 2}]");
+        givenTheConditions("$body.id == 1");
+        whenWeCallParseWithTheSelection();
+        thenWeExpectTheParsedValue(Arrays.asList(Collections.singletonMap("id", 1), Collections.singletonMap("id", 2)));
+    }
+
+    @Test
+    public void parseWholeSelection() {
+        givenTheBody(NESTED_BODY);
+        givenTheConditions("$body.customer.document == '123'", "Object.keys($body).length == 4");
+        whenWeCallParseWithTheSelection();
+        thenWeExpectTheParsedValue(nestedObject());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseSelectedPropertiesOfAnInvalidBody() {
+        givenTheBody("{\"other\": 1, \"type\" \"PF\"}");
+        givenTheConditions("$body.type == 'PF'");
+        whenWeCallParseWithTheSelection();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseSelectedPropertiesOfATruncatedBody() {
+        givenTheBody("{\"other\": 1, \"customer\": {\"document\": \"123\"");
+        givenTheConditions("$body.type == 'PF'");
+        whenWeCallParseWithTheSelection();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheBody(String body) {
+        this.body = body;
+    }
+
+    private void givenTheConditions(String... conditions) {
+        this.selection = BodySelection.of(Arrays.asList(conditions));
+    }
+
+    private void givenTheDeeplyNestedBody(int depth) {
+        StringBuilder builder = new StringBuilder(depth * 2);
+        for (int i = 0; i < depth; i++) {
+            builder.append('[');
+        }
+        for (int i = 0; i < depth; i++) {
+            builder.append(']');
+        }
+        this.body = builder.toString();
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallParseFromBytes() {
+        this.parsed = JsonBodyParser.parse(new ByteArrayInputStream(this.body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void whenWeCallParseWithTheSelection() {
+        this.parsed = JsonBodyParser.parse(new ByteArrayInputStream(this.body.getBytes(StandardCharsets.UTF_8)),
+                this.selection);
+    }
+
+    private void whenWeCallParseFromText() {
+        this.parsed = JsonBodyParser.parse(this.body);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheParsedValue(Object expected) {
+        assertEquals(expected, this.parsed);
+    }
+
+    private void thenWeExpectAMap() {
+        assertEquals("java.util.HashMap", this.parsed.getClass().getName());
+    }
+
+    private void thenWeExpectAList() {
+        assertTrue(this.parsed instanceof List);
+    }
+
+    /*
+     * Helper methods
+     */
+    private static Map<String, Object> nestedObject() {
+        Map<String, Object> customer = new HashMap<>();
+        customer.put("document", "123");
+        customer.put("tags", Arrays.asList("a", Collections.singletonMap("b", null)));
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("customer", customer);
+        expected.put("items", Collections.emptyList());
+        expected.put("empty", Collections.emptyMap());
+        expected.put("active", true);
+        return expected;
+    }
+
+    private static Map<String, Object> selectedObject() {
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("customer", Collections.singletonMap("document", "123"));
+        expected.put("active", true);
+        return expected;
+    }
+
+    private static Map<String, Object> selectedTypeAndDocument() {
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("type", "PF");
+        expected.put("customer", Collections.singletonMap("document", "123"));
+        return expected;
+    }
+}
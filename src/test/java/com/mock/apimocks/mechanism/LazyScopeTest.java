@@ -0,0 +1,146 @@
+package com.mock.apimocks.mechanism;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LazyScopeTest {
+    private static final List<String> ACCOUNT_NUMBERS = Arrays.asList("123", "234");
+
+    @Mock
+    private Map<String, Object> body;
+
+    private Object scope;
+    private Object first;
+    private Object second;
+
+    /*
+     * Testing of
+     */
+    @Test
+    public void ofMap() {
+        whenWeCallOf(this.body);
+        thenWeExpectALazyScope();
+    }
+
+    @Test
+    public void ofList() {
+        whenWeCallOf(ACCOUNT_NUMBERS);
+        thenWeExpectTheValueItself(ACCOUNT_NUMBERS);
+    }
+
+    @Test
+    public void ofNull() {
+        whenWeCallOf(null);
+        thenWeExpectTheValueItself(null);
+    }
+
+    /*
+     * Testing getMember
+     */
+    @Test
+    public void getMemberResolvesOnlyOnce() {
+        givenTheBodyHas("accountNumbers", ACCOUNT_NUMBERS);
+        givenWeHaveTheScopeOfTheBody();
+        whenWeReadTheMemberTwice("accountNumbers");
+        thenWeExpectTheSameValue(ACCOUNT_NUMBERS);
+        thenWeExpectTheBodyToBeReadOnce("accountNumbers");
+    }
+
+    @Test
+    public void getMemberWrapsNestedMaps() {
+        givenTheBodyHas("addresses", Collections.singletonMap("work", "156 Grant Drive Avenue"));
+        givenWeHaveTheScopeOfTheBody();
+        whenWeReadTheMemberTwice("addresses");
+        thenWeExpectTheSameNestedScope();
+        thenWeExpectTheBodyToBeReadOnce("addresses");
+    }
+
+    @Test
+    public void getMemberWithMissingProperty() {
+        givenWeHaveTheScopeOfTheBody();
+        whenWeReadTheMemberTwice("missingProperty");
+        thenWeExpectTheSameValue(null);
+        thenWeExpectTheBodyToBeReadOnce("missingProperty");
+    }
+
+    /*
+     * Testing keySet
+     */
+    @Test
+    public void keySet() {
+        givenTheBodyHasTheKeys("name", "cpf");
+        givenWeHaveTheScopeOfTheBody();
+        thenWeExpectTheKeys("name", "cpf");
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheBodyHas(String key, Object value) {
+        given(this.body.get(key)).willReturn(value);
+    }
+
+    private void givenTheBodyHasTheKeys(String... keys) {
+        given(this.body.keySet()).willReturn(new HashSet<>(Arrays.asList(keys)));
+    }
+
+    private void givenWeHaveTheScopeOfTheBody() {
+        this.scope = LazyScope.of(this.body);
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallOf(Object value) {
+        this.scope = LazyScope.of(value);
+    }
+
+    private void whenWeReadTheMemberTwice(String name) {
+        this.first = ((LazyScope) this.scope).getMember(name);
+        this.second = ((LazyScope) this.scope).getMember(name);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectALazyScope() {
+        assertTrue(this.scope instanceof LazyScope);
+    }
+
+    private void thenWeExpectTheValueItself(Object value) {
+        assertSame(value, this.scope);
+    }
+
+    private void thenWeExpectTheSameValue(Object value) {
+        assertSame(value, this.first);
+        assertSame(value, this.second);
+    }
+
+    private void thenWeExpectTheSameNestedScope() {
+        assertTrue(this.first instanceof LazyScope);
+        assertSame(this.first, this.second);
+        assertEquals("156 Grant Drive Avenue", ((LazyScope) this.first).getMember("work"));
+    }
+
+    private void thenWeExpectTheBodyToBeReadOnce(String key) {
+        verify(this.body, times(1)).get(key);
+    }
+
+    private void thenWeExpectTheKeys(String... keys) {
+        assertEquals(new HashSet<>(Arrays.asList(keys)), ((LazyScope) this.scope).keySet());
+    }
+}
@@ -0,0 +1,99 @@
+package com.mock.apimocks.mechanism;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoopGuardTest {
+    private static final String CHECK = ConditionBudget.BINDING + ".check()";
+
+    private String source;
+    private String instrumented;
+
+    /*
+     * Testing instrument
+     */
+    @Test
+    public void instrumentWithoutLoops() {
+        givenTheSource("$path.id == '1' && $query.format == 'json'");
+        whenWeCallInstrument();
+        thenWeExpectTheSameSource();
+    }
+
+    @Test
+    public void instrumentWhileLoop() {
+        givenTheSource("(function () { var i = 0; while (i < 3) { i++; } return i == 3; })()");
+        whenWeCallInstrument();
+        thenWeExpectTheSource("(function () { var i = 0; while (" + CHECK + " && (i < 3\n)) { i++; } return i == 3; })()");
+    }
+
+    @Test
+    public void instrumentDoWhileLoop() {
+        givenTheSource("do { x++; } while(x < 3)");
+        whenWeCallInstrument();
+        thenWeExpectTheSource("do { x++; } while(" + CHECK + " && (x < 3\n))");
+    }
+
+    @Test
+    public void instrumentForLoop() {
+        givenTheSource("for (var i = 0; i < $body.items.length; i++) {}");
+        whenWeCallInstrument();
+        thenWeExpectTheSource("for (var i = 0; " + CHECK + " && ( i < $body.items.length\n);  i++) {}");
+    }
+
+    @Test
+    public void instrumentEndlessForLoop() {
+        givenTheSource("for (;;) {}");
+        whenWeCallInstrument();
+        thenWeExpectTheSource("for (; " + CHECK + "; ) {}");
+    }
+
+    @Test
+    public void instrumentNestedLoops() {
+        givenTheSource("while (a) { for (;;) {} }");
+        whenWeCallInstrument();
+        thenWeExpectTheSource("while (" + CHECK + " && (a\n)) { for (; " + CHECK + "; ) {} }");
+    }
+
+    @Test
+    public void instrumentForInLoop() {
+        givenTheSource("for (var key in $body) {}");
+        whenWeCallInstrument();
+        thenWeExpectTheSameSource();
+    }
+
+    @Test
+    public void instrumentLiteralsAndProperties() {
+        givenTheSource("$body.while == 'while (true)' && /for (;;)/.test($query.for) // while (true)");
+        whenWeCallInstrument();
+        thenWeExpectTheSameSource();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheSource(String source) {
+        this.source = source;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallInstrument() {
+        this.instrumented = LoopGuard.instrument(this.source);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheSameSource() {
+        assertEquals(this.source, this.instrumented);
+    }
+
+    private void thenWeExpectTheSource(String expected) {
+        assertEquals(expected, this.instrumented);
+    }
+}
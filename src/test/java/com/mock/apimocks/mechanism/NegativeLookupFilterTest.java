@@ -0,0 +1,134 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.models.vo.MockOperation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NegativeLookupFilterTest {
+    private static final long MAX_MISSES = 100;
+    private static final List<MockOperation> OPERATIONS = Arrays.asList(
+            MockOperation.builder().id("1").method(HttpMethod.GET).fullPath("/test/api/v1/users").build(),
+            MockOperation.builder().id("2").method(HttpMethod.POST).fullPath("/test/{tenant}/orders").build(),
+            MockOperation.builder().id("3").method(HttpMethod.PUT).fullPath("/{tenant}/orders").build(),
+            MockOperation.builder().id("4").method(HttpMethod.GET).fullPath("/health").build());
+
+    private NegativeLookupFilter filter;
+    private String method;
+    private String url;
+    private boolean mightMatch;
+
+    /*
+     * Testing mightMatch
+     */
+    @Test
+    public void mightMatchRegisteredUrl() {
+        givenWeHaveAFilterWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users");
+        whenWeCallMightMatch();
+        thenWeExpectAPossibleMatch();
+    }
+
+    @Test
+    public void mightMatchUnformattedUrl() {
+        givenWeHaveAFilterWithAllOperations();
+        givenWeHaveARequest("GET", "//health/");
+        whenWeCallMightMatch();
+        thenWeExpectAPossibleMatch();
+    }
+
+    @Test
+    public void mightMatchUrlWithPathParameterAfterTheFirstSegment() {
+        givenWeHaveAFilterWithAllOperations();
+        givenWeHaveARequest("POST", "/test/acme/orders");
+        whenWeCallMightMatch();
+        thenWeExpectAPossibleMatch();
+    }
+
+    @Test
+    public void mightMatchAnyUrlOfMethodWithPathParameterFirst() {
+        givenWeHaveAFilterWithAllOperations();
+        givenWeHaveARequest("PUT", "/anything/at/all");
+        whenWeCallMightMatch();
+        thenWeExpectAPossibleMatch();
+    }
+
+    @Test
+    public void mightMatchUnknownPrefix() {
+        givenWeHaveAFilterWithAllOperations();
+        givenWeHaveARequest("GET", "/wp-admin/login.php");
+        whenWeCallMightMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void mightMatchUnknownMethod() {
+        givenWeHaveAFilterWithAllOperations();
+        givenWeHaveARequest("DELETE", "/test/api/v1/users");
+        whenWeCallMightMatch();
+        thenWeExpectNoMatch();
+    }
+
+    /*
+     * Testing recordMiss
+     */
+    @Test
+    public void mightMatchRecordedMiss() {
+        givenWeHaveAFilterWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/customers");
+        whenWeCallRecordMiss();
+        whenWeCallMightMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void mightMatchUnformattedRecordedMiss() {
+        givenWeHaveAFilterWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/customers");
+        whenWeCallRecordMiss();
+        givenWeHaveARequest("GET", "/test//api/v1/customers/");
+        whenWeCallMightMatch();
+        thenWeExpectNoMatch();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAFilterWithAllOperations() {
+        this.filter = NegativeLookupFilter.build(OPERATIONS, MAX_MISSES);
+    }
+
+    private void givenWeHaveARequest(String method, String url) {
+        this.method = method;
+        this.url = url;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallMightMatch() {
+        this.mightMatch = this.filter.mightMatch(this.method, this.url);
+    }
+
+    private void whenWeCallRecordMiss() {
+        this.filter.recordMiss(this.method, this.url);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectAPossibleMatch() {
+        assertTrue(this.mightMatch);
+    }
+
+    private void thenWeExpectNoMatch() {
+        assertFalse(this.mightMatch);
+    }
+}
@@ -0,0 +1,147 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.PathParamType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PathParamTest {
+    private static final String UUID = "123e4567-e89b-12d3-a456-426614174000";
+
+    private String placeholder;
+    private PathParam param;
+    private List<PathParam> params;
+
+    /*
+     * Testing parse
+     */
+    @Test
+    public void parseUntypedPlaceholder() {
+        givenWeHaveAPlaceholder("id");
+        whenWeCallParse();
+        thenWeExpectTheParam("id", PathParamType.STRING, "([^\\/]+)");
+    }
+
+    @Test
+    public void parseTypedPlaceholders() {
+        givenWeHaveAPlaceholder("id:int");
+        whenWeCallParse();
+        thenWeExpectTheParam("id", PathParamType.INT, "(-?\\d+)");
+
+        givenWeHaveAPlaceholder("id:uuid");
+        whenWeCallParse();
+        thenWeExpectTheParam("id", PathParamType.UUID, "(" + PathParamType.UUID.verifier() + ")");
+
+        givenWeHaveAPlaceholder("rest:**");
+        whenWeCallParse();
+        thenWeExpectTheParam("rest", PathParamType.CATCH_ALL, "(.+)");
+    }
+
+    @Test
+    public void parseCustomConstraintWithoutCapturingGroups() {
+        givenWeHaveAPlaceholder("code:(?<prefix>[A-Z(]{2})(\\d)(?=x)");
+        whenWeCallParse();
+        thenWeExpectTheParam("code", PathParamType.PATTERN, "((?:(?:[A-Z(]{2})(?:\\d)(?=x)))");
+    }
+
+    @Test
+    public void parseAllPlaceholdersWithNestedBrackets() {
+        whenWeCallParseAll("/orders/{id:\\d{3}}/items/{item}");
+        thenWeExpectTheParamNames("id", "item");
+    }
+
+    /*
+     * Testing accepts
+     */
+    @Test
+    public void acceptsValuesByType() {
+        givenWeHaveAPlaceholder("id:int");
+        whenWeCallParse();
+        thenWeExpectTheValuesToBeAccepted("42", "-42");
+        thenWeExpectTheValuesToBeRejected("", "-", "4a", "+4", "٣");
+
+        givenWeHaveAPlaceholder("id:uuid");
+        whenWeCallParse();
+        thenWeExpectTheValuesToBeAccepted(UUID, UUID.toUpperCase());
+        thenWeExpectTheValuesToBeRejected(UUID.substring(1), UUID.replace('-', '_'), UUID.replace('e', 'g'));
+
+        givenWeHaveAPlaceholder("code:[A-Z]{3}");
+        whenWeCallParse();
+        thenWeExpectTheValuesToBeAccepted("ABC");
+        thenWeExpectTheValuesToBeRejected("AB", "abc", "ABCD");
+    }
+
+    /*
+     * Testing coerce
+     */
+    @Test
+    public void coerceIntegerValues() {
+        givenWeHaveAPlaceholder("id:int");
+        whenWeCallParse();
+        thenWeExpectTheCoercedValue("42", 42);
+        thenWeExpectTheCoercedValue("9999999999", 9999999999L);
+        thenWeExpectTheCoercedValue("99999999999999999999", "99999999999999999999");
+    }
+
+    @Test
+    public void coerceUntypedValues() {
+        givenWeHaveAPlaceholder("id");
+        whenWeCallParse();
+        thenWeExpectTheCoercedValue("42", "42");
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAPlaceholder(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallParse() {
+        this.param = PathParam.parse(this.placeholder);
+    }
+
+    private void whenWeCallParseAll(String path) {
+        this.params = PathParam.parseAll(path);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheParam(String name, PathParamType type, String verifier) {
+        assertEquals(name, this.param.getName());
+        assertEquals(type, this.param.getType());
+        assertEquals(verifier, this.param.verifier());
+    }
+
+    private void thenWeExpectTheParamNames(String... names) {
+        assertEquals(names.length, this.params.size());
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(names[i], this.params.get(i).getName());
+        }
+    }
+
+    private void thenWeExpectTheValuesToBeAccepted(String... values) {
+        for (String value : values) {
+            assertTrue(value, this.param.accepts(value));
+        }
+    }
+
+    private void thenWeExpectTheValuesToBeRejected(String... values) {
+        for (String value : values) {
+            assertFalse(value, this.param.accepts(value));
+        }
+    }
+
+    private void thenWeExpectTheCoercedValue(String value, Object expected) {
+        assertEquals(expected, this.param.coerce(value));
+    }
+}
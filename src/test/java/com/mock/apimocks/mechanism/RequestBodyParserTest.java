@@ -6,7 +6,12 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,6 +20,8 @@ import static org.junit.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.class)
 public class RequestBodyParserTest {
+    private final RequestBodyParser parser =
+            new RequestBodyParser(new XmlBodyParser(false, true, XmlBodyParser.DEFAULT_MAX_DEPTH));
     private String body;
     private ContentType contentType;
     private Object parsed;
@@ -83,6 +90,7 @@ public class RequestBodyParserTest {
             "        \"work\": \"456 Elmer Blvd.\"" +
             "    }" +
             "}";
+    private static final String JSON_ARRAY_BODY = "[{\"name\": \"João\"}, 10.45, \"text\"]";
     private static final String XML_BODY =
             "<userId>123</userId>" +
             "<name>john</name>" +
@@ -165,6 +173,42 @@ public class RequestBodyParserTest {
         thenWeExpectTheAMapShouldContainsTheComplexProperties();
     }
 
+    @Test
+    public void parseBodyForJsonArray() {
+        givenWeHaveAJsonContentType();
+        givenWeHaveAValidJsonArrayBody();
+        whenWeCallParseBody();
+        thenWeExpectTheReturnedObjectToBeTheArray();
+    }
+
+    @Test
+    public void parseBodyForCapturedJsonBody() throws Exception {
+        givenWeHaveAJsonContentType();
+        givenWeHaveAValidJsonBody();
+        whenWeCallParseBodyWithTheCapturedBody(null);
+        thenWeExpectTheReturnedObjectToBeAMapOfStringObject();
+        thenWeExpectTheAMapShouldContainsTheSimpleProperties();
+        thenWeExpectTheAMapShouldContainsTheArrayProperties();
+        thenWeExpectTheAMapShouldContainsTheComplexProperties();
+    }
+
+    @Test
+    public void parseBodyForCapturedJsonBodyWithCharset() throws Exception {
+        givenWeHaveAJsonContentType();
+        givenWeHaveAValidJsonArrayBody();
+        whenWeCallParseBodyWithTheCapturedBody("ISO-8859-1");
+        thenWeExpectTheReturnedObjectToBeTheArray();
+    }
+
+    @Test
+    public void parseBodyForCapturedUrlEncodedBody() throws Exception {
+        givenWeHaveAUrlEncodedContentType();
+        givenWeHaveAValidUrlEncodedBody();
+        whenWeCallParseBodyWithTheCapturedBody(null);
+        thenWeExpectTheReturnedObjectToBeAMapOfStringObject();
+        thenWeExpectTheAMapShouldContainsTheSimpleProperties();
+    }
+
     @Test(expected = BadRequestException.class)
     public void parseBodyWithWrongBodyForJsonContentType() {
         givenWeHaveAJsonContentType();
@@ -228,6 +272,10 @@ public class RequestBodyParserTest {
         this.body = JSON_BODY;
     }
 
+    private void givenWeHaveAValidJsonArrayBody() {
+        this.body = JSON_ARRAY_BODY;
+    }
+
     private void givenWeHaveAnApplicationXmlContentType() {
         this.contentType = ContentType.APP_XML;
     }
@@ -244,7 +292,15 @@ public class RequestBodyParserTest {
      * When methods
      */
     private void whenWeCallParseBody() {
-        this.parsed = RequestBodyParser.parseBody(this.body, this.contentType);
+        this.parsed = this.parser.parseBody(this.body, this.contentType);
+    }
+
+    private void whenWeCallParseBodyWithTheCapturedBody(String charset) throws IOException {
+        byte[] bytes = this.body.getBytes(charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset));
+        try (RequestBody captured = RequestBody.capture(new ByteArrayInputStream(bytes), null, charset,
+                bytes.length, Integer.MAX_VALUE)) {
+            this.parsed = this.parser.parseBody(captured, this.contentType);
+        }
     }
 
     /*
@@ -281,6 +337,10 @@ public class RequestBodyParserTest {
         }
     }
 
+    private void thenWeExpectTheReturnedObjectToBeTheArray() {
+        assertEquals(Arrays.asList(Collections.singletonMap("name", "João"), 10.45, "text"), this.parsed);
+    }
+
     private void thenWeExpectTheReturnedObjectToBeAString() {
         assertEquals("java.lang.String", this.parsed.getClass().getName());
     }
@@ -0,0 +1,266 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.exception.BadRequestException;
+import com.mock.apimocks.exception.PayloadTooLargeException;
+import com.mock.apimocks.exception.UnsupportedMediaTypeException;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequestBodyTest {
+    private byte[] content;
+    private String encoding;
+    private String charset;
+    private long contentLength;
+    private long maxSize;
+    private RequestBody body;
+
+    private static final String TEXT = "{\"name\": \"João\",\r\n \"city\": \"São Paulo\"}\r\n";
+    private static final long MAX_SIZE = 1024 * 1024;
+
+    @After
+    public void tearDown() {
+        if (this.body != null) {
+            this.body.close();
+        }
+    }
+
+    /*
+     * Testing capture
+     */
+    @Test
+    public void captureWithLineBreaks() throws Exception {
+        givenTheContent(TEXT.getBytes(StandardCharsets.UTF_8));
+        whenWeCallCapture();
+        thenWeExpectTheText(TEXT);
+        thenWeExpectTheLength(TEXT.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void captureWithCharset() throws Exception {
+        givenTheContent(TEXT.getBytes(StandardCharsets.ISO_8859_1));
+        givenTheCharset("ISO-8859-1");
+        whenWeCallCapture();
+        thenWeExpectTheText(TEXT);
+    }
+
+    @Test
+    public void captureWithoutContentLength() throws Exception {
+        givenTheContent(TEXT.getBytes(StandardCharsets.UTF_8));
+        givenTheContentLength(-1);
+        whenWeCallCapture();
+        thenWeExpectTheText(TEXT);
+    }
+
+    @Test
+    public void captureLargerThanTheBuffer() throws Exception {
+        givenTheContent(largeText().getBytes(StandardCharsets.UTF_8));
+        givenTheContentLength(-1);
+        whenWeCallCapture();
+        thenWeExpectTheText(largeText());
+        thenWeExpectTheStreamToHaveTheText(largeText());
+    }
+
+    @Test
+    public void captureGzip() throws Exception {
+        givenTheContent(gzip(largeText()));
+        givenTheEncoding("gzip");
+        whenWeCallCapture();
+        thenWeExpectTheText(largeText());
+    }
+
+    @Test
+    public void captureZlibDeflate() throws Exception {
+        givenTheContent(deflate(TEXT, false));
+        givenTheEncoding("deflate");
+        whenWeCallCapture();
+        thenWeExpectTheText(TEXT);
+    }
+
+    @Test
+    public void captureRawDeflate() throws Exception {
+        givenTheContent(deflate(TEXT, true));
+        givenTheEncoding("Deflate");
+        whenWeCallCapture();
+        thenWeExpectTheText(TEXT);
+    }
+
+    @Test
+    public void captureMultipleEncodings() throws Exception {
+        String deflated = new String(deflate(TEXT, false), StandardCharsets.ISO_8859_1);
+        givenTheContent(gzip(deflated, StandardCharsets.ISO_8859_1));
+        givenTheEncoding("deflate, identity, gzip");
+        whenWeCallCapture();
+        thenWeExpectTheText(TEXT);
+    }
+
+    @Test
+    public void captureEmptyBody() throws Exception {
+        givenTheContent(new byte[0]);
+        whenWeCallCapture();
+        thenWeExpectTheText("");
+    }
+
+    @Test(expected = PayloadTooLargeException.class)
+    public void captureWithLargeContentLength() throws Exception {
+        givenTheContent(TEXT.getBytes(StandardCharsets.UTF_8));
+        givenTheMaxSize(10);
+        whenWeCallCapture();
+    }
+
+    @Test(expected = PayloadTooLargeException.class)
+    public void captureWithLargeDecompressedBody() throws Exception {
+        givenTheContent(gzip(largeText()));
+        givenTheEncoding("gzip");
+        givenTheMaxSize(largeText().length() - 1);
+        whenWeCallCapture();
+    }
+
+    @Test(expected = UnsupportedMediaTypeException.class)
+    public void captureWithUnknownEncoding() throws Exception {
+        givenTheContent(TEXT.getBytes(StandardCharsets.UTF_8));
+        givenTheEncoding("br");
+        whenWeCallCapture();
+    }
+
+    @Test(expected = UnsupportedMediaTypeException.class)
+    public void captureWithUnknownCharset() throws Exception {
+        givenTheContent(TEXT.getBytes(StandardCharsets.UTF_8));
+        givenTheCharset("unknown-charset");
+        whenWeCallCapture();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void captureWithInvalidGzip() throws Exception {
+        givenTheContent(TEXT.getBytes(StandardCharsets.UTF_8));
+        givenTheEncoding("gzip");
+        whenWeCallCapture();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void captureWithTruncatedGzip() throws Exception {
+        byte[] gzip = gzip(largeText());
+        byte[] truncated = new byte[gzip.length / 2];
+        System.arraycopy(gzip, 0, truncated, 0, truncated.length);
+        givenTheContent(truncated);
+        givenTheEncoding("gzip");
+        whenWeCallCapture();
+    }
+
+    /*
+     * Testing close
+     */
+    @Test
+    public void closeKeepsTheText() throws Exception {
+        givenTheContent(TEXT.getBytes(StandardCharsets.UTF_8));
+        whenWeCallCapture();
+        whenWeReadTheTextAndClose();
+        thenWeExpectTheText(TEXT);
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheContent(byte[] content) {
+        this.content = content;
+        this.contentLength = content.length;
+        this.maxSize = MAX_SIZE;
+    }
+
+    private void givenTheEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    private void givenTheCharset(String charset) {
+        this.charset = charset;
+    }
+
+    private void givenTheContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    private void givenTheMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallCapture() throws IOException {
+        this.body = RequestBody.capture(new ByteArrayInputStream(this.content), this.encoding, this.charset,
+                this.contentLength, this.maxSize);
+    }
+
+    private void whenWeReadTheTextAndClose() {
+        this.body.asString();
+        this.body.close();
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheText(String expected) {
+        assertEquals(expected, this.body.asString());
+    }
+
+    private void thenWeExpectTheLength(int expected) {
+        assertEquals(expected, this.body.length());
+    }
+
+    private void thenWeExpectTheStreamToHaveTheText(String expected) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream stream = this.body.asStream()) {
+            int read;
+            while ((read = stream.read()) >= 0) {
+                bytes.write(read);
+            }
+        }
+        assertEquals(expected, new String(bytes.toByteArray(), this.body.getCharset()));
+    }
+
+    /*
+     * Helper methods
+     */
+    private static String largeText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("{\"index\": ").append(i).append("}\r\n");
+        }
+        return text.toString();
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        return gzip(content, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(String content, Charset charset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(charset));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(String content, boolean raw) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(bytes, deflater)) {
+            deflate.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,325 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RouteAutomatonTest {
+    private static final List<MockOperation> OPERATIONS = Arrays.asList(
+            MockOperation.builder().id("1").method(HttpMethod.GET).fullPath("/test/api/v1/users").build(),
+            MockOperation.builder().id("2").method(HttpMethod.POST).fullPath("/test/api/v1/users").build(),
+            MockOperation.builder().id("3").method(HttpMethod.GET).fullPath("/test/api/v1/users/{user_id}").build(),
+            MockOperation.builder().id("4").method(HttpMethod.GET).fullPath("/test/api/v1/users/me").build(),
+            MockOperation.builder().id("5").method(HttpMethod.GET)
+                    .fullPath("/test/api/v1/users/{user_id}/addresses/{cep}/city").build(),
+            MockOperation.builder().id("6").method(HttpMethod.GET).fullPath("/test/api/v1/users/{user_id}/phones").build(),
+            MockOperation.builder().id("7").method(HttpMethod.GET).fullPath("/test/api/v1/users/me/addresses").build(),
+            MockOperation.builder().id("8").method(HttpMethod.GET).fullPath("/test/api/v1/users").build(),
+            MockOperation.builder().id("9").method(HttpMethod.GET).fullPath("/test/api/v1/files/{name}.json").build(),
+            MockOperation.builder().id("10").method(HttpMethod.GET).fullPath("/test/api/v1+/items")
+                    .regex("(\\/+test\\/+api\\/+v1+\\/+items)").build(),
+            MockOperation.builder().id("11").method(HttpMethod.GET).fullPath("/test/api/v1/orders/{id:int}").build(),
+            MockOperation.builder().id("12").method(HttpMethod.GET).fullPath("/test/api/v1/orders/{id:uuid}").build(),
+            MockOperation.builder().id("13").method(HttpMethod.GET).fullPath("/test/api/v1/orders/{code:[A-Z]{3}}").build(),
+            MockOperation.builder().id("14").method(HttpMethod.GET).fullPath("/test/api/v1/orders/summary").build(),
+            MockOperation.builder().id("15").method(HttpMethod.GET).fullPath("/test/api/v1/orders/{name}").build(),
+            MockOperation.builder().id("16").method(HttpMethod.GET).fullPath("/test/api/v1/static/{rest:**}").build());
+
+    private RouteAutomaton automaton;
+    private String method;
+    private String url;
+    private Optional<RouteMatch> match;
+    private String expression;
+    private int[] tokens;
+
+    /*
+     * Testing match
+     */
+    @Test
+    public void matchUrlWithoutPathParameters() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("1");
+        thenWeExpectNoPathParameters();
+    }
+
+    @Test
+    public void matchUrlByMethod() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("POST", "/test/api/v1/users");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("2");
+    }
+
+    @Test
+    public void matchUrlWithPathParameters() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/1234/addresses/13000123/city");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("5");
+        thenWeExpectThePathParameter("user_id", "1234");
+        thenWeExpectThePathParameter("cep", "13000123");
+    }
+
+    @Test
+    public void matchUnformattedUrl() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "//test///api/v1/users/1234//");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("3");
+        thenWeExpectThePathParameter("user_id", "1234");
+    }
+
+    @Test
+    public void matchLiteralSegmentBeforePathParameter() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/me");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("4");
+        thenWeExpectNoPathParameters();
+    }
+
+    @Test
+    public void matchPathParameterWhenLiteralBranchFails() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/me/phones");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("6");
+        thenWeExpectThePathParameter("user_id", "me");
+    }
+
+    @Test
+    public void matchKeepsTheFirstDuplicatedOperation() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("1");
+    }
+
+    @Test
+    public void matchWithUnknownMethod() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("DELETE", "/test/api/v1/users");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void matchWithUnknownUrl() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/customers");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void matchWithPartialUrl() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void matchPathParameterFollowedByLiteral() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/files/report.json");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("9");
+        thenWeExpectThePathParameter("name", "report");
+    }
+
+    @Test
+    public void matchRepeatedCallsWithTheSameStates() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/1234/phones");
+        whenWeCallMatch();
+        givenWeHaveARequest("GET", "/test/api/v1/users/4321/phones");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("6");
+        thenWeExpectThePathParameter("user_id", "4321");
+    }
+
+    @Test
+    public void matchUnsupportedExpressionOperation() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v111/items");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("10");
+    }
+
+    @Test
+    public void matchIntegerPathParameter() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/42");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("11");
+        thenWeExpectThePathParameter("id", 42);
+    }
+
+    @Test
+    public void matchLongPathParameter() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/-9999999999");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("11");
+        thenWeExpectThePathParameter("id", -9999999999L);
+    }
+
+    @Test
+    public void matchUuidPathParameter() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/123e4567-e89b-12d3-a456-426614174000");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("12");
+        thenWeExpectThePathParameter("id", "123e4567-e89b-12d3-a456-426614174000");
+    }
+
+    @Test
+    public void matchPatternPathParameter() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/ABC");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("13");
+        thenWeExpectThePathParameter("code", "ABC");
+    }
+
+    @Test
+    public void matchLiteralSegmentBeforeTypedPathParameter() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/summary");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("14");
+        thenWeExpectNoPathParameters();
+    }
+
+    @Test
+    public void matchUntypedPathParameterWhenTypesDoNotMatch() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/ABCD");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("15");
+        thenWeExpectThePathParameter("name", "ABCD");
+    }
+
+    @Test
+    public void matchCatchAllPathParameter() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/static//css/app.css");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("16");
+        thenWeExpectThePathParameter("rest", "css/app.css");
+    }
+
+    @Test
+    public void matchCatchAllWithoutRemainingSegments() {
+        givenWeHaveAnAutomatonWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/static");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    /*
+     * Testing tokenize
+     */
+    @Test
+    public void tokenizeGeneratedVerifier() {
+        givenWeHaveAnExpression("GET" + ContextEngine.createUrlVerifier("/a/{id}.b"));
+        whenWeCallTokenize();
+        thenWeExpectTheTokens('G', 'E', 'T', -1, 'a', -1, -2, '.', 'b');
+    }
+
+    @Test
+    public void tokenizeAnyCharExpression() {
+        givenWeHaveAnExpression("GET(\\/+a\\/+([^\\/]+).b)");
+        whenWeCallTokenize();
+        thenWeExpectTheTokens('G', 'E', 'T', -1, 'a', -1, -2, -3, 'b');
+    }
+
+    @Test
+    public void tokenizeTypedVerifier() {
+        givenWeHaveAnExpression("GET" + ContextEngine.createUrlVerifier("/a/{id:int}/{rest:**}"));
+        whenWeCallTokenize();
+        thenWeExpectTheTokens('G', 'E', 'T', -1, 'a', -1, -2, -1, -4);
+    }
+
+    @Test
+    public void tokenizeCustomConstraintVerifier() {
+        givenWeHaveAnExpression("GET" + ContextEngine.createUrlVerifier("/a/{id:\\d{3}}"));
+        whenWeCallTokenize();
+        thenWeExpectNoTokens();
+    }
+
+    @Test
+    public void tokenizeUnsupportedExpression() {
+        givenWeHaveAnExpression("GET(\\/+a*\\/+b)");
+        whenWeCallTokenize();
+        thenWeExpectNoTokens();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAnAutomatonWithAllOperations() {
+        this.automaton = RouteAutomaton.build(OPERATIONS);
+    }
+
+    private void givenWeHaveAnExpression(String expression) {
+        this.expression = expression;
+    }
+
+    private void givenWeHaveARequest(String method, String url) {
+        this.method = method;
+        this.url = url;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallMatch() {
+        this.match = this.automaton.match(this.method, this.url);
+    }
+
+    private void whenWeCallTokenize() {
+        this.tokens = RouteAutomaton.tokenize(this.expression);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheOperation(String operationId) {
+        assertTrue(this.match.isPresent());
+        assertEquals(operationId, this.match.get().getOperationId());
+    }
+
+    private void thenWeExpectThePathParameter(String name, Object value) {
+        assertEquals(value, this.match.get().getPathParams().get(name));
+    }
+
+    private void thenWeExpectNoPathParameters() {
+        assertTrue(this.match.get().getPathParams().isEmpty());
+    }
+
+    private void thenWeExpectTheTokens(int... tokens) {
+        assertArrayEquals(tokens, this.tokens);
+    }
+
+    private void thenWeExpectNoTokens() {
+        assertNull(this.tokens);
+    }
+
+    private void thenWeExpectNoMatch() {
+        assertFalse(this.match.isPresent());
+    }
+}
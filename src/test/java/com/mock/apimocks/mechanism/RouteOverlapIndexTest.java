@@ -0,0 +1,133 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.models.vo.MockApi;
+import com.mock.apimocks.models.vo.MockOperation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RouteOverlapIndexTest {
+    private static final MockApi ORDERS_MOCK = MockApi.builder().id("1").basePath("/test").operations(Arrays.asList(
+            MockOperation.builder().id("10").method(HttpMethod.GET).path("/orders/{id}").build(),
+            MockOperation.builder().id("11").method(HttpMethod.GET).path("/orders/{id:\\d+}/items").build(),
+            MockOperation.builder().id("12").method(HttpMethod.GET).path("/orders/summary").build())).build();
+    private static final MockApi USERS_MOCK = MockApi.builder().id("2").basePath("/test").operations(
+            Collections.singletonList(MockOperation.builder().id("20").method(HttpMethod.GET)
+                    .path("/users/{id:uuid}").build())).build();
+
+    private RouteOverlapIndex index;
+    private Optional<RouteOverlapIndex.Route> shadowed;
+    private List<RouteOverlapIndex.Route> overlaps;
+
+    /*
+     * Testing findShadowed
+     */
+    @Test
+    public void findShadowedRouteWithAnotherParamName() {
+        givenWeHaveAnIndexWithAllMocks();
+        whenWeCallFindShadowed("3", "GET", "/test//orders/{orderId}/");
+        thenWeExpectTheShadowedOperation("10");
+    }
+
+    @Test
+    public void findShadowedRouteOfTheSameMock() {
+        givenWeHaveAnIndexWithAllMocks();
+        whenWeCallFindShadowed("1", "GET", "/test/orders/{orderId}");
+        thenWeExpectNoShadowedRoute();
+    }
+
+    @Test
+    public void findShadowedRouteWithAnotherMethod() {
+        givenWeHaveAnIndexWithAllMocks();
+        whenWeCallFindShadowed("3", "POST", "/test/orders/{id}");
+        thenWeExpectNoShadowedRoute();
+    }
+
+    @Test
+    public void findShadowedRouteWithAnotherConstraint() {
+        givenWeHaveAnIndexWithAllMocks();
+        whenWeCallFindShadowed("3", "GET", "/test/orders/{id:int}");
+        thenWeExpectNoShadowedRoute();
+    }
+
+    @Test
+    public void findShadowedRouteOfARemovedMock() {
+        givenWeHaveAnIndexWithAllMocks();
+        givenTheMockWasRemoved("1");
+        whenWeCallFindShadowed("3", "GET", "/test/orders/{id}");
+        thenWeExpectNoShadowedRoute();
+    }
+
+    /*
+     * Testing findOverlaps
+     */
+    @Test
+    public void findOverlapsWithAnotherConstraint() {
+        givenWeHaveAnIndexWithAllMocks();
+        whenWeCallFindOverlaps("3", "GET", "/test/orders/{id:int}/items");
+        thenWeExpectTheOverlappingOperations("11");
+    }
+
+    @Test
+    public void findOverlapsWithDisjointTypes() {
+        givenWeHaveAnIndexWithAllMocks();
+        whenWeCallFindOverlaps("3", "GET", "/test/users/{id:int}");
+        thenWeExpectTheOverlappingOperations();
+    }
+
+    @Test
+    public void findOverlapsWithDifferentPrecedence() {
+        givenWeHaveAnIndexWithAllMocks();
+        whenWeCallFindOverlaps("3", "GET", "/test/orders/{id:int}");
+        thenWeExpectTheOverlappingOperations();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAnIndexWithAllMocks() {
+        this.index = RouteOverlapIndex.build(Arrays.asList(ORDERS_MOCK, USERS_MOCK));
+    }
+
+    private void givenTheMockWasRemoved(String mockId) {
+        this.index.remove(mockId);
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallFindShadowed(String mockId, String method, String fullPath) {
+        this.shadowed = this.index.findShadowed(mockId, method, fullPath);
+    }
+
+    private void whenWeCallFindOverlaps(String mockId, String method, String fullPath) {
+        this.overlaps = this.index.findOverlaps(mockId, method, fullPath);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheShadowedOperation(String operationId) {
+        assertTrue(this.shadowed.isPresent());
+        assertEquals(operationId, this.shadowed.get().getOperationId());
+    }
+
+    private void thenWeExpectNoShadowedRoute() {
+        assertFalse(this.shadowed.isPresent());
+    }
+
+    private void thenWeExpectTheOverlappingOperations(String... operationIds) {
+        assertEquals(Arrays.asList(operationIds), this.overlaps.stream()
+                .map(RouteOverlapIndex.Route::getOperationId).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,324 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RouteTrieTest {
+    private static final List<MockOperation> OPERATIONS = Arrays.asList(
+            MockOperation.builder().id("1").method(HttpMethod.GET).fullPath("/test/api/v1/users").build(),
+            MockOperation.builder().id("2").method(HttpMethod.POST).fullPath("/test/api/v1/users").build(),
+            MockOperation.builder().id("3").method(HttpMethod.GET).fullPath("/test/api/v1/users/{user_id}").build(),
+            MockOperation.builder().id("4").method(HttpMethod.GET).fullPath("/test/api/v1/users/me").build(),
+            MockOperation.builder().id("5").method(HttpMethod.GET)
+                    .fullPath("/test/api/v1/users/{user_id}/addresses/{cep}/city").build(),
+            MockOperation.builder().id("6").method(HttpMethod.GET).fullPath("/test/api/v1/users/{user_id}/phones").build(),
+            MockOperation.builder().id("7").method(HttpMethod.GET).fullPath("/test/api/v1/users/me/addresses").build(),
+            MockOperation.builder().id("8").method(HttpMethod.GET).fullPath("/test/api/v1/users").build(),
+            MockOperation.builder().id("9").method(HttpMethod.GET).fullPath("/test/api/v1/orders/{id:int}").build(),
+            MockOperation.builder().id("10").method(HttpMethod.GET).fullPath("/test/api/v1/orders/{id:uuid}").build(),
+            MockOperation.builder().id("11").method(HttpMethod.GET).fullPath("/test/api/v1/orders/{code:[A-Z]{3}}").build(),
+            MockOperation.builder().id("12").method(HttpMethod.GET).fullPath("/test/api/v1/orders/summary").build(),
+            MockOperation.builder().id("13").method(HttpMethod.GET).fullPath("/test/api/v1/orders/{name}").build(),
+            MockOperation.builder().id("14").method(HttpMethod.GET).fullPath("/test/api/v1/static/{rest:**}").build());
+    private static final List<MockOperation> MIXED_OPERATIONS = Arrays.asList(
+            MockOperation.builder().id("1").method(HttpMethod.GET).fullPath("/test/api/v1/files/{name}").build(),
+            MockOperation.builder().id("2").method(HttpMethod.GET).fullPath("/test/api/v1/files/{name}.json").build(),
+            MockOperation.builder().id("3").method(HttpMethod.GET).fullPath("/test/api/v1/files/index.json").build(),
+            MockOperation.builder().id("4").method(HttpMethod.GET)
+                    .fullPath("/test/api/v1/files/{id:int}-{version:int}.tar.gz").build(),
+            MockOperation.builder().id("5").method(HttpMethod.GET).fullPath("/test/api/v1/files/{name}.json/meta").build(),
+            MockOperation.builder().id("6").method(HttpMethod.GET).fullPath("/test/api/v1/docs/v1.0").build());
+    private static final List<String> MIXED_URLS = Arrays.asList("/test/api/v1/files/report.json",
+            "/test/api/v1/files/report", "/test/api/v1/files/index.json", "/test/api/v1/files/3-7.tar.gz",
+            "/test/api/v1/files/3-7.tarxgz", "/test/api/v1/files/a-7.tar.gz", "/test/api/v1/files/report.json/meta",
+            "/test/api/v1/files/report.jsonx/meta", "/test/api/v1/files/.json", "/test/api/v1/docs/v1.0",
+            "/test/api/v1/docs/v1x0");
+
+    private RouteTrie trie;
+    private String method;
+    private String url;
+    private Optional<RouteMatch> match;
+    private List<RouteMatcher> matchers;
+
+    /*
+     * Testing match
+     */
+    @Test
+    public void matchUrlWithoutPathParameters() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("1");
+        thenWeExpectNoPathParameters();
+    }
+
+    @Test
+    public void matchUrlByMethod() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("POST", "/test/api/v1/users");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("2");
+    }
+
+    @Test
+    public void matchUrlWithPathParameters() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/1234/addresses/13000123/city");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("5");
+        thenWeExpectThePathParameter("user_id", "1234");
+        thenWeExpectThePathParameter("cep", "13000123");
+    }
+
+    @Test
+    public void matchUnformattedUrl() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "//test///api/v1/users/1234//");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("3");
+        thenWeExpectThePathParameter("user_id", "1234");
+    }
+
+    @Test
+    public void matchLiteralSegmentBeforePathParameter() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/me");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("4");
+        thenWeExpectNoPathParameters();
+    }
+
+    @Test
+    public void matchPathParameterWhenLiteralBranchFails() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/me/phones");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("6");
+        thenWeExpectThePathParameter("user_id", "me");
+    }
+
+    @Test
+    public void matchKeepsTheFirstDuplicatedOperation() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/users/");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("1");
+    }
+
+    @Test
+    public void matchWithUnknownMethod() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("DELETE", "/test/api/v1/users");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void matchWithUnknownUrl() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/customers");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void matchWithPartialUrl() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void matchIntegerPathParameter() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/42");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("9");
+        thenWeExpectThePathParameter("id", 42);
+    }
+
+    @Test
+    public void matchLongPathParameter() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/-9999999999");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("9");
+        thenWeExpectThePathParameter("id", -9999999999L);
+    }
+
+    @Test
+    public void matchUuidPathParameter() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/123e4567-e89b-12d3-a456-426614174000");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("10");
+        thenWeExpectThePathParameter("id", "123e4567-e89b-12d3-a456-426614174000");
+    }
+
+    @Test
+    public void matchPatternPathParameter() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/ABC");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("11");
+        thenWeExpectThePathParameter("code", "ABC");
+    }
+
+    @Test
+    public void matchLiteralSegmentBeforeTypedPathParameter() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/summary");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("12");
+        thenWeExpectNoPathParameters();
+    }
+
+    @Test
+    public void matchUntypedPathParameterWhenTypesDoNotMatch() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/orders/ABCD");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("13");
+        thenWeExpectThePathParameter("name", "ABCD");
+    }
+
+    @Test
+    public void matchCatchAllPathParameter() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/static//css/app.css");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("14");
+        thenWeExpectThePathParameter("rest", "css/app.css");
+    }
+
+    @Test
+    public void matchCatchAllWithoutRemainingSegments() {
+        givenWeHaveATrieWithAllOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/static");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void matchMixedSegment() {
+        givenWeHaveATrieWithTheMixedOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/files/report.json");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("2");
+        thenWeExpectThePathParameter("name", "report");
+    }
+
+    @Test
+    public void matchMixedSegmentWithTypedPathParameters() {
+        givenWeHaveATrieWithTheMixedOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/files/3-7.tar.gz");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("4");
+        thenWeExpectThePathParameter("id", 3);
+        thenWeExpectThePathParameter("version", 7);
+    }
+
+    @Test
+    public void matchLiteralSegmentBeforeMixedSegment() {
+        givenWeHaveATrieWithTheMixedOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/files/index.json");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("3");
+        thenWeExpectNoPathParameters();
+    }
+
+    @Test
+    public void matchPathParameterWhenMixedSegmentDoesNotMatch() {
+        givenWeHaveATrieWithTheMixedOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/files/a-7.tar.gz");
+        whenWeCallMatch();
+        thenWeExpectTheOperation("1");
+        thenWeExpectThePathParameter("name", "a-7.tar.gz");
+    }
+
+    @Test
+    public void matchDotAsLiteralText() {
+        givenWeHaveATrieWithTheMixedOperations();
+        givenWeHaveARequest("GET", "/test/api/v1/docs/v1x0");
+        whenWeCallMatch();
+        thenWeExpectNoMatch();
+    }
+
+    @Test
+    public void matchMixedSegmentsLikeEveryOtherMatcher() {
+        givenWeHaveEveryMatcherWithTheMixedOperations();
+        for (String url : MIXED_URLS) {
+            givenWeHaveARequest("GET", url);
+            whenWeCallMatch();
+            thenWeExpectTheSameMatchOnEveryMatcher();
+        }
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveATrieWithAllOperations() {
+        this.trie = RouteTrie.build(OPERATIONS);
+    }
+
+    private void givenWeHaveATrieWithTheMixedOperations() {
+        this.trie = RouteTrie.build(MIXED_OPERATIONS);
+    }
+
+    private void givenWeHaveEveryMatcherWithTheMixedOperations() {
+        givenWeHaveATrieWithTheMixedOperations();
+        this.matchers = Arrays.asList(RouteAutomaton.build(MIXED_OPERATIONS),
+                RegexRouteMatcher.build(MIXED_OPERATIONS));
+    }
+
+    private void givenWeHaveARequest(String method, String url) {
+        this.method = method;
+        this.url = url;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallMatch() {
+        this.match = this.trie.match(this.method, this.url);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheOperation(String operationId) {
+        assertTrue(this.match.isPresent());
+        assertEquals(operationId, this.match.get().getOperationId());
+    }
+
+    private void thenWeExpectThePathParameter(String name, Object value) {
+        assertEquals(value, this.match.get().getPathParams().get(name));
+    }
+
+    private void thenWeExpectNoPathParameters() {
+        assertTrue(this.match.get().getPathParams().isEmpty());
+    }
+
+    private void thenWeExpectTheSameMatchOnEveryMatcher() {
+        for (RouteMatcher matcher : this.matchers) {
+            assertEquals(matcher.getClass().getSimpleName() + " " + this.url, matcher.match(this.method, this.url),
+                    this.match);
+        }
+    }
+
+    private void thenWeExpectNoMatch() {
+        assertFalse(this.match.isPresent());
+    }
+}
@@ -0,0 +1,423 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.ConditionEngine;
+import com.mock.apimocks.enums.ConditionEvaluation;
+import com.mock.apimocks.models.CallContext;
+import com.mock.apimocks.models.vo.MockScenario;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScenarioIndexTest {
+    private static final ScriptEnginePool ENGINE_POOL = new ScriptEnginePool(ConditionEngine.NASHORN, 2, 5_000L);
+
+    private ScenarioIndex index;
+    private CallContext context;
+    private Optional<MockScenario> scenario;
+    private ConditionWatchdog watchdog = new ConditionWatchdog(2, 1_000L, 3_000L);
+    private ConditionMemoization memoization = new ConditionMemoization(1_024);
+    private ConditionEvaluation evaluation = ConditionEvaluation.OPERATION;
+
+    @After
+    public void tearDown() {
+        this.watchdog.shutdown();
+    }
+
+    /*
+     * Testing select
+     */
+    @Test
+    public void selectIndexedScenario() {
+        givenWeHaveAnIndexWithOneScenarioPerCustomer(300);
+        givenWeHaveAPathParam("cpf", "00000000150");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("customer 150");
+    }
+
+    @Test
+    public void selectWithoutAnyFulfilledScenario() {
+        givenWeHaveAnIndexWithOneScenarioPerCustomer(300);
+        givenWeHaveAPathParam("cpf", "99999999999");
+        whenWeCallSelect();
+        thenWeExpectNoScenario();
+    }
+
+    @Test
+    public void selectNonIndexedScenarioWithLowerOrder() {
+        givenWeHaveAnIndex(
+                scenario("indexed", 2, "$path.cpf == '123'"),
+                scenario("sequential", 1, "$path.cpf.length == 3"),
+                scenario("default", 3, null));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("sequential");
+    }
+
+    @Test
+    public void selectIndexedScenarioWithLowerOrder() {
+        givenWeHaveAnIndex(
+                scenario("sequential", 3, "$path.cpf.length == 3"),
+                scenario("second", 2, "$path['cpf'] === '123'"),
+                scenario("first", 1, "'123' == $path.cpf"),
+                scenario("other property", 0, "$query.cpf == '123'"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("first");
+    }
+
+    @Test
+    public void selectWithLooseEquality() {
+        givenWeHaveAnIndex(
+                scenario("strict", 1, "$path.id === '3'"),
+                scenario("padded", 2, "$path.id == '3.0'"),
+                scenario("loose", 3, "$path.id == '03'"));
+        givenWeHaveAPathParam("id", 3);
+        whenWeCallSelect();
+        thenWeExpectTheScenario("padded");
+    }
+
+    @Test
+    public void selectWithUnreadableProperty() {
+        givenWeHaveAnIndex(
+                scenario("indexed", 1, "$body.type == 'PF'"),
+                scenario("sequential", 2, "$body == null"));
+        givenWeHaveAPathParam("id", 3);
+        whenWeCallSelect();
+        thenWeExpectTheScenario("sequential");
+    }
+
+    @Test
+    public void selectScriptedScenarioBeforeNativeScenario() {
+        givenWeHaveAnIndex(
+                scenario("native", 3, "$path.cpf == '123'"),
+                scenario("scripted miss", 1, "$path.cpf.length == 4"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+    }
+
+    @Test
+    public void selectNativeScenarioBeforeScriptedScenario() {
+        givenWeHaveAnIndex(
+                scenario("scripted", 2, "$path.cpf.length == 3"),
+                scenario("native", 1, "$path.cpf == '123'"),
+                scenario("other scripted", 3, "$path.cpf.charAt(0) == '1'"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("native");
+    }
+
+    @Test
+    public void selectWithFailingScriptedCondition() {
+        givenWeHaveAnIndex(
+                scenario("failing", 1, "$body.type.length == 2"),
+                scenario("not a boolean", 2, "$path.cpf.length"),
+                scenario("scripted", 3, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+    }
+
+    @Test
+    public void selectWithStatementCondition() {
+        givenWeHaveAnIndex(
+                scenario("statements", 1, "var size = $path.cpf.length; size == 4"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+    }
+
+    @Test
+    public void selectWithScenarioEvaluation() {
+        givenWeEvaluateConditionsPer(ConditionEvaluation.SCENARIO);
+        givenWeHaveAnIndex(
+                scenario("scripted miss", 1, "$path.cpf.length == 4"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+    }
+
+    @Test
+    public void selectAfterRunawayScriptedCondition() {
+        givenWeHaveAWatchdog(100, 1000);
+        givenWeHaveAnIndex(
+                scenario("runaway", 1, "(function () { while (true) {} })()"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        thenWeExpectTheTimeouts(1);
+    }
+
+    @Test
+    public void selectAfterRunawayConditionWithScenarioEvaluation() {
+        givenWeEvaluateConditionsPer(ConditionEvaluation.SCENARIO);
+        givenWeHaveAWatchdog(100, 1000);
+        givenWeHaveAnIndex(
+                scenario("runaway", 1, "for (;;) {}"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        thenWeExpectTheTimeouts(1);
+    }
+
+    @Test
+    public void selectWithExhaustedRequestBudget() {
+        givenWeHaveAWatchdog(100, 150);
+        givenWeHaveAnIndex(
+                scenario("runaway", 1, "(function () { while (true) {} })()"),
+                scenario("another runaway", 2, "(function () { do {} while (true); })()"),
+                scenario("scripted", 3, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectNoScenario();
+        thenWeExpectTheTimeouts(2);
+    }
+
+    @Test
+    public void selectMemoizedScenario() {
+        givenWeHaveAMemoization(16);
+        givenWeHaveAnIndex(
+                scenario("scripted miss", 1, "$path.cpf.length == 4"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        thenWeExpectTheMemoLookups(2, 2);
+    }
+
+    @Test
+    public void selectMemoizedScenarioWithOtherInputs() {
+        givenWeHaveAMemoization(16);
+        givenWeHaveAnIndex(
+                scenario("scripted miss", 1, "$path.cpf.length == 4"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        givenWeHaveAPathParam("cpf", "1234");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted miss");
+        thenWeExpectTheMemoLookups(0, 4);
+    }
+
+    @Test
+    public void selectMemoizedScenarioWithScenarioEvaluation() {
+        givenWeEvaluateConditionsPer(ConditionEvaluation.SCENARIO);
+        givenWeHaveAMemoization(16);
+        givenWeHaveAnIndex(
+                scenario("scripted miss", 1, "$path.cpf.length == 4"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        thenWeExpectTheMemoLookups(2, 2);
+    }
+
+    @Test
+    public void selectNonDeterministicScenario() {
+        givenWeHaveAMemoization(16);
+        givenWeHaveAnIndex(
+                nonDeterministic(scenario("scripted miss", 1, "$path.cpf.length == 4")),
+                scenario("random", 2, "Math.random() >= 0 && $path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        whenWeCallSelect();
+        thenWeExpectTheScenario("random");
+        thenWeExpectTheMemoLookups(0, 0);
+    }
+
+    @Test
+    public void selectDynamicScopeScenarioWithOtherInputs() {
+        givenWeHaveAMemoization(16);
+        givenWeHaveAnIndex(
+                scenario("scripted miss", 1, "this.$path.cpf.length == 4"),
+                scenario("scripted", 2, "this['$pa' + 'th'].cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        givenWeHaveAPathParam("cpf", "1234");
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted miss");
+        thenWeExpectTheMemoLookups(0, 0);
+    }
+
+    @Test
+    public void selectScenarioReadingAWholeListIsNotMemoized() {
+        givenWeHaveAMemoization(16);
+        givenWeHaveAnIndex(
+                scenario("scripted miss", 1, "$path.items.size() == 3"),
+                scenario("scripted", 2, "$path.items.size() == 2"));
+        givenWeHaveAPathParam("items", Arrays.asList("a", "b"));
+        whenWeCallSelect();
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        thenWeExpectTheMemoLookups(0, 0);
+    }
+
+    @Test
+    public void selectScenarioReadingALongTextIsNotMemoized() {
+        givenWeHaveAMemoization(16);
+        givenWeHaveAnIndex(
+                scenario("scripted miss", 1, "$path.cpf.length == 3"),
+                scenario("scripted", 2, "$path.cpf.length > 3"));
+        givenWeHaveAPathParam("cpf", String.join("", Collections.nCopies(ConditionMemo.MAX_TEXT_LENGTH + 1, "1")));
+        whenWeCallSelect();
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        thenWeExpectTheMemoLookups(0, 0);
+    }
+
+    @Test
+    public void selectWithDisabledMemoization() {
+        givenWeHaveAMemoization(0);
+        givenWeHaveAnIndex(
+                scenario("scripted miss", 1, "$path.cpf.length == 4"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        thenWeExpectTheMemoLookups(0, 0);
+    }
+
+    @Test
+    public void selectAfterRunawayConditionIsNotMemoized() {
+        givenWeHaveAMemoization(16);
+        givenWeHaveAWatchdog(100, 1000);
+        givenWeHaveAnIndex(
+                scenario("runaway", 1, "(function () { while ($path.cpf) {} })()"),
+                scenario("scripted", 2, "$path.cpf.length == 3"));
+        givenWeHaveAPathParam("cpf", "123");
+        whenWeCallSelect();
+        whenWeCallSelect();
+        thenWeExpectTheScenario("scripted");
+        thenWeExpectTheTimeouts(2);
+    }
+
+    /*
+     * Testing getDefaultScenario
+     */
+    @Test
+    public void getDefaultScenario() {
+        givenWeHaveAnIndex(
+                scenario("conditional", 2, "$path.cpf == '123'"),
+                scenario("default", 1, null));
+        thenWeExpectTheDefaultScenario("default");
+    }
+
+    @Test
+    public void getDefaultScenarioWithoutDefault() {
+        givenWeHaveAnIndex(scenario("conditional", 1, "$path.cpf == '123'"));
+        thenWeExpectTheDefaultScenario(null);
+    }
+
+    /*
+     * Testing getScenarios
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void getScenariosIsUnmodifiable() {
+        givenWeHaveAnIndex(scenario("default", 1, null));
+        this.index.getScenarios().set(0, scenario("other", 2, null));
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAWatchdog(long scenarioBudget, long requestBudget) {
+        this.watchdog.shutdown();
+        this.watchdog = new ConditionWatchdog(2, scenarioBudget, requestBudget);
+    }
+
+    private void givenWeHaveAMemoization(int maxSize) {
+        this.memoization = new ConditionMemoization(maxSize);
+    }
+
+    private void givenWeEvaluateConditionsPer(ConditionEvaluation evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    private void givenWeHaveAnIndexWithOneScenarioPerCustomer(int customers) {
+        List<MockScenario> scenarios = new ArrayList<>();
+        for (int i = customers; i > 0; i--) {
+            scenarios.add(scenario("customer " + i, i, String.format("$path.cpf == '%011d'", i)));
+        }
+        scenarios.add(scenario("default", customers + 1, null));
+        this.index = ScenarioIndex.build(scenarios, evaluator());
+    }
+
+    private void givenWeHaveAnIndex(MockScenario... scenarios) {
+        this.index = ScenarioIndex.build(Arrays.asList(scenarios), evaluator());
+    }
+
+    private void givenWeHaveAPathParam(String name, Object value) {
+        Map<String, Object> pathParams = new HashMap<>();
+        pathParams.put(name, value);
+        this.context = CallContext.builder().headers(Collections.emptyMap()).queryParams(Collections.emptyMap())
+                .pathParams(pathParams).build();
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallSelect() {
+        this.scenario = this.index.select(this.context);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheScenario(String name) {
+        assertTrue(this.scenario.isPresent());
+        assertEquals(name, this.scenario.get().getName());
+    }
+
+    private void thenWeExpectTheDefaultScenario(String name) {
+        MockScenario defaultScenario = this.index.getDefaultScenario();
+        assertEquals(name, defaultScenario != null ? defaultScenario.getName() : null);
+    }
+
+    private void thenWeExpectTheTimeouts(long timeouts) {
+        assertEquals(timeouts, this.watchdog.getTimeouts());
+    }
+
+    private void thenWeExpectTheMemoLookups(long hits, long misses) {
+        assertEquals(hits, this.memoization.getHits());
+        assertEquals(misses, this.memoization.getMisses());
+    }
+
+    private void thenWeExpectNoScenario() {
+        assertFalse(this.scenario.isPresent());
+    }
+
+    private ConditionEvaluator evaluator() {
+        return new ConditionEvaluator(ENGINE_POOL, this.watchdog, this.evaluation, this.memoization);
+    }
+
+    private static MockScenario scenario(String name, int order, String conditions) {
+        return MockScenario.builder().name(name).order(order).conditions(conditions).isDefault(conditions == null)
+                .build();
+    }
+
+    private static MockScenario nonDeterministic(MockScenario scenario) {
+        scenario.setNonDeterministic(true);
+        return scenario;
+    }
+}
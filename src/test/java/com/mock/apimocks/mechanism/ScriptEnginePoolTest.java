@@ -0,0 +1,109 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.ConditionEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScriptEnginePoolTest {
+    private ScriptEnginePool pool;
+    private ConditionScriptEngine engine;
+    private ConditionScriptEngine anotherEngine;
+    private MeterRegistry registry;
+
+    /*
+     * Testing borrow
+     */
+    @Test
+    public void borrowReleasedEngine() throws InterruptedException {
+        givenWeHaveAPoolWithSize(2);
+        whenWeBorrowAnEngine();
+        whenWeReleaseTheEngine();
+        whenWeBorrowAnotherEngine();
+        thenWeExpectTheSameEngine();
+        thenWeExpectTheCreatedEngines(1);
+    }
+
+    @Test
+    public void borrowWhileOtherEnginesAreActive() throws InterruptedException {
+        givenWeHaveAPoolWithSize(2);
+        whenWeBorrowAnEngine();
+        whenWeBorrowAnotherEngine();
+        thenWeExpectDifferentEngines();
+        thenWeExpectTheCreatedEngines(2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void borrowFromAFullPool() throws InterruptedException {
+        givenWeHaveAPoolWithSize(1);
+        whenWeBorrowAnEngine();
+        whenWeBorrowAnotherEngine();
+    }
+
+    /*
+     * Testing bindTo
+     */
+    @Test
+    public void bindMetrics() throws InterruptedException {
+        givenWeHaveAPoolWithSize(2);
+        givenThePoolIsBoundToARegistry();
+        whenWeBorrowAnEngine();
+        thenWeExpectTheGauge("mocks.conditions.engines.active", 1);
+        thenWeExpectTheGauge("mocks.conditions.engines.idle", 0);
+        whenWeReleaseTheEngine();
+        thenWeExpectTheGauge("mocks.conditions.engines.active", 0);
+        thenWeExpectTheGauge("mocks.conditions.engines.idle", 1);
+        thenWeExpectTheGauge("mocks.conditions.engines.max", 2);
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAPoolWithSize(int size) {
+        this.pool = new ScriptEnginePool(ConditionEngine.NASHORN, size, 10);
+    }
+
+    private void givenThePoolIsBoundToARegistry() {
+        this.registry = new SimpleMeterRegistry();
+        this.pool.bindTo(this.registry);
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeBorrowAnEngine() throws InterruptedException {
+        this.engine = this.pool.borrow();
+    }
+
+    private void whenWeBorrowAnotherEngine() throws InterruptedException {
+        this.anotherEngine = this.pool.borrow();
+    }
+
+    private void whenWeReleaseTheEngine() {
+        this.pool.release(this.engine);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheSameEngine() {
+        assertSame(this.engine, this.anotherEngine);
+    }
+
+    private void thenWeExpectDifferentEngines() {
+        assertNotSame(this.engine, this.anotherEngine);
+    }
+
+    private void thenWeExpectTheCreatedEngines(int created) {
+        assertEquals(created, this.pool.getCreated());
+    }
+
+    private void thenWeExpectTheGauge(String name, double value) {
+        assertEquals(value, this.registry.get(name).gauge().value(), 0);
+    }
+}
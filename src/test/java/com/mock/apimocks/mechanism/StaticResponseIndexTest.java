@@ -0,0 +1,155 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.enums.ContentType;
+import com.mock.apimocks.models.vo.MockOperation;
+import com.mock.apimocks.models.vo.MockScenario;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StaticResponseIndexTest {
+    private static final MockScenario DEFAULT_SCENARIO = MockScenario.builder()
+            .isDefault(true).order(1).httpCode(200).contentType(ContentType.JSON).body("{\"status\": \"UP\"}")
+            .headers(Collections.singletonMap("server", "mocks")).build();
+    private static final MockScenario OTHER_DEFAULT_SCENARIO = MockScenario.builder()
+            .isDefault(true).order(1).httpCode(204).build();
+    private static final MockScenario CONDITIONAL_DEFAULT_SCENARIO = MockScenario.builder()
+            .isDefault(true).order(1).httpCode(200).conditions("$header.a == 'b'").build();
+    private static final MockScenario CONDITIONAL_SCENARIO = MockScenario.builder()
+            .isDefault(false).order(2).httpCode(400).conditions("$header.a == 'b'").build();
+
+    private static final MockOperation STATIC_OPERATION = staticOperation("1", "/test/health", DEFAULT_SCENARIO);
+    private static final MockOperation DUPLICATED_STATIC_OPERATION =
+            staticOperation("2", "/test/health", OTHER_DEFAULT_SCENARIO);
+    private static final MockOperation DYNAMIC_OPERATION = MockOperation.builder()
+            .id("3").method(HttpMethod.GET).fullPath("/test/status")
+            .scenarios(Arrays.asList(DEFAULT_SCENARIO, CONDITIONAL_SCENARIO)).build();
+    private static final List<MockOperation> OPERATIONS =
+            Arrays.asList(STATIC_OPERATION, DUPLICATED_STATIC_OPERATION, DYNAMIC_OPERATION);
+
+    private MockOperation operation;
+    private boolean isStatic;
+    private StaticResponseIndex index;
+    private Optional<ResponseEntity<String>> response;
+
+    /*
+     * Testing isStatic
+     */
+    @Test
+    public void isStaticWithSingleDefaultScenario() {
+        givenWeHaveAnOperation("/test/health", DEFAULT_SCENARIO);
+        whenWeCallIsStatic();
+        thenWeExpectTheOperationToBeStatic(true);
+    }
+
+    @Test
+    public void isStaticWithPathParameters() {
+        givenWeHaveAnOperation("/test/health/{id}", DEFAULT_SCENARIO);
+        whenWeCallIsStatic();
+        thenWeExpectTheOperationToBeStatic(false);
+    }
+
+    @Test
+    public void isStaticWithConditionalDefaultScenario() {
+        givenWeHaveAnOperation("/test/health", CONDITIONAL_DEFAULT_SCENARIO);
+        whenWeCallIsStatic();
+        thenWeExpectTheOperationToBeStatic(false);
+    }
+
+    @Test
+    public void isStaticWithManyScenarios() {
+        givenWeHaveAnOperation("/test/health", DEFAULT_SCENARIO, CONDITIONAL_SCENARIO);
+        whenWeCallIsStatic();
+        thenWeExpectTheOperationToBeStatic(false);
+    }
+
+    /*
+     * Testing get
+     */
+    @Test
+    public void getStaticResponse() {
+        givenWeHaveAnIndexWithAllOperations();
+        whenWeCallGet("GET", "/test/health");
+        thenWeExpectTheStaticResponse();
+    }
+
+    @Test
+    public void getStaticResponseWithUnformattedUrl() {
+        givenWeHaveAnIndexWithAllOperations();
+        whenWeCallGet("GET", "//test/health/");
+        thenWeExpectTheStaticResponse();
+    }
+
+    @Test
+    public void getDynamicOperationResponse() {
+        givenWeHaveAnIndexWithAllOperations();
+        whenWeCallGet("GET", "/test/status");
+        thenWeExpectNoResponse();
+    }
+
+    @Test
+    public void getResponseWithUnknownMethod() {
+        givenWeHaveAnIndexWithAllOperations();
+        whenWeCallGet("POST", "/test/health");
+        thenWeExpectNoResponse();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAnOperation(String fullPath, MockScenario... scenarios) {
+        this.operation = MockOperation.builder().method(HttpMethod.GET).fullPath(fullPath)
+                .scenarios(Arrays.asList(scenarios)).build();
+    }
+
+    private void givenWeHaveAnIndexWithAllOperations() {
+        this.index = StaticResponseIndex.build(OPERATIONS);
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallIsStatic() {
+        this.isStatic = StaticResponseIndex.isStatic(this.operation);
+    }
+
+    private void whenWeCallGet(String method, String url) {
+        this.response = this.index.get(method, url);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheOperationToBeStatic(boolean isStatic) {
+        assertEquals(isStatic, this.isStatic);
+    }
+
+    private void thenWeExpectTheStaticResponse() {
+        assertTrue(this.response.isPresent());
+        assertEquals(200, this.response.get().getStatusCodeValue());
+        assertEquals("{\"status\": \"UP\"}", this.response.get().getBody());
+        assertEquals("mocks", this.response.get().getHeaders().getFirst("server"));
+        assertEquals(ContentType.JSON.mime(), this.response.get().getHeaders().getFirst("Content-Type"));
+    }
+
+    private void thenWeExpectNoResponse() {
+        assertFalse(this.response.isPresent());
+    }
+
+    private static MockOperation staticOperation(String id, String fullPath, MockScenario scenario) {
+        MockOperation operation = MockOperation.builder().id(id).method(HttpMethod.GET).fullPath(fullPath)
+                .scenarios(Collections.singletonList(scenario)).build();
+        operation.setStaticResponse(StaticResponseIndex.isStatic(operation));
+        return operation;
+    }
+}
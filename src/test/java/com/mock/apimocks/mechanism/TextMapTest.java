@@ -0,0 +1,93 @@
+package com.mock.apimocks.mechanism;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TextMapTest {
+    private TextMap<Integer> map;
+    private Integer value;
+
+    /*
+     * Testing get
+     */
+    @Test
+    public void getByString() {
+        givenTheKeys(100);
+        whenWeCallGet("key-42");
+        thenWeExpectTheValue(42);
+    }
+
+    @Test
+    public void getBySegment() {
+        givenTheKeys(100);
+        whenWeCallGet(UrlNormalizer.normalize("/api/key-7/items").segment(1));
+        thenWeExpectTheValue(7);
+    }
+
+    @Test
+    public void getByNormalizedUrl() {
+        givenTheKeys(0);
+        givenTheKey("/api/items", 1);
+        whenWeCallGet(UrlNormalizer.normalize("//api//items/?a=1"));
+        thenWeExpectTheValue(1);
+    }
+
+    @Test
+    public void getCollidingKeys() {
+        givenTheKeys(0);
+        givenTheKey("Aa", 1);
+        givenTheKey("BB", 2);
+        whenWeCallGet(new StringBuilder("BB"));
+        thenWeExpectTheValue(2);
+    }
+
+    @Test
+    public void getMissingKey() {
+        givenTheKeys(100);
+        whenWeCallGet("key-100");
+        thenWeExpectTheValue(null);
+    }
+
+    /*
+     * Testing putIfAbsent
+     */
+    @Test
+    public void putIfAbsentKeepsTheFirstValue() {
+        givenTheKeys(10);
+        givenTheKey("key-3", 30);
+        whenWeCallGet("key-3");
+        thenWeExpectTheValue(3);
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheKeys(int count) {
+        this.map = new TextMap<>();
+        for (int i = 0; i < count; i++) {
+            this.map.computeIfAbsent("key-" + i, k -> Integer.valueOf(k.substring(4)));
+        }
+    }
+
+    private void givenTheKey(String key, Integer value) {
+        this.map.putIfAbsent(key, value);
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallGet(CharSequence text) {
+        this.value = this.map.get(text);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheValue(Integer expected) {
+        assertEquals(expected, this.value);
+    }
+}
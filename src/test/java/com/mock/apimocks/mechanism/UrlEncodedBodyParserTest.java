@@ -0,0 +1,186 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.exception.BadRequestException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UrlEncodedBodyParserTest {
+    private String body;
+    private Charset charset;
+    private Map<String, Object> parsed;
+    private Object inferred;
+
+    /*
+     * Testing parse
+     */
+    @Test
+    public void parseSimpleValues() {
+        givenTheBody("name=john&age=31&married=TRUE&empty=&flag&balance=-10.5");
+        whenWeCallParse();
+        thenWeExpectTheValue("name", "john");
+        thenWeExpectTheValue("age", 31);
+        thenWeExpectTheValue("married", true);
+        thenWeExpectTheValue("empty", "");
+        thenWeExpectTheValue("flag", "");
+        thenWeExpectTheValue("balance", -10.5);
+        thenWeExpectTheSize(6);
+    }
+
+    @Test
+    public void parseEscapedValues() {
+        givenTheBody("full+name=Jo%C3%A3o+da+Silva&email=john%40mail.com&query=a%3Db%26c%3Dd&percent=100%25");
+        whenWeCallParse();
+        thenWeExpectTheValue("full name", "João da Silva");
+        thenWeExpectTheValue("email", "john@mail.com");
+        thenWeExpectTheValue("query", "a=b&c=d");
+        thenWeExpectTheValue("percent", "100%");
+    }
+
+    @Test
+    public void parseEscapedValuesWithCharset() {
+        givenTheBody("name=Jo%E3o");
+        givenTheCharset(StandardCharsets.ISO_8859_1);
+        whenWeCallParse();
+        thenWeExpectTheValue("name", "João");
+    }
+
+    @Test
+    public void parseRepeatedNames() {
+        givenTheBody("item=1&other=a&item=two&item=3");
+        whenWeCallParse();
+        thenWeExpectTheValue("item", Arrays.asList(1, "two", 3));
+        thenWeExpectTheValue("other", "a");
+    }
+
+    @Test
+    public void parseValuesWithSeparators() {
+        givenTheBody("&&expression=a=b&&");
+        whenWeCallParse();
+        thenWeExpectTheParsedBody(Collections.singletonMap("expression", "a=b"));
+    }
+
+    @Test
+    public void parseEscapedNumbers() {
+        givenTheBody("value=%2D42");
+        whenWeCallParse();
+        thenWeExpectTheValue("value", -42);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseBodyWithoutValues() {
+        givenTheBody("just some text");
+        whenWeCallParse();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseTruncatedEscape() {
+        givenTheBody("name=john%4");
+        whenWeCallParse();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseInvalidEscape() {
+        givenTheBody("name=john%zz&age=31");
+        whenWeCallParse();
+    }
+
+    /*
+     * Testing infer
+     */
+    @Test
+    public void inferInteger() {
+        whenWeCallInfer("-2147483648");
+        thenWeExpectTheInferredValue(Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void inferLong() {
+        whenWeCallInfer("2147483648");
+        thenWeExpectTheInferredValue(2147483648L);
+    }
+
+    @Test
+    public void inferLargestLong() {
+        whenWeCallInfer("-9223372036854775808");
+        thenWeExpectTheInferredValue(Long.MIN_VALUE);
+    }
+
+    @Test
+    public void inferTooLargeNumber() {
+        whenWeCallInfer("92233720368547758070");
+        thenWeExpectTheInferredValue("92233720368547758070");
+    }
+
+    @Test
+    public void inferDouble() {
+        whenWeCallInfer("10.45");
+        thenWeExpectTheInferredValue(10.45);
+    }
+
+    @Test
+    public void inferBoolean() {
+        whenWeCallInfer("False");
+        thenWeExpectTheInferredValue(false);
+    }
+
+    @Test
+    public void inferText() {
+        for (String text : Arrays.asList("", "-", "1.", ".5", "-.5", "1.2.3", "1e3", "111.222.333-44", "12a", "yes")) {
+            whenWeCallInfer(text);
+            thenWeExpectTheInferredValue(text);
+        }
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheBody(String body) {
+        this.body = body;
+        this.charset = StandardCharsets.UTF_8;
+    }
+
+    private void givenTheCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallParse() {
+        this.parsed = UrlEncodedBodyParser.parse(this.body, this.charset);
+    }
+
+    private void whenWeCallInfer(String value) {
+        this.inferred = UrlEncodedBodyParser.infer(value);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheValue(String name, Object expected) {
+        assertEquals(expected, this.parsed.get(name));
+    }
+
+    private void thenWeExpectTheSize(int expected) {
+        assertEquals(expected, this.parsed.size());
+    }
+
+    private void thenWeExpectTheParsedBody(Map<String, Object> expected) {
+        assertEquals(new HashMap<>(expected), this.parsed);
+    }
+
+    private void thenWeExpectTheInferredValue(Object expected) {
+        assertEquals(expected, this.inferred);
+    }
+}
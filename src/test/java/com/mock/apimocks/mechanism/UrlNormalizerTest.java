@@ -0,0 +1,196 @@
+package com.mock.apimocks.mechanism;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UrlNormalizerTest {
+    private static final List<String> LEGACY_URLS = Arrays.asList(
+            "", "/", "//", "/test", "test", "/test/", "//test//api///v1//", "/test?a=1", "/test/?a=1//b",
+            "/test//?a=1", "?a=1", "/test/{id}/b/", "test/api?", "/a/./b/../c");
+
+    private String url;
+    private boolean decode;
+    private boolean resolveDots;
+    private NormalizedUrl normalized;
+
+    /*
+     * Testing normalize
+     */
+    @Test
+    public void normalizeKeepsTheLegacySanitizeBehaviour() {
+        for (String legacyUrl : LEGACY_URLS) {
+            givenWeHaveAUrl(legacyUrl);
+            whenWeCallNormalize();
+            thenWeExpectTheUrl(legacySanitize(legacyUrl));
+        }
+    }
+
+    @Test
+    public void normalizeCleanUrlWithoutCopying() {
+        givenWeHaveAUrl("/test/api/v1");
+        whenWeCallNormalize();
+        thenWeExpectTheSameInstance();
+        thenWeExpectTheSegments("test", "api", "v1");
+    }
+
+    @Test
+    public void normalizeUnformattedUrl() {
+        givenWeHaveAUrl("//test///api/v1//?a=1");
+        whenWeCallNormalize();
+        thenWeExpectTheUrl("/test/api/v1");
+        thenWeExpectTheSegments("test", "api", "v1");
+    }
+
+    @Test
+    public void normalizeUrlWithoutLeadingSlash() {
+        givenWeHaveAUrl("test//api");
+        whenWeCallNormalize();
+        thenWeExpectTheUrl("test/api");
+        thenWeExpectTheSegments("test", "api");
+    }
+
+    @Test
+    public void normalizeEmptyUrl() {
+        givenWeHaveAUrl("/");
+        whenWeCallNormalize();
+        thenWeExpectTheUrl("");
+        thenWeExpectTheSegments();
+    }
+
+    @Test
+    public void normalizeWithPercentDecoding() {
+        givenWeHaveAUrl("/test/caf%C3%A9/a%20b/a%2Fb");
+        givenDecodingIsEnabled();
+        whenWeCallNormalize();
+        thenWeExpectTheSegments("test", "café", "a b", "a/b");
+    }
+
+    @Test
+    public void normalizeWithInvalidPercentEncoding() {
+        givenWeHaveAUrl("/test/100%/%zz/%C3");
+        givenDecodingIsEnabled();
+        whenWeCallNormalize();
+        thenWeExpectTheSegments("test", "100%", "%zz", "%C3");
+    }
+
+    @Test
+    public void normalizeWithDotSegments() {
+        givenWeHaveAUrl("/test/./api/v1/../v2/");
+        givenDotResolutionIsEnabled();
+        whenWeCallNormalize();
+        thenWeExpectTheUrl("/test/api/v2");
+        thenWeExpectTheSegments("test", "api", "v2");
+    }
+
+    @Test
+    public void normalizeWithDotSegmentsAboveTheRoot() {
+        givenWeHaveAUrl("/../../test");
+        givenDotResolutionIsEnabled();
+        whenWeCallNormalize();
+        thenWeExpectTheUrl("/test");
+    }
+
+    @Test
+    public void normalizeSegmentsAsMapKeys() {
+        givenWeHaveAUrl("//test/api?a=1");
+        whenWeCallNormalize();
+        thenWeExpectTheSegmentToBeFoundOnAMap(1, "api");
+        thenWeExpectTheUrlToBeFoundOnAMap("/test/api");
+    }
+
+    @Test
+    public void normalizeWithSymmetricEquality() {
+        givenWeHaveAUrl("//test/api?a=1");
+        whenWeCallNormalize();
+        thenWeExpectTheUrlToBeEqualOnlyToNormalizedUrls("/test/api");
+        thenWeExpectTheSegmentToBeEqualOnlyToSegments(1, "api");
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAUrl(String url) {
+        this.url = url;
+    }
+
+    private void givenDecodingIsEnabled() {
+        this.decode = true;
+    }
+
+    private void givenDotResolutionIsEnabled() {
+        this.resolveDots = true;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallNormalize() {
+        this.normalized = UrlNormalizer.normalize(this.url, this.decode, this.resolveDots);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheUrl(String expected) {
+        assertEquals(expected, this.normalized.toString());
+        assertEquals(expected.hashCode(), this.normalized.hashCode());
+    }
+
+    private void thenWeExpectTheSameInstance() {
+        assertSame(this.url, this.normalized.toString());
+    }
+
+    private void thenWeExpectTheSegments(String... segments) {
+        assertEquals(segments.length, this.normalized.segmentCount());
+        for (int i = 0; i < segments.length; i++) {
+            assertEquals(segments[i], this.normalized.segment(i).toString());
+        }
+    }
+
+    private void thenWeExpectTheSegmentToBeFoundOnAMap(int index, String segment) {
+        TextMap<Integer> map = new TextMap<>();
+        map.putIfAbsent(segment, index);
+        assertEquals(Integer.valueOf(index), map.get(this.normalized.segment(index)));
+    }
+
+    private void thenWeExpectTheUrlToBeFoundOnAMap(String url) {
+        TextMap<Boolean> map = new TextMap<>();
+        map.putIfAbsent(url, true);
+        assertTrue(map.get(this.normalized));
+        assertTrue(Collections.singletonMap(UrlNormalizer.normalize(url), true).containsKey(this.normalized));
+    }
+
+    private void thenWeExpectTheUrlToBeEqualOnlyToNormalizedUrls(String url) {
+        NormalizedUrl other = UrlNormalizer.normalize(url);
+        assertTrue(this.normalized.matches(url));
+        assertFalse(this.normalized.matches(url + "/v1"));
+        assertEquals(this.normalized, other);
+        assertEquals(other, this.normalized);
+        assertNotEquals(this.normalized, url);
+        assertNotEquals(url, this.normalized);
+    }
+
+    private void thenWeExpectTheSegmentToBeEqualOnlyToSegments(int index, String segment) {
+        CharSequence other = UrlNormalizer.normalize("/" + segment).segment(0);
+        assertEquals(this.normalized.segment(index), other);
+        assertEquals(other, this.normalized.segment(index));
+        assertNotEquals(this.normalized.segment(index), segment);
+        assertNotEquals(segment, this.normalized.segment(index));
+    }
+
+    private static String legacySanitize(String url) {
+        url = url.replaceAll("(/+)", "/");
+        if (url.contains("?")) {
+            url = url.substring(0, url.indexOf("?"));
+        }
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
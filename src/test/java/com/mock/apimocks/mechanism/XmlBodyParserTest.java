@@ -0,0 +1,289 @@
+package com.mock.apimocks.mechanism;
+
+import com.mock.apimocks.exception.BadRequestException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class XmlBodyParserTest {
+    private XmlBodyParser parser;
+    private String body;
+    private Charset charset;
+    private Map<String, Object> parsed;
+
+    private static final String ORDER_BODY = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<order id=\"10\" status=\"open\">\n"
+            + "  <!-- the customer -->\n"
+            + "  <customer><name>John</name><document>111.222.333-44</document></customer>\n"
+            + "  <item sku=\"A1\">2</item>\n"
+            + "  <item sku=\"B2\">1</item>\n"
+            + "  <item>3</item>\n"
+            + "  <note><![CDATA[fragile <glass>]]></note>\n"
+            + "  <gift>TRUE</gift><coupon>null</coupon><empty/>\n"
+            + "</order>";
+    private static final String SOAP_BODY = "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+            + "<soap:Body><m:GetPrice xmlns:m=\"urn:prices\" m:currency=\"BRL\"><m:Item>Apple</m:Item></m:GetPrice>"
+            + "</soap:Body></soap:Envelope>";
+
+    /*
+     * Testing parse
+     */
+    @Test
+    public void parseElementsAndAttributes() {
+        givenTheDefaultParser();
+        givenTheBody(ORDER_BODY);
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedBody(Collections.singletonMap("order", order()));
+    }
+
+    @Test
+    public void parseElementsAndAttributesFromText() {
+        givenTheDefaultParser();
+        givenTheBody(ORDER_BODY);
+        whenWeCallParseFromText();
+        thenWeExpectTheParsedBody(Collections.singletonMap("order", order()));
+    }
+
+    @Test
+    public void parseWithoutAttributes() {
+        givenTheParser(false, false, XmlBodyParser.DEFAULT_MAX_DEPTH);
+        givenTheBody("<item sku=\"A1\">2</item><item sku=\"B2\"/>");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedBody(Collections.singletonMap("item", Arrays.asList(2, "")));
+    }
+
+    @Test
+    public void parseSeveralRootElements() {
+        givenTheDefaultParser();
+        givenTheBody("\uFEFF<userId>123</userId> <name>john</name><balance>-10.45</balance><userId>124</userId>");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheValue("userId", Arrays.asList(123, 124));
+        thenWeExpectTheValue("name", "john");
+        thenWeExpectTheValue("balance", -10.45);
+    }
+
+    @Test
+    public void parseMixedContent() {
+        givenTheDefaultParser();
+        givenTheBody("<p>Hello <b>John</b>, welcome</p>");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheValue("p", mixedContent());
+    }
+
+    @Test
+    public void parseEscapedText() {
+        givenTheDefaultParser();
+        givenTheBody("<query>a &lt; b &amp;&amp; c &#62; d</query>");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheValue("query", "a < b && c > d");
+    }
+
+    @Test
+    public void parseWithCharset() {
+        givenTheDefaultParser();
+        givenTheBody("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><name>João</name>");
+        givenTheCharset(StandardCharsets.ISO_8859_1);
+        whenWeCallParseFromBytes();
+        thenWeExpectTheValue("name", "João");
+    }
+
+    @Test
+    public void parseKeepingNamespaces() {
+        givenTheDefaultParser();
+        givenTheBody(SOAP_BODY);
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedBody(Collections.singletonMap("soap:Envelope", envelopeWithNamespaces()));
+    }
+
+    @Test
+    public void parseStrippingNamespaces() {
+        givenTheParser(true, true, XmlBodyParser.DEFAULT_MAX_DEPTH);
+        givenTheBody(SOAP_BODY);
+        whenWeCallParseFromBytes();
+        thenWeExpectTheParsedBody(Collections.singletonMap("Envelope", envelopeWithoutNamespaces()));
+    }
+
+    @Test
+    public void parseUpToTheMaxDepth() {
+        givenTheParser(false, true, 3);
+        givenTheBody("<a><b><c>1</c></b></a>");
+        whenWeCallParseFromBytes();
+        thenWeExpectTheValue("a", Collections.singletonMap("b", Collections.singletonMap("c", 1)));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseBeyondTheMaxDepth() {
+        givenTheParser(false, true, 3);
+        givenTheBody("<a><b><c><d>1</d></c></b></a>");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseDeeplyNestedBody() {
+        givenTheDefaultParser();
+        givenTheDeeplyNestedBody(100000);
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseMalformedBody() {
+        givenTheDefaultParser();
+        givenTheBody("<order><id>1</order></id>");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseTruncatedBody() {
+        givenTheDefaultParser();
+        givenTheBody("<order><id>1</id>");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseTextOutsideElements() {
+        givenTheDefaultParser();
+        givenTheBody("<id>1</id> and some text");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parsePlainText() {
+        givenTheDefaultParser();
+        givenTheBody("This is a plain text body");
+        whenWeCallParseFromText();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseEmptyBody() {
+        givenTheDefaultParser();
+        givenTheBody(" <!-- nothing --> ");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void parseBodyWithDtd() {
+        givenTheDefaultParser();
+        givenTheBody("<?xml version=\"1.0\"?><!DOCTYPE name [<!ENTITY secret SYSTEM \"file:///etc/passwd\">]>"
+                + "<name>&secret;</name>");
+        whenWeCallParseFromBytes();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createWithInvalidMaxDepth() {
+        givenTheParser(false, true, 0);
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenTheDefaultParser() {
+        givenTheParser(false, true, XmlBodyParser.DEFAULT_MAX_DEPTH);
+    }
+
+    private void givenTheParser(boolean stripNamespaces, boolean attributesAsFields, int maxDepth) {
+        this.parser = new XmlBodyParser(stripNamespaces, attributesAsFields, maxDepth);
+    }
+
+    private void givenTheBody(String body) {
+        this.body = body;
+        this.charset = StandardCharsets.UTF_8;
+    }
+
+    private void givenTheCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    private void givenTheDeeplyNestedBody(int depth) {
+        StringBuilder builder = new StringBuilder(depth * 7);
+        for (int i = 0; i < depth; i++) {
+            builder.append("<a>");
+        }
+        for (int i = 0; i < depth; i++) {
+            builder.append("</a>");
+        }
+        givenTheBody(builder.toString());
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallParseFromBytes() {
+        this.parsed = this.parser.parse(new ByteArrayInputStream(this.body.getBytes(this.charset)), this.charset);
+    }
+
+    private void whenWeCallParseFromText() {
+        this.parsed = this.parser.parse(this.body);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheParsedBody(Map<String, Object> expected) {
+        assertEquals(expected, this.parsed);
+    }
+
+    private void thenWeExpectTheValue(String name, Object expected) {
+        assertEquals(expected, this.parsed.get(name));
+    }
+
+    /*
+     * Helper methods
+     */
+    private static Map<String, Object> order() {
+        Map<String, Object> customer = new HashMap<>();
+        customer.put("name", "John");
+        customer.put("document", "111.222.333-44");
+        Map<String, Object> first = new HashMap<>();
+        first.put("sku", "A1");
+        first.put("content", 2);
+        Map<String, Object> second = new HashMap<>();
+        second.put("sku", "B2");
+        second.put("content", 1);
+        Map<String, Object> order = new HashMap<>();
+        order.put("id", 10);
+        order.put("status", "open");
+        order.put("customer", customer);
+        order.put("item", Arrays.asList(first, second, 3));
+        order.put("note", "fragile <glass>");
+        order.put("gift", true);
+        order.put("coupon", null);
+        order.put("empty", "");
+        return order;
+    }
+
+    private static Map<String, Object> mixedContent() {
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("content", Arrays.asList("Hello", ", welcome"));
+        expected.put("b", "John");
+        return expected;
+    }
+
+    private static Map<String, Object> envelopeWithNamespaces() {
+        Map<String, Object> price = new HashMap<>();
+        price.put("xmlns:m", "urn:prices");
+        price.put("m:currency", "BRL");
+        price.put("m:Item", "Apple");
+        Map<String, Object> envelope = new HashMap<>();
+        envelope.put("xmlns:soap", "http://schemas.xmlsoap.org/soap/envelope/");
+        envelope.put("soap:Body", Collections.singletonMap("m:GetPrice", price));
+        return envelope;
+    }
+
+    private static Map<String, Object> envelopeWithoutNamespaces() {
+        Map<String, Object> price = new HashMap<>();
+        price.put("currency", "BRL");
+        price.put("Item", "Apple");
+        return Collections.singletonMap("Body", Collections.singletonMap("GetPrice", price));
+    }
+}
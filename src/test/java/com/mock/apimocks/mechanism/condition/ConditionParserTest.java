@@ -0,0 +1,255 @@
+package com.mock.apimocks.mechanism.condition;
+
+import com.mock.apimocks.mechanism.ConditionEvaluator;
+import com.mock.apimocks.mechanism.ConditionEvaluators;
+import com.mock.apimocks.models.CallContext;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConditionParserTest {
+    private static final ConditionEvaluator NASHORN = ConditionEvaluators.create();
+    private static final String[] JAVASCRIPT_CONDITIONS = {
+            "$header.server == 'Tomcat'",
+            "$header['x-tenant'] === 'abc'",
+            "$header.missing == null",
+            "$header.missing === null",
+            "$header.missing === undefined",
+            "$header.missing != null || $query.page > 2",
+            "$path.id == 3",
+            "$path.id === 3",
+            "$path.id == '3'",
+            "$path.id === '3'",
+            "$path.code == 3",
+            "$path.code === '3'",
+            "$query.page > 2 && $body.type == 'PF'",
+            "$query.page >= '10'",
+            "$query.page < 10",
+            "$query.name < 'h'",
+            "!($query.page <= 2)",
+            "!$header.missing",
+            "$body.married",
+            "$body.hasChildren",
+            "$body.married === true",
+            "$body.married == 1",
+            "$body.score == 75.0",
+            "$body.balance == 456.78",
+            "$body.debits < -100",
+            "$body.big == 9999999999",
+            "$body.big === 9999999999",
+            "$body.decimal == 1.5",
+            "$body.decimal === 1.5",
+            "$body.big == $body.big",
+            "$body.decimal > 1",
+            "$body.addresses == '[object Object]'",
+            "$body.nothing == null",
+            "$body.nothing === null",
+            "$body.nothing >= 0",
+            "$body.addresses.work == '156 Grant Drive Avenue'",
+            "$body['addresses']['home'] != null",
+            "$body.accountNumbers[2] == '345'",
+            "$body.accountNumbers['1'] == 234",
+            "$body.phones.work == '1932547698'",
+            "$body.accountNumbers[10] == '123'",
+            "$body.type || $body.missing",
+            "$body.type && 'x'",
+            "/^\\d+$/.test($path.id)",
+            "/^ABC$/i.test($header['x-tenant'])",
+            "/nul/.test($header.missing)",
+            "($header.server == 'Tomcat' || $query.name == 'wrong') && $path.id == 3",
+            "true",
+            "false",
+            "null == undefined",
+            "'' == 0",
+            "'10' < '9'",
+            "!!$body.type && $path.id != '4' && $query.page == 3.0",
+            "\"a\\\"b\" == 'a\"b'"
+    };
+
+    private CallContext context;
+    private String condition;
+    private Optional<ConditionExpression> expression;
+    private Optional<EqualityLookup> lookup;
+
+    @AfterClass
+    public static void tearDown() {
+        NASHORN.shutdown();
+    }
+
+    /*
+     * Testing parse
+     */
+    @Test
+    public void parseConditionsWithTheSameResultsAsNashorn() {
+        givenWeHaveAPopulatedCallContext();
+        for (String javascript : JAVASCRIPT_CONDITIONS) {
+            givenWeHaveACondition(javascript);
+            whenWeCallParse();
+            thenWeExpectTheSameResultAsNashorn();
+        }
+    }
+
+    @Test
+    public void parseUnsupportedConditions() {
+        for (String javascript : Arrays.asList("$body.accountNumbers.length == 4", "$body.cpf.contains('888')",
+                "leaked = true", "$path.id == 0x10", "$path.id == 010", "/a/g.test($path.id)", "$path.id + 1 == 4",
+                "Math.max(1, 2) == 2", "$path.id == 3;", "$unknown.id == 3", "$path.id == '\\d'")) {
+            givenWeHaveACondition(javascript);
+            whenWeCallParse();
+            thenWeExpectAnUnsupportedCondition();
+        }
+    }
+
+    @Test
+    public void parseListMembership() {
+        givenWeHaveAPopulatedCallContext();
+        givenWeHaveACondition("$path.id in [1, 2, 3] && $header.server in ['Jetty', 'Tomcat']");
+        whenWeCallParse();
+        thenWeExpectTheResult(true);
+
+        givenWeHaveACondition("$path.id in ['1', '2', null]");
+        whenWeCallParse();
+        thenWeExpectTheResult(false);
+    }
+
+    @Test
+    public void parseConditionReadingAPropertyOfAString() {
+        givenWeHaveAPopulatedCallContext();
+        givenWeHaveACondition("$body.type.empty == false");
+        whenWeCallParse();
+        thenWeExpectAnUnsupportedValue();
+    }
+
+    /*
+     * Testing parseLookup
+     */
+    @Test
+    public void parseLookupConditions() {
+        givenWeHaveAPopulatedCallContext();
+        givenWeHaveACondition("$header['x-tenant'] === 'abc'");
+        whenWeCallParseLookup();
+        thenWeExpectTheLookup("$header.x-tenant", "abc", "abc");
+
+        givenWeHaveACondition("3 == $path.id");
+        whenWeCallParseLookup();
+        thenWeExpectTheLookup("$path.id", 3, 3d);
+    }
+
+    @Test
+    public void parseLookupWithOtherConditions() {
+        for (String javascript : Arrays.asList("$path.id != 3", "$path.id == $query.page", "$path == 3",
+                "$path.id == 3 && $query.page == 2", "$path.id == 3 == true", "$path.id == true", "$path.id > 3")) {
+            givenWeHaveACondition(javascript);
+            whenWeCallParseLookup();
+            thenWeExpectNoLookup();
+        }
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveAPopulatedCallContext() {
+        Map<String, Object> addresses = new HashMap<>();
+        addresses.put("work", "156 Grant Drive Avenue");
+        addresses.put("home", "82 Saint Street");
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("type", "PF");
+        body.put("married", true);
+        body.put("hasChildren", false);
+        body.put("score", 75);
+        body.put("balance", 456.78);
+        body.put("debits", -123.45);
+        body.put("big", 9999999999L);
+        body.put("decimal", new BigDecimal("1.5"));
+        body.put("nothing", null);
+        body.put("addresses", addresses);
+        body.put("accountNumbers", Arrays.asList("123", "234", "345", "456"));
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("server", "Tomcat");
+        headers.put("x-tenant", "abc");
+
+        Map<String, String> queryParams = new HashMap<>();
+        queryParams.put("page", "3");
+        queryParams.put("name", "gabriel");
+
+        Map<String, Object> pathParams = new HashMap<>();
+        pathParams.put("id", 3);
+        pathParams.put("code", "3");
+
+        this.context = CallContext.builder().headers(headers).queryParams(queryParams).pathParams(pathParams)
+                .parsedBody(body).build();
+    }
+
+    private void givenWeHaveACondition(String condition) {
+        this.condition = condition;
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallParse() {
+        this.expression = ConditionParser.parse(this.condition);
+    }
+
+    private void whenWeCallParseLookup() {
+        this.lookup = ConditionParser.parseLookup(this.condition);
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheSameResultAsNashorn() {
+        boolean expected = NASHORN.evaluateCondition(this.context, this.condition);
+        assertTrue(this.condition, this.expression.isPresent());
+
+        boolean result;
+        try {
+            result = this.expression.get().test(this.context);
+        } catch (RuntimeException ex) {
+            result = false;
+        }
+        assertEquals(this.condition, expected, result);
+    }
+
+    private void thenWeExpectTheLookup(String path, Object value, Object... keys) {
+        assertTrue(this.condition, this.lookup.isPresent());
+        assertEquals(path, this.lookup.get().getPath());
+        assertEquals(value, this.lookup.get().read(this.context));
+        assertEquals(Arrays.asList(keys), this.lookup.get().literalKeys());
+    }
+
+    private void thenWeExpectNoLookup() {
+        assertFalse(this.condition, this.lookup.isPresent());
+    }
+
+    private void thenWeExpectAnUnsupportedCondition() {
+        assertFalse(this.condition, this.expression.isPresent());
+    }
+
+    private void thenWeExpectTheResult(boolean expected) {
+        assertTrue(this.condition, this.expression.isPresent());
+        assertEquals(this.condition, expected, this.expression.get().test(this.context));
+    }
+
+    private void thenWeExpectAnUnsupportedValue() {
+        assertTrue(this.condition, this.expression.isPresent());
+        try {
+            this.expression.get().test(this.context);
+            fail(this.condition);
+        } catch (UnsupportedConditionException ex) {
+            // the condition must be handed to the script engines
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.mock.apimocks.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mock.apimocks.models.MockChangeEvent;
+import com.mock.apimocks.service.MockChangeNotifier;
+import com.mock.apimocks.service.OperationCache;
+import com.mock.apimocks.service.OperationRouter;
+import com.mock.apimocks.service.RouteOverlapGuard;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MockChangeNotifierTest {
+    private static final MockChangeEvent VALID_EVENT =
+            new MockChangeEvent("1", new HashSet<>(Arrays.asList("10", "20")));
+    private static final MockChangeEvent EVENT_WITHOUT_OPERATIONS = new MockChangeEvent("1", null);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private OperationCache operationCache;
+
+    @Mock
+    private OperationRouter router;
+
+    @Mock
+    private RouteOverlapGuard overlapGuard;
+
+    @InjectMocks
+    private MockChangeNotifier notifier;
+
+    private MockChangeEvent event;
+    private Message message;
+
+    // Testing publish
+    @Test
+    public void publishSendsTheEventAndAppliesItLocally() {
+        givenWeHaveAValidEvent();
+        whenWeCallPublish();
+        thenWeExpectTheEventToBeSent();
+        thenWeExpectTheOperationsToBeInvalidated();
+        thenWeExpectTheRoutesToBeInvalidated();
+        thenWeExpectTheMockRoutesToBeRefreshed();
+    }
+
+    // Testing onMessage
+    @Test
+    public void onMessageInvalidatesTheChangedOperations() throws Exception {
+        givenWeHaveAValidEvent();
+        givenWeHaveAMessageWithTheEvent();
+        whenWeCallOnMessage();
+        thenWeExpectTheOperationsToBeInvalidated();
+        thenWeExpectTheRoutesToBeInvalidated();
+    }
+
+    @Test
+    public void onMessageWithoutOperationsInvalidatesEverything() throws Exception {
+        givenWeHaveAnEventWithoutOperations();
+        givenWeHaveAMessageWithTheEvent();
+        whenWeCallOnMessage();
+        thenWeExpectAllOperationsToBeInvalidated();
+        thenWeExpectTheRoutesToBeInvalidated();
+    }
+
+    @Test
+    public void onMessageWithInvalidEventInvalidatesEverything() {
+        givenWeHaveAnInvalidMessage();
+        whenWeCallOnMessage();
+        thenWeExpectAllOperationsToBeInvalidated();
+        thenWeExpectTheRoutesToBeInvalidated();
+        thenWeExpectAllMockRoutesToBeInvalidated();
+    }
+
+    // Given methods
+    private void givenWeHaveAValidEvent() {
+        this.event = VALID_EVENT;
+    }
+
+    private void givenWeHaveAnEventWithoutOperations() {
+        this.event = EVENT_WITHOUT_OPERATIONS;
+    }
+
+    private void givenWeHaveAMessageWithTheEvent() throws Exception {
+        this.message = new DefaultMessage(MockChangeNotifier.CHANNEL.getBytes(),
+                new ObjectMapper().writeValueAsBytes(this.event));
+    }
+
+    private void givenWeHaveAnInvalidMessage() {
+        this.message = new DefaultMessage(MockChangeNotifier.CHANNEL.getBytes(), "not an event".getBytes());
+    }
+
+    // When methods
+    private void whenWeCallPublish() {
+        notifier.publish(this.event);
+    }
+
+    private void whenWeCallOnMessage() {
+        notifier.onMessage(this.message, null);
+    }
+
+    // Then methods
+    private void thenWeExpectTheEventToBeSent() {
+        verify(redisTemplate, times(1)).convertAndSend(eq(MockChangeNotifier.CHANNEL), anyString());
+    }
+
+    private void thenWeExpectTheOperationsToBeInvalidated() {
+        verify(operationCache, times(1)).invalidate(VALID_EVENT.getOperationIds());
+    }
+
+    private void thenWeExpectAllOperationsToBeInvalidated() {
+        verify(operationCache, times(1)).invalidateAll();
+    }
+
+    private void thenWeExpectTheRoutesToBeInvalidated() {
+        verify(router, times(1)).invalidate();
+    }
+
+    private void thenWeExpectTheMockRoutesToBeRefreshed() {
+        verify(overlapGuard, times(1)).refresh(VALID_EVENT.getMockId());
+    }
+
+    private void thenWeExpectAllMockRoutesToBeInvalidated() {
+        verify(overlapGuard, times(1)).invalidateAll();
+    }
+}
@@ -1,29 +1,43 @@
 package com.mock.apimocks.services;
 
 import com.mock.apimocks.enums.ContentType;
+import com.mock.apimocks.mechanism.ConditionEvaluator;
+import com.mock.apimocks.mechanism.ConditionEvaluators;
 import com.mock.apimocks.service.MockService;
 import com.mock.apimocks.exception.InternalServerErrorException;
 import com.mock.apimocks.exception.ResourceNotFoundException;
+import com.mock.apimocks.exception.UnprocessableEntityException;
 import com.mock.apimocks.models.CallContext;
+import com.mock.apimocks.models.MockChangeEvent;
+import com.mock.apimocks.models.OperationMatch;
+import com.mock.apimocks.models.RouteMatch;
 import com.mock.apimocks.models.vo.MockApi;
 import com.mock.apimocks.models.vo.MockOperation;
 import com.mock.apimocks.models.vo.MockScenario;
-import com.mock.apimocks.models.vo.RegexOperation;
 import com.mock.apimocks.repository.MockApiRepository;
 import com.mock.apimocks.repository.MockOperationRepository;
 import com.mock.apimocks.repository.RegexOperationRepository;
+import com.mock.apimocks.service.MockChangeNotifier;
+import com.mock.apimocks.service.OperationCache;
+import com.mock.apimocks.service.OperationRouter;
+import com.mock.apimocks.service.RouteOverlapGuard;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.HttpMethod;
 
+import javax.script.ScriptException;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -33,6 +47,7 @@ public class MockServiceTest {
     private String id;
     private MockScenario scenario;
     private CallContext context;
+    private Optional<OperationMatch> operation;
 
     private static final String VALID_IDENTIFIER = "valid_identifier";
     private static final String INVALID_IDENTIFIER = "invalid_identifier";
@@ -60,11 +75,25 @@ public class MockServiceTest {
                     MockOperation.builder().path("/operationC").method(HttpMethod.PUT).scenarios(VALID_SCENARIOS).build()
             ))
             .build();
+    private static final MockApi STATIC_MOCK = MockApi.builder()
+            .id(VALID_IDENTIFIER)
+            .basePath("/test/api/v1")
+            .name("Static")
+            .operations(Arrays.asList(
+                    MockOperation.builder().id("1").path("/health").method(HttpMethod.GET)
+                            .scenarios(Collections.singletonList(MockScenario.builder().isDefault(true).order(1).build()))
+                            .build(),
+                    MockOperation.builder().id("2").path("/health/{id}").method(HttpMethod.GET)
+                            .scenarios(Collections.singletonList(MockScenario.builder().isDefault(true).order(1).build()))
+                            .build(),
+                    MockOperation.builder().id("3").path("/status").method(HttpMethod.GET).scenarios(VALID_SCENARIOS)
+                            .build()
+            ))
+            .build();
     private static final MockApi MOCK_WITH_INVALID_ID = MockApi.builder().id(INVALID_IDENTIFIER).build();
     private static final CallContext VALID_CALL_CONTEXT = CallContext.builder()
             .url("/test/operation/123/b")
             .method("GET")
-            .body("test=123")
             .contentType(ContentType.URL_ENCODED)
             .parsedBody(new HashMap<String, String>() {
                 {
@@ -87,11 +116,11 @@ public class MockServiceTest {
                 }
             })
             .build();
-    private static final List<RegexOperation> VALID_REGEX_OP_LIST = Arrays.asList(
-            new RegexOperation("GET/test/operation/([^\\\\/]+)/a", "1"),
-            new RegexOperation("POST/test/operation/([^\\\\/]+)/a", "2"),
-            new RegexOperation("GET/test/operation/([^\\\\/]+)/b", "3"),
-            new RegexOperation("PUT/test/operation/([^\\\\/]+)/c", "4"));
+    private static final RouteMatch VALID_ROUTE_MATCH = new RouteMatch("3", new HashMap<String, Object>() {
+        {
+            put("id", "123");
+        }
+    });
     private static final MockOperation VALID_OPERATION_WITH_DEFAULT = MockOperation.builder()
             .id("3")
             .path("/operation/{id}/b")
@@ -126,9 +155,29 @@ public class MockServiceTest {
     @Mock
     private RegexOperationRepository regexRepo;
 
+    @Mock
+    private OperationRouter router;
+
+    @Mock
+    private OperationCache operationCache;
+
+    @Mock
+    private MockChangeNotifier changeNotifier;
+
+    @Mock
+    private RouteOverlapGuard overlapGuard;
+
+    @Spy
+    private ConditionEvaluator evaluator = ConditionEvaluators.create();
+
     @InjectMocks
     private MockService service;
 
+    @After
+    public void tearDown() {
+        evaluator.shutdown();
+    }
+
     // Testing getAllMocks
     @Test
     public void getAllMocksWithSuccess() {
@@ -160,9 +209,44 @@ public class MockServiceTest {
         givenWeHaveAValidMockApiToBeSaved();
         whenWeCallCreateMock();
         thenWeExpectTheCreatedIdToBeReturned();
+        thenWeExpectTheOverlapsToBeChecked();
+        thenWeExpectThePathParamNamesToBeComputed();
         thenWeExpectTheMockApiRepoSaveToBeExecuted();
         thenWeExpectTheMockOpRepoSaveAllToBeExecuted();
         thenWeExpectTheRegexRepoSaveAllToBeExecuted();
+        thenWeExpectAChangeEventToBePublished();
+    }
+
+    @Test(expected = UnprocessableEntityException.class)
+    public void createMockWithShadowedOperation() {
+        givenWeHaveAValidMockApiToBeSaved();
+        givenTheOverlapGuardRejectsTheMock();
+        whenWeCallCreateMock();
+        thenWeExpectTheMockApiRepoSaveToNotBeExecuted();
+        thenWeExpectAnUnprocessableEntityException();
+    }
+
+    @Test
+    public void createMockKeepsTheValidatedConditions() throws ScriptException {
+        givenWeHaveAMockApiWithValidatedConditions("$header.header1 == 'A'");
+        whenWeCallCreateMock();
+        thenWeExpectNoConditionToBeCompiledAgain();
+        thenWeExpectTheCompiledConditions("$header.header1 == 'A'");
+    }
+
+    @Test
+    public void createMockCompilesTheChangedConditions() throws ScriptException {
+        givenWeHaveAMockApiWithValidatedConditions("$header.header1 == 'B'");
+        givenTheConditionsWereChangedTo("$header.header1 == 'A'");
+        whenWeCallCreateMock();
+        thenWeExpectTheCompiledConditions("$header.header1 == 'A'");
+    }
+
+    @Test
+    public void createMockFlagsStaticOperations() {
+        givenWeHaveAStaticMockApiToBeSaved();
+        whenWeCallCreateMock();
+        thenWeExpectTheStaticOperationsToBeFlagged(true, false, false);
     }
 
     // Testing updateMock
@@ -171,11 +255,13 @@ public class MockServiceTest {
         givenWeHaveAValidMockApiToBeSaved();
         givenMockApiRepoFindByIdReturnsAMock();
         whenWeCallUpdateMock();
+        thenWeExpectTheOverlapsToBeChecked();
         thenWeExpectTheMockOpRepoDeleteAllToBeExecuted();
         thenWeExpectTheRegexRepoDeleteAllToBeExecuted();
         thenWeExpectTheMockApiRepoSaveToBeExecuted();
         thenWeExpectTheMockOpRepoSaveAllToBeExecuted();
         thenWeExpectTheRegexRepoSaveAllToBeExecuted();
+        thenWeExpectAChangeEventToBePublished();
     }
 
     @Test(expected = ResourceNotFoundException.class)
@@ -200,6 +286,7 @@ public class MockServiceTest {
         thenWeExpectTheMockApiRepoDeleteByIdToBeExecuted();
         thenWeExpectTheMockOpRepoDeleteAllToBeExecuted();
         thenWeExpectTheRegexRepoDeleteAllToBeExecuted();
+        thenWeExpectAChangeEventToBePublished();
     }
 
     @Test(expected = ResourceNotFoundException.class)
@@ -216,17 +303,19 @@ public class MockServiceTest {
     @Test
     public void getScenarioReturnsAValidConditionalScenario() {
         givenWeHaveAValidCallContext();
-        givenTheRegexRepoFindAllReturnsAValidListOfRegexMocks();
-        givenMockOpRepoFindByIdReturnsAValidOperationWithDefaultCondition();
+        givenTheRouterFindsAValidOperation();
+        givenOperationCacheReturnsAValidOperationWithDefaultCondition();
         whenWeCallGetScenario();
         thenWeExpectAValidMockScenario();
+        thenWeExpectThePathParametersToBeFilled();
+        thenWeExpectTheRequestToBeRoutedOnlyOnce();
     }
 
     @Test
     public void getScenarioReturnsAValidDefaultScenario() {
         givenWeHaveAValidCallContext();
-        givenTheRegexRepoFindAllReturnsAValidListOfRegexMocks();
-        givenMockOpRepoFindByIdReturnsAValidOperationWithTrueCondition();
+        givenTheRouterFindsAValidOperation();
+        givenOperationCacheReturnsAValidOperationWithTrueCondition();
         whenWeCallGetScenario();
         thenWeExpectAValidMockScenario();
     }
@@ -234,7 +323,7 @@ public class MockServiceTest {
     @Test(expected = ResourceNotFoundException.class)
     public void getScenarioWithNoRegisteredOperation() {
         givenWeHaveAValidCallContext();
-        givenTheRegexRepoFindAllReturnsAnEmptyListOfRegexMocks();
+        givenTheRouterFindsNoOperation();
         whenWeCallGetScenario();
         thenWeExpectAResourceNotFoundException();
     }
@@ -242,7 +331,7 @@ public class MockServiceTest {
     @Test(expected = InternalServerErrorException.class)
     public void getScenarioWithInvalidOperationOnRegex() {
         givenWeHaveAValidCallContext();
-        givenTheRegexRepoFindAllReturnsAValidListOfRegexMocks();
+        givenTheRouterFindsAValidOperation();
         whenWeCallGetScenario();
         thenWeExpectAInternalServerErrorException();
     }
@@ -250,12 +339,36 @@ public class MockServiceTest {
     @Test(expected = ResourceNotFoundException.class)
     public void getScenarioWithNoDefaultScenarioRegistered() {
         givenWeHaveAValidCallContext();
-        givenTheRegexRepoFindAllReturnsAValidListOfRegexMocks();
-        givenMockOpRepoFindByIdReturnsAnOperationWithNoDefaultScenario();
+        givenTheRouterFindsAValidOperation();
+        givenOperationCacheReturnsAnOperationWithNoDefaultScenario();
         whenWeCallGetScenario();
         thenWeExpectAResourceNotFoundException();
     }
 
+    // Testing findOperation
+    @Test
+    public void findOperationForARegisteredOperation() {
+        givenTheRouterFindsAValidOperation();
+        givenOperationCacheReturnsAValidOperationWithDefaultCondition();
+        whenWeCallFindOperation();
+        thenWeExpectTheOperationToBeFound();
+        thenWeExpectAPartialBodySelection();
+    }
+
+    @Test
+    public void findOperationWithNoRegisteredOperation() {
+        givenTheRouterFindsNoOperation();
+        whenWeCallFindOperation();
+        thenWeExpectNoOperationToBeFound();
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void findOperationWithInvalidOperationOnRegex() {
+        givenTheRouterFindsAValidOperation();
+        whenWeCallFindOperation();
+        thenWeExpectAInternalServerErrorException();
+    }
+
     // Given methods
     private void givenMockApiRepoFindAllReturnsAListOfMocks() {
         doReturn(VALID_MOCK_LIST).when(mockApiRepo).findAll();
@@ -282,6 +395,27 @@ public class MockServiceTest {
         this.mock.setId(VALID_IDENTIFIER);
     }
 
+    private void givenWeHaveAMockApiWithValidatedConditions(String conditions) throws ScriptException {
+        MockScenario scenario = MockScenario.builder().isDefault(false).order(1).conditions(conditions).build();
+        scenario.setCompiledConditions(evaluator.compileCondition(conditions));
+        this.mock = MockApi.builder()
+                .basePath("/test/api/v1")
+                .name("Validated")
+                .operations(Collections.singletonList(MockOperation.builder().path("/operationA")
+                        .method(HttpMethod.GET).scenarios(Arrays.asList(scenario,
+                                MockScenario.builder().isDefault(true).order(2).build())).build()))
+                .build();
+        clearInvocations(evaluator);
+    }
+
+    private void givenTheConditionsWereChangedTo(String conditions) {
+        this.mock.getOperations().get(0).getScenarios().get(0).setConditions(conditions);
+    }
+
+    private void givenWeHaveAStaticMockApiToBeSaved() {
+        this.mock = STATIC_MOCK;
+    }
+
     private void givenWeHaveAMockApiWithInvalidId() {
         this.mock = MOCK_WITH_INVALID_ID;
     }
@@ -290,24 +424,28 @@ public class MockServiceTest {
         this.context = VALID_CALL_CONTEXT;
     }
 
-    private void givenTheRegexRepoFindAllReturnsAValidListOfRegexMocks() {
-        doReturn(VALID_REGEX_OP_LIST).when(regexRepo).findAll();
+    private void givenTheRouterFindsAValidOperation() {
+        doReturn(Optional.of(VALID_ROUTE_MATCH)).when(router).route("GET", "/test/operation/123/b");
     }
 
-    private void givenMockOpRepoFindByIdReturnsAValidOperationWithDefaultCondition() {
-        doReturn(Optional.of(VALID_OPERATION_WITH_DEFAULT)).when(mockOpRepo).findById("3");
+    private void givenOperationCacheReturnsAValidOperationWithDefaultCondition() {
+        doReturn(Optional.of(VALID_OPERATION_WITH_DEFAULT)).when(operationCache).get("3");
     }
 
-    private void givenMockOpRepoFindByIdReturnsAValidOperationWithTrueCondition() {
-        doReturn(Optional.of(VALID_OPERATION_WITH_TRUE_CONDITION)).when(mockOpRepo).findById("3");
+    private void givenOperationCacheReturnsAValidOperationWithTrueCondition() {
+        doReturn(Optional.of(VALID_OPERATION_WITH_TRUE_CONDITION)).when(operationCache).get("3");
     }
 
-    private void givenTheRegexRepoFindAllReturnsAnEmptyListOfRegexMocks() {
-        doReturn(Collections.EMPTY_LIST).when(regexRepo).findAll();
+    private void givenTheOverlapGuardRejectsTheMock() {
+        doThrow(new UnprocessableEntityException("Shadowed operation")).when(overlapGuard).check(any());
     }
 
-    private void givenMockOpRepoFindByIdReturnsAnOperationWithNoDefaultScenario() {
-        doReturn(Optional.of(OPERATION_WITH_NO_DEFAULT_SCENARIO)).when(mockOpRepo).findById("3");
+    private void givenTheRouterFindsNoOperation() {
+        doReturn(Optional.empty()).when(router).route("GET", "/test/operation/123/b");
+    }
+
+    private void givenOperationCacheReturnsAnOperationWithNoDefaultScenario() {
+        doReturn(Optional.of(OPERATION_WITH_NO_DEFAULT_SCENARIO)).when(operationCache).get("3");
     }
 
     // When methods
@@ -332,10 +470,33 @@ public class MockServiceTest {
     }
 
     private void whenWeCallGetScenario() {
-        this.scenario = service.getScenario(this.context);
+        OperationMatch match = service.findOperation(this.context.getMethod(), this.context.getUrl()).orElse(null);
+        this.scenario = service.getScenario(this.context, match);
+    }
+
+    private void whenWeCallFindOperation() {
+        this.operation = service.findOperation("GET", "/test/operation/123/b");
     }
 
     // Then methods
+    private void thenWeExpectTheOperationToBeFound() {
+        assertEquals(VALID_OPERATION_WITH_DEFAULT, this.operation.get().getOperation());
+        assertEquals(VALID_ROUTE_MATCH.getPathParams(), this.operation.get().getPathParams());
+    }
+
+    private void thenWeExpectNoOperationToBeFound() {
+        assertFalse(this.operation.isPresent());
+    }
+
+    private void thenWeExpectAPartialBodySelection() {
+        assertFalse(this.operation.get().getBodySelection().isAll());
+    }
+
+    private void thenWeExpectTheRequestToBeRoutedOnlyOnce() {
+        verify(router).route("GET", "/test/operation/123/b");
+        verify(operationCache).get("3");
+    }
+
     private void thenWeExpectAListOfMocks() {
         assertEquals(VALID_MOCK_LIST, this.mocks);
     }
@@ -352,6 +513,25 @@ public class MockServiceTest {
         assertNotNull(this.id);
     }
 
+    private void thenWeExpectTheStaticOperationsToBeFlagged(boolean... flags) {
+        for (int i = 0; i < flags.length; i++) {
+            assertEquals(flags[i], this.mock.getOperations().get(i).isStaticResponse());
+        }
+    }
+
+    private void thenWeExpectNoConditionToBeCompiledAgain() throws ScriptException {
+        verify(evaluator, never()).compileCondition(anyString());
+    }
+
+    private void thenWeExpectTheCompiledConditions(String conditions) {
+        MockScenario scenario = this.mock.getOperations().get(0).getScenarios().get(0);
+        assertEquals(conditions, scenario.getCompiledConditions().getSource());
+    }
+
+    private void thenWeExpectThePathParamNamesToBeComputed() {
+        this.mock.getOperations().forEach(op -> assertNotNull(op.getPathParamNames()));
+    }
+
     private void thenWeExpectTheMockApiRepoSaveToBeExecuted() {
         verify(mockApiRepo, times(1)).save(any(MockApi.class));
     }
@@ -400,6 +580,18 @@ public class MockServiceTest {
         verify(regexRepo, times(0)).deleteAll(anyCollection());
     }
 
+    private void thenWeExpectTheOverlapsToBeChecked() {
+        verify(overlapGuard, times(1)).check(this.mock);
+    }
+
+    private void thenWeExpectAnUnprocessableEntityException() {
+        // asserted at test scope
+    }
+
+    private void thenWeExpectAChangeEventToBePublished() {
+        verify(changeNotifier, times(1)).publish(any(MockChangeEvent.class));
+    }
+
     private void thenWeExpectAInternalServerErrorException() {
         // asserted at test scope
     }
@@ -407,4 +599,8 @@ public class MockServiceTest {
     private void thenWeExpectAValidMockScenario() {
         assertNotNull(this.scenario);
     }
+
+    private void thenWeExpectThePathParametersToBeFilled() {
+        assertEquals("123", this.context.getPathParams().get("id"));
+    }
 }
@@ -0,0 +1,173 @@
+package com.mock.apimocks.services;
+
+import com.mock.apimocks.mechanism.ConditionEvaluator;
+import com.mock.apimocks.mechanism.ConditionEvaluators;
+import com.mock.apimocks.models.vo.MockOperation;
+import com.mock.apimocks.models.vo.MockScenario;
+import com.mock.apimocks.repository.MockOperationRepository;
+import com.mock.apimocks.service.OperationCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OperationCacheTest {
+    private static final String VALID_ID = "1";
+    private static final String INVALID_ID = "invalid";
+    private static final long MAX_WEIGHT = 1024 * 1024;
+    private static final MockOperation VALID_OPERATION = MockOperation.builder()
+            .id(VALID_ID)
+            .method(HttpMethod.GET)
+            .fullPath("/test/operation")
+            .scenarios(Collections.emptyList())
+            .build();
+
+    @Mock
+    private MockOperationRepository mockOpRepo;
+
+    private ConditionEvaluator evaluator;
+    private OperationCache cache;
+    private Optional<MockOperation> operation;
+
+    @Before
+    public void setup() {
+        this.evaluator = ConditionEvaluators.create();
+        this.cache = new OperationCache(mockOpRepo, evaluator, MAX_WEIGHT);
+    }
+
+    @After
+    public void tearDown() {
+        this.evaluator.shutdown();
+    }
+
+    // Testing get
+    @Test
+    public void getLoadsTheOperationFromTheRepository() {
+        givenTheRepositoryHasAValidOperation();
+        whenWeCallGet(VALID_ID);
+        thenWeExpectTheValidOperation();
+        thenWeExpectTheRepositoryToBeCalled(1);
+    }
+
+    @Test
+    public void getTwiceLoadsTheOperationOnce() {
+        givenTheRepositoryHasAValidOperation();
+        whenWeCallGet(VALID_ID);
+        whenWeCallGet(VALID_ID);
+        thenWeExpectTheValidOperation();
+        thenWeExpectTheRepositoryToBeCalled(1);
+        thenWeExpectACacheHit();
+    }
+
+    @Test
+    public void getIndexesTheOperationScenarios() {
+        givenTheRepositoryHasAnOperationWithScenarios();
+        whenWeCallGet(VALID_ID);
+        thenWeExpectTheScenariosSortedByOrder();
+        thenWeExpectTheDefaultScenario();
+    }
+
+    @Test
+    public void getWithUnknownOperation() {
+        givenTheRepositoryHasNoOperation();
+        whenWeCallGet(INVALID_ID);
+        thenWeExpectNoOperation();
+    }
+
+    // Testing invalidate
+    @Test
+    public void getAfterInvalidateReloadsTheOperation() {
+        givenTheRepositoryHasAValidOperation();
+        whenWeCallGet(VALID_ID);
+        whenWeCallInvalidate();
+        whenWeCallGet(VALID_ID);
+        thenWeExpectTheValidOperation();
+        thenWeExpectTheRepositoryToBeCalled(2);
+    }
+
+    @Test
+    public void getAfterInvalidateAllReloadsTheOperation() {
+        givenTheRepositoryHasAValidOperation();
+        whenWeCallGet(VALID_ID);
+        whenWeCallInvalidateAll();
+        whenWeCallGet(VALID_ID);
+        thenWeExpectTheValidOperation();
+        thenWeExpectTheRepositoryToBeCalled(2);
+    }
+
+    // Given methods
+    private void givenTheRepositoryHasAValidOperation() {
+        doReturn(Optional.of(VALID_OPERATION)).when(mockOpRepo).findById(VALID_ID);
+    }
+
+    private void givenTheRepositoryHasAnOperationWithScenarios() {
+        MockOperation operation = MockOperation.builder()
+                .id(VALID_ID)
+                .method(HttpMethod.GET)
+                .fullPath("/test/operation")
+                .scenarios(Arrays.asList(
+                        MockScenario.builder().name("default").order(3).isDefault(true).build(),
+                        MockScenario.builder().name("second").order(2).conditions("$path.id == 2").build(),
+                        MockScenario.builder().name("first").order(1).conditions("$path.id == 1").build()))
+                .build();
+        doReturn(Optional.of(operation)).when(mockOpRepo).findById(VALID_ID);
+    }
+
+    private void givenTheRepositoryHasNoOperation() {
+        doReturn(Optional.empty()).when(mockOpRepo).findById(INVALID_ID);
+    }
+
+    // When methods
+    private void whenWeCallGet(String id) {
+        this.operation = cache.get(id);
+    }
+
+    private void whenWeCallInvalidate() {
+        cache.invalidate(Collections.singleton(VALID_ID));
+    }
+
+    private void whenWeCallInvalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Then methods
+    private void thenWeExpectTheValidOperation() {
+        assertTrue(this.operation.isPresent());
+        assertEquals(VALID_OPERATION, this.operation.get());
+    }
+
+    private void thenWeExpectTheScenariosSortedByOrder() {
+        assertTrue(this.operation.isPresent());
+        assertNotNull(this.operation.get().getScenarioIndex());
+        assertEquals(Arrays.asList("first", "second", "default"), this.operation.get().getScenarioIndex()
+                .getScenarios().stream().map(MockScenario::getName).collect(Collectors.toList()));
+    }
+
+    private void thenWeExpectTheDefaultScenario() {
+        assertEquals("default", this.operation.get().getScenarioIndex().getDefaultScenario().getName());
+    }
+
+    private void thenWeExpectNoOperation() {
+        assertFalse(this.operation.isPresent());
+    }
+
+    private void thenWeExpectTheRepositoryToBeCalled(int times) {
+        verify(mockOpRepo, times(times)).findById(VALID_ID);
+    }
+
+    private void thenWeExpectACacheHit() {
+        assertEquals(1, cache.stats().hitCount());
+    }
+}
@@ -0,0 +1,227 @@
+package com.mock.apimocks.services;
+
+import com.mock.apimocks.enums.RouterMode;
+import com.mock.apimocks.models.RouteMatch;
+import com.mock.apimocks.models.vo.MockOperation;
+import com.mock.apimocks.models.vo.MockScenario;
+import com.mock.apimocks.repository.MockOperationRepository;
+import com.mock.apimocks.service.OperationRouter;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OperationRouterTest {
+    private static final long MAX_MISSED_URLS = 100;
+    private static final MockOperation USERS_OPERATION = MockOperation.builder()
+            .id("1")
+            .method(HttpMethod.GET)
+            .fullPath("/test/users/{user_id}")
+            .build();
+    private static final MockOperation ORDERS_OPERATION = MockOperation.builder()
+            .id("2")
+            .method(HttpMethod.GET)
+            .fullPath("/test/orders/{order_id}")
+            .build();
+    private static final MockOperation STATIC_OPERATION = MockOperation.builder()
+            .id("3")
+            .method(HttpMethod.GET)
+            .fullPath("/test/health")
+            .scenarios(Collections.singletonList(MockScenario.builder().isDefault(true).order(1).httpCode(204).build()))
+            .staticResponse(true)
+            .build();
+
+    @Mock
+    private MockOperationRepository mockOpRepo;
+
+    private OperationRouter router;
+    private Optional<RouteMatch> match;
+    private Optional<ResponseEntity<String>> response;
+
+    @After
+    public void tearDown() {
+        this.router.shutdown();
+    }
+
+    // Testing route
+    @Test
+    public void routeWithTrieMode() {
+        givenTheRepositoryHasTheUsersOperation();
+        givenWeHaveARouter(RouterMode.TRIE);
+        whenWeCallRoute("/test/users/123");
+        thenWeExpectTheOperation("1");
+        thenWeExpectThePathParameter("user_id", "123");
+    }
+
+    @Test
+    public void routeWithAutomatonMode() {
+        givenTheRepositoryHasTheUsersOperation();
+        givenWeHaveARouter(RouterMode.AUTOMATON);
+        whenWeCallRoute("/test/users/123");
+        thenWeExpectTheOperation("1");
+        thenWeExpectThePathParameter("user_id", "123");
+    }
+
+    @Test
+    public void routeWithRegexMode() {
+        givenTheRepositoryHasTheUsersOperation();
+        givenWeHaveARouter(RouterMode.REGEX);
+        whenWeCallRoute("/test/users/123");
+        thenWeExpectTheOperation("1");
+        thenWeExpectThePathParameter("user_id", "123");
+    }
+
+    @Test
+    public void routeTwiceBuildsTheRoutesOnce() {
+        givenTheRepositoryHasTheUsersOperation();
+        givenWeHaveARouter(RouterMode.AUTOMATON);
+        whenWeCallRoute("/test/users/123");
+        whenWeCallRoute("/test/users/321");
+        thenWeExpectTheOperation("1");
+        thenWeExpectTheRepositoryToBeCalled(1);
+    }
+
+    @Test
+    public void routeWithUnknownUrl() {
+        givenTheRepositoryHasTheUsersOperation();
+        givenWeHaveARouter(RouterMode.AUTOMATON);
+        whenWeCallRoute("/test/orders/123");
+        thenWeExpectNoMatch();
+    }
+
+    // Testing invalidate
+    @Test
+    public void routeAfterInvalidateFindsTheNewOperation() {
+        givenTheRepositoryHasTheUsersOperation();
+        givenWeHaveARouter(RouterMode.AUTOMATON);
+        whenWeCallRoute("/test/users/123");
+        givenTheRepositoryHasBothOperations();
+        whenWeCallInvalidate();
+        whenWeCallRoute("/test/orders/456");
+        thenWeExpectTheOperation("2");
+        thenWeExpectThePathParameter("order_id", "456");
+    }
+
+    @Test
+    public void routeAfterInvalidateFindsAPreviouslyMissedUrl() {
+        givenTheRepositoryHasTheUsersOperation();
+        givenWeHaveARouter(RouterMode.REGEX);
+        whenWeCallRoute("/test/orders/456");
+        whenWeCallRoute("/test/orders/456");
+        givenTheRepositoryHasBothOperations();
+        whenWeCallInvalidate();
+        whenWeCallRoute("/test/orders/456");
+        thenWeExpectTheOperation("2");
+    }
+
+    @Test
+    public void routeAfterInvalidateDropsTheDeletedOperation() {
+        givenTheRepositoryHasTheUsersOperation();
+        givenWeHaveARouter(RouterMode.TRIE);
+        whenWeCallRoute("/test/users/123");
+        givenTheRepositoryHasNoOperation();
+        whenWeCallInvalidate();
+        whenWeCallRoute("/test/orders/123");
+        whenWeCallRoute("/test/users/123");
+        thenWeExpectNoMatch();
+    }
+
+    // Testing staticResponse
+    @Test
+    public void staticResponseAfterTheRoutesAreBuilt() {
+        givenTheRepositoryHasAStaticOperation();
+        givenWeHaveARouter(RouterMode.TRIE);
+        whenWeCallRoute("/test/health");
+        whenWeCallStaticResponse("/test/health");
+        thenWeExpectAStaticResponse();
+    }
+
+    @Test
+    public void staticResponseAfterInvalidateDropsTheDeletedOperation() {
+        givenTheRepositoryHasAStaticOperation();
+        givenWeHaveARouter(RouterMode.TRIE);
+        whenWeCallRoute("/test/health");
+        givenTheRepositoryHasNoOperation();
+        whenWeCallInvalidate();
+        whenWeCallStaticResponse("/test/health");
+        thenWeExpectNoStaticResponse();
+    }
+
+    /*
+     * Given methods
+     */
+    private void givenWeHaveARouter(RouterMode mode) {
+        this.router = new OperationRouter(mockOpRepo, mode, MAX_MISSED_URLS);
+    }
+
+    private void givenTheRepositoryHasTheUsersOperation() {
+        when(mockOpRepo.findAll()).thenReturn(Collections.singletonList(USERS_OPERATION));
+    }
+
+    private void givenTheRepositoryHasBothOperations() {
+        when(mockOpRepo.findAll()).thenReturn(Arrays.asList(USERS_OPERATION, ORDERS_OPERATION));
+    }
+
+    private void givenTheRepositoryHasAStaticOperation() {
+        when(mockOpRepo.findAll()).thenReturn(Collections.singletonList(STATIC_OPERATION));
+    }
+
+    private void givenTheRepositoryHasNoOperation() {
+        when(mockOpRepo.findAll()).thenReturn(Collections.emptyList());
+    }
+
+    /*
+     * When methods
+     */
+    private void whenWeCallRoute(String url) {
+        this.match = this.router.route("GET", url);
+    }
+
+    private void whenWeCallStaticResponse(String url) {
+        this.response = this.router.staticResponse("GET", url);
+    }
+
+    private void whenWeCallInvalidate() {
+        this.router.invalidate();
+    }
+
+    /*
+     * Then methods
+     */
+    private void thenWeExpectTheOperation(String operationId) {
+        assertTrue(this.match.isPresent());
+        assertEquals(operationId, this.match.get().getOperationId());
+    }
+
+    private void thenWeExpectThePathParameter(String name, String value) {
+        assertEquals(value, this.match.get().getPathParams().get(name));
+    }
+
+    private void thenWeExpectTheRepositoryToBeCalled(int times) {
+        verify(mockOpRepo, times(times)).findAll();
+    }
+
+    private void thenWeExpectAStaticResponse() {
+        assertTrue(this.response.isPresent());
+        assertEquals(204, this.response.get().getStatusCodeValue());
+    }
+
+    private void thenWeExpectNoStaticResponse() {
+        assertFalse(this.response.isPresent());
+    }
+
+    private void thenWeExpectNoMatch() {
+        assertFalse(this.match.isPresent());
+    }
+}
@@ -0,0 +1,107 @@
+package com.mock.apimocks.services;
+
+import com.mock.apimocks.exception.UnprocessableEntityException;
+import com.mock.apimocks.models.vo.MockApi;
+import com.mock.apimocks.models.vo.MockOperation;
+import com.mock.apimocks.repository.MockApiRepository;
+import com.mock.apimocks.service.RouteOverlapGuard;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpMethod;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RouteOverlapGuardTest {
+    private static final MockApi STORED_MOCK = mock("1", "/test", "/orders/{id}");
+    private static final MockApi SHADOWING_MOCK = mock("2", "/test/", "/orders/{orderId}");
+    private static final MockApi OTHER_MOCK = mock("2", "/test", "/orders/{id}/items");
+
+    @Mock
+    private MockApiRepository mockApiRepo;
+
+    @InjectMocks
+    private RouteOverlapGuard guard;
+
+    private MockApi mock;
+
+    // Testing check
+    @Test
+    public void checkMockWithoutOverlaps() {
+        givenWeHaveStoredMocks();
+        givenWeHaveAMock(OTHER_MOCK);
+        whenWeCallCheck();
+        whenWeCallCheck();
+        thenWeExpectTheIndexToBeBuiltOnce();
+    }
+
+    @Test(expected = UnprocessableEntityException.class)
+    public void checkMockShadowingAnotherOne() {
+        givenWeHaveStoredMocks();
+        givenWeHaveAMock(SHADOWING_MOCK);
+        whenWeCallCheck();
+        thenWeExpectAnUnprocessableEntityException();
+    }
+
+    @Test
+    public void checkUpdatedMockAgainstItself() {
+        givenWeHaveStoredMocks();
+        givenWeHaveAMock(STORED_MOCK);
+        whenWeCallCheck();
+        thenWeExpectTheIndexToBeBuiltOnce();
+    }
+
+    // Testing refresh
+    @Test
+    public void refreshDeletedMock() {
+        givenWeHaveStoredMocks();
+        givenWeHaveAMock(SHADOWING_MOCK);
+        givenTheStoredMockWasDeleted();
+        whenWeCallRefresh(STORED_MOCK.getId());
+        whenWeCallCheck();
+        thenWeExpectTheIndexToBeBuiltOnce();
+    }
+
+    // Given methods
+    private void givenWeHaveStoredMocks() {
+        doReturn(Collections.singletonList(STORED_MOCK)).when(mockApiRepo).findAll();
+    }
+
+    private void givenTheStoredMockWasDeleted() {
+        guard.check(OTHER_MOCK);
+        doReturn(Optional.empty()).when(mockApiRepo).findById(STORED_MOCK.getId());
+    }
+
+    private void givenWeHaveAMock(MockApi mock) {
+        this.mock = mock;
+    }
+
+    // When methods
+    private void whenWeCallCheck() {
+        guard.check(this.mock);
+    }
+
+    private void whenWeCallRefresh(String mockId) {
+        guard.refresh(mockId);
+    }
+
+    // Then methods
+    private void thenWeExpectTheIndexToBeBuiltOnce() {
+        verify(mockApiRepo, times(1)).findAll();
+    }
+
+    private void thenWeExpectAnUnprocessableEntityException() {
+        // asserted at test scope
+    }
+
+    private static MockApi mock(String id, String basePath, String path) {
+        return MockApi.builder().id(id).basePath(basePath).operations(Collections.singletonList(
+                MockOperation.builder().id(id + "0").method(HttpMethod.GET).path(path).build())).build();
+    }
+}
@@ -1,9 +1,12 @@
 package com.mock.apimocks.validator;
 
 import com.mock.apimocks.exception.UnprocessableEntityException;
+import com.mock.apimocks.mechanism.ConditionEvaluator;
+import com.mock.apimocks.mechanism.ConditionEvaluators;
 import com.mock.apimocks.models.vo.MockApi;
 import com.mock.apimocks.models.vo.MockOperation;
 import com.mock.apimocks.models.vo.MockScenario;
+import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -14,8 +17,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+
 @RunWith(MockitoJUnitRunner.class)
 public class MockRequestValidatorTest {
+    private static final ConditionEvaluator EVALUATOR = ConditionEvaluators.create();
+
     private MockApi mock;
 
     private static final String VALID_API_BASE_PATH = "/test/api/v1/";
@@ -42,17 +49,33 @@ public class MockRequestValidatorTest {
             MockScenario.builder().isDefault(true).conditions(null).build(),
             MockScenario.builder().isDefault(false).conditions(null).build()
     );
+    private static final List<MockOperation> INVALID_CONDITION_OPERATION = Collections.singletonList(
+            MockOperation.builder().method(HttpMethod.GET).path("/operationA").scenarios(Arrays.asList(
+                    MockScenario.builder().isDefault(true).conditions(null).build(),
+                    MockScenario.builder().isDefault(false).conditions("$header.val == (1").build())).build());
     private static final List<MockOperation> VALID_OPERATIONS = Arrays.asList(
             MockOperation.builder().method(HttpMethod.GET).path("/operationA").scenarios(VALID_SCENARIOS).build(),
             MockOperation.builder().method(HttpMethod.POST).path("/operationA").scenarios(VALID_SCENARIOS).build(),
             MockOperation.builder().method(HttpMethod.GET).path("/operationB").scenarios(VALID_SCENARIOS).build(),
             MockOperation.builder().method(HttpMethod.GET).path("/operationC").scenarios(VALID_SCENARIOS).build(),
             MockOperation.builder().method(HttpMethod.PUT).path("/operationD").scenarios(VALID_SCENARIOS).build());
+    private static final List<MockOperation> TYPED_OPERATIONS = Arrays.asList(
+            MockOperation.builder().method(HttpMethod.GET).path("/orders/{id:int}").scenarios(VALID_SCENARIOS).build(),
+            MockOperation.builder().method(HttpMethod.GET).path("/orders/{id:\\d{3}}").scenarios(VALID_SCENARIOS).build(),
+            MockOperation.builder().method(HttpMethod.GET).path("/files/{rest:**}").scenarios(VALID_SCENARIOS).build());
+    private static final List<MockOperation> NON_TRAILING_CATCH_ALL_OPERATION = Collections.singletonList(
+            MockOperation.builder().method(HttpMethod.GET).path("/files/{rest:**}/info").scenarios(VALID_SCENARIOS).build());
+    private static final List<MockOperation> SLASHED_CONSTRAINT_OPERATION = Collections.singletonList(
+            MockOperation.builder().method(HttpMethod.GET).path("/files/{name:a/b}").scenarios(VALID_SCENARIOS).build());
+    private static final List<MockOperation> UNCOMPILABLE_CONSTRAINT_OPERATION = Collections.singletonList(
+            MockOperation.builder().method(HttpMethod.GET).path("/files/{name:[a}").scenarios(VALID_SCENARIOS).build());
     private static final List<MockOperation> DUPLICATED_OPERATIONS = Arrays.asList(
             MockOperation.builder().method(HttpMethod.GET).path("/operationA").build(),
             MockOperation.builder().method(HttpMethod.GET).path("/operationA").build());
     private static final List<MockOperation> INVALID_OPERATION_PATH = Collections.singletonList(
             MockOperation.builder().method(HttpMethod.PUT).path("operationA").build());
+    private static final List<MockOperation> UNCOMPILABLE_OPERATION_PATH = Collections.singletonList(
+            MockOperation.builder().method(HttpMethod.PUT).path("/operationA/report-{id:(}.json").build());
     private static final List<MockOperation> OPERATIONS_WITH_DUPLICATED_DEFAULT_SCENARIO = Collections.singletonList(
             MockOperation.builder().method(HttpMethod.GET).path("/operationA").scenarios(DUPLICATED_DEFAULT_SCENARIOS).build());
     private static final List<MockOperation> OPERATIONS_WITH_NO_DEFAULT_SCENARIO = Collections.singletonList(
@@ -67,6 +90,11 @@ public class MockRequestValidatorTest {
         this.mock = new MockApi();
     }
 
+    @AfterClass
+    public static void tearDown() {
+        EVALUATOR.shutdown();
+    }
+
     // Testing validate
     @Test
     public void validateMethodWithSuccess() {
@@ -74,6 +102,7 @@ public class MockRequestValidatorTest {
         givenWeHaveAValidSetOfOperations();
         whenWeCallValidateMethod();
         thenWeHaveNoExceptions();
+        thenWeExpectTheConditionsToBeCompiled();
     }
 
     @Test(expected = UnprocessableEntityException.class)
@@ -100,6 +129,46 @@ public class MockRequestValidatorTest {
         thenWeHaveAnUnprocessableEntityException();
     }
 
+    @Test(expected = UnprocessableEntityException.class)
+    public void validateMethodWithUncompilableOperationPath() {
+        givenWeHaveAValidBasePath();
+        givenWeHaveAnOperationWithUncompilablePath();
+        whenWeCallValidateMethod();
+        thenWeHaveAnUnprocessableEntityException();
+    }
+
+    @Test
+    public void validateMethodWithTypedPathParameters() {
+        givenWeHaveAValidBasePath();
+        givenWeHaveOperations(TYPED_OPERATIONS);
+        whenWeCallValidateMethod();
+        thenWeHaveNoExceptions();
+    }
+
+    @Test(expected = UnprocessableEntityException.class)
+    public void validateMethodWithNonTrailingCatchAllPathParameter() {
+        givenWeHaveAValidBasePath();
+        givenWeHaveOperations(NON_TRAILING_CATCH_ALL_OPERATION);
+        whenWeCallValidateMethod();
+        thenWeHaveAnUnprocessableEntityException();
+    }
+
+    @Test(expected = UnprocessableEntityException.class)
+    public void validateMethodWithSlashedPathParameterConstraint() {
+        givenWeHaveAValidBasePath();
+        givenWeHaveOperations(SLASHED_CONSTRAINT_OPERATION);
+        whenWeCallValidateMethod();
+        thenWeHaveAnUnprocessableEntityException();
+    }
+
+    @Test(expected = UnprocessableEntityException.class)
+    public void validateMethodWithUncompilablePathParameterConstraint() {
+        givenWeHaveAValidBasePath();
+        givenWeHaveOperations(UNCOMPILABLE_CONSTRAINT_OPERATION);
+        whenWeCallValidateMethod();
+        thenWeHaveAnUnprocessableEntityException();
+    }
+
     @Test(expected = UnprocessableEntityException.class)
     public void validateMethodWithDuplicatedDefaultScenario() {
         givenWeHaveAValidBasePath();
@@ -132,6 +201,14 @@ public class MockRequestValidatorTest {
         thenWeHaveAnUnprocessableEntityException();
     }
 
+    @Test(expected = UnprocessableEntityException.class)
+    public void validateMethodWithInvalidCondition() {
+        givenWeHaveAValidBasePath();
+        givenWeHaveOperations(INVALID_CONDITION_OPERATION);
+        whenWeCallValidateMethod();
+        thenWeHaveAnUnprocessableEntityException();
+    }
+
     // Given methods
     private void givenWeHaveAValidBasePath() {
         mock.setBasePath(VALID_API_BASE_PATH);
@@ -153,6 +230,14 @@ public class MockRequestValidatorTest {
         mock.setOperations(INVALID_OPERATION_PATH);
     }
 
+    private void givenWeHaveAnOperationWithUncompilablePath() {
+        mock.setOperations(UNCOMPILABLE_OPERATION_PATH);
+    }
+
+    private void givenWeHaveOperations(List<MockOperation> operations) {
+        mock.setOperations(operations);
+    }
+
     private void givenWeHaveMoreThanOneDefaultScenarioForAnOperation() {
         mock.setOperations(OPERATIONS_WITH_DUPLICATED_DEFAULT_SCENARIO);
     }
@@ -171,7 +256,7 @@ public class MockRequestValidatorTest {
 
     // When methods
     private void whenWeCallValidateMethod() {
-        MockRequestValidator.validate(this.mock);
+        MockRequestValidator.validate(this.mock, EVALUATOR);
     }
 
     // Then methods
@@ -179,6 +264,11 @@ public class MockRequestValidatorTest {
         // asserted at test scope
     }
 
+    private void thenWeExpectTheConditionsToBeCompiled() {
+        mock.getOperations().forEach(op -> op.getScenarios().stream().filter(sc -> !sc.isDefault())
+                .forEach(sc -> assertEquals(sc.getConditions(), sc.getCompiledConditions().getSource())));
+    }
+
     private void thenWeHaveAnUnprocessableEntityException() {
         // asserted at test scope
     }